@@ -0,0 +1,44 @@
+package com.makebang.common.handler;
+
+import com.pgvector.PGvector;
+import org.apache.ibatis.type.BaseTypeHandler;
+import org.apache.ibatis.type.JdbcType;
+import org.apache.ibatis.type.MappedTypes;
+
+import java.sql.CallableStatement;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * pgvector 向量类型处理器
+ * float[] 参数以 PGvector 类型对象绑定，SQL 中无需 ::vector 转换；vector 列读取为 float[]
+ */
+@MappedTypes(float[].class)
+public class VectorTypeHandler extends BaseTypeHandler<float[]> {
+
+    @Override
+    public void setNonNullParameter(PreparedStatement ps, int i, float[] parameter, JdbcType jdbcType)
+            throws SQLException {
+        ps.setObject(i, new PGvector(parameter));
+    }
+
+    @Override
+    public float[] getNullableResult(ResultSet rs, String columnName) throws SQLException {
+        return toArray(rs.getString(columnName));
+    }
+
+    @Override
+    public float[] getNullableResult(ResultSet rs, int columnIndex) throws SQLException {
+        return toArray(rs.getString(columnIndex));
+    }
+
+    @Override
+    public float[] getNullableResult(CallableStatement cs, int columnIndex) throws SQLException {
+        return toArray(cs.getString(columnIndex));
+    }
+
+    private static float[] toArray(String value) throws SQLException {
+        return value != null ? new PGvector(value).toArray() : null;
+    }
+}
@@ -0,0 +1,46 @@
+package com.makebang.common.result;
+
+import lombok.Data;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * 游标分页响应结果
+ * 按 (created_at, id) 倒序翻页，不统计总数
+ *
+ * @param <T> 数据类型
+ */
+@Data
+public class CursorPageResult<T> implements Serializable {
+
+    /**
+     * 每页数量
+     */
+    private int size;
+
+    /**
+     * 是否还有更多数据
+     */
+    private boolean hasMore;
+
+    /**
+     * 下一页游标，没有更多数据时为空
+     */
+    private String nextCursor;
+
+    /**
+     * 数据列表
+     */
+    private List<T> records;
+
+    public CursorPageResult() {
+    }
+
+    public CursorPageResult(int size, boolean hasMore, String nextCursor, List<T> records) {
+        this.size = size;
+        this.hasMore = hasMore;
+        this.nextCursor = nextCursor;
+        this.records = records;
+    }
+}
@@ -0,0 +1,69 @@
+package com.makebang.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 项目推荐程序员配置
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "makebang.developer-match")
+public class DeveloperMatchConfig {
+
+    /**
+     * 是否启用定时刷新（程序员技能向量生成和排名预计算）
+     */
+    private boolean enabled = true;
+
+    /**
+     * 每个项目按技能向量取的候选程序员数
+     */
+    private int candidates = 200;
+
+    /**
+     * 每个项目保存的排名数
+     */
+    private int size = 50;
+
+    /**
+     * 单次刷新最多重新计算的项目数
+     */
+    private int refreshBatchSize = 200;
+
+    /**
+     * 排名有效期（秒），评分和完成订单数的变化在过期重算时生效
+     */
+    private long maxAge = 86400;
+
+    /**
+     * 程序员资料变化时，按技能向量标记需要重算的最相近项目数
+     */
+    private int affectedProjects = 100;
+
+    /**
+     * 向量相似度权重
+     */
+    private double similarityWeight = 0.5;
+
+    /**
+     * 技能重合比例权重
+     */
+    private double skillWeight = 0.25;
+
+    /**
+     * 平均评分权重（按5分归一化）
+     */
+    private double ratingWeight = 0.15;
+
+    /**
+     * 完成订单数权重（按对数归一化到 ordersCap）
+     */
+    private double ordersWeight = 0.1;
+
+    /**
+     * 完成订单数达到此值时该项得满分
+     */
+    private int ordersCap = 50;
+}
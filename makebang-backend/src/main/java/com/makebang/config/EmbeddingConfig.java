@@ -52,6 +52,87 @@ public class EmbeddingConfig {
      */
     private int batchSize = 100;
 
+    /**
+     * 批量生成时的最大并发请求数
+     */
+    private int concurrency = 4;
+
+    /**
+     * 定时任务单次最多处理的项目数
+     */
+    private int backfillLimit = 100000;
+
+    /**
+     * 查询向量本地缓存条数
+     */
+    private int queryCacheSize = 5000;
+
+    /**
+     * 查询向量Redis缓存有效期（秒）
+     */
+    private long queryCacheTtl = 604800;
+
+    /**
+     * HNSW 查询候选列表大小（hnsw.ef_search），越大召回越高、越慢，需不小于返回数量
+     */
+    private int hnswEfSearch = 100;
+
+    /**
+     * IVFFlat 查询探测的聚类数（ivfflat.probes），仅使用 IVFFlat 索引时生效
+     */
+    private int ivfflatProbes = 10;
+
+    /**
+     * 混合搜索中语义检索的候选数量
+     */
+    private int hybridCandidates = 200;
+
+    /**
+     * 混合搜索倒数排名融合（RRF）常数 k
+     */
+    private int rrfK = 60;
+
+    /**
+     * 两阶段检索的粗排维度：大于0时先在前 N 维的半精度（halfvec）索引上取候选，再用完整向量重排；
+     * 0 表示直接查询完整向量索引。需与迁移中建立的表达式索引维度一致（默认 256）
+     */
+    private int coarseDimensions = 0;
+
+    /**
+     * 两阶段检索粗排阶段的候选数量，不小于返回数量
+     */
+    private int rerankCandidates = 400;
+
+    /**
+     * 是否启用进程内向量索引（HNSW，向量存于内存映射文件），启用后语义搜索不再查询 pgvector
+     */
+    private boolean localIndex = false;
+
+    /**
+     * 进程内向量索引文件目录
+     */
+    private String localIndexPath = "./data/vector-index";
+
+    /**
+     * 进程内 HNSW 每层最大连接数
+     */
+    private int localIndexM = 16;
+
+    /**
+     * 进程内 HNSW 构建时的候选列表大小
+     */
+    private int localIndexEfConstruction = 100;
+
+    /**
+     * 进程内 HNSW 查询候选列表大小
+     */
+    private int localIndexEfSearch = 100;
+
+    /**
+     * 进程内索引从数据库增量同步的间隔（毫秒）
+     */
+    private long localIndexSyncInterval = 5000;
+
     /**
      * 最小相似度阈值
      */
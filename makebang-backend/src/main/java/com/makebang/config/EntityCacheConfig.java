@@ -0,0 +1,44 @@
+package com.makebang.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 实体二级缓存配置（用户、项目按ID读取）
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "makebang.entity-cache")
+public class EntityCacheConfig {
+
+    /**
+     * 是否启用，关闭后直接查库
+     */
+    private boolean enabled = true;
+
+    /**
+     * 每种实体的本地缓存最大条数
+     */
+    private long localMaxSize = 10000;
+
+    /**
+     * 本地缓存有效期（秒），兜底未收到失效广播的情况
+     */
+    private long localTtl = 60;
+
+    /**
+     * Redis缓存有效期（秒）
+     */
+    private long redisTtl = 600;
+
+    /**
+     * 提交后再次失效的延迟（毫秒），清除并发读取在首次失效后写回的旧值
+     */
+    private long secondEvictDelay = 1000;
+
+    /**
+     * 失效广播频道
+     */
+    private String channel = "makebang:entity-cache:invalidate";
+}
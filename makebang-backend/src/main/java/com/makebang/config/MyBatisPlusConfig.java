@@ -5,7 +5,10 @@ import com.baomidou.mybatisplus.core.handlers.MetaObjectHandler;
 import com.baomidou.mybatisplus.extension.plugins.MybatisPlusInterceptor;
 import com.baomidou.mybatisplus.extension.plugins.inner.OptimisticLockerInnerInterceptor;
 import com.baomidou.mybatisplus.extension.plugins.inner.PaginationInnerInterceptor;
+import com.makebang.service.cache.EntityCacheInterceptor;
+import com.makebang.service.cache.EntityCacheManager;
 import org.apache.ibatis.reflection.MetaObject;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -35,6 +38,14 @@ public class MyBatisPlusConfig {
         return interceptor;
     }
 
+    /**
+     * 实体缓存失效插件（延迟获取缓存管理器，避免与仓库循环依赖）
+     */
+    @Bean
+    public EntityCacheInterceptor entityCacheInterceptor(ObjectProvider<EntityCacheManager> entityCacheManager) {
+        return new EntityCacheInterceptor(entityCacheManager);
+    }
+
     /**
      * 自动填充处理器
      */
@@ -0,0 +1,29 @@
+package com.makebang.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 项目详情缓存配置
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "makebang.project-cache")
+public class ProjectCacheConfig {
+
+    /**
+     * 详情缓存有效期（毫秒），其他实例上的修改最多延迟这么久可见
+     */
+    private long detailTtl = 5000;
+
+    /**
+     * 详情缓存最大条数
+     */
+    private int detailMaxEntries = 10000;
+
+    /**
+     * 写入后超过该时间（毫秒）的首个请求触发后台刷新，刷新期间返回旧值；需小于 detailTtl
+     */
+    private long detailRefreshAfter = 4000;
+}
@@ -0,0 +1,29 @@
+package com.makebang.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 项目浏览计数配置
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "makebang.project-view")
+public class ProjectViewConfig {
+
+    /**
+     * 浏览量和独立访客写出间隔（毫秒）
+     */
+    private long flushInterval = 5000;
+
+    /**
+     * 两次写出之间最多缓存的独立访客记录数，超出后丢弃（只影响独立访客估算）
+     */
+    private int maxPendingViewers = 100000;
+
+    /**
+     * 独立访客 HyperLogLog 的有效期（秒），每次有新访客时续期
+     */
+    private long uniqueViewerTtl = 7776000;
+}
@@ -0,0 +1,54 @@
+package com.makebang.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 实时推送配置
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "makebang.push")
+public class PushConfig {
+
+    /**
+     * SSE连接超时时间（毫秒），超时后客户端自动重连
+     */
+    private long emitterTimeout = 1800000;
+
+    /**
+     * 心跳间隔（毫秒），防止代理断开空闲连接
+     */
+    private long heartbeatInterval = 25000;
+
+    /**
+     * 每个连接的待发送队列长度，超出后丢弃新事件
+     */
+    private int subscriberQueueSize = 256;
+
+    /**
+     * 单个用户的最大连接数，超出后关闭最早的连接
+     */
+    private int maxConnectionsPerUser = 5;
+
+    /**
+     * 发送线程数
+     */
+    private int senderThreads = 8;
+
+    /**
+     * 发送线程池的等待队列长度，队列满时丢弃事件
+     */
+    private int senderQueueSize = 10000;
+
+    /**
+     * 连接票据有效期（毫秒）
+     */
+    private long ticketTtl = 30000;
+
+    /**
+     * 跨节点转发使用的Redis频道
+     */
+    private String channel = "makebang:push";
+}
@@ -0,0 +1,58 @@
+package com.makebang.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 搜索统计写入配置
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "makebang.search-analytics")
+public class SearchAnalyticsConfig {
+
+    /**
+     * 内存环形缓冲区容量（向上取整为2的幂）
+     */
+    private int bufferCapacity = 8192;
+
+    /**
+     * 刷写间隔（毫秒）
+     */
+    private long flushInterval = 1000;
+
+    /**
+     * 单条批量插入的最大行数
+     */
+    private int batchSize = 500;
+
+    /**
+     * 缓冲区满时的处理策略
+     */
+    private OverflowPolicy overflowPolicy = OverflowPolicy.DROP;
+
+    /**
+     * 溢出事件暂存的Redis列表键
+     */
+    private String spillKey = "search:analytics:spill";
+
+    /**
+     * Redis溢出列表最大长度，超出后丢弃最旧的事件
+     */
+    private long spillMaxSize = 100000;
+
+    /**
+     * 缓冲区满时的处理策略
+     */
+    public enum OverflowPolicy {
+        /**
+         * 直接丢弃新事件
+         */
+        DROP,
+        /**
+         * 写入Redis列表，由刷写线程稍后补写
+         */
+        SPILL
+    }
+}
@@ -0,0 +1,49 @@
+package com.makebang.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 项目搜索引擎配置
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "makebang.search")
+public class SearchConfig {
+
+    /**
+     * 搜索引擎: database（PostgreSQL 全文检索）, lucene（嵌入式 Lucene 索引）
+     */
+    private String provider = "database";
+
+    /**
+     * Lucene 索引目录
+     */
+    private String indexPath = "./data/search-index";
+
+    /**
+     * 索引重新打开的最长间隔（毫秒），即写入后最迟多久可被搜到
+     */
+    private long refreshInterval = 1000;
+
+    /**
+     * 索引提交落盘间隔（毫秒）
+     */
+    private long commitInterval = 60000;
+
+    /**
+     * 全量重建时每批从数据库读取的项目数
+     */
+    private int rebuildBatchSize = 1000;
+
+    /**
+     * 全量重建时并发写入索引的线程数
+     */
+    private int rebuildConcurrency = 4;
+
+    /**
+     * 分页可访问的最大结果数（页码 × 每页大小）
+     */
+    private int maxWindow = 10000;
+}
@@ -0,0 +1,39 @@
+package com.makebang.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 搜索联想索引配置
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "makebang.search-suggestion")
+public class SearchSuggestionConfig {
+
+    /**
+     * 每个前缀节点缓存的候选数（单次联想最多返回该数量）
+     */
+    private int topK = 20;
+
+    /**
+     * 索引收录的关键词上限（按搜索次数取前N）
+     */
+    private int maxKeywords = 50000;
+
+    /**
+     * 从数据库全量重建索引的间隔（毫秒），用于纠正清理等造成的偏差
+     */
+    private long rebuildInterval = 600000;
+
+    /**
+     * 热门技能快照刷新间隔（毫秒）
+     */
+    private long hotSkillsRefreshInterval = 300000;
+
+    /**
+     * 热门技能快照大小
+     */
+    private int hotSkillsSize = 10;
+}
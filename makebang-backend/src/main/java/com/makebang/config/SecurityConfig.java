@@ -4,6 +4,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.makebang.common.result.Result;
 import com.makebang.common.result.ResultCode;
 import com.makebang.security.JwtAuthenticationFilter;
+import jakarta.servlet.DispatcherType;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
@@ -64,6 +65,10 @@ public class SecurityConfig {
                 // 配置授权规则
                 .authorizeHttpRequests(auth -> auth
                         .requestMatchers(WHITE_LIST).permitAll()
+                        // SSE推送完成时的异步分派不再重复鉴权
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+                        // 运行指标仅管理员可见
+                        .requestMatchers("/actuator/metrics/**").hasAnyRole("ADMIN", "SUPER_ADMIN")
                         .anyRequest().authenticated())
                 // 异常处理
                 .exceptionHandling(exception -> exception
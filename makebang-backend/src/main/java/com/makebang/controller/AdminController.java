@@ -13,6 +13,8 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 /**
  * 管理后台控制器
  */
@@ -101,6 +103,14 @@ public class AdminController {
         return Result.success();
     }
 
+    // ========== 分类管理 ==========
+
+    @Operation(summary = "刷新分类缓存")
+    @PostMapping("/categories/refresh")
+    public Result<List<CategoryVO>> refreshCategories() {
+        return Result.success(adminService.refreshCategories());
+    }
+
     // ========== 订单管理 ==========
 
     @Operation(summary = "分页查询订单列表")
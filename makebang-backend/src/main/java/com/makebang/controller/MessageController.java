@@ -1,6 +1,7 @@
 package com.makebang.controller;
 
 import com.baomidou.mybatisplus.core.metadata.IPage;
+import com.makebang.common.result.CursorPageResult;
 import com.makebang.common.result.Result;
 import com.makebang.dto.message.SendMessageRequest;
 import com.makebang.service.MessageService;
@@ -9,7 +10,9 @@ import com.makebang.vo.MessageVO;
 import com.makebang.vo.NotificationVO;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -45,6 +48,33 @@ public class MessageController {
         return Result.success(messageService.getConversationMessages(conversationId, current, size));
     }
 
+    /**
+     * 游标分页获取会话消息列表
+     */
+    @GetMapping("/conversation/{conversationId}/cursor")
+    public Result<CursorPageResult<MessageVO>> getConversationMessagesByCursor(
+            @PathVariable Long conversationId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+        return Result.success(messageService.getConversationMessagesByCursor(conversationId, cursor, size));
+    }
+
+    /**
+     * 获取推送连接票据，随后以 /stream?ticket= 建立连接
+     */
+    @PostMapping("/stream/ticket")
+    public Result<Map<String, String>> createStreamTicket() {
+        return Result.success(Map.of("ticket", messageService.createStreamTicket()));
+    }
+
+    /**
+     * 订阅实时推送（SSE），票据一次有效
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream() {
+        return messageService.subscribe();
+    }
+
     /**
      * 获取未读消息数
      */
@@ -115,6 +145,17 @@ public class MessageController {
         return Result.success(messageService.getNotifications(type, current, size));
     }
 
+    /**
+     * 游标分页获取通知列表
+     */
+    @GetMapping("/notifications/cursor")
+    public Result<CursorPageResult<NotificationVO>> getNotificationsByCursor(
+            @RequestParam(required = false) Integer type,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        return Result.success(messageService.getNotificationsByCursor(type, cursor, size));
+    }
+
     /**
      * 标记通知为已读
      */
@@ -5,14 +5,18 @@ import com.makebang.common.result.Result;
 import com.makebang.dto.project.CreateProjectRequest;
 import com.makebang.dto.project.ProjectQueryRequest;
 import com.makebang.dto.project.UpdateProjectRequest;
+import com.makebang.service.DeveloperMatchService;
 import com.makebang.service.ProjectService;
+import com.makebang.service.category.CategoryTree;
 import com.makebang.vo.CategoryVO;
 import com.makebang.vo.ProjectVO;
+import com.makebang.vo.RecommendedDeveloperVO;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -26,6 +30,7 @@ import java.util.List;
 public class ProjectController {
 
     private final ProjectService projectService;
+    private final DeveloperMatchService developerMatchService;
 
     @Operation(summary = "发布项目")
     @PostMapping
@@ -84,12 +89,26 @@ public class ProjectController {
         return Result.success(projectService.getMyProjects(status, current, size));
     }
 
+    @Operation(summary = "获取项目推荐程序员")
+    @GetMapping("/{id}/recommended-developers")
+    public Result<List<RecommendedDeveloperVO>> getRecommendedDevelopers(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "20") Integer limit
+    ) {
+        return Result.success(developerMatchService.getRecommendedDevelopers(id, limit));
+    }
+
     // ========== 公开接口(无需登录) ==========
 
     @Operation(summary = "获取项目分类")
     @GetMapping("/public/categories")
-    public Result<List<CategoryVO>> getCategories() {
-        return Result.success(projectService.getAllCategories());
+    public Result<List<CategoryVO>> getCategories(WebRequest webRequest) {
+        CategoryTree tree = projectService.getCategoryTree();
+        // 分类未变化时只返回304
+        if (webRequest.checkNotModified(tree.getEtag())) {
+            return null;
+        }
+        return Result.success(tree.getRoots());
     }
 
     @Operation(summary = "获取热门技能标签")
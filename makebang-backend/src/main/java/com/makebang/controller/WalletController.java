@@ -1,6 +1,7 @@
 package com.makebang.controller;
 
 import com.baomidou.mybatisplus.core.metadata.IPage;
+import com.makebang.common.result.CursorPageResult;
 import com.makebang.common.result.Result;
 import com.makebang.dto.RechargeRequest;
 import com.makebang.dto.WithdrawRequest;
@@ -58,6 +59,17 @@ public class WalletController {
         return Result.success(walletService.getTransactions(type, current, size));
     }
 
+    /**
+     * 游标分页获取交易记录
+     */
+    @GetMapping("/transactions/cursor")
+    public Result<CursorPageResult<TransactionVO>> getTransactionsByCursor(
+            @RequestParam(required = false) Integer type,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        return Result.success(walletService.getTransactionsByCursor(type, cursor, size));
+    }
+
     /**
      * 获取订单相关交易记录
      */
@@ -47,7 +47,7 @@ public class ProjectQueryRequest {
     private Long userId;
 
     /**
-     * 排序字段: created_at, budget_max, view_count, bid_count
+     * 排序字段: created_at, budget_max, view_count, bid_count, relevance（按关键词相关度）
      */
     private String sortBy = "created_at";
 
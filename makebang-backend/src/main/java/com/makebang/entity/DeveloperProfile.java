@@ -0,0 +1,83 @@
+package com.makebang.entity;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableField;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import com.baomidou.mybatisplus.extension.handlers.JacksonTypeHandler;
+import com.makebang.common.handler.VectorTypeHandler;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 程序员资料实体
+ */
+@Data
+@EqualsAndHashCode(callSuper = true)
+@TableName(value = "developer_profile", autoResultMap = true)
+public class DeveloperProfile extends BaseEntity {
+
+    @TableId(type = IdType.AUTO)
+    private Long id;
+
+    /**
+     * 用户ID
+     */
+    private Long userId;
+
+    /**
+     * 技能列表
+     */
+    @TableField(typeHandler = JacksonTypeHandler.class)
+    private List<String> skills;
+
+    /**
+     * 工作经验年限
+     */
+    private Integer experienceYears;
+
+    /**
+     * 时薪
+     */
+    private BigDecimal hourlyRate;
+
+    /**
+     * 个人简介
+     */
+    private String bio;
+
+    /**
+     * GitHub地址
+     */
+    private String githubUrl;
+
+    /**
+     * 认证状态
+     */
+    private Integer certificationStatus;
+
+    /**
+     * 信用分
+     */
+    private BigDecimal creditScore;
+
+    /**
+     * 技能语义向量（1536维），由资料内容生成
+     */
+    @TableField(typeHandler = VectorTypeHandler.class, select = false)
+    private float[] skillEmbedding;
+
+    /**
+     * 技能向量对应的资料内容哈希
+     */
+    private String skillContentHash;
+
+    /**
+     * 技能向量生成时间
+     */
+    private LocalDateTime skillEmbeddedAt;
+}
@@ -0,0 +1,59 @@
+package com.makebang.entity;
+
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * 项目推荐程序员排名实体（预计算）
+ */
+@Data
+@TableName("project_developer_match")
+public class ProjectDeveloperMatch {
+
+    /**
+     * 项目ID
+     */
+    private Long projectId;
+
+    /**
+     * 程序员用户ID
+     */
+    private Long developerId;
+
+    /**
+     * 排名（从1开始）
+     */
+    private Integer rank;
+
+    /**
+     * 综合分
+     */
+    private Double score;
+
+    /**
+     * 技能向量与项目向量的余弦相似度
+     */
+    private Double similarity;
+
+    /**
+     * 项目技能要求中程序员具备的比例
+     */
+    private Double skillOverlap;
+
+    /**
+     * 平均评分
+     */
+    private Double avgRating;
+
+    /**
+     * 完成订单数
+     */
+    private Integer completedOrders;
+
+    /**
+     * 计算时间
+     */
+    private LocalDateTime createdAt;
+}
@@ -4,6 +4,7 @@ import com.baomidou.mybatisplus.annotation.IdType;
 import com.baomidou.mybatisplus.annotation.TableField;
 import com.baomidou.mybatisplus.annotation.TableId;
 import com.baomidou.mybatisplus.annotation.TableName;
+import com.makebang.common.handler.VectorTypeHandler;
 import lombok.Data;
 
 import java.time.LocalDateTime;
@@ -12,7 +13,7 @@ import java.time.LocalDateTime;
  * 项目语义向量实体
  */
 @Data
-@TableName("project_embedding")
+@TableName(value = "project_embedding", autoResultMap = true)
 public class ProjectEmbedding {
 
     @TableId(type = IdType.AUTO)
@@ -25,9 +26,8 @@ public class ProjectEmbedding {
 
     /**
      * 语义向量（1536维）
-     * 注意：MyBatis-Plus 不直接支持 vector 类型，需要通过自定义 SQL 处理
      */
-    @TableField(exist = false)
+    @TableField(typeHandler = VectorTypeHandler.class)
     private float[] embedding;
 
     /**
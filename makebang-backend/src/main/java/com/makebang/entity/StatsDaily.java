@@ -0,0 +1,54 @@
+package com.makebang.entity;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * 平台每日统计汇总实体
+ */
+@Data
+@TableName("stats_daily")
+public class StatsDaily {
+
+    /**
+     * 统计日期
+     */
+    @TableId(type = IdType.INPUT)
+    private LocalDate statDate;
+
+    /**
+     * 新增用户数
+     */
+    private Long newUsers;
+
+    /**
+     * 新增订单数
+     */
+    private Long newOrders;
+
+    /**
+     * 完成订单数
+     */
+    private Long completedOrders;
+
+    /**
+     * 完成订单金额
+     */
+    private BigDecimal completedOrderAmount;
+
+    /**
+     * 平台服务费收入
+     */
+    private BigDecimal platformIncome;
+
+    /**
+     * 更新时间
+     */
+    private LocalDateTime updatedAt;
+}
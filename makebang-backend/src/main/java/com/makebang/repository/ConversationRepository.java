@@ -5,6 +5,7 @@ import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.makebang.entity.Conversation;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Options;
 import org.apache.ibatis.annotations.Param;
 import org.apache.ibatis.annotations.Select;
 import org.apache.ibatis.annotations.Update;
@@ -32,24 +33,22 @@ public interface ConversationRepository extends BaseMapper<Conversation> {
     Conversation findPrivateConversation(@Param("userId1") Long userId1, @Param("userId2") Long userId2);
 
     /**
-     * 查询订单会话
+     * 创建私聊会话，两人之间已存在会话时不插入并返回null
+     * 依赖 (LEAST, GREATEST) 参与者唯一索引，并发创建不会产生重复会话
      */
-    @Select("SELECT * FROM conversation WHERE type = 2 AND order_id = #{orderId} AND deleted_at IS NULL LIMIT 1")
-    Conversation findByOrderId(@Param("orderId") Long orderId);
-
-    /**
-     * 更新参与者1的未读数
-     */
-    @Update("UPDATE conversation SET participant1_unread = participant1_unread + 1, updated_at = NOW() " +
-            "WHERE id = #{id} AND deleted_at IS NULL")
-    int incrementParticipant1Unread(@Param("id") Long id);
+    @Select("INSERT INTO conversation (type, participant1_id, participant2_id, participant1_unread, participant2_unread, " +
+            "created_at, updated_at) VALUES (1, #{userId1}, #{userId2}, 0, 0, NOW(), NOW()) " +
+            "ON CONFLICT ((LEAST(participant1_id, participant2_id)), (GREATEST(participant1_id, participant2_id))) " +
+            "WHERE type = 1 AND deleted_at IS NULL DO NOTHING " +
+            "RETURNING *")
+    @Options(flushCache = Options.FlushCachePolicy.TRUE)
+    Conversation insertPrivateIfAbsent(@Param("userId1") Long userId1, @Param("userId2") Long userId2);
 
     /**
-     * 更新参与者2的未读数
+     * 查询订单会话
      */
-    @Update("UPDATE conversation SET participant2_unread = participant2_unread + 1, updated_at = NOW() " +
-            "WHERE id = #{id} AND deleted_at IS NULL")
-    int incrementParticipant2Unread(@Param("id") Long id);
+    @Select("SELECT * FROM conversation WHERE type = 2 AND order_id = #{orderId} AND deleted_at IS NULL LIMIT 1")
+    Conversation findByOrderId(@Param("orderId") Long orderId);
 
     /**
      * 清空参与者1的未读数
@@ -64,11 +63,4 @@ public interface ConversationRepository extends BaseMapper<Conversation> {
     @Update("UPDATE conversation SET participant2_unread = 0, updated_at = NOW() " +
             "WHERE id = #{id} AND deleted_at IS NULL")
     int clearParticipant2Unread(@Param("id") Long id);
-
-    /**
-     * 更新最后消息
-     */
-    @Update("UPDATE conversation SET last_message_id = #{messageId}, last_message_content = #{content}, " +
-            "last_message_at = NOW(), updated_at = NOW() WHERE id = #{id} AND deleted_at IS NULL")
-    int updateLastMessage(@Param("id") Long id, @Param("messageId") Long messageId, @Param("content") String content);
 }
@@ -0,0 +1,92 @@
+package com.makebang.repository;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.baomidou.mybatisplus.extension.handlers.JacksonTypeHandler;
+import com.makebang.entity.DeveloperProfile;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import org.apache.ibatis.annotations.*;
+
+import java.util.List;
+
+/**
+ * 程序员资料数据访问层
+ */
+@Mapper
+public interface DeveloperProfileRepository extends BaseMapper<DeveloperProfile> {
+
+    /**
+     * 按用户ID顺序查询需要生成技能向量的资料（无向量或资料在向量生成后有更新）
+     */
+    @Select("""
+            SELECT user_id, skills, experience_years, bio, skill_content_hash
+            FROM developer_profile
+            WHERE deleted_at IS NULL AND user_id > #{afterId}
+              AND (skill_embedding IS NULL OR skill_embedded_at IS NULL OR skill_embedded_at < updated_at)
+            ORDER BY user_id
+            LIMIT #{limit}
+            """)
+    @Results({
+            @Result(column = "user_id", property = "userId"),
+            @Result(column = "skills", property = "skills",
+                    javaType = List.class, typeHandler = JacksonTypeHandler.class),
+            @Result(column = "experience_years", property = "experienceYears"),
+            @Result(column = "skill_content_hash", property = "skillContentHash")
+    })
+    List<StaleProfile> findStaleProfiles(@Param("afterId") long afterId, @Param("limit") int limit);
+
+    /**
+     * 批量写入技能向量（多行一条语句）
+     */
+    @Update("""
+            <script>
+            UPDATE developer_profile d SET
+                skill_embedding = v.embedding,
+                skill_content_hash = v.content_hash,
+                skill_embedded_at = CURRENT_TIMESTAMP
+            FROM (VALUES
+            <foreach collection="rows" item="row" separator=",">
+                (#{row.userId}::bigint, #{row.embedding}::vector, #{row.contentHash}::varchar)
+            </foreach>
+            ) AS v(user_id, embedding, content_hash)
+            WHERE d.user_id = v.user_id
+            </script>
+            """)
+    int batchUpdateSkillEmbeddings(@Param("rows") List<SkillVectorRow> rows);
+
+    /**
+     * 内容未变化的资料只更新向量生成时间
+     */
+    @Update("""
+            <script>
+            UPDATE developer_profile SET skill_embedded_at = CURRENT_TIMESTAMP WHERE user_id IN
+            <foreach collection="userIds" item="id" open="(" separator="," close=")">
+                #{id}
+            </foreach>
+            </script>
+            """)
+    int touchSkillEmbedded(@Param("userIds") List<Long> userIds);
+
+    /**
+     * 待写入的技能向量行
+     */
+    @Data
+    @AllArgsConstructor
+    class SkillVectorRow {
+        private Long userId;
+        private float[] embedding;
+        private String contentHash;
+    }
+
+    /**
+     * 需要生成技能向量的资料
+     */
+    @Data
+    class StaleProfile {
+        private Long userId;
+        private List<String> skills;
+        private Integer experienceYears;
+        private String bio;
+        private String skillContentHash;
+    }
+}
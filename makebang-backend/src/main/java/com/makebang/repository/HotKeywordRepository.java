@@ -2,6 +2,7 @@ package com.makebang.repository;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.makebang.entity.HotKeyword;
+import org.apache.ibatis.annotations.Insert;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 import org.apache.ibatis.annotations.Select;
@@ -31,6 +32,21 @@ public interface HotKeywordRepository extends BaseMapper<HotKeyword> {
     @Select("SELECT update_hot_keyword(#{keyword})")
     void updateHotKeyword(@Param("keyword") String keyword);
 
+    /**
+     * 批量累加热门关键词
+     * searchCount 为本次刷写窗口内的增量，同一语句内关键词不可重复
+     */
+    @Insert("<script>" +
+            "INSERT INTO hot_keyword (keyword, search_count, last_searched_at) VALUES " +
+            "<foreach collection='list' item='k' separator=','>" +
+            "(#{k.keyword}, #{k.searchCount}, #{k.lastSearchedAt})" +
+            "</foreach> " +
+            "ON CONFLICT (keyword) DO UPDATE SET " +
+            "search_count = hot_keyword.search_count + EXCLUDED.search_count, " +
+            "last_searched_at = GREATEST(hot_keyword.last_searched_at, EXCLUDED.last_searched_at)" +
+            "</script>")
+    int batchIncrement(@Param("list") List<HotKeyword> increments);
+
     /**
      * 根据前缀获取热门关键词（用于搜索建议）
      */
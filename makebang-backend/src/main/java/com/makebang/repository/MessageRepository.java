@@ -4,17 +4,43 @@ import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.makebang.entity.Message;
+import lombok.Data;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Options;
 import org.apache.ibatis.annotations.Param;
 import org.apache.ibatis.annotations.Select;
 import org.apache.ibatis.annotations.Update;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
 /**
  * 消息Repository
  */
 @Mapper
 public interface MessageRepository extends BaseMapper<Message> {
 
+    /**
+     * 插入消息并在同一语句中更新会话的最后消息和接收者未读数，会话行只加锁一次
+     *
+     * @return 新消息ID
+     */
+    @Select("WITH msg AS (" +
+            "INSERT INTO message (conversation_id, sender_id, receiver_id, type, content, attachment_url, attachment_name, " +
+            "is_read, created_at, updated_at) VALUES (#{m.conversationId}, #{m.senderId}, #{m.receiverId}, #{m.type}, " +
+            "#{m.content}, #{m.attachmentUrl}, #{m.attachmentName}, false, #{m.createdAt}, #{m.updatedAt}) " +
+            "RETURNING id, created_at), " +
+            "conv AS (" +
+            "UPDATE conversation c SET last_message_id = msg.id, last_message_content = #{lastContent}, " +
+            "last_message_at = msg.created_at, updated_at = NOW(), " +
+            "participant1_unread = c.participant1_unread + CASE WHEN c.participant1_id = #{m.receiverId} THEN 1 ELSE 0 END, " +
+            "participant2_unread = c.participant2_unread + CASE WHEN c.participant1_id = #{m.receiverId} THEN 0 ELSE 1 END " +
+            "FROM msg WHERE c.id = #{m.conversationId} AND c.deleted_at IS NULL) " +
+            "SELECT id FROM msg")
+    @Options(flushCache = Options.FlushCachePolicy.TRUE)
+    Long insertAndUpdateConversation(@Param("m") Message message, @Param("lastContent") String lastContent);
+
     /**
      * 分页查询会话消息
      */
@@ -22,12 +48,35 @@ public interface MessageRepository extends BaseMapper<Message> {
             "ORDER BY created_at DESC")
     IPage<Message> findByConversationId(Page<Message> page, @Param("conversationId") Long conversationId);
 
+    /**
+     * 游标分页查询会话消息（按 created_at, id 倒序，limit 通常为页大小 + 1）
+     */
+    @Select("<script>" +
+            "SELECT * FROM message WHERE conversation_id = #{conversationId} AND deleted_at IS NULL " +
+            "<if test='cursorTime != null'>AND (created_at, id) &lt; (#{cursorTime}, #{cursorId}) </if>" +
+            "ORDER BY created_at DESC, id DESC LIMIT #{limit}" +
+            "</script>")
+    List<Message> findByConversationIdAfterCursor(@Param("conversationId") Long conversationId,
+                                                  @Param("cursorTime") LocalDateTime cursorTime,
+                                                  @Param("cursorId") Long cursorId,
+                                                  @Param("limit") int limit);
+
     /**
      * 统计未读消息数
      */
     @Select("SELECT COUNT(*) FROM message WHERE receiver_id = #{userId} AND is_read = false AND deleted_at IS NULL")
     int countUnreadByUserId(@Param("userId") Long userId);
 
+    /**
+     * 批量统计用户未读消息数（用于未读计数校准）
+     */
+    @Select("<script>" +
+            "SELECT receiver_id AS user_id, COUNT(*) AS count FROM message " +
+            "WHERE receiver_id IN <foreach collection='userIds' item='id' open='(' separator=',' close=')'>#{id}</foreach> " +
+            "AND is_read = false AND deleted_at IS NULL GROUP BY receiver_id" +
+            "</script>")
+    List<UnreadCount> countUnreadByUserIds(@Param("userIds") Collection<Long> userIds);
+
     /**
      * 统计会话未读消息数
      */
@@ -49,4 +98,13 @@ public interface MessageRepository extends BaseMapper<Message> {
     @Update("UPDATE message SET is_read = true, read_at = NOW(), updated_at = NOW() " +
             "WHERE id = #{id} AND deleted_at IS NULL")
     int markAsRead(@Param("id") Long id);
+
+    /**
+     * 用户未读数统计结果
+     */
+    @Data
+    class UnreadCount {
+        private Long userId;
+        private Integer count;
+    }
 }
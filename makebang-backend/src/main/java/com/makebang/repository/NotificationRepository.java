@@ -9,6 +9,10 @@ import org.apache.ibatis.annotations.Param;
 import org.apache.ibatis.annotations.Select;
 import org.apache.ibatis.annotations.Update;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
 /**
  * 通知Repository
  */
@@ -25,12 +29,46 @@ public interface NotificationRepository extends BaseMapper<Notification> {
             "</script>")
     IPage<Notification> findByUserId(Page<Notification> page, @Param("userId") Long userId, @Param("type") Integer type);
 
+    /**
+     * 游标分页查询用户通知（按 created_at, id 倒序，limit 通常为页大小 + 1）
+     */
+    @Select("<script>" +
+            "SELECT * FROM notification WHERE user_id = #{userId} AND deleted_at IS NULL " +
+            "<if test='type != null'>AND type = #{type} </if>" +
+            "<if test='cursorTime != null'>AND (created_at, id) &lt; (#{cursorTime}, #{cursorId}) </if>" +
+            "ORDER BY created_at DESC, id DESC LIMIT #{limit}" +
+            "</script>")
+    List<Notification> findByUserIdAfterCursor(@Param("userId") Long userId,
+                                               @Param("type") Integer type,
+                                               @Param("cursorTime") LocalDateTime cursorTime,
+                                               @Param("cursorId") Long cursorId,
+                                               @Param("limit") int limit);
+
     /**
      * 统计未读通知数
      */
     @Select("SELECT COUNT(*) FROM notification WHERE user_id = #{userId} AND is_read = false AND deleted_at IS NULL")
     int countUnreadByUserId(@Param("userId") Long userId);
 
+    /**
+     * 批量统计用户未读通知数（用于未读计数校准）
+     */
+    @Select("<script>" +
+            "SELECT user_id, COUNT(*) AS count FROM notification " +
+            "WHERE user_id IN <foreach collection='userIds' item='id' open='(' separator=',' close=')'>#{id}</foreach> " +
+            "AND is_read = false AND deleted_at IS NULL GROUP BY user_id" +
+            "</script>")
+    List<MessageRepository.UnreadCount> countUnreadByUserIds(@Param("userIds") Collection<Long> userIds);
+
+    /**
+     * 标记用户的单条未读通知为已读
+     *
+     * @return 实际由未读变为已读的条数
+     */
+    @Update("UPDATE notification SET is_read = true, read_at = NOW(), updated_at = NOW() " +
+            "WHERE id = #{id} AND user_id = #{userId} AND is_read = false AND deleted_at IS NULL")
+    int markAsReadByUser(@Param("id") Long id, @Param("userId") Long userId);
+
     /**
      * 标记单条通知为已读
      */
@@ -7,6 +7,8 @@ import org.apache.ibatis.annotations.Param;
 import org.apache.ibatis.annotations.Select;
 import org.apache.ibatis.annotations.Update;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
@@ -75,4 +77,18 @@ public interface OrderRepository extends BaseMapper<Order> {
      */
     @Update("UPDATE `order` SET status = #{status} WHERE id = #{id}")
     void updateStatus(@Param("id") Long id, @Param("status") Integer status);
+
+    /**
+     * 统计指定时间之后完成的订单金额
+     */
+    @Select("SELECT COALESCE(SUM(amount), 0) FROM \"order\" " +
+            "WHERE status = 3 AND completed_at >= #{since} AND deleted_at IS NULL")
+    BigDecimal sumCompletedAmountSince(@Param("since") LocalDateTime since);
+
+    /**
+     * 按日统计指定时间之后新增的订单数
+     */
+    @Select("SELECT date_trunc('day', created_at)::date AS day, COUNT(*) AS count FROM \"order\" " +
+            "WHERE created_at >= #{since} AND deleted_at IS NULL GROUP BY 1")
+    List<StatsDailyRepository.DailyCount> countCreatedByDaySince(@Param("since") LocalDateTime since);
 }
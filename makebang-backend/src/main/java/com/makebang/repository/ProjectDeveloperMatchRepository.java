@@ -0,0 +1,199 @@
+package com.makebang.repository;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.makebang.config.DeveloperMatchConfig;
+import com.makebang.entity.ProjectDeveloperMatch;
+import org.apache.ibatis.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 项目推荐程序员排名数据访问层
+ */
+@Mapper
+public interface ProjectDeveloperMatchRepository extends BaseMapper<ProjectDeveloperMatch> {
+
+    /**
+     * 计算并写入项目的推荐排名
+     * 按技能向量取 candidates 个最相近的程序员（HNSW 索引），再按相似度、技能重合比例、平均评分、
+     * 完成订单数加权排序，保存前 size 名。项目不是开放状态或没有向量时不写入
+     *
+     * @return 写入的行数
+     */
+    @Insert("""
+            WITH target AS (
+                SELECT p.id, p.user_id, COALESCE(p.skill_requirements, '[]'::jsonb) AS skills, pe.embedding
+                FROM project p
+                JOIN project_embedding pe ON pe.project_id = p.id
+                WHERE p.id = #{projectId} AND p.status = 1 AND p.deleted_at IS NULL AND pe.embedding IS NOT NULL
+            ),
+            candidate AS (
+                SELECT d.user_id, 1 - (d.skill_embedding <=> t.embedding) AS similarity,
+                       COALESCE(d.skills, '[]'::jsonb) AS skills
+                FROM target t
+                CROSS JOIN LATERAL (
+                    SELECT user_id, skill_embedding, skills
+                    FROM developer_profile
+                    WHERE deleted_at IS NULL AND skill_embedding IS NOT NULL AND user_id <> t.user_id
+                    ORDER BY skill_embedding <=> t.embedding
+                    LIMIT #{config.candidates}
+                ) d
+                JOIN "user" u ON u.id = d.user_id AND u.status = 1 AND u.deleted_at IS NULL
+            ),
+            scored AS (
+                SELECT c.user_id, c.similarity,
+                       COALESCE(overlap.ratio, 0) AS skill_overlap,
+                       COALESCE(r.avg_rating, 0) AS avg_rating,
+                       COALESCE(o.completed, 0) AS completed_orders
+                FROM candidate c
+                CROSS JOIN target t
+                LEFT JOIN LATERAL (
+                    SELECT COUNT(*)::float8 / NULLIF(jsonb_array_length(t.skills), 0) AS ratio
+                    FROM jsonb_array_elements_text(t.skills) required
+                    WHERE lower(required) IN (SELECT lower(skill) FROM jsonb_array_elements_text(c.skills) skill)
+                ) overlap ON true
+                LEFT JOIN LATERAL (
+                    SELECT AVG(rating)::float8 AS avg_rating
+                    FROM review
+                    WHERE reviewee_id = c.user_id AND deleted_at IS NULL
+                ) r ON true
+                LEFT JOIN LATERAL (
+                    SELECT COUNT(*)::int AS completed
+                    FROM "order"
+                    WHERE developer_id = c.user_id AND status = 3 AND deleted_at IS NULL
+                ) o ON true
+            ),
+            ranked AS (
+                SELECT s.*,
+                       #{config.similarityWeight} * similarity
+                           + #{config.skillWeight} * skill_overlap
+                           + #{config.ratingWeight} * avg_rating / 5
+                           + #{config.ordersWeight} * LEAST(LN(1 + completed_orders) / LN(1 + #{config.ordersCap}), 1) AS score
+                FROM scored s
+            )
+            INSERT INTO project_developer_match
+                (project_id, developer_id, rank, score, similarity, skill_overlap, avg_rating, completed_orders, created_at)
+            SELECT #{projectId}, user_id, ROW_NUMBER() OVER (ORDER BY score DESC, user_id), score,
+                   similarity, skill_overlap, avg_rating, completed_orders, CURRENT_TIMESTAMP
+            FROM ranked
+            ORDER BY score DESC, user_id
+            LIMIT #{config.size}
+            """)
+    int insertRanking(@Param("projectId") Long projectId, @Param("config") DeveloperMatchConfig config);
+
+    /**
+     * 设置当前事务内的 hnsw.ef_search（事务结束后恢复）
+     */
+    @Select("SELECT set_config('hnsw.ef_search', #{efSearch}, true)")
+    String applySearchSettings(@Param("efSearch") String efSearch);
+
+    /**
+     * 删除项目的推荐排名
+     */
+    @Delete("DELETE FROM project_developer_match WHERE project_id = #{projectId}")
+    int deleteByProjectId(@Param("projectId") Long projectId);
+
+    /**
+     * 查询项目的推荐排名
+     */
+    @Select("""
+            SELECT * FROM project_developer_match
+            WHERE project_id = #{projectId}
+            ORDER BY rank
+            LIMIT #{limit}
+            """)
+    List<ProjectDeveloperMatch> findRanking(@Param("projectId") Long projectId, @Param("limit") int limit);
+
+    /**
+     * 按刷新先后查询需要重新计算排名的开放项目：
+     * 从未计算、被标记过期、项目向量在计算后更新或超过有效期
+     */
+    @Select("""
+            SELECT p.id
+            FROM project p
+            JOIN project_embedding pe ON pe.project_id = p.id AND pe.embedding IS NOT NULL
+            LEFT JOIN project_match_state s ON s.project_id = p.id
+            WHERE p.status = 1 AND p.deleted_at IS NULL
+              AND (s.project_id IS NULL OR s.stale
+                   OR s.refreshed_at < pe.updated_at OR s.refreshed_at < #{expiredBefore})
+            ORDER BY s.refreshed_at NULLS FIRST, p.id
+            LIMIT #{limit}
+            """)
+    List<Long> findStaleProjectIds(@Param("expiredBefore") LocalDateTime expiredBefore, @Param("limit") int limit);
+
+    /**
+     * 查询项目的刷新时间，从未计算时为null
+     */
+    @Select("SELECT refreshed_at FROM project_match_state WHERE project_id = #{projectId}")
+    LocalDateTime findRefreshedAt(@Param("projectId") Long projectId);
+
+    /**
+     * 记录项目排名已刷新
+     */
+    @Insert("""
+            INSERT INTO project_match_state (project_id, refreshed_at, stale)
+            VALUES (#{projectId}, CURRENT_TIMESTAMP, false)
+            ON CONFLICT (project_id)
+            DO UPDATE SET refreshed_at = EXCLUDED.refreshed_at, stale = false
+            """)
+    int markRefreshed(@Param("projectId") Long projectId);
+
+    /**
+     * 标记项目排名过期
+     */
+    @Insert("""
+            INSERT INTO project_match_state (project_id, stale)
+            VALUES (#{projectId}, true)
+            ON CONFLICT (project_id) DO UPDATE SET stale = true
+            """)
+    int markStale(@Param("projectId") Long projectId);
+
+    /**
+     * 程序员技能向量变化后标记受影响的项目过期：
+     * 其当前已在排名中的项目，以及按新向量最相近的 nearest 个项目
+     */
+    @Insert("""
+            <script>
+            INSERT INTO project_match_state (project_id, stale)
+            SELECT project_id, true FROM (
+                SELECT m.project_id
+                FROM project_developer_match m
+                WHERE m.developer_id IN
+                <foreach collection="userIds" item="id" open="(" separator="," close=")">#{id}</foreach>
+                UNION
+                SELECT near.project_id
+                FROM developer_profile d
+                CROSS JOIN LATERAL (
+                    SELECT pe.project_id
+                    FROM project_embedding pe
+                    WHERE pe.embedding IS NOT NULL
+                    ORDER BY pe.embedding &lt;=&gt; d.skill_embedding
+                    LIMIT #{nearest}
+                ) near
+                WHERE d.skill_embedding IS NOT NULL AND d.user_id IN
+                <foreach collection="userIds" item="id" open="(" separator="," close=")">#{id}</foreach>
+            ) affected
+            ON CONFLICT (project_id) DO UPDATE SET stale = true
+            </script>
+            """)
+    int markStaleForDevelopers(@Param("userIds") List<Long> userIds, @Param("nearest") int nearest);
+
+    /**
+     * 清理不再开放的项目的排名和刷新状态
+     *
+     * @return 删除的排名行数
+     */
+    @Delete("""
+            WITH inactive AS (
+                DELETE FROM project_match_state s
+                USING project p
+                WHERE p.id = s.project_id AND (p.status <> 1 OR p.deleted_at IS NOT NULL)
+                RETURNING s.project_id
+            )
+            DELETE FROM project_developer_match m
+            USING inactive i
+            WHERE m.project_id = i.project_id
+            """)
+    int deleteInactive();
+}
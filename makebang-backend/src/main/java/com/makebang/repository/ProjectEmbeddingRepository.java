@@ -1,9 +1,14 @@
 package com.makebang.repository;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.baomidou.mybatisplus.extension.handlers.JacksonTypeHandler;
+import com.makebang.common.handler.VectorTypeHandler;
 import com.makebang.entity.ProjectEmbedding;
+import lombok.AllArgsConstructor;
+import lombok.Data;
 import org.apache.ibatis.annotations.*;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
@@ -17,54 +22,222 @@ public interface ProjectEmbeddingRepository extends BaseMapper<ProjectEmbedding>
      */
     @Insert("""
             INSERT INTO project_embedding (project_id, embedding, content_hash, created_at, updated_at)
-            VALUES (#{projectId}, #{embedding}::vector, #{contentHash}, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)
+            VALUES (#{projectId}, #{embedding}, #{contentHash}, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)
             ON CONFLICT (project_id)
             DO UPDATE SET
-                embedding = #{embedding}::vector,
-                content_hash = #{contentHash},
+                embedding = EXCLUDED.embedding,
+                content_hash = EXCLUDED.content_hash,
                 updated_at = CURRENT_TIMESTAMP
             """)
     int upsertEmbedding(@Param("projectId") Long projectId,
-                        @Param("embedding") String embedding,
+                        @Param("embedding") float[] embedding,
                         @Param("contentHash") String contentHash);
 
+    /**
+     * 批量插入或更新项目向量（多行一条语句）
+     */
+    @Insert("""
+            <script>
+            INSERT INTO project_embedding (project_id, embedding, content_hash, created_at, updated_at)
+            VALUES
+            <foreach collection="rows" item="row" separator=",">
+                (#{row.projectId}, #{row.embedding}, #{row.contentHash}, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)
+            </foreach>
+            ON CONFLICT (project_id)
+            DO UPDATE SET
+                embedding = EXCLUDED.embedding,
+                content_hash = EXCLUDED.content_hash,
+                updated_at = EXCLUDED.updated_at
+            </script>
+            """)
+    int batchUpsertEmbeddings(@Param("rows") List<VectorRow> rows);
+
+    /**
+     * 按ID顺序查询需要生成向量的项目（无向量或项目在向量生成后有更新）及其现有内容哈希
+     */
+    @Select("""
+            SELECT p.id AS project_id, p.title, p.description, p.skill_requirements, pe.content_hash
+            FROM project p
+            LEFT JOIN project_embedding pe ON p.id = pe.project_id
+            WHERE p.status IN (1, 2) AND p.deleted_at IS NULL AND p.id > #{afterId}
+              AND (pe.id IS NULL OR pe.embedding IS NULL OR pe.updated_at < p.updated_at)
+            ORDER BY p.id
+            LIMIT #{limit}
+            """)
+    @Results({
+            @Result(column = "project_id", property = "projectId"),
+            @Result(column = "skill_requirements", property = "skillRequirements",
+                    javaType = List.class, typeHandler = JacksonTypeHandler.class)
+    })
+    List<StaleProject> findStaleProjects(@Param("afterId") long afterId, @Param("limit") int limit);
+
+    /**
+     * 内容未变化的项目只把向量更新时间推进到项目更新时间，使其不再被判定为需要更新
+     */
+    @Update("""
+            <script>
+            UPDATE project_embedding pe SET updated_at = p.updated_at
+            FROM project p
+            WHERE pe.project_id = p.id AND pe.updated_at &lt; p.updated_at
+              AND pe.project_id IN
+            <foreach collection="projectIds" item="id" open="(" separator="," close=")">#{id}</foreach>
+            </script>
+            """)
+    int touchUnchanged(@Param("projectIds") List<Long> projectIds);
+
     /**
      * 语义搜索 - 根据向量相似度查询项目ID
      * 使用余弦相似度（cosine similarity）
      */
     @Select("""
-            SELECT project_id, 1 - (embedding <=> #{queryVector}::vector) as similarity
+            SELECT project_id, 1 - (embedding <=> #{queryVector}) as similarity
             FROM project_embedding
             WHERE embedding IS NOT NULL
-            ORDER BY embedding <=> #{queryVector}::vector
+            ORDER BY embedding <=> #{queryVector}
             LIMIT #{limit}
             """)
     @Results({
             @Result(column = "project_id", property = "projectId"),
             @Result(column = "similarity", property = "similarity")
     })
-    List<SimilarityResult> searchByVector(@Param("queryVector") String queryVector,
+    List<SimilarityResult> searchByVector(@Param("queryVector") float[] queryVector,
                                           @Param("limit") int limit);
 
     /**
      * 带阈值的语义搜索
+     * 先按索引顺序取 top-k，再过滤阈值；阈值写在内层 WHERE 中会妨碍索引有序扫描
      */
     @Select("""
-            SELECT project_id, 1 - (embedding <=> #{queryVector}::vector) as similarity
-            FROM project_embedding
-            WHERE embedding IS NOT NULL
-              AND 1 - (embedding <=> #{queryVector}::vector) >= #{threshold}
-            ORDER BY embedding <=> #{queryVector}::vector
-            LIMIT #{limit}
+            SELECT project_id, similarity FROM (
+                SELECT project_id, 1 - (embedding <=> #{queryVector}) as similarity
+                FROM project_embedding
+                WHERE embedding IS NOT NULL
+                ORDER BY embedding <=> #{queryVector}
+                LIMIT #{limit}
+            ) t
+            WHERE similarity >= #{threshold}
+            ORDER BY similarity DESC
             """)
     @Results({
             @Result(column = "project_id", property = "projectId"),
             @Result(column = "similarity", property = "similarity")
     })
-    List<SimilarityResult> searchByVectorWithThreshold(@Param("queryVector") String queryVector,
+    List<SimilarityResult> searchByVectorWithThreshold(@Param("queryVector") float[] queryVector,
                                                         @Param("threshold") double threshold,
                                                         @Param("limit") int limit);
 
+    /**
+     * 两阶段语义搜索：先在前 coarseDimensions 维的半精度表达式索引上取 candidates 条，
+     * 再按完整向量的距离重排取 top-k 并过滤阈值
+     */
+    @Select("""
+            SELECT project_id, similarity FROM (
+                SELECT project_id, 1 - (embedding <=> #{queryVector}) AS similarity
+                FROM (
+                    SELECT project_id, embedding
+                    FROM project_embedding
+                    WHERE embedding IS NOT NULL
+                    ORDER BY subvector(embedding, 1, ${coarseDimensions})::halfvec(${coarseDimensions})
+                             <=> subvector(#{queryVector}::vector, 1, ${coarseDimensions})::halfvec(${coarseDimensions})
+                    LIMIT #{candidates}
+                ) coarse
+                ORDER BY embedding <=> #{queryVector}
+                LIMIT #{limit}
+            ) t
+            WHERE similarity >= #{threshold}
+            ORDER BY similarity DESC
+            """)
+    @Results({
+            @Result(column = "project_id", property = "projectId"),
+            @Result(column = "similarity", property = "similarity")
+    })
+    List<SimilarityResult> searchByVectorReranked(@Param("queryVector") float[] queryVector,
+                                                  @Param("coarseDimensions") int coarseDimensions,
+                                                  @Param("threshold") double threshold,
+                                                  @Param("candidates") int candidates,
+                                                  @Param("limit") int limit);
+
+    /**
+     * 混合搜索：关键词匹配与语义近邻各自在相同筛选条件下排名，用倒数排名融合（RRF）合并后分页
+     * 语义部分取向量顺序的前 candidates 条并按阈值过滤；coarseDimensions 大于0时先在前缀半精度索引上取 coarseLimit 条，
+     * 再按完整向量重排。关键词部分为全文检索，按 ts_rank_cd 排名，tsquery 为空时不参与。
+     * 总是返回至少一行，total 为融合后的总数，页超出范围时 projectId 为null
+     */
+    @Select("""
+            <script>
+            WITH semantic AS (
+                SELECT project_id, ROW_NUMBER() OVER (ORDER BY distance, project_id) AS rnk
+                FROM (
+                    SELECT project_id, distance FROM (
+                        SELECT pe.project_id, pe.embedding &lt;=&gt; #{queryVector} AS distance
+                        FROM project_embedding pe
+                        JOIN project p ON p.id = pe.project_id
+                        WHERE pe.embedding IS NOT NULL
+                          AND p.status IN (1, 2) AND p.deleted_at IS NULL
+                          AND (#{categoryId}::bigint IS NULL OR p.category_id = #{categoryId})
+                          AND (#{minBudget}::numeric IS NULL OR p.budget_max >= #{minBudget})
+                          AND (#{maxBudget}::numeric IS NULL OR p.budget_min &lt;= #{maxBudget})
+                        <choose>
+                            <when test='coarseDimensions > 0'>
+                        ORDER BY subvector(pe.embedding, 1, ${coarseDimensions})::halfvec(${coarseDimensions})
+                                 &lt;=&gt; subvector(#{queryVector}::vector, 1, ${coarseDimensions})::halfvec(${coarseDimensions})
+                            </when>
+                            <otherwise>
+                        ORDER BY pe.embedding &lt;=&gt; #{queryVector}
+                            </otherwise>
+                        </choose>
+                        LIMIT #{coarseLimit}
+                    ) coarse
+                    ORDER BY distance
+                    LIMIT #{candidates}
+                ) nearest
+                WHERE 1 - distance >= #{threshold}
+            ),
+            keyword AS (
+                SELECT p.id AS project_id,
+                       ROW_NUMBER() OVER (ORDER BY ts_rank_cd(p.search_vector, #{tsquery}::tsquery) DESC, p.id DESC) AS rnk
+                FROM project p
+                WHERE #{tsquery}::text IS NOT NULL
+                  AND p.status IN (1, 2) AND p.deleted_at IS NULL
+                  AND p.search_vector @@ #{tsquery}::tsquery
+                  AND (#{categoryId}::bigint IS NULL OR p.category_id = #{categoryId})
+                  AND (#{minBudget}::numeric IS NULL OR p.budget_max >= #{minBudget})
+                  AND (#{maxBudget}::numeric IS NULL OR p.budget_min &lt;= #{maxBudget})
+            ),
+            fused AS (
+                SELECT COALESCE(s.project_id, k.project_id) AS project_id,
+                       COALESCE(1.0 / (#{rrfK} + s.rnk), 0) + COALESCE(1.0 / (#{rrfK} + k.rnk), 0) AS score
+                FROM semantic s
+                FULL OUTER JOIN keyword k ON s.project_id = k.project_id
+            )
+            SELECT t.total, page.project_id, page.score
+            FROM (SELECT COUNT(*) AS total FROM fused) t
+            LEFT JOIN LATERAL (
+                SELECT project_id, score FROM fused
+                ORDER BY score DESC, project_id DESC
+                LIMIT #{size} OFFSET #{offset}
+            ) page ON true
+            </script>
+            """)
+    List<HybridHit> hybridSearch(@Param("tsquery") String tsquery,
+                                 @Param("queryVector") float[] queryVector,
+                                 @Param("categoryId") Long categoryId,
+                                 @Param("minBudget") Integer minBudget,
+                                 @Param("maxBudget") Integer maxBudget,
+                                 @Param("threshold") double threshold,
+                                 @Param("candidates") int candidates,
+                                 @Param("coarseDimensions") int coarseDimensions,
+                                 @Param("coarseLimit") int coarseLimit,
+                                 @Param("rrfK") int rrfK,
+                                 @Param("offset") long offset,
+                                 @Param("size") int size);
+
+    /**
+     * 设置当前事务内的向量索引查询参数（事务结束后恢复）
+     */
+    @Select("SELECT set_config('hnsw.ef_search', #{efSearch}, true), set_config('ivfflat.probes', #{probes}, true)")
+    List<String> applySearchSettings(@Param("efSearch") String efSearch, @Param("probes") String probes);
+
     /**
      * 根据项目ID获取内容哈希
      */
@@ -101,6 +274,75 @@ public interface ProjectEmbeddingRepository extends BaseMapper<ProjectEmbedding>
             """)
     List<Long> findProjectsWithoutEmbedding(@Param("limit") int limit);
 
+    /**
+     * 按 (更新时间, 项目ID) 顺序查询之后更新的向量，供进程内索引增量同步
+     */
+    @Select("""
+            SELECT project_id, embedding, updated_at
+            FROM project_embedding
+            WHERE embedding IS NOT NULL
+              AND (updated_at, project_id) > (#{since}, #{afterId})
+            ORDER BY updated_at, project_id
+            LIMIT #{limit}
+            """)
+    @Results({
+            @Result(column = "project_id", property = "projectId"),
+            @Result(column = "embedding", property = "embedding", typeHandler = VectorTypeHandler.class),
+            @Result(column = "updated_at", property = "updatedAt")
+    })
+    List<EmbeddingRow> findUpdatedSince(@Param("since") LocalDateTime since,
+                                        @Param("afterId") long afterId,
+                                        @Param("limit") int limit);
+
+    /**
+     * 查询所有有向量的项目ID
+     */
+    @Select("SELECT project_id FROM project_embedding WHERE embedding IS NOT NULL")
+    List<Long> findEmbeddedProjectIds();
+
+    /**
+     * 待写入的向量行
+     */
+    @Data
+    @AllArgsConstructor
+    class VectorRow {
+        private Long projectId;
+        private float[] embedding;
+        private String contentHash;
+    }
+
+    /**
+     * 增量同步的向量行
+     */
+    @Data
+    class EmbeddingRow {
+        private Long projectId;
+        private float[] embedding;
+        private LocalDateTime updatedAt;
+    }
+
+    /**
+     * 需要生成向量的项目
+     */
+    @Data
+    class StaleProject {
+        private Long projectId;
+        private String title;
+        private String description;
+        private List<String> skillRequirements;
+        private String contentHash;
+    }
+
+    /**
+     * 混合搜索结果行
+     */
+    @Data
+    class HybridHit {
+        private Long total;
+        private Long projectId;
+        private Double score;
+    }
+
     /**
      * 相似度结果
      */
@@ -1,9 +1,13 @@
 package com.makebang.repository;
 
+import com.baomidou.mybatisplus.core.conditions.Wrapper;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
+import com.baomidou.mybatisplus.core.toolkit.Constants;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.makebang.entity.Project;
+import lombok.AllArgsConstructor;
+import lombok.Data;
 import org.apache.ibatis.annotations.*;
 
 import java.util.List;
@@ -15,10 +19,20 @@ import java.util.List;
 public interface ProjectRepository extends BaseMapper<Project> {
 
     /**
-     * 增加浏览量
+     * 批量累加浏览量（多行一条语句）
      */
-    @Update("UPDATE project SET view_count = view_count + 1 WHERE id = #{id}")
-    void incrementViewCount(@Param("id") Long id);
+    @Update("""
+        <script>
+        UPDATE project p SET view_count = p.view_count + v.delta
+        FROM (VALUES
+        <foreach collection="deltas" item="delta" separator=",">
+            (#{delta.projectId}::bigint, #{delta.count}::int)
+        </foreach>
+        ) AS v(id, delta)
+        WHERE p.id = v.id
+        </script>
+        """)
+    int batchIncrementViewCount(@Param("deltas") List<ViewDelta> deltas);
 
     /**
      * 增加投标数
@@ -32,6 +46,35 @@ public interface ProjectRepository extends BaseMapper<Project> {
     @Update("UPDATE project SET bid_count = GREATEST(bid_count - 1, 0) WHERE id = #{id}")
     void decrementBidCount(@Param("id") Long id);
 
+    /**
+     * 更新全文检索向量
+     */
+    @Update("UPDATE project SET search_vector = #{searchVector}::tsvector WHERE id = #{id}")
+    int updateSearchVector(@Param("id") Long id, @Param("searchVector") String searchVector);
+
+    /**
+     * 按全文检索相关度分页查询，tsquery 作为参数绑定
+     * 排序里带参数时分页插件不会去掉 ORDER BY，总数改由 countByWrapper 统计
+     */
+    default IPage<Project> selectPageByRank(Page<Project> page, Wrapper<Project> wrapper, String tsquery) {
+        page.setCountId("countByWrapper");
+        return selectRankedPage(page, wrapper, tsquery);
+    }
+
+    @ResultMap("mybatis-plus_Project")
+    @Select("""
+        SELECT * FROM project ${ew.customSqlSegment}
+        ORDER BY ts_rank_cd(search_vector, #{tsquery}::tsquery) DESC, created_at DESC
+        """)
+    IPage<Project> selectRankedPage(Page<Project> page, @Param(Constants.WRAPPER) Wrapper<Project> wrapper,
+                                    @Param("tsquery") String tsquery);
+
+    /**
+     * 按条件统计项目数量（相关度分页的计数语句）
+     */
+    @Select("SELECT COUNT(*) FROM project ${ew.customSqlSegment}")
+    Long countByWrapper(@Param(Constants.WRAPPER) Wrapper<Project> wrapper);
+
     /**
      * 查询用户发布的项目数量
      */
@@ -68,4 +111,14 @@ public interface ProjectRepository extends BaseMapper<Project> {
         LIMIT #{limit}
         """)
     List<String> getHotSkills(@Param("limit") int limit);
+
+    /**
+     * 浏览量增量
+     */
+    @Data
+    @AllArgsConstructor
+    class ViewDelta {
+        private Long projectId;
+        private Integer count;
+    }
 }
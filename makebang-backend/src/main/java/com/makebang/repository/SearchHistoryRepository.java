@@ -2,6 +2,7 @@ package com.makebang.repository;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.makebang.entity.SearchHistory;
+import org.apache.ibatis.annotations.Insert;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 import org.apache.ibatis.annotations.Select;
@@ -26,6 +27,17 @@ public interface SearchHistoryRepository extends BaseMapper<SearchHistory> {
             """)
     List<SearchHistory> getUserRecentSearches(@Param("userId") Long userId, @Param("limit") int limit);
 
+    /**
+     * 批量插入搜索历史（多行VALUES）
+     */
+    @Insert("<script>" +
+            "INSERT INTO search_history (user_id, keyword, search_type, result_count, created_at) VALUES " +
+            "<foreach collection='list' item='h' separator=','>" +
+            "(#{h.userId}, #{h.keyword}, #{h.searchType}, #{h.resultCount}, #{h.createdAt})" +
+            "</foreach>" +
+            "</script>")
+    int batchInsert(@Param("list") List<SearchHistory> histories);
+
     /**
      * 获取用户搜索建议（基于历史）
      */
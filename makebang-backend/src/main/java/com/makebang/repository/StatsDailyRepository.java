@@ -0,0 +1,99 @@
+package com.makebang.repository;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.makebang.entity.StatsDaily;
+import lombok.Data;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * 每日统计汇总数据访问层
+ */
+@Mapper
+public interface StatsDailyRepository extends BaseMapper<StatsDaily> {
+
+    /**
+     * 汇总结果
+     */
+    @Data
+    class Totals {
+        /**
+         * 已汇总的最后日期，未汇总过为null
+         */
+        private LocalDate lastDate;
+        private BigDecimal completedOrderAmount;
+        private BigDecimal platformIncome;
+    }
+
+    /**
+     * 按日计数
+     */
+    @Data
+    class DailyCount {
+        private LocalDate day;
+        private Long count;
+    }
+
+    /**
+     * 累计汇总值
+     */
+    @Select("""
+            SELECT MAX(stat_date) AS last_date,
+                   COALESCE(SUM(completed_order_amount), 0) AS completed_order_amount,
+                   COALESCE(SUM(platform_income), 0) AS platform_income
+            FROM stats_daily
+            """)
+    Totals sumAll();
+
+    /**
+     * 查询日期范围内的汇总（含首尾）
+     */
+    @Select("SELECT * FROM stats_daily WHERE stat_date BETWEEN #{from} AND #{to} ORDER BY stat_date")
+    List<StatsDaily> findRange(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    /**
+     * 最早有业务数据的日期
+     */
+    @Select("SELECT MIN(created_at)::date FROM \"user\" WHERE deleted_at IS NULL")
+    LocalDate findFirstDate();
+
+    /**
+     * 重新汇总日期范围内（含首尾）的每日统计
+     * 订单金额按完成时间、服务费按交易时间归属日期
+     */
+    @Insert("""
+            INSERT INTO stats_daily (stat_date, new_users, new_orders, completed_orders,
+                                     completed_order_amount, platform_income, updated_at)
+            SELECT d.day, COALESCE(u.cnt, 0), COALESCE(o.cnt, 0), COALESCE(c.cnt, 0),
+                   COALESCE(c.amount, 0), COALESCE(f.amount, 0), NOW()
+            FROM (SELECT generate_series(#{from}::date, #{to}::date, INTERVAL '1 day')::date AS day) d
+            LEFT JOIN (SELECT created_at::date AS day, COUNT(*) AS cnt FROM "user"
+                       WHERE created_at >= #{from}::date AND created_at < #{to}::date + 1 AND deleted_at IS NULL
+                       GROUP BY 1) u ON u.day = d.day
+            LEFT JOIN (SELECT created_at::date AS day, COUNT(*) AS cnt FROM "order"
+                       WHERE created_at >= #{from}::date AND created_at < #{to}::date + 1 AND deleted_at IS NULL
+                       GROUP BY 1) o ON o.day = d.day
+            LEFT JOIN (SELECT completed_at::date AS day, COUNT(*) AS cnt, SUM(amount) AS amount FROM "order"
+                       WHERE status = 3 AND completed_at >= #{from}::date AND completed_at < #{to}::date + 1
+                         AND deleted_at IS NULL
+                       GROUP BY 1) c ON c.day = d.day
+            LEFT JOIN (SELECT created_at::date AS day, SUM(amount) AS amount FROM transaction
+                       WHERE type = 6 AND status = 1 AND created_at >= #{from}::date AND created_at < #{to}::date + 1
+                         AND deleted_at IS NULL
+                       GROUP BY 1) f ON f.day = d.day
+            ON CONFLICT (stat_date) DO UPDATE SET
+                new_users = EXCLUDED.new_users,
+                new_orders = EXCLUDED.new_orders,
+                completed_orders = EXCLUDED.completed_orders,
+                completed_order_amount = EXCLUDED.completed_order_amount,
+                platform_income = EXCLUDED.platform_income,
+                updated_at = EXCLUDED.updated_at
+            """)
+    int rollup(@Param("from") LocalDate from, @Param("to") LocalDate to);
+}
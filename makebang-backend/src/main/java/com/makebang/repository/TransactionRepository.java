@@ -8,6 +8,8 @@ import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 import org.apache.ibatis.annotations.Select;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
@@ -26,6 +28,21 @@ public interface TransactionRepository extends BaseMapper<Transaction> {
             "</script>")
     IPage<Transaction> findByUserId(Page<Transaction> page, @Param("userId") Long userId, @Param("type") Integer type);
 
+    /**
+     * 游标分页查询用户交易记录（按 created_at, id 倒序，limit 通常为页大小 + 1）
+     */
+    @Select("<script>" +
+            "SELECT * FROM transaction WHERE user_id = #{userId} AND deleted_at IS NULL " +
+            "<if test='type != null'>AND type = #{type} </if>" +
+            "<if test='cursorTime != null'>AND (created_at, id) &lt; (#{cursorTime}, #{cursorId}) </if>" +
+            "ORDER BY created_at DESC, id DESC LIMIT #{limit}" +
+            "</script>")
+    List<Transaction> findByUserIdAfterCursor(@Param("userId") Long userId,
+                                              @Param("type") Integer type,
+                                              @Param("cursorTime") LocalDateTime cursorTime,
+                                              @Param("cursorId") Long cursorId,
+                                              @Param("limit") int limit);
+
     /**
      * 根据订单ID查询交易记录
      */
@@ -43,4 +60,11 @@ public interface TransactionRepository extends BaseMapper<Transaction> {
      */
     @Select("SELECT * FROM transaction WHERE transaction_no = #{transactionNo} AND deleted_at IS NULL")
     Transaction findByTransactionNo(@Param("transactionNo") String transactionNo);
+
+    /**
+     * 统计指定时间之后成功的平台服务费
+     */
+    @Select("SELECT COALESCE(SUM(amount), 0) FROM transaction " +
+            "WHERE type = 6 AND status = 1 AND created_at >= #{since} AND deleted_at IS NULL")
+    BigDecimal sumServiceFeeSince(@Param("since") LocalDateTime since);
 }
@@ -6,6 +6,8 @@ import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 import org.apache.ibatis.annotations.Select;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -55,4 +57,11 @@ public interface UserRepository extends BaseMapper<User> {
      */
     @Select("SELECT COUNT(*) > 0 FROM \"user\" WHERE email = #{email} AND deleted_at IS NULL")
     boolean existsByEmail(@Param("email") String email);
+
+    /**
+     * 按日统计指定时间之后新增的用户数
+     */
+    @Select("SELECT date_trunc('day', created_at)::date AS day, COUNT(*) AS count FROM \"user\" " +
+            "WHERE created_at >= #{since} AND deleted_at IS NULL GROUP BY 1")
+    List<StatsDailyRepository.DailyCount> countCreatedByDaySince(@Param("since") LocalDateTime since);
 }
@@ -1,8 +1,10 @@
 package com.makebang.repository;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.makebang.entity.Transaction;
 import com.makebang.entity.Wallet;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Options;
 import org.apache.ibatis.annotations.Param;
 import org.apache.ibatis.annotations.Select;
 import org.apache.ibatis.annotations.Update;
@@ -11,16 +13,38 @@ import java.math.BigDecimal;
 
 /**
  * 钱包Repository
+ * 资金变动在一条语句中完成：更新余额并按 RETURNING 的变动前后余额写入流水，
+ * 条件不满足（余额或冻结金额不足、钱包不存在）时不写流水并返回null
  */
 @Mapper
 public interface WalletRepository extends BaseMapper<Wallet> {
 
+    /**
+     * 由钱包变动结果 w(id, user_id, balance_before, balance_after) 写入流水 t
+     * SELECT 列表中的参数没有目标列可推断类型，需显式转换（尤其是为空的订单、里程碑ID）
+     */
+    String INSERT_LEDGER = "INSERT INTO transaction (transaction_no, wallet_id, user_id, type, amount, " +
+            "balance_before, balance_after, order_id, milestone_id, status, remark, created_at, updated_at) " +
+            "SELECT #{t.transactionNo}::varchar, w.id, w.user_id, #{t.type}::smallint, #{t.amount}::numeric, " +
+            "w.balance_before, w.balance_after, " +
+            "#{t.orderId}::bigint, #{t.milestoneId}::bigint, #{t.status}::smallint, #{t.remark}::varchar, NOW(), NOW() FROM w ";
+
     /**
      * 根据用户ID查询钱包
      */
     @Select("SELECT * FROM wallet WHERE user_id = #{userId} AND deleted_at IS NULL")
     Wallet findByUserId(@Param("userId") Long userId);
 
+    /**
+     * 创建空钱包，已存在时不插入并返回null
+     */
+    @Select("INSERT INTO wallet (user_id, balance, frozen_amount, total_income, total_expense, status, created_at, updated_at) " +
+            "VALUES (#{userId}, 0, 0, 0, 0, 0, NOW(), NOW()) " +
+            "ON CONFLICT (user_id) DO NOTHING " +
+            "RETURNING *")
+    @Options(flushCache = Options.FlushCachePolicy.TRUE)
+    Wallet insertIfAbsent(@Param("userId") Long userId);
+
     /**
      * 增加余额
      */
@@ -29,37 +53,98 @@ public interface WalletRepository extends BaseMapper<Wallet> {
     int addBalance(@Param("walletId") Long walletId, @Param("amount") BigDecimal amount);
 
     /**
-     * 扣减余额（乐观锁，确保余额足够）
+     * 充值：增加余额（钱包不存在时创建）并写入流水
+     *
+     * @return 流水记录
      */
-    @Update("UPDATE wallet SET balance = balance - #{amount}, updated_at = NOW() " +
-            "WHERE id = #{walletId} AND balance >= #{amount} AND deleted_at IS NULL")
-    int deductBalance(@Param("walletId") Long walletId, @Param("amount") BigDecimal amount);
+    @Select("WITH w AS (" +
+            "INSERT INTO wallet (user_id, balance, frozen_amount, total_income, total_expense, status, created_at, updated_at) " +
+            "VALUES (#{t.userId}, #{t.amount}, 0, 0, 0, 0, NOW(), NOW()) " +
+            "ON CONFLICT (user_id) DO UPDATE SET balance = wallet.balance + EXCLUDED.balance, updated_at = NOW() " +
+            "WHERE wallet.deleted_at IS NULL " +
+            "RETURNING id, user_id, balance - #{t.amount} AS balance_before, balance AS balance_after) " +
+            INSERT_LEDGER +
+            "RETURNING *")
+    @Options(flushCache = Options.FlushCachePolicy.TRUE)
+    Transaction creditBalance(@Param("t") Transaction transaction);
 
     /**
-     * 冻结金额（从余额转到冻结）
+     * 提现：扣减余额（确保余额足够）并写入流水
+     *
+     * @return 流水记录，余额不足返回null
      */
-    @Update("UPDATE wallet SET balance = balance - #{amount}, frozen_amount = frozen_amount + #{amount}, updated_at = NOW() " +
-            "WHERE id = #{walletId} AND balance >= #{amount} AND deleted_at IS NULL")
-    int freezeAmount(@Param("walletId") Long walletId, @Param("amount") BigDecimal amount);
+    @Select("WITH w AS (" +
+            "UPDATE wallet SET balance = balance - #{t.amount}, updated_at = NOW() " +
+            "WHERE user_id = #{t.userId} AND balance >= #{t.amount} AND deleted_at IS NULL " +
+            "RETURNING id, user_id, balance + #{t.amount} AS balance_before, balance AS balance_after) " +
+            INSERT_LEDGER +
+            "RETURNING *")
+    @Options(flushCache = Options.FlushCachePolicy.TRUE)
+    Transaction debitBalance(@Param("t") Transaction transaction);
 
     /**
-     * 解冻金额（从冻结转回余额）
+     * 托管支付：余额转入冻结（确保余额足够）并写入流水
+     *
+     * @return 流水记录，余额不足返回null
      */
-    @Update("UPDATE wallet SET balance = balance + #{amount}, frozen_amount = frozen_amount - #{amount}, updated_at = NOW() " +
-            "WHERE id = #{walletId} AND frozen_amount >= #{amount} AND deleted_at IS NULL")
-    int unfreezeAmount(@Param("walletId") Long walletId, @Param("amount") BigDecimal amount);
+    @Select("WITH w AS (" +
+            "UPDATE wallet SET balance = balance - #{t.amount}, frozen_amount = frozen_amount + #{t.amount}, updated_at = NOW() " +
+            "WHERE user_id = #{t.userId} AND balance >= #{t.amount} AND deleted_at IS NULL " +
+            "RETURNING id, user_id, balance + #{t.amount} AS balance_before, balance AS balance_after) " +
+            INSERT_LEDGER +
+            "RETURNING *")
+    @Options(flushCache = Options.FlushCachePolicy.TRUE)
+    Transaction freezeBalance(@Param("t") Transaction transaction);
 
     /**
-     * 从冻结金额释放到指定用户（托管支付完成）
+     * 退款：冻结金额转回余额（确保冻结金额足够）并写入流水
+     *
+     * @return 流水记录，冻结金额不足返回null
      */
-    @Update("UPDATE wallet SET frozen_amount = frozen_amount - #{amount}, total_expense = total_expense + #{amount}, updated_at = NOW() " +
-            "WHERE id = #{walletId} AND frozen_amount >= #{amount} AND deleted_at IS NULL")
-    int releaseFrozenAmount(@Param("walletId") Long walletId, @Param("amount") BigDecimal amount);
+    @Select("WITH w AS (" +
+            "UPDATE wallet SET balance = balance + #{t.amount}, frozen_amount = frozen_amount - #{t.amount}, updated_at = NOW() " +
+            "WHERE user_id = #{t.userId} AND frozen_amount >= #{t.amount} AND deleted_at IS NULL " +
+            "RETURNING id, user_id, balance - #{t.amount} AS balance_before, balance AS balance_after) " +
+            INSERT_LEDGER +
+            "RETURNING *")
+    @Options(flushCache = Options.FlushCachePolicy.TRUE)
+    Transaction unfreezeBalance(@Param("t") Transaction transaction);
 
     /**
-     * 增加收入
+     * 托管支付完成：从冻结金额中支出（确保冻结金额足够）
+     *
+     * @return 变动后的钱包，冻结金额不足返回null
      */
-    @Update("UPDATE wallet SET balance = balance + #{amount}, total_income = total_income + #{amount}, updated_at = NOW() " +
-            "WHERE id = #{walletId} AND deleted_at IS NULL")
-    int addIncome(@Param("walletId") Long walletId, @Param("amount") BigDecimal amount);
+    @Select("UPDATE wallet SET frozen_amount = frozen_amount - #{amount}, total_expense = total_expense + #{amount}, updated_at = NOW() " +
+            "WHERE user_id = #{userId} AND frozen_amount >= #{amount} AND deleted_at IS NULL " +
+            "RETURNING *")
+    @Options(flushCache = Options.FlushCachePolicy.TRUE)
+    Wallet releaseFrozen(@Param("userId") Long userId, @Param("amount") BigDecimal amount);
+
+    /**
+     * 收入：增加余额和累计收入（钱包不存在时创建）并写入收入流水；
+     * 有服务费时同一语句写入服务费流水（余额不变，前后均为入账后余额）
+     *
+     * @return 收入流水记录
+     */
+    @Select("<script>" +
+            "WITH w AS (" +
+            "INSERT INTO wallet (user_id, balance, frozen_amount, total_income, total_expense, status, created_at, updated_at) " +
+            "VALUES (#{t.userId}, #{t.amount}, 0, #{t.amount}, 0, 0, NOW(), NOW()) " +
+            "ON CONFLICT (user_id) DO UPDATE SET balance = wallet.balance + EXCLUDED.balance, " +
+            "total_income = wallet.total_income + EXCLUDED.total_income, updated_at = NOW() " +
+            "WHERE wallet.deleted_at IS NULL " +
+            "RETURNING id, user_id, balance - #{t.amount} AS balance_before, balance AS balance_after), " +
+            "income AS (" + INSERT_LEDGER + "RETURNING *)" +
+            "<if test='fee != null'>" +
+            ", fee AS (INSERT INTO transaction (transaction_no, wallet_id, user_id, type, amount, " +
+            "balance_before, balance_after, order_id, milestone_id, status, remark, created_at, updated_at) " +
+            "SELECT #{fee.transactionNo}::varchar, w.id, w.user_id, #{fee.type}::smallint, #{fee.amount}::numeric, " +
+            "w.balance_after, w.balance_after, " +
+            "#{fee.orderId}::bigint, #{fee.milestoneId}::bigint, #{fee.status}::smallint, #{fee.remark}::varchar, NOW(), NOW() FROM w)" +
+            "</if>" +
+            " SELECT * FROM income" +
+            "</script>")
+    @Options(flushCache = Options.FlushCachePolicy.TRUE)
+    Transaction creditIncome(@Param("t") Transaction income, @Param("fee") Transaction fee);
 }
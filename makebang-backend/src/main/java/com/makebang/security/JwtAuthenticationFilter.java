@@ -25,31 +25,33 @@ import java.io.IOException;
 @RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
+    /**
+     * 推送连接路径，浏览器EventSource无法设置请求头，允许通过查询参数携带一次性票据
+     */
+    private static final String STREAM_PATH = "/v1/messages/stream";
+
     private final JwtUtils jwtUtils;
     private final UserDetailsService userDetailsService;
+    private final StreamTicketService streamTicketService;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request,
                                     HttpServletResponse response,
                                     FilterChain filterChain) throws ServletException, IOException {
         try {
-            String token = getTokenFromRequest(request);
-
-            if (StringUtils.hasText(token) && jwtUtils.validateToken(token)) {
-                String username = jwtUtils.getUsernameFromToken(token);
-
-                if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                    UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+            UserDetails userDetails = SecurityContextHolder.getContext().getAuthentication() == null
+                    ? resolveUser(request)
+                    : null;
 
-                    UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
-                            userDetails,
-                            null,
-                            userDetails.getAuthorities()
-                    );
-                    authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+            if (userDetails != null) {
+                UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+                        userDetails,
+                        null,
+                        userDetails.getAuthorities()
+                );
+                authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
 
-                    SecurityContextHolder.getContext().setAuthentication(authentication);
-                }
+                SecurityContextHolder.getContext().setAuthentication(authentication);
             }
         } catch (Exception e) {
             log.error("无法设置用户认证: {}", e.getMessage());
@@ -58,6 +60,25 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    private UserDetails resolveUser(HttpServletRequest request) {
+        String token = getTokenFromRequest(request);
+        if (StringUtils.hasText(token)) {
+            LoginUser loginUser = jwtUtils.parseLoginUser(token);
+            if (loginUser == null || loginUser.getUsername() == null) {
+                return null;
+            }
+            // 旧Token未携带用户声明时回查一次数据库
+            return loginUser.getUserId() != null
+                    ? loginUser
+                    : userDetailsService.loadUserByUsername(loginUser.getUsername());
+        }
+        if (STREAM_PATH.equals(request.getServletPath())) {
+            String username = streamTicketService.redeem(request.getParameter("ticket"));
+            return username != null ? userDetailsService.loadUserByUsername(username) : null;
+        }
+        return null;
+    }
+
     private String getTokenFromRequest(HttpServletRequest request) {
         String bearerToken = request.getHeader("Authorization");
         if (StringUtils.hasText(bearerToken) && bearerToken.startsWith("Bearer ")) {
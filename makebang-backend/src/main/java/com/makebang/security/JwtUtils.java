@@ -30,6 +30,10 @@ public class JwtUtils {
     @Value("${jwt.refresh-expiration}")
     private long refreshExpiration;
 
+    private static final String CLAIM_USER_ID = "uid";
+    private static final String CLAIM_ROLE = "role";
+    private static final String CLAIM_STATUS = "status";
+
     /**
      * 生成Token
      */
@@ -52,8 +56,15 @@ public class JwtUtils {
     }
 
     private String buildToken(Map<String, Object> extraClaims, UserDetails userDetails, long expiration) {
+        Map<String, Object> claims = new HashMap<>(extraClaims);
+        if (userDetails instanceof LoginUser loginUser) {
+            claims.put(CLAIM_USER_ID, loginUser.getUserId());
+            claims.put(CLAIM_ROLE, loginUser.getRole());
+            claims.put(CLAIM_STATUS, loginUser.getStatus());
+        }
+
         return Jwts.builder()
-                .claims(extraClaims)
+                .claims(claims)
                 .subject(userDetails.getUsername())
                 .issuedAt(new Date())
                 .expiration(new Date(System.currentTimeMillis() + expiration))
@@ -68,16 +79,42 @@ public class JwtUtils {
         return getClaim(token, Claims::getSubject);
     }
 
+    /**
+     * 解析Token并构建登录用户（一次验签）
+     *
+     * @return 登录用户；Token无效返回null；旧Token未携带用户声明时返回仅含用户名的主体
+     */
+    public LoginUser parseLoginUser(String token) {
+        Claims claims = parseValidClaims(token);
+        if (claims == null) {
+            return null;
+        }
+
+        Number userId = claims.get(CLAIM_USER_ID, Number.class);
+        Number role = claims.get(CLAIM_ROLE, Number.class);
+        Number status = claims.get(CLAIM_STATUS, Number.class);
+        return new LoginUser(
+                userId != null ? userId.longValue() : null,
+                claims.getSubject(),
+                null,
+                role != null ? role.intValue() : null,
+                status != null ? status.intValue() : null
+        );
+    }
+
     /**
      * 验证Token
      */
     public boolean validateToken(String token) {
+        return parseValidClaims(token) != null;
+    }
+
+    /**
+     * 验签并获取Claims，失败返回null
+     */
+    private Claims parseValidClaims(String token) {
         try {
-            Jwts.parser()
-                    .verifyWith(getSigningKey())
-                    .build()
-                    .parseSignedClaims(token);
-            return true;
+            return getAllClaims(token);
         } catch (MalformedJwtException e) {
             log.error("无效的JWT Token: {}", e.getMessage());
         } catch (ExpiredJwtException e) {
@@ -87,7 +124,7 @@ public class JwtUtils {
         } catch (IllegalArgumentException e) {
             log.error("JWT Token为空: {}", e.getMessage());
         }
-        return false;
+        return null;
     }
 
     /**
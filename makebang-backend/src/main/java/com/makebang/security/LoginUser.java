@@ -0,0 +1,94 @@
+package com.makebang.security;
+
+import com.makebang.entity.User;
+import lombok.Getter;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 登录用户主体
+ * 由JWT声明直接构建，携带用户ID、角色和状态，避免每次请求回查数据库
+ */
+@Getter
+public class LoginUser implements UserDetails {
+
+    private final Long userId;
+
+    private final String username;
+
+    /**
+     * 从JWT构建时为空
+     */
+    private final String password;
+
+    private final Integer role;
+
+    private final Integer status;
+
+    private final List<GrantedAuthority> authorities;
+
+    public LoginUser(Long userId, String username, String password, Integer role, Integer status) {
+        this.userId = userId;
+        this.username = username;
+        this.password = password;
+        this.role = role;
+        this.status = status;
+        this.authorities = buildAuthorities(role);
+    }
+
+    /**
+     * 从用户实体构建
+     */
+    public static LoginUser of(User user) {
+        return new LoginUser(user.getId(), user.getUsername(), user.getPassword(), user.getRole(), user.getStatus());
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return authorities;
+    }
+
+    @Override
+    public boolean isAccountNonExpired() {
+        return true;
+    }
+
+    @Override
+    public boolean isAccountNonLocked() {
+        return true;
+    }
+
+    @Override
+    public boolean isCredentialsNonExpired() {
+        return true;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return status != null && status == 1;
+    }
+
+    /**
+     * 根据角色获取权限列表
+     */
+    private static List<GrantedAuthority> buildAuthorities(Integer role) {
+        List<GrantedAuthority> authorities = new ArrayList<>();
+        authorities.add(new SimpleGrantedAuthority("ROLE_USER"));
+
+        if (role != null) {
+            if (role >= User.Role.ADMIN.code) {
+                authorities.add(new SimpleGrantedAuthority("ROLE_ADMIN"));
+            }
+            if (role >= User.Role.SUPER_ADMIN.code) {
+                authorities.add(new SimpleGrantedAuthority("ROLE_SUPER_ADMIN"));
+            }
+        }
+
+        return authorities;
+    }
+}
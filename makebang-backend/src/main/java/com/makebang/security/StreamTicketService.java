@@ -0,0 +1,47 @@
+package com.makebang.security;
+
+import com.makebang.config.PushConfig;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * 推送连接票据
+ * 浏览器EventSource无法设置请求头，建立连接前先凭JWT换取短时效、一次性的票据，
+ * 通过查询参数携带票据而不是JWT，避免长期凭证出现在URL和访问日志中
+ */
+@Component
+@RequiredArgsConstructor
+public class StreamTicketService {
+
+    private static final String KEY_PREFIX = "push:ticket:";
+
+    private final StringRedisTemplate redisTemplate;
+    private final PushConfig config;
+
+    /**
+     * 签发票据
+     */
+    public String issue(String username) {
+        String ticket = UUID.randomUUID().toString().replace("-", "");
+        redisTemplate.opsForValue().set(KEY_PREFIX + ticket, username,
+                Duration.ofMillis(config.getTicketTtl()));
+        return ticket;
+    }
+
+    /**
+     * 兑换票据，兑换后立即失效
+     *
+     * @return 用户名，票据无效或已使用时返回null
+     */
+    public String redeem(String ticket) {
+        if (!StringUtils.hasText(ticket)) {
+            return null;
+        }
+        return redisTemplate.opsForValue().getAndDelete(KEY_PREFIX + ticket);
+    }
+}
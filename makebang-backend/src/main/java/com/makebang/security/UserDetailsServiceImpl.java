@@ -3,17 +3,14 @@ package com.makebang.security;
 import com.makebang.entity.User;
 import com.makebang.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
-import java.util.ArrayList;
-import java.util.List;
-
 /**
  * 用户详情服务实现
+ * 仅用于不携带用户声明的旧Token
  */
 @Service
 @RequiredArgsConstructor
@@ -26,33 +23,6 @@ public class UserDetailsServiceImpl implements UserDetailsService {
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new UsernameNotFoundException("用户不存在: " + username));
 
-        return new org.springframework.security.core.userdetails.User(
-                user.getUsername(),
-                user.getPassword(),
-                user.getStatus() == 1,  // enabled
-                true,  // accountNonExpired
-                true,  // credentialsNonExpired
-                true,  // accountNonLocked
-                getAuthorities(user.getRole())
-        );
-    }
-
-    /**
-     * 根据角色获取权限列表
-     */
-    private List<SimpleGrantedAuthority> getAuthorities(Integer role) {
-        List<SimpleGrantedAuthority> authorities = new ArrayList<>();
-        authorities.add(new SimpleGrantedAuthority("ROLE_USER"));
-
-        if (role != null) {
-            if (role >= User.Role.ADMIN.code) {
-                authorities.add(new SimpleGrantedAuthority("ROLE_ADMIN"));
-            }
-            if (role >= User.Role.SUPER_ADMIN.code) {
-                authorities.add(new SimpleGrantedAuthority("ROLE_SUPER_ADMIN"));
-            }
-        }
-
-        return authorities;
+        return LoginUser.of(user);
     }
 }
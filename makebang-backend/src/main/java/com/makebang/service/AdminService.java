@@ -3,6 +3,8 @@ package com.makebang.service;
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.makebang.vo.*;
 
+import java.util.List;
+
 /**
  * 管理后台服务接口
  */
@@ -59,6 +61,13 @@ public interface AdminService {
      */
     void takedownProject(Long projectId, String reason);
 
+    // ========== 分类管理 ==========
+
+    /**
+     * 重新加载分类快照（所有节点）
+     */
+    List<CategoryVO> refreshCategories();
+
     // ========== 订单管理 ==========
 
     /**
@@ -0,0 +1,19 @@
+package com.makebang.service;
+
+import com.makebang.vo.RecommendedDeveloperVO;
+
+import java.util.List;
+
+/**
+ * 项目推荐程序员服务接口
+ */
+public interface DeveloperMatchService {
+
+    /**
+     * 获取项目的推荐程序员（按综合分排名），只有项目发布者可以查看
+     *
+     * @param projectId 项目ID
+     * @param limit     最多返回数量
+     */
+    List<RecommendedDeveloperVO> getRecommendedDevelopers(Long projectId, int limit);
+}
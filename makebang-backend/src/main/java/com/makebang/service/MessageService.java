@@ -1,10 +1,12 @@
 package com.makebang.service;
 
 import com.baomidou.mybatisplus.core.metadata.IPage;
+import com.makebang.common.result.CursorPageResult;
 import com.makebang.dto.message.SendMessageRequest;
 import com.makebang.vo.ConversationVO;
 import com.makebang.vo.MessageVO;
 import com.makebang.vo.NotificationVO;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 /**
  * 消息服务接口
@@ -23,11 +25,28 @@ public interface MessageService {
      */
     IPage<MessageVO> getConversationMessages(Long conversationId, int current, int size);
 
+    /**
+     * 游标分页获取会话消息列表
+     *
+     * @param cursor 上一页返回的游标，为空表示第一页
+     */
+    CursorPageResult<MessageVO> getConversationMessagesByCursor(Long conversationId, String cursor, int size);
+
     /**
      * 获取未读消息数
      */
     int getUnreadCount();
 
+    /**
+     * 订阅实时推送（新消息、新通知、未读数）
+     */
+    SseEmitter subscribe();
+
+    /**
+     * 签发推送连接票据，用于建立SSE连接
+     */
+    String createStreamTicket();
+
     // ========== 会话相关 ==========
 
     /**
@@ -62,6 +81,13 @@ public interface MessageService {
      */
     IPage<NotificationVO> getNotifications(Integer type, int current, int size);
 
+    /**
+     * 游标分页获取通知列表
+     *
+     * @param cursor 上一页返回的游标，为空表示第一页
+     */
+    CursorPageResult<NotificationVO> getNotificationsByCursor(Integer type, String cursor, int size);
+
     /**
      * 获取未读通知数
      */
@@ -4,6 +4,7 @@ import com.makebang.common.result.PageResult;
 import com.makebang.dto.project.CreateProjectRequest;
 import com.makebang.dto.project.ProjectQueryRequest;
 import com.makebang.dto.project.UpdateProjectRequest;
+import com.makebang.service.category.CategoryTree;
 import com.makebang.vo.CategoryVO;
 import com.makebang.vo.ProjectVO;
 
@@ -64,6 +65,11 @@ public interface ProjectService {
      */
     List<CategoryVO> getAllCategories();
 
+    /**
+     * 获取分类树快照(含ETag)
+     */
+    CategoryTree getCategoryTree();
+
     /**
      * 获取热门技能标签
      */
@@ -0,0 +1,30 @@
+package com.makebang.service;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.function.Supplier;
+
+/**
+ * 实时推送服务接口
+ */
+public interface PushService {
+
+    /**
+     * 建立当前节点上的SSE连接
+     */
+    SseEmitter subscribe(Long userId);
+
+    /**
+     * 推送事件给用户，当前存在事务时在提交后发送
+     *
+     * @param userId 接收用户ID
+     * @param type   事件类型
+     * @param data   事件数据
+     */
+    void push(Long userId, String type, Object data);
+
+    /**
+     * 推送事件给用户，数据在事务提交后才计算（用于需要读取已提交状态的数据，如未读数）
+     */
+    void pushLazily(Long userId, String type, Supplier<?> data);
+}
@@ -75,7 +75,7 @@ public interface SearchService {
     /**
      * 批量生成项目向量（定时任务）
      *
-     * @param batchSize 批量大小
+     * @param batchSize 最多处理的项目数
      */
     void batchGenerateEmbeddings(int batchSize);
 
@@ -1,6 +1,7 @@
 package com.makebang.service;
 
 import com.baomidou.mybatisplus.core.metadata.IPage;
+import com.makebang.common.result.CursorPageResult;
 import com.makebang.dto.RechargeRequest;
 import com.makebang.dto.WithdrawRequest;
 import com.makebang.vo.TransactionVO;
@@ -53,6 +54,13 @@ public interface WalletService {
      */
     IPage<TransactionVO> getTransactions(Integer type, int current, int size);
 
+    /**
+     * 游标分页获取交易记录列表
+     *
+     * @param cursor 上一页返回的游标，为空表示第一页
+     */
+    CursorPageResult<TransactionVO> getTransactionsByCursor(Integer type, String cursor, int size);
+
     /**
      * 获取订单相关交易记录
      */
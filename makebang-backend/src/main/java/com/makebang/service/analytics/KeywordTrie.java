@@ -0,0 +1,116 @@
+package com.makebang.service.analytics;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 按搜索次数加权的前缀树
+ * 每个节点缓存其子树中次数最高的 topK 个关键词，前缀查询只需沿路径走到节点后直接返回。
+ * 写操作需由调用方串行化；读操作无锁，读到的节点候选数组不可变
+ */
+public class KeywordTrie {
+
+    private final int topK;
+    private final Node root = new Node();
+    private final Map<String, Long> counts = new ConcurrentHashMap<>();
+
+    public KeywordTrie(int topK) {
+        this.topK = Math.max(1, topK);
+    }
+
+    /**
+     * 累加关键词次数，不存在时新增
+     */
+    public void add(String keyword, long delta) {
+        long count = counts.merge(keyword, delta, Long::sum);
+        Entry entry = new Entry(keyword, count);
+
+        Node node = root;
+        node.offer(entry, topK);
+        for (int i = 0; i < keyword.length(); i++) {
+            node = node.children.computeIfAbsent(keyword.charAt(i), c -> new Node());
+            node.offer(entry, topK);
+        }
+    }
+
+    /**
+     * 前缀联想
+     *
+     * @param prefix 前缀，空串返回全局热门
+     * @param limit  最多返回数量（不超过 topK）
+     */
+    public List<String> complete(String prefix, int limit) {
+        Node node = root;
+        for (int i = 0; i < prefix.length() && node != null; i++) {
+            node = node.children.get(prefix.charAt(i));
+        }
+        if (node == null) {
+            return Collections.emptyList();
+        }
+
+        Entry[] top = node.top;
+        int size = Math.min(limit, top.length);
+        List<String> result = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            result.add(top[i].keyword);
+        }
+        return result;
+    }
+
+    public boolean contains(String keyword) {
+        return counts.containsKey(keyword);
+    }
+
+    public int size() {
+        return counts.size();
+    }
+
+    public int topK() {
+        return topK;
+    }
+
+    private static final class Node {
+
+        private final Map<Character, Node> children = new ConcurrentHashMap<>(4);
+
+        private volatile Entry[] top = new Entry[0];
+
+        /**
+         * 更新候选：替换同名旧记录后按次数降序截断
+         */
+        private void offer(Entry entry, int topK) {
+            Entry[] current = top;
+            if (current.length == topK && !containsKeyword(current, entry.keyword)
+                    && current[topK - 1].count >= entry.count) {
+                return;
+            }
+
+            Entry[] next = new Entry[Math.min(current.length + 1, topK + 1)];
+            int size = 0;
+            for (Entry existing : current) {
+                if (!existing.keyword.equals(entry.keyword)) {
+                    next[size++] = existing;
+                }
+            }
+            next[size++] = entry;
+            Arrays.sort(next, 0, size, (a, b) -> Long.compare(b.count, a.count));
+            top = Arrays.copyOf(next, Math.min(size, topK));
+        }
+
+        private static boolean containsKeyword(Entry[] entries, String keyword) {
+            for (Entry entry : entries) {
+                if (entry.keyword.equals(keyword)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private record Entry(String keyword, long count) {
+    }
+}
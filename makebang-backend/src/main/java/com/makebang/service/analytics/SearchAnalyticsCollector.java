@@ -0,0 +1,160 @@
+package com.makebang.service.analytics;
+
+import com.makebang.config.SearchAnalyticsConfig;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+/**
+ * 搜索事件收集器
+ * 请求线程只把事件放入内存缓冲区，不做任何数据库写入；落库由 {@link SearchAnalyticsFlusher} 批量完成
+ */
+@Slf4j
+@Component
+public class SearchAnalyticsCollector {
+
+    /**
+     * search_history.keyword 列长度
+     */
+    private static final int KEYWORD_MAX_LENGTH = 200;
+
+    private static final String FIELD_SEPARATOR = "\t";
+
+    private final SearchAnalyticsConfig config;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final SearchEventBuffer buffer;
+
+    private final Counter acceptedCounter;
+    private final Counter droppedCounter;
+    private final Counter spilledCounter;
+
+    public SearchAnalyticsCollector(SearchAnalyticsConfig config,
+                                    StringRedisTemplate stringRedisTemplate,
+                                    MeterRegistry meterRegistry) {
+        this.config = config;
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.buffer = new SearchEventBuffer(config.getBufferCapacity());
+
+        this.acceptedCounter = meterRegistry.counter("makebang.search.analytics.events", "result", "accepted");
+        this.droppedCounter = meterRegistry.counter("makebang.search.analytics.events", "result", "dropped");
+        this.spilledCounter = meterRegistry.counter("makebang.search.analytics.events", "result", "spilled");
+        Gauge.builder("makebang.search.analytics.buffer.size", buffer, SearchEventBuffer::size)
+                .description("待刷写的搜索事件数")
+                .register(meterRegistry);
+        Gauge.builder("makebang.search.analytics.buffer.capacity", buffer, SearchEventBuffer::capacity)
+                .register(meterRegistry);
+    }
+
+    /**
+     * 记录一次搜索
+     *
+     * @param userId      用户ID，匿名为空
+     * @param keyword     搜索关键词
+     * @param searchType  搜索类型
+     * @param resultCount 结果数量
+     */
+    public void record(Long userId, String keyword, String searchType, long resultCount) {
+        if (!StringUtils.hasText(keyword)) {
+            return;
+        }
+        String normalized = keyword.trim();
+        if (normalized.length() > KEYWORD_MAX_LENGTH) {
+            droppedCounter.increment();
+            return;
+        }
+
+        SearchEvent event = new SearchEvent(userId, normalized, searchType,
+                (int) Math.min(resultCount, Integer.MAX_VALUE), LocalDateTime.now());
+        if (buffer.offer(event)) {
+            acceptedCounter.increment();
+            return;
+        }
+
+        if (config.getOverflowPolicy() == SearchAnalyticsConfig.OverflowPolicy.SPILL && spill(event)) {
+            spilledCounter.increment();
+            return;
+        }
+        droppedCounter.increment();
+    }
+
+    /**
+     * 取出缓冲区中的事件，仅供刷写线程调用
+     */
+    int drainBuffer(List<SearchEvent> target, int maxEvents) {
+        return buffer.drainTo(target, maxEvents);
+    }
+
+    /**
+     * 取出Redis中暂存的溢出事件，仅供刷写线程调用
+     */
+    int drainSpilled(List<SearchEvent> target, int maxEvents) {
+        if (config.getOverflowPolicy() != SearchAnalyticsConfig.OverflowPolicy.SPILL) {
+            return 0;
+        }
+        List<String> values = stringRedisTemplate.opsForList().leftPop(config.getSpillKey(), maxEvents);
+        if (values == null) {
+            return 0;
+        }
+        int drained = 0;
+        for (String value : values) {
+            SearchEvent event = decode(value);
+            if (event != null) {
+                target.add(event);
+                drained++;
+            }
+        }
+        return drained;
+    }
+
+    int bufferCapacity() {
+        return buffer.capacity();
+    }
+
+    private boolean spill(SearchEvent event) {
+        try {
+            Long length = stringRedisTemplate.opsForList().rightPush(config.getSpillKey(), encode(event));
+            if (length != null && length > config.getSpillMaxSize()) {
+                stringRedisTemplate.opsForList().trim(config.getSpillKey(), -config.getSpillMaxSize(), -1);
+            }
+            return true;
+        } catch (Exception e) {
+            log.warn("Failed to spill search event: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    private static String encode(SearchEvent event) {
+        long epochMillis = event.getCreatedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        return (event.getUserId() == null ? "" : event.getUserId()) + FIELD_SEPARATOR
+                + event.getSearchType() + FIELD_SEPARATOR
+                + event.getResultCount() + FIELD_SEPARATOR
+                + epochMillis + FIELD_SEPARATOR
+                + event.getKeyword();
+    }
+
+    private static SearchEvent decode(String value) {
+        // 关键词放在最后，本身含分隔符也不影响解析
+        String[] parts = value.split(FIELD_SEPARATOR, 5);
+        if (parts.length != 5) {
+            return null;
+        }
+        try {
+            Long userId = parts[0].isEmpty() ? null : Long.valueOf(parts[0]);
+            LocalDateTime createdAt = LocalDateTime.ofInstant(
+                    Instant.ofEpochMilli(Long.parseLong(parts[3])), ZoneId.systemDefault());
+            return new SearchEvent(userId, parts[4], parts[1], Integer.parseInt(parts[2]), createdAt);
+        } catch (NumberFormatException e) {
+            log.warn("Discarding malformed spilled search event: {}", value);
+            return null;
+        }
+    }
+}
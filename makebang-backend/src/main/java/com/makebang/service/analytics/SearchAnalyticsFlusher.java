@@ -0,0 +1,185 @@
+package com.makebang.service.analytics;
+
+import com.makebang.config.SearchAnalyticsConfig;
+import com.makebang.entity.HotKeyword;
+import com.makebang.entity.SearchHistory;
+import com.makebang.repository.HotKeywordRepository;
+import com.makebang.repository.SearchHistoryRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 搜索事件刷写器
+ * 单线程定时取出缓冲区事件：搜索历史按批多行插入，热门关键词在一个刷写窗口内先聚合，
+ * 再按批以 ON CONFLICT 语句累加，避免热门词行锁争用；写入成功的批次同步更新联想索引
+ */
+@Slf4j
+@Component
+public class SearchAnalyticsFlusher {
+
+    /**
+     * hot_keyword.keyword 列长度
+     */
+    private static final int HOT_KEYWORD_MAX_LENGTH = 100;
+
+    private final SearchAnalyticsCollector collector;
+    private final SearchHistoryRepository searchHistoryRepository;
+    private final HotKeywordRepository hotKeywordRepository;
+    private final SearchAnalyticsConfig config;
+    private final SearchSuggestionIndex suggestionIndex;
+
+    private final Counter historyRowsCounter;
+    private final Counter keywordRowsCounter;
+    private final Counter failedEventsCounter;
+    private final Timer flushTimer;
+
+    private ScheduledExecutorService executor;
+
+    public SearchAnalyticsFlusher(SearchAnalyticsCollector collector,
+                                  SearchHistoryRepository searchHistoryRepository,
+                                  HotKeywordRepository hotKeywordRepository,
+                                  SearchAnalyticsConfig config,
+                                  SearchSuggestionIndex suggestionIndex,
+                                  MeterRegistry meterRegistry) {
+        this.collector = collector;
+        this.searchHistoryRepository = searchHistoryRepository;
+        this.hotKeywordRepository = hotKeywordRepository;
+        this.config = config;
+        this.suggestionIndex = suggestionIndex;
+
+        this.historyRowsCounter = meterRegistry.counter("makebang.search.analytics.flushed", "table", "search_history");
+        this.keywordRowsCounter = meterRegistry.counter("makebang.search.analytics.flushed", "table", "hot_keyword");
+        this.failedEventsCounter = meterRegistry.counter("makebang.search.analytics.events", "result", "failed");
+        this.flushTimer = meterRegistry.timer("makebang.search.analytics.flush");
+    }
+
+    @PostConstruct
+    public void init() {
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "search-analytics-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(this::flushQuietly,
+                config.getFlushInterval(), config.getFlushInterval(), TimeUnit.MILLISECONDS);
+        log.info("Search analytics flusher started, interval {}ms", config.getFlushInterval());
+    }
+
+    @PreDestroy
+    public void destroy() {
+        executor.shutdown();
+        try {
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // 停机前写出剩余事件
+        flushQuietly();
+        log.info("Search analytics flusher stopped");
+    }
+
+    /**
+     * 刷写一个窗口内的全部积压事件
+     *
+     * @return 本次写出的事件数
+     */
+    public synchronized int flush() {
+        int maxEvents = collector.bufferCapacity();
+        List<SearchEvent> events = new ArrayList<>();
+        collector.drainSpilled(events, maxEvents);
+        collector.drainBuffer(events, maxEvents);
+        if (events.isEmpty()) {
+            return 0;
+        }
+
+        flushTimer.record(() -> {
+            writeHistories(events);
+            writeHotKeywords(events);
+        });
+        return events.size();
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (Exception e) {
+            log.error("Search analytics flush failed: {}", e.getMessage(), e);
+        }
+    }
+
+    private void writeHistories(List<SearchEvent> events) {
+        int batchSize = Math.max(1, config.getBatchSize());
+        for (int from = 0; from < events.size(); from += batchSize) {
+            List<SearchEvent> chunk = events.subList(from, Math.min(from + batchSize, events.size()));
+            List<SearchHistory> histories = new ArrayList<>(chunk.size());
+            for (SearchEvent event : chunk) {
+                SearchHistory history = new SearchHistory();
+                history.setUserId(event.getUserId());
+                history.setKeyword(event.getKeyword());
+                history.setSearchType(event.getSearchType());
+                history.setResultCount(event.getResultCount());
+                history.setCreatedAt(event.getCreatedAt());
+                histories.add(history);
+            }
+
+            try {
+                searchHistoryRepository.batchInsert(histories);
+                historyRowsCounter.increment(histories.size());
+            } catch (Exception e) {
+                failedEventsCounter.increment(histories.size());
+                log.warn("Failed to write {} search history rows: {}", histories.size(), e.getMessage());
+            }
+        }
+    }
+
+    private void writeHotKeywords(List<SearchEvent> events) {
+        // 按关键词聚合，TreeMap保证各实例以相同顺序加锁
+        Map<String, HotKeyword> increments = new TreeMap<>();
+        for (SearchEvent event : events) {
+            if (event.getKeyword().length() > HOT_KEYWORD_MAX_LENGTH) {
+                continue;
+            }
+            HotKeyword increment = increments.computeIfAbsent(event.getKeyword(), keyword -> {
+                HotKeyword hotKeyword = new HotKeyword();
+                hotKeyword.setKeyword(keyword);
+                hotKeyword.setSearchCount(0);
+                hotKeyword.setLastSearchedAt(event.getCreatedAt());
+                return hotKeyword;
+            });
+            increment.setSearchCount(increment.getSearchCount() + 1);
+            if (event.getCreatedAt().isAfter(increment.getLastSearchedAt())) {
+                increment.setLastSearchedAt(event.getCreatedAt());
+            }
+        }
+        if (increments.isEmpty()) {
+            return;
+        }
+
+        // 分批写入，避免关键词过多时超出单条语句的参数上限
+        List<HotKeyword> rows = new ArrayList<>(increments.values());
+        int batchSize = Math.max(1, config.getBatchSize());
+        for (int from = 0; from < rows.size(); from += batchSize) {
+            List<HotKeyword> chunk = rows.subList(from, Math.min(from + batchSize, rows.size()));
+            try {
+                hotKeywordRepository.batchIncrement(chunk);
+                keywordRowsCounter.increment(chunk.size());
+                suggestionIndex.applyIncrements(chunk);
+            } catch (Exception e) {
+                log.warn("Failed to update {} hot keywords: {}", chunk.size(), e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.makebang.service.analytics;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * 搜索事件（不可变）
+ */
+@Getter
+@AllArgsConstructor
+public class SearchEvent {
+
+    /**
+     * 用户ID（匿名搜索为空）
+     */
+    private final Long userId;
+
+    private final String keyword;
+
+    private final String searchType;
+
+    private final int resultCount;
+
+    /**
+     * 搜索发生时间，批量写入时原样落库
+     */
+    private final LocalDateTime createdAt;
+}
@@ -0,0 +1,92 @@
+package com.makebang.service.analytics;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 有界无锁环形缓冲区（多生产者、单消费者）
+ * 每个槽位带序号：生产者通过CAS抢占写入位置，消费者按序号判断槽位是否已就绪
+ */
+public class SearchEventBuffer {
+
+    private final int capacity;
+    private final int mask;
+    private final AtomicReferenceArray<SearchEvent> slots;
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong head = new AtomicLong();
+
+    public SearchEventBuffer(int requestedCapacity) {
+        this.capacity = roundUpToPowerOfTwo(Math.max(2, requestedCapacity));
+        this.mask = capacity - 1;
+        this.slots = new AtomicReferenceArray<>(capacity);
+        this.sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * 写入事件
+     *
+     * @return 缓冲区已满返回false
+     */
+    public boolean offer(SearchEvent event) {
+        while (true) {
+            long position = tail.get();
+            int index = (int) (position & mask);
+            long diff = sequences.get(index) - position;
+            if (diff == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    slots.set(index, event);
+                    sequences.set(index, position + 1);
+                    return true;
+                }
+            } else if (diff < 0) {
+                return false;
+            }
+            // diff > 0：其他生产者已抢占该位置，重读tail
+        }
+    }
+
+    /**
+     * 取出最多maxEvents个事件，只能由单一消费者调用
+     *
+     * @return 实际取出数量
+     */
+    public int drainTo(List<SearchEvent> target, int maxEvents) {
+        int drained = 0;
+        while (drained < maxEvents) {
+            long position = head.get();
+            int index = (int) (position & mask);
+            if (sequences.get(index) != position + 1) {
+                break;
+            }
+            target.add(slots.get(index));
+            slots.set(index, null);
+            sequences.set(index, position + capacity);
+            head.set(position + 1);
+            drained++;
+        }
+        return drained;
+    }
+
+    /**
+     * 当前积压数量（近似值）
+     */
+    public int size() {
+        long size = tail.get() - head.get();
+        return (int) Math.max(0, Math.min(size, capacity));
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    private static int roundUpToPowerOfTwo(int value) {
+        int highest = Integer.highestOneBit(value);
+        return highest == value ? value : highest << 1;
+    }
+}
@@ -0,0 +1,145 @@
+package com.makebang.service.analytics;
+
+import com.makebang.config.SearchSuggestionConfig;
+import com.makebang.entity.HotKeyword;
+import com.makebang.repository.HotKeywordRepository;
+import com.makebang.repository.ProjectRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 搜索联想内存索引
+ * 热门关键词前缀树定期从 hot_keyword 全量重建，期间由 {@link SearchAnalyticsFlusher} 按刷写增量实时更新；
+ * 热门技能按固定间隔刷新快照。索引未就绪时返回null，由调用方回退到数据库查询
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SearchSuggestionIndex {
+
+    private final HotKeywordRepository hotKeywordRepository;
+    private final ProjectRepository projectRepository;
+    private final SearchSuggestionConfig config;
+
+    private volatile KeywordTrie trie;
+    private volatile List<String> hotSkills;
+
+    private ScheduledExecutorService executor;
+
+    @PostConstruct
+    public void init() {
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "search-suggestion-refresher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(this::rebuildQuietly,
+                0, config.getRebuildInterval(), TimeUnit.MILLISECONDS);
+        executor.scheduleWithFixedDelay(this::refreshHotSkillsQuietly,
+                0, config.getHotSkillsRefreshInterval(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * 前缀联想
+     *
+     * @return 候选关键词；索引未就绪或 limit 超出缓存深度时返回null
+     */
+    public List<String> complete(String prefix, int limit) {
+        KeywordTrie current = trie;
+        if (current == null || limit > current.topK()) {
+            return null;
+        }
+        return current.complete(prefix == null ? "" : prefix, limit);
+    }
+
+    /**
+     * 热门关键词
+     *
+     * @return 索引未就绪或 limit 超出缓存深度时返回null
+     */
+    public List<String> hotKeywords(int limit) {
+        return complete("", limit);
+    }
+
+    /**
+     * 热门技能快照
+     *
+     * @return 快照未就绪或 limit 超出快照大小时返回null
+     */
+    public List<String> hotSkills(int limit) {
+        List<String> current = hotSkills;
+        if (current == null || limit > config.getHotSkillsSize()) {
+            return null;
+        }
+        return current.subList(0, Math.min(limit, current.size()));
+    }
+
+    /**
+     * 应用一个刷写窗口内的关键词增量
+     */
+    public synchronized void applyIncrements(Collection<HotKeyword> increments) {
+        KeywordTrie current = trie;
+        if (current == null) {
+            return;
+        }
+        for (HotKeyword increment : increments) {
+            if (current.size() < config.getMaxKeywords() || current.contains(increment.getKeyword())) {
+                current.add(increment.getKeyword(), increment.getSearchCount());
+            }
+        }
+    }
+
+    /**
+     * 从数据库全量重建前缀树
+     */
+    public synchronized void rebuild() {
+        long start = System.currentTimeMillis();
+        KeywordTrie next = new KeywordTrie(config.getTopK());
+        for (HotKeyword hotKeyword : hotKeywordRepository.getHotKeywords(config.getMaxKeywords())) {
+            if (hotKeyword.getKeyword() != null && hotKeyword.getSearchCount() != null) {
+                next.add(hotKeyword.getKeyword(), hotKeyword.getSearchCount());
+            }
+        }
+        trie = next;
+        log.info("Rebuilt search suggestion index with {} keywords in {}ms",
+                next.size(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * 刷新热门技能快照
+     */
+    public void refreshHotSkills() {
+        hotSkills = Collections.unmodifiableList(projectRepository.getHotSkills(config.getHotSkillsSize()));
+    }
+
+    private void rebuildQuietly() {
+        try {
+            rebuild();
+        } catch (Exception e) {
+            log.error("Failed to rebuild search suggestion index: {}", e.getMessage(), e);
+        }
+    }
+
+    private void refreshHotSkillsQuietly() {
+        try {
+            refreshHotSkills();
+        } catch (Exception e) {
+            log.error("Failed to refresh hot skills: {}", e.getMessage(), e);
+        }
+    }
+}
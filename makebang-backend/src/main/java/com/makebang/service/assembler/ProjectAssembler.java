@@ -0,0 +1,95 @@
+package com.makebang.service.assembler;
+
+import com.makebang.entity.Project;
+import com.makebang.entity.User;
+import com.makebang.service.UserService;
+import com.makebang.service.cache.EntityCacheManager;
+import com.makebang.service.category.CategoryCatalog;
+import com.makebang.service.category.CategoryTree;
+import com.makebang.vo.ProjectVO;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * 项目VO组装器
+ * 按页批量加载发布者（经实体缓存），避免逐行查询；分类名称取自内存中的分类快照
+ */
+@Component
+@RequiredArgsConstructor
+public class ProjectAssembler {
+
+    private final EntityCacheManager entityCacheManager;
+    private final CategoryCatalog categoryCatalog;
+    private final UserService userService;
+
+    /**
+     * 单个实体转VO
+     */
+    public ProjectVO toVO(Project project) {
+        if (project == null) return null;
+        return toVOList(Collections.singletonList(project)).get(0);
+    }
+
+    /**
+     * 批量实体转VO（保持传入顺序）
+     */
+    public List<ProjectVO> toVOList(List<Project> projects) {
+        if (projects == null || projects.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        CategoryTree categories = categoryCatalog.current();
+        Map<Long, User> userMap = loadUsers(projects);
+
+        List<ProjectVO> voList = new ArrayList<>(projects.size());
+        for (Project project : projects) {
+            voList.add(buildVO(project, categories, userMap));
+        }
+        return voList;
+    }
+
+    private Map<Long, User> loadUsers(List<Project> projects) {
+        Set<Long> userIds = projects.stream()
+                .map(Project::getUserId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        if (userIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        return entityCacheManager.users().getAll(userIds);
+    }
+
+    private ProjectVO buildVO(Project project, CategoryTree categories, Map<Long, User> userMap) {
+        ProjectVO vo = ProjectVO.builder()
+                .id(project.getId())
+                .userId(project.getUserId())
+                .title(project.getTitle())
+                .description(project.getDescription())
+                .categoryId(project.getCategoryId())
+                .budgetMin(project.getBudgetMin())
+                .budgetMax(project.getBudgetMax())
+                .deadline(project.getDeadline())
+                .skillRequirements(project.getSkillRequirements())
+                .attachmentUrls(project.getAttachmentUrls())
+                .status(project.getStatus())
+                .viewCount(project.getViewCount())
+                .bidCount(project.getBidCount())
+                .createdAt(project.getCreatedAt())
+                .updatedAt(project.getUpdatedAt())
+                .build();
+
+        // 分类名称
+        vo.setCategoryName(categories.name(project.getCategoryId()));
+
+        // 发布者信息
+        User user = userMap.get(project.getUserId());
+        if (user != null) {
+            vo.setUser(userService.toVO(user));
+        }
+
+        return vo;
+    }
+}
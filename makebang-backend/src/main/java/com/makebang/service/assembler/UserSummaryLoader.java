@@ -0,0 +1,49 @@
+package com.makebang.service.assembler;
+
+import com.makebang.entity.User;
+import com.makebang.service.UserService;
+import com.makebang.service.cache.EntityCacheManager;
+import com.makebang.vo.UserVO;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+/**
+ * 用户摘要加载
+ * 消息、会话列表等VO组装时批量获取用户信息，经实体缓存一次批量读取后转换；
+ * 不另外缓存VO，资料修改后随实体缓存失效即时生效
+ */
+@Component
+@RequiredArgsConstructor
+public class UserSummaryLoader {
+
+    private final EntityCacheManager entityCacheManager;
+    private final UserService userService;
+
+    /**
+     * 获取单个用户摘要
+     */
+    public UserVO get(Long userId) {
+        if (userId == null) {
+            return null;
+        }
+        return getAll(Collections.singleton(userId)).get(userId);
+    }
+
+    /**
+     * 批量获取用户摘要，不存在的用户不在结果中
+     */
+    public Map<Long, UserVO> getAll(Collection<Long> userIds) {
+        Set<Long> distinct = new HashSet<>(userIds);
+        distinct.remove(null);
+        if (distinct.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Map<Long, UserVO> result = new HashMap<>();
+        for (User user : entityCacheManager.users().getAll(distinct).values()) {
+            result.put(user.getId(), userService.toVO(user));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,210 @@
+package com.makebang.service.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.makebang.config.EntityCacheConfig;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * 实体二级缓存：一级为进程内 Caffeine，二级为 Redis（JSON），都未命中时批量查库。
+ * 返回的实体是共享对象，只能读取，不能修改后写库；修改请直接从仓库查询
+ *
+ * @param <K> 主键类型
+ * @param <T> 实体类型
+ */
+@Slf4j
+public class EntityCache<K, T> {
+
+    private static final String KEY_PREFIX = "entity:";
+
+    private final String name;
+    private final Class<T> type;
+    private final Function<T, K> idGetter;
+    private final Function<String, K> idParser;
+    private final Function<Collection<K>, List<T>> loader;
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final EntityCacheConfig config;
+
+    private final Cache<K, T> local;
+
+    private final Counter redisHitCounter;
+    private final Counter redisMissCounter;
+
+    public EntityCache(String name,
+                       Class<T> type,
+                       Function<T, K> idGetter,
+                       Function<String, K> idParser,
+                       Function<Collection<K>, List<T>> loader,
+                       RedisTemplate<String, Object> redisTemplate,
+                       EntityCacheConfig config,
+                       MeterRegistry meterRegistry) {
+        this.name = name;
+        this.type = type;
+        this.idGetter = idGetter;
+        this.idParser = idParser;
+        this.loader = loader;
+        this.redisTemplate = redisTemplate;
+        this.config = config;
+
+        this.local = Caffeine.newBuilder()
+                .maximumSize(config.getLocalMaxSize())
+                .expireAfterWrite(Duration.ofSeconds(config.getLocalTtl()))
+                .recordStats()
+                .build();
+
+        // cache.gets / cache.evictions / cache.size 等，tag cache=entity.<name>
+        CaffeineCacheMetrics.monitor(meterRegistry, local, "entity." + name);
+        this.redisHitCounter = meterRegistry.counter("makebang.entity.cache.redis", "cache", name, "result", "hit");
+        this.redisMissCounter = meterRegistry.counter("makebang.entity.cache.redis", "cache", name, "result", "miss");
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * 按ID获取实体
+     *
+     * @return 实体，不存在返回null
+     */
+    public T get(K id) {
+        if (id == null) {
+            return null;
+        }
+        return getAll(Collections.singleton(id)).get(id);
+    }
+
+    /**
+     * 批量获取实体，不存在的ID不在结果中
+     */
+    public Map<K, T> getAll(Collection<K> ids) {
+        Set<K> distinct = new LinkedHashSet<>(ids);
+        distinct.remove(null);
+        if (distinct.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        if (!config.isEnabled()) {
+            return index(loader.apply(distinct));
+        }
+
+        Map<K, T> result = new HashMap<>(local.getAllPresent(distinct));
+        List<K> missing = new ArrayList<>();
+        for (K id : distinct) {
+            if (!result.containsKey(id)) {
+                missing.add(id);
+            }
+        }
+        if (missing.isEmpty()) {
+            return result;
+        }
+
+        List<K> dbMissing = readRedis(missing, result);
+        if (!dbMissing.isEmpty()) {
+            Map<K, T> loaded = index(loader.apply(dbMissing));
+            local.putAll(loaded);
+            writeRedis(loaded);
+            result.putAll(loaded);
+        }
+        return result;
+    }
+
+    /**
+     * 失效本地和Redis中的条目
+     */
+    public void evict(K id) {
+        local.invalidate(id);
+        try {
+            redisTemplate.delete(redisKey(id));
+        } catch (Exception e) {
+            log.warn("Failed to evict {} {} from redis: {}", name, id, e.getMessage());
+        }
+    }
+
+    /**
+     * 从仓库写操作的参数中取出主键：实体、参数表中的实体（et）或主键（id），或主键本身
+     *
+     * @return 主键，无法识别返回null
+     */
+    public K keyOf(Object parameter) {
+        if (parameter instanceof Map<?, ?> params) {
+            parameter = params.containsKey("et") ? params.get("et")
+                    : params.containsKey("id") ? params.get("id") : null;
+        }
+        if (type.isInstance(parameter)) {
+            return idGetter.apply(type.cast(parameter));
+        }
+        if (parameter instanceof Number || parameter instanceof String) {
+            return idParser.apply(parameter.toString());
+        }
+        return null;
+    }
+
+    /**
+     * 只失效本地条目（收到其他节点的失效广播时）
+     */
+    public void evictLocal(String id) {
+        local.invalidate(idParser.apply(id));
+    }
+
+    /**
+     * 从Redis读取，命中的放入结果和本地缓存
+     *
+     * @return 仍未命中的ID
+     */
+    private List<K> readRedis(List<K> ids, Map<K, T> result) {
+        List<Object> values;
+        try {
+            values = redisTemplate.opsForValue().multiGet(ids.stream().map(this::redisKey).toList());
+        } catch (Exception e) {
+            log.warn("Failed to read {} cache from redis: {}", name, e.getMessage());
+            return ids;
+        }
+
+        List<K> missing = new ArrayList<>();
+        for (int i = 0; i < ids.size(); i++) {
+            Object value = values != null ? values.get(i) : null;
+            if (type.isInstance(value)) {
+                T entity = type.cast(value);
+                local.put(ids.get(i), entity);
+                result.put(ids.get(i), entity);
+            } else {
+                missing.add(ids.get(i));
+            }
+        }
+        redisHitCounter.increment(ids.size() - missing.size());
+        redisMissCounter.increment(missing.size());
+        return missing;
+    }
+
+    private void writeRedis(Map<K, T> entities) {
+        if (entities.isEmpty()) {
+            return;
+        }
+        try {
+            Duration ttl = Duration.ofSeconds(config.getRedisTtl());
+            entities.forEach((id, entity) -> redisTemplate.opsForValue().set(redisKey(id), entity, ttl));
+        } catch (Exception e) {
+            log.warn("Failed to write {} cache to redis: {}", name, e.getMessage());
+        }
+    }
+
+    private Map<K, T> index(List<T> entities) {
+        Map<K, T> map = new HashMap<>(entities.size() * 2);
+        for (T entity : entities) {
+            map.put(idGetter.apply(entity), entity);
+        }
+        return map;
+    }
+
+    private String redisKey(K id) {
+        return KEY_PREFIX + name + ":" + id;
+    }
+}
@@ -0,0 +1,42 @@
+package com.makebang.service.cache;
+
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.springframework.beans.factory.ObjectProvider;
+
+/**
+ * 实体缓存失效插件
+ * 仓库的更新、删除语句执行成功后交给 EntityCacheManager 失效对应条目，
+ * 主键取自 updateById / deleteById 的参数或自定义语句的 id 参数；
+ * 无法识别主键的批量更新由调用方显式失效
+ */
+@Intercepts(@Signature(type = Executor.class, method = "update", args = {MappedStatement.class, Object.class}))
+public class EntityCacheInterceptor implements Interceptor {
+
+    private final ObjectProvider<EntityCacheManager> entityCacheManager;
+
+    public EntityCacheInterceptor(ObjectProvider<EntityCacheManager> entityCacheManager) {
+        this.entityCacheManager = entityCacheManager;
+    }
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        Object result = invocation.proceed();
+
+        MappedStatement statement = (MappedStatement) invocation.getArgs()[0];
+        SqlCommandType type = statement.getSqlCommandType();
+        if (type == SqlCommandType.UPDATE || type == SqlCommandType.DELETE) {
+            EntityCacheManager manager = entityCacheManager.getIfAvailable();
+            if (manager != null) {
+                String id = statement.getId();
+                manager.evict(id.substring(0, id.lastIndexOf('.')), invocation.getArgs()[1]);
+            }
+        }
+        return result;
+    }
+}
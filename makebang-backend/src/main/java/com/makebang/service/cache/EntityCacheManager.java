@@ -0,0 +1,171 @@
+package com.makebang.service.cache;
+
+import com.makebang.config.EntityCacheConfig;
+import com.makebang.entity.Project;
+import com.makebang.entity.User;
+import com.makebang.repository.ProjectRepository;
+import com.makebang.repository.UserRepository;
+import com.makebang.util.TransactionUtils;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 实体缓存管理
+ * 通过仓库修改实体后（事务提交后）删除Redis条目，
+ * 并在Redis频道广播，所有节点（含自身）收到后失效本地条目；
+ * 提交前读到旧行的请求可能在删除后把旧值写回，延迟片刻再失效一次
+ */
+@Slf4j
+@Component
+public class EntityCacheManager implements MessageListener {
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final EntityCacheConfig config;
+
+    private final EntityCache<Long, User> users;
+    private final EntityCache<Long, Project> projects;
+
+    /**
+     * 仓库接口全名 -> 缓存
+     */
+    private final Map<String, EntityCache<?, ?>> byRepository;
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "entity-cache-evictor");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public EntityCacheManager(UserRepository userRepository,
+                              ProjectRepository projectRepository,
+                              RedisTemplate<String, Object> redisTemplate,
+                              StringRedisTemplate stringRedisTemplate,
+                              RedisMessageListenerContainer listenerContainer,
+                              EntityCacheConfig config,
+                              MeterRegistry meterRegistry) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.listenerContainer = listenerContainer;
+        this.config = config;
+
+        this.users = new EntityCache<>("user", User.class, User::getId, Long::valueOf,
+                ids -> loadUsers(userRepository, ids), redisTemplate, config, meterRegistry);
+        this.projects = new EntityCache<>("project", Project.class, Project::getId, Long::valueOf,
+                projectRepository::selectBatchIds, redisTemplate, config, meterRegistry);
+
+        this.byRepository = Map.of(
+                UserRepository.class.getName(), users,
+                ProjectRepository.class.getName(), projects);
+    }
+
+    @PostConstruct
+    public void init() {
+        listenerContainer.addMessageListener(this, new ChannelTopic(config.getChannel()));
+    }
+
+    @PreDestroy
+    public void destroy() {
+        scheduler.shutdownNow();
+    }
+
+    public EntityCache<Long, User> users() {
+        return users;
+    }
+
+    public EntityCache<Long, Project> projects() {
+        return projects;
+    }
+
+    /**
+     * 仓库修改实体后失效缓存（事务提交后），非缓存的仓库忽略
+     *
+     * @param repository 仓库接口全名
+     * @param parameter  写操作的参数
+     */
+    public void evict(String repository, Object parameter) {
+        EntityCache<?, ?> cache = byRepository.get(repository);
+        if (cache != null) {
+            evict(cache, parameter);
+        }
+    }
+
+    /**
+     * 批量写入项目后失效缓存（事务提交后），用于无法从参数识别主键的批量更新
+     */
+    public void evictProjects(Collection<Long> ids) {
+        ids.forEach(id -> evictAfterCommit(projects, id));
+    }
+
+    private <K> void evict(EntityCache<K, ?> cache, Object parameter) {
+        K id = cache.keyOf(parameter);
+        if (id != null) {
+            evictAfterCommit(cache, id);
+        }
+    }
+
+    private <K> void evictAfterCommit(EntityCache<K, ?> cache, K id) {
+        TransactionUtils.afterCommit(() -> {
+            evictNow(cache, id);
+            try {
+                scheduler.schedule(() -> evictNow(cache, id), config.getSecondEvictDelay(), TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException e) {
+                // 停机中，依赖缓存有效期兜底
+            }
+        });
+    }
+
+    private <K> void evictNow(EntityCache<K, ?> cache, K id) {
+        cache.evict(id);
+        try {
+            stringRedisTemplate.convertAndSend(config.getChannel(), cache.getName() + ":" + id);
+        } catch (Exception e) {
+            log.warn("Failed to broadcast {} cache eviction: {}", cache.getName(), e.getMessage());
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        int separator = body.indexOf(':');
+        if (separator < 0) {
+            return;
+        }
+        String name = body.substring(0, separator);
+        try {
+            for (EntityCache<?, ?> cache : byRepository.values()) {
+                if (cache.getName().equals(name)) {
+                    cache.evictLocal(body.substring(separator + 1));
+                }
+            }
+        } catch (Exception e) {
+            log.warn("Discarding malformed cache eviction: {}", body);
+        }
+    }
+
+    /**
+     * 缓存中的用户不保留密码
+     */
+    private static List<User> loadUsers(UserRepository userRepository, Collection<Long> ids) {
+        List<User> loaded = userRepository.selectBatchIds(ids);
+        loaded.forEach(user -> user.setPassword(null));
+        return loaded;
+    }
+}
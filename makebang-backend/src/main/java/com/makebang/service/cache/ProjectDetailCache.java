@@ -0,0 +1,73 @@
+package com.makebang.service.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.makebang.common.exception.BusinessException;
+import com.makebang.common.result.ResultCode;
+import com.makebang.config.ProjectCacheConfig;
+import com.makebang.entity.Project;
+import com.makebang.repository.ProjectRepository;
+import com.makebang.service.assembler.ProjectAssembler;
+import com.makebang.util.TransactionUtils;
+import com.makebang.vo.ProjectVO;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * 项目详情短时缓存（Caffeine）
+ * 同一项目的并发加载只执行一次（其余请求等待同一结果）；写入超过 detailRefreshAfter 后的首个请求触发后台刷新，
+ * 刷新期间继续返回旧值，热门项目不会集中到期后同时回源。
+ * 项目修改和状态变化时在事务提交后失效；只失效本实例，其他实例最多延迟 TTL
+ */
+@Component
+public class ProjectDetailCache {
+
+    private final ProjectRepository projectRepository;
+    private final ProjectAssembler projectAssembler;
+
+    private final LoadingCache<Long, ProjectVO> cache;
+
+    public ProjectDetailCache(ProjectRepository projectRepository,
+                              ProjectAssembler projectAssembler,
+                              ProjectCacheConfig config,
+                              MeterRegistry meterRegistry) {
+        this.projectRepository = projectRepository;
+        this.projectAssembler = projectAssembler;
+
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(config.getDetailMaxEntries())
+                .expireAfterWrite(Duration.ofMillis(config.getDetailTtl()))
+                .refreshAfterWrite(Duration.ofMillis(config.getDetailRefreshAfter()))
+                .recordStats()
+                .build(this::load);
+
+        // cache.gets / cache.evictions / cache.size 等，tag cache=project.detail
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "project.detail");
+    }
+
+    /**
+     * 获取项目详情；项目不存在时抛出异常，且不缓存
+     * 返回的对象是共享的，不能修改
+     */
+    public ProjectVO get(Long projectId) {
+        return cache.get(projectId);
+    }
+
+    /**
+     * 项目修改或状态变化后失效（事务提交后）；加载或刷新中的结果不会写回
+     */
+    public void invalidate(Long projectId) {
+        TransactionUtils.afterCommit(() -> cache.invalidate(projectId));
+    }
+
+    private ProjectVO load(Long projectId) {
+        Project project = projectRepository.selectById(projectId);
+        if (project == null || project.getDeletedAt() != null) {
+            throw new BusinessException(ResultCode.PROJECT_NOT_FOUND);
+        }
+        return projectAssembler.toVO(project);
+    }
+}
@@ -0,0 +1,91 @@
+package com.makebang.service.category;
+
+import com.makebang.repository.CategoryRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+/**
+ * 分类目录
+ * 读取只访问内存中的不可变快照；管理员刷新时广播到所有节点重新加载，
+ * 定时任务兜底直接改库（如迁移脚本）的情况。内容未变化时保留原快照和版本
+ */
+@Slf4j
+@Component
+public class CategoryCatalog implements MessageListener {
+
+    private static final String CHANNEL = "makebang:category:refresh";
+
+    private final CategoryRepository categoryRepository;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+
+    private volatile CategoryTree tree;
+
+    public CategoryCatalog(CategoryRepository categoryRepository,
+                           StringRedisTemplate stringRedisTemplate,
+                           RedisMessageListenerContainer listenerContainer) {
+        this.categoryRepository = categoryRepository;
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.listenerContainer = listenerContainer;
+    }
+
+    @PostConstruct
+    public void init() {
+        listenerContainer.addMessageListener(this, new ChannelTopic(CHANNEL));
+    }
+
+    /**
+     * 当前快照，首次访问时加载
+     */
+    public CategoryTree current() {
+        CategoryTree current = tree;
+        return current != null ? current : refresh();
+    }
+
+    /**
+     * 从数据库重新加载本节点的快照
+     *
+     * @return 刷新后的快照
+     */
+    public synchronized CategoryTree refresh() {
+        CategoryTree current = tree;
+        long version = current != null ? current.getVersion() + 1 : 1;
+        CategoryTree loaded = CategoryTree.build(categoryRepository.findAll(), version);
+        if (current != null && current.getEtag().equals(loaded.getEtag())) {
+            return current;
+        }
+        tree = loaded;
+        log.info("Category tree refreshed: version={}, etag={}", loaded.getVersion(), loaded.getEtag());
+        return loaded;
+    }
+
+    /**
+     * 刷新本节点并通知其他节点刷新
+     *
+     * @return 本节点刷新后的快照
+     */
+    public CategoryTree refreshAll() {
+        CategoryTree refreshed = refresh();
+        try {
+            stringRedisTemplate.convertAndSend(CHANNEL, refreshed.getEtag());
+        } catch (Exception e) {
+            log.warn("Failed to broadcast category refresh: {}", e.getMessage());
+        }
+        return refreshed;
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        try {
+            refresh();
+        } catch (Exception e) {
+            log.warn("Failed to refresh category tree: {}", e.getMessage());
+        }
+    }
+}
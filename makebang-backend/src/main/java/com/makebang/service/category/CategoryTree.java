@@ -0,0 +1,89 @@
+package com.makebang.service.category;
+
+import com.makebang.entity.Category;
+import com.makebang.vo.CategoryVO;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * 分类树快照（不可变）
+ * 整棵树和 ID→名称索引一次构建，变更时整体替换；ETag 由内容计算，各节点一致
+ */
+public final class CategoryTree {
+
+    private final long version;
+    private final String etag;
+    private final List<CategoryVO> roots;
+    private final Map<Integer, String> names;
+
+    private CategoryTree(long version, String etag, List<CategoryVO> roots, Map<Integer, String> names) {
+        this.version = version;
+        this.etag = etag;
+        this.roots = roots;
+        this.names = names;
+    }
+
+    /**
+     * 由分类列表构建快照（列表已按 sort、id 排序）
+     */
+    public static CategoryTree build(List<Category> categories, long version) {
+        Map<Integer, List<Category>> groupByParent = categories.stream()
+                .collect(Collectors.groupingBy(category -> Objects.requireNonNullElse(category.getParentId(), 0)));
+
+        Map<Integer, String> names = new HashMap<>(categories.size() * 2);
+        StringBuilder content = new StringBuilder();
+        for (Category category : categories) {
+            names.put(category.getId(), category.getName());
+            content.append(category.getId()).append('|')
+                    .append(category.getParentId()).append('|')
+                    .append(category.getName()).append('|')
+                    .append(category.getIcon()).append('|')
+                    .append(category.getSort()).append('\n');
+        }
+        String etag = DigestUtils.md5DigestAsHex(content.toString().getBytes(StandardCharsets.UTF_8));
+        return new CategoryTree(version, etag, buildChildren(groupByParent, 0), Map.copyOf(names));
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public String getEtag() {
+        return etag;
+    }
+
+    /**
+     * 一级分类（含子分类），列表不可修改，元素为共享对象，不能修改
+     */
+    public List<CategoryVO> getRoots() {
+        return roots;
+    }
+
+    /**
+     * 分类名称，不存在返回null
+     */
+    public String name(Integer categoryId) {
+        return categoryId != null ? names.get(categoryId) : null;
+    }
+
+    private static List<CategoryVO> buildChildren(Map<Integer, List<Category>> groupByParent, Integer parentId) {
+        List<Category> children = groupByParent.get(parentId);
+        if (children == null) {
+            return Collections.emptyList();
+        }
+
+        return children.stream()
+                .map(category -> CategoryVO.builder()
+                        .id(category.getId())
+                        .name(category.getName())
+                        .parentId(category.getParentId())
+                        .icon(category.getIcon())
+                        .sort(category.getSort())
+                        .children(buildChildren(groupByParent, category.getId()))
+                        .build())
+                .toList();
+    }
+}
@@ -0,0 +1,233 @@
+package com.makebang.service.counter;
+
+import com.makebang.config.ProjectViewConfig;
+import com.makebang.repository.ProjectRepository;
+import com.makebang.service.cache.EntityCacheManager;
+import com.makebang.util.SecurityUtils;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 项目浏览计数
+ * 浏览量先累加在本实例内存中（每个项目一个 LongAdder，并发累加不争用），
+ * 定时以一条多行 UPDATE 写入 project.view_count，详情页读取不再更新项目行；
+ * 独立访客（登录用户ID或客户端IP）同样缓存后批量写入Redis HyperLogLog project:viewers:{id}。
+ * 停机或故障时最多丢失一个写出间隔内的浏览量，与空闲项目清理并发的极少数增量也可能丢失，浏览量允许近似
+ */
+@Slf4j
+@Component
+public class ProjectViewCounter {
+
+    private static final String VIEWERS_KEY_PREFIX = "project:viewers:";
+
+    private final ProjectRepository projectRepository;
+    private final EntityCacheManager entityCacheManager;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final ProjectViewConfig config;
+
+    /**
+     * 项目ID -> 未写出的浏览量
+     */
+    private final Map<Long, LongAdder> pendingViews = new ConcurrentHashMap<>();
+
+    /**
+     * 项目ID -> 未写出的访客标识
+     */
+    private final Map<Long, Set<String>> pendingViewers = new ConcurrentHashMap<>();
+    private final AtomicInteger pendingViewerCount = new AtomicInteger();
+
+    private final Counter flushedCounter;
+    private final Counter droppedViewersCounter;
+
+    private ScheduledExecutorService executor;
+
+    public ProjectViewCounter(ProjectRepository projectRepository,
+                              EntityCacheManager entityCacheManager,
+                              StringRedisTemplate stringRedisTemplate,
+                              ProjectViewConfig config,
+                              MeterRegistry meterRegistry) {
+        this.projectRepository = projectRepository;
+        this.entityCacheManager = entityCacheManager;
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.config = config;
+
+        this.flushedCounter = meterRegistry.counter("makebang.project.views.flushed");
+        this.droppedViewersCounter = meterRegistry.counter("makebang.project.viewers.dropped");
+    }
+
+    @PostConstruct
+    public void init() {
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "project-view-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(this::flushQuietly,
+                config.getFlushInterval(), config.getFlushInterval(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void destroy() {
+        executor.shutdown();
+        try {
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // 停机前写出剩余计数
+        flushQuietly();
+    }
+
+    /**
+     * 记录一次浏览，访客取当前登录用户，未登录时取客户端IP
+     */
+    public void record(Long projectId) {
+        record(projectId, currentViewer());
+    }
+
+    /**
+     * 记录一次浏览
+     *
+     * @param viewer 访客标识，为null时只计浏览量
+     */
+    public void record(Long projectId, String viewer) {
+        pendingViews.computeIfAbsent(projectId, id -> new LongAdder()).increment();
+        if (viewer == null) {
+            return;
+        }
+        if (pendingViewerCount.get() >= config.getMaxPendingViewers()) {
+            droppedViewersCounter.increment();
+            return;
+        }
+        if (pendingViewers.computeIfAbsent(projectId, id -> ConcurrentHashMap.newKeySet()).add(viewer)) {
+            pendingViewerCount.incrementAndGet();
+        }
+    }
+
+    /**
+     * 本实例尚未写入数据库的浏览量，详情页显示时加到 view_count 上
+     */
+    public long pending(Long projectId) {
+        LongAdder adder = pendingViews.get(projectId);
+        return adder != null ? adder.sum() : 0;
+    }
+
+    /**
+     * 估算项目的独立访客数（不含尚未写出的访客）
+     */
+    public long uniqueViewers(Long projectId) {
+        try {
+            Long count = stringRedisTemplate.opsForHyperLogLog().size(viewersKey(projectId));
+            return count != null ? count : 0;
+        } catch (Exception e) {
+            log.warn("Failed to count unique viewers of project {}: {}", projectId, e.getMessage());
+            return 0;
+        }
+    }
+
+    /**
+     * 写出累计的浏览量和访客
+     *
+     * @return 写出的浏览量
+     */
+    public synchronized long flush() {
+        long views = flushViews();
+        flushViewers();
+        return views;
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (Exception e) {
+            log.error("Project view flush failed: {}", e.getMessage(), e);
+        }
+    }
+
+    private long flushViews() {
+        // 按项目ID排序，各实例以相同顺序更新
+        List<ProjectRepository.ViewDelta> deltas = new ArrayList<>();
+        long total = 0;
+        for (Long projectId : new TreeSet<>(pendingViews.keySet())) {
+            LongAdder adder = pendingViews.get(projectId);
+            long count = adder.sumThenReset();
+            if (count == 0) {
+                // 一个间隔内没有浏览，移除以免长期占用内存
+                pendingViews.remove(projectId, adder);
+                continue;
+            }
+            deltas.add(new ProjectRepository.ViewDelta(projectId, (int) Math.min(count, Integer.MAX_VALUE)));
+            total += count;
+        }
+        if (deltas.isEmpty()) {
+            return 0;
+        }
+
+        try {
+            projectRepository.batchIncrementViewCount(deltas);
+            entityCacheManager.evictProjects(deltas.stream().map(ProjectRepository.ViewDelta::getProjectId).toList());
+            flushedCounter.increment(total);
+            return total;
+        } catch (Exception e) {
+            // 放回缓冲，下次重试
+            for (ProjectRepository.ViewDelta delta : deltas) {
+                pendingViews.computeIfAbsent(delta.getProjectId(), id -> new LongAdder()).add(delta.getCount());
+            }
+            log.warn("Failed to write view counts of {} projects: {}", deltas.size(), e.getMessage());
+            return 0;
+        }
+    }
+
+    private void flushViewers() {
+        Duration ttl = Duration.ofSeconds(config.getUniqueViewerTtl());
+        for (Long projectId : new ArrayList<>(pendingViewers.keySet())) {
+            Set<String> viewers = pendingViewers.remove(projectId);
+            if (viewers == null || viewers.isEmpty()) {
+                continue;
+            }
+            try {
+                String key = viewersKey(projectId);
+                stringRedisTemplate.opsForHyperLogLog().add(key, viewers.toArray(new String[0]));
+                stringRedisTemplate.expire(key, ttl);
+            } catch (Exception e) {
+                log.warn("Failed to write unique viewers of project {}: {}", projectId, e.getMessage());
+            }
+        }
+        // 写出期间并发加入的访客会使计数偏差，按剩余集合重算
+        pendingViewerCount.set(pendingViewers.values().stream().mapToInt(Set::size).sum());
+    }
+
+    private static String currentViewer() {
+        Long userId = SecurityUtils.getCurrentUserIdOrNull();
+        if (userId != null) {
+            return "u:" + userId;
+        }
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes instanceof ServletRequestAttributes servletAttributes) {
+            // 经可信代理转发时由容器按 X-Forwarded-For 解析出客户端地址（server.forward-headers-strategy）
+            return "ip:" + servletAttributes.getRequest().getRemoteAddr();
+        }
+        return null;
+    }
+
+    private static String viewersKey(Long projectId) {
+        return VIEWERS_KEY_PREFIX + projectId;
+    }
+}
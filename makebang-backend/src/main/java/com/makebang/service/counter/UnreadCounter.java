@@ -0,0 +1,201 @@
+package com.makebang.service.counter;
+
+import com.makebang.repository.MessageRepository;
+import com.makebang.repository.NotificationRepository;
+import com.makebang.util.TransactionUtils;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * 用户未读计数
+ * 每个用户一个Redis哈希 unread:{userId}，字段为未读消息数和未读通知数。
+ * 写操作在事务提交后原子增减；读操作只访问Redis，键不存在时才从数据库初始化一次；
+ * 键在初始化和增减时续期，长期不活跃的用户自动过期，下次读取再初始化；
+ * 定时任务按数据库结果校准仍存在的键，修正并发窗口和故障造成的偏差
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UnreadCounter {
+
+    private static final String KEY_PREFIX = "unread:";
+    private static final String FIELD_MESSAGE = "message";
+    private static final String FIELD_NOTIFICATION = "notification";
+    private static final int RECONCILE_BATCH_SIZE = 500;
+
+    /**
+     * 计数键有效期（秒），1天
+     */
+    private static final long TTL_SECONDS = 86400;
+
+    /**
+     * 键存在时才累加并续期（不存在时由读取方从数据库初始化），结果不小于0
+     */
+    private static final RedisScript<Long> INCREMENT_SCRIPT = new DefaultRedisScript<>("""
+            if redis.call('EXISTS', KEYS[1]) == 0 then
+                return -1
+            end
+            local value = redis.call('HINCRBY', KEYS[1], ARGV[1], ARGV[2])
+            if value < 0 then
+                redis.call('HSET', KEYS[1], ARGV[1], 0)
+                value = 0
+            end
+            redis.call('EXPIRE', KEYS[1], ARGV[3])
+            return value
+            """, Long.class);
+
+    /**
+     * 写入计数并设置有效期
+     */
+    private static final RedisScript<Long> STORE_SCRIPT = new DefaultRedisScript<>("""
+            redis.call('HSET', KEYS[1], ARGV[1], ARGV[2], ARGV[3], ARGV[4])
+            redis.call('EXPIRE', KEYS[1], ARGV[5])
+            return 1
+            """, Long.class);
+
+    /**
+     * 键存在时才覆盖计数，不续期，校准不会让不活跃用户的键常驻
+     */
+    private static final RedisScript<Long> RESET_SCRIPT = new DefaultRedisScript<>("""
+            if redis.call('EXISTS', KEYS[1]) == 0 then
+                return 0
+            end
+            redis.call('HSET', KEYS[1], ARGV[1], ARGV[2], ARGV[3], ARGV[4])
+            return 1
+            """, Long.class);
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final MessageRepository messageRepository;
+    private final NotificationRepository notificationRepository;
+
+    /**
+     * 未读数
+     */
+    public record Counts(int messageCount, int notificationCount) {
+
+        public int total() {
+            return messageCount + notificationCount;
+        }
+    }
+
+    /**
+     * 调整未读消息数（事务提交后生效）
+     */
+    public void addMessages(Long userId, long delta) {
+        add(userId, FIELD_MESSAGE, delta);
+    }
+
+    /**
+     * 调整未读通知数（事务提交后生效）
+     */
+    public void addNotifications(Long userId, long delta) {
+        add(userId, FIELD_NOTIFICATION, delta);
+    }
+
+    /**
+     * 获取用户未读数
+     */
+    public Counts get(Long userId) {
+        try {
+            List<Object> values = stringRedisTemplate.opsForHash()
+                    .multiGet(key(userId), List.of(FIELD_MESSAGE, FIELD_NOTIFICATION));
+            if (values.get(0) != null && values.get(1) != null) {
+                return new Counts(Integer.parseInt((String) values.get(0)), Integer.parseInt((String) values.get(1)));
+            }
+        } catch (Exception e) {
+            log.warn("Failed to read unread counter of user {}: {}", userId, e.getMessage());
+            return load(userId);
+        }
+
+        // 首次读取，从数据库初始化
+        Counts counts = load(userId);
+        write(STORE_SCRIPT, userId, counts);
+        return counts;
+    }
+
+    /**
+     * 按数据库结果校准Redis中已有的全部计数
+     *
+     * @return 校准的用户数
+     */
+    public int reconcileAll() {
+        int reconciled = 0;
+        List<Long> batch = new ArrayList<>(RECONCILE_BATCH_SIZE);
+        ScanOptions options = ScanOptions.scanOptions().match(KEY_PREFIX + "*").count(RECONCILE_BATCH_SIZE).build();
+        try (Cursor<String> cursor = stringRedisTemplate.scan(options)) {
+            while (cursor.hasNext()) {
+                batch.add(Long.valueOf(cursor.next().substring(KEY_PREFIX.length())));
+                if (batch.size() >= RECONCILE_BATCH_SIZE) {
+                    reconciled += reconcile(batch);
+                    batch.clear();
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            reconciled += reconcile(batch);
+        }
+        return reconciled;
+    }
+
+    /**
+     * 按数据库结果校准一批用户
+     */
+    public int reconcile(Collection<Long> userIds) {
+        Map<Long, Integer> messageCounts = toMap(messageRepository.countUnreadByUserIds(userIds));
+        Map<Long, Integer> notificationCounts = toMap(notificationRepository.countUnreadByUserIds(userIds));
+        for (Long userId : userIds) {
+            write(RESET_SCRIPT, userId, new Counts(messageCounts.getOrDefault(userId, 0),
+                    notificationCounts.getOrDefault(userId, 0)));
+        }
+        return userIds.size();
+    }
+
+    private void add(Long userId, String field, long delta) {
+        if (userId == null || delta == 0) {
+            return;
+        }
+        TransactionUtils.afterCommit(() -> {
+            try {
+                stringRedisTemplate.execute(INCREMENT_SCRIPT, List.of(key(userId)), field, String.valueOf(delta),
+                        String.valueOf(TTL_SECONDS));
+            } catch (Exception e) {
+                // 由定时校准修正
+                log.warn("Failed to update unread counter of user {}: {}", userId, e.getMessage());
+            }
+        });
+    }
+
+    private Counts load(Long userId) {
+        return new Counts(messageRepository.countUnreadByUserId(userId),
+                notificationRepository.countUnreadByUserId(userId));
+    }
+
+    private void write(RedisScript<Long> script, Long userId, Counts counts) {
+        try {
+            stringRedisTemplate.execute(script, List.of(key(userId)),
+                    FIELD_MESSAGE, String.valueOf(counts.messageCount()),
+                    FIELD_NOTIFICATION, String.valueOf(counts.notificationCount()),
+                    String.valueOf(TTL_SECONDS));
+        } catch (Exception e) {
+            log.warn("Failed to store unread counter of user {}: {}", userId, e.getMessage());
+        }
+    }
+
+    private static Map<Long, Integer> toMap(List<MessageRepository.UnreadCount> rows) {
+        return rows.stream().collect(Collectors.toMap(
+                MessageRepository.UnreadCount::getUserId, MessageRepository.UnreadCount::getCount));
+    }
+
+    private static String key(Long userId) {
+        return KEY_PREFIX + userId;
+    }
+}
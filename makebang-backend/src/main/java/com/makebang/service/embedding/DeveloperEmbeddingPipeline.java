@@ -0,0 +1,141 @@
+package com.makebang.service.embedding;
+
+import com.makebang.config.EmbeddingConfig;
+import com.makebang.repository.DeveloperProfileRepository;
+import com.makebang.service.EmbeddingService;
+import com.makebang.service.match.DeveloperMatchRefresher;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+import org.springframework.util.StringUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 程序员技能向量生成管道
+ * 按用户ID顺序分页取出无向量或资料已更新的程序员，内容（技能、经验、简介）未变化的只更新生成时间，
+ * 其余每 batchSize 个一次批量请求并用一条语句写回；写入后标记受影响项目的推荐排名过期。
+ * 程序员数量远少于项目，批次串行执行
+ */
+@Slf4j
+@Component
+public class DeveloperEmbeddingPipeline {
+
+    private final EmbeddingService embeddingService;
+    private final DeveloperProfileRepository profileRepository;
+    private final DeveloperMatchRefresher matchRefresher;
+    private final EmbeddingConfig config;
+
+    private final Counter embeddedCounter;
+    private final Counter skippedCounter;
+    private final Counter failedCounter;
+
+    public DeveloperEmbeddingPipeline(EmbeddingService embeddingService,
+                                      DeveloperProfileRepository profileRepository,
+                                      DeveloperMatchRefresher matchRefresher,
+                                      EmbeddingConfig config,
+                                      MeterRegistry meterRegistry) {
+        this.embeddingService = embeddingService;
+        this.profileRepository = profileRepository;
+        this.matchRefresher = matchRefresher;
+        this.config = config;
+
+        this.embeddedCounter = meterRegistry.counter("makebang.embedding.developers", "result", "embedded");
+        this.skippedCounter = meterRegistry.counter("makebang.embedding.developers", "result", "unchanged");
+        this.failedCounter = meterRegistry.counter("makebang.embedding.developers", "result", "failed");
+    }
+
+    /**
+     * 为需要更新的程序员生成技能向量
+     *
+     * @param limit 最多处理的程序员数
+     * @return 写入的向量数
+     */
+    public int run(int limit) {
+        int batchSize = Math.max(1, config.getBatchSize());
+        int written = 0;
+        int scanned = 0;
+        long afterId = 0;
+        while (scanned < limit) {
+            List<DeveloperProfileRepository.StaleProfile> page =
+                    profileRepository.findStaleProfiles(afterId, Math.min(batchSize, limit - scanned));
+            if (page.isEmpty()) {
+                break;
+            }
+            scanned += page.size();
+            afterId = page.get(page.size() - 1).getUserId();
+            written += process(page);
+        }
+        return written;
+    }
+
+    /**
+     * 构建程序员资料文本（用于生成向量），与项目文本的技能部分格式一致
+     */
+    public static String buildContent(List<String> skills, Integer experienceYears, String bio) {
+        StringBuilder sb = new StringBuilder();
+        if (skills != null && !skills.isEmpty()) {
+            sb.append("技能: ").append(String.join(", ", skills)).append("\n");
+        }
+        if (experienceYears != null && experienceYears > 0) {
+            sb.append("工作经验: ").append(experienceYears).append("年\n");
+        }
+        if (StringUtils.hasText(bio)) {
+            sb.append(bio);
+        }
+        return sb.toString();
+    }
+
+    private int process(List<DeveloperProfileRepository.StaleProfile> profiles) {
+        List<Long> unchanged = new ArrayList<>();
+        List<Long> userIds = new ArrayList<>();
+        List<String> texts = new ArrayList<>();
+        List<String> hashes = new ArrayList<>();
+        for (DeveloperProfileRepository.StaleProfile profile : profiles) {
+            String content = buildContent(profile.getSkills(), profile.getExperienceYears(), profile.getBio());
+            String contentHash = DigestUtils.md5DigestAsHex(content.getBytes(StandardCharsets.UTF_8));
+            if (content.isEmpty() || contentHash.equals(profile.getSkillContentHash())) {
+                unchanged.add(profile.getUserId());
+                continue;
+            }
+            userIds.add(profile.getUserId());
+            texts.add(content);
+            hashes.add(contentHash);
+        }
+        if (!unchanged.isEmpty()) {
+            profileRepository.touchSkillEmbedded(unchanged);
+            skippedCounter.increment(unchanged.size());
+        }
+        if (texts.isEmpty()) {
+            return 0;
+        }
+
+        try {
+            List<float[]> embeddings = embeddingService.generateEmbeddings(texts);
+            if (embeddings.size() != texts.size()) {
+                log.warn("Embedding batch of {} developers returned {} vectors, skipping", texts.size(), embeddings.size());
+                failedCounter.increment(texts.size());
+                return 0;
+            }
+
+            List<DeveloperProfileRepository.SkillVectorRow> rows = new ArrayList<>(texts.size());
+            for (int i = 0; i < texts.size(); i++) {
+                rows.add(new DeveloperProfileRepository.SkillVectorRow(userIds.get(i), embeddings.get(i), hashes.get(i)));
+            }
+            profileRepository.batchUpdateSkillEmbeddings(rows);
+            embeddedCounter.increment(rows.size());
+
+            matchRefresher.onProfilesEmbedded(userIds);
+            return rows.size();
+        } catch (Exception e) {
+            // 失败的资料保持过期状态，下次运行时重试
+            log.error("Failed to embed batch of {} developers: {}", texts.size(), e.getMessage(), e);
+            failedCounter.increment(texts.size());
+            return 0;
+        }
+    }
+}
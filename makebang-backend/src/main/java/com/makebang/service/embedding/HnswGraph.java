@@ -0,0 +1,273 @@
+package com.makebang.service.embedding;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 基于 {@link MappedVectorStore} 的 HNSW 近邻图
+ * 节点号即存储槽位号，向量须为单位向量，相似度为点积。
+ * 图结构在堆上，重启时由存储中的向量重建；墓碑节点保留在图中用于导航，但不出现在结果里。
+ * 插入互斥，查询可并发
+ */
+public class HnswGraph {
+
+    private static final int[] EMPTY = new int[0];
+
+    private final MappedVectorStore store;
+    private final int m;
+    private final int maxM0;
+    private final int efConstruction;
+    private final double levelMultiplier;
+    private final Random random;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * 节点 -> 层 -> 邻居节点
+     */
+    private int[][][] neighbors = new int[16][][];
+    private int size;
+    private int entryNode = -1;
+    private int entryLevel = -1;
+
+    /**
+     * 近邻结果
+     */
+    public record Neighbor(int node, float score) {
+    }
+
+    /**
+     * @param m              每层最大连接数（第0层为 2m）
+     * @param efConstruction 构建时的候选列表大小
+     */
+    public HnswGraph(MappedVectorStore store, int m, int efConstruction) {
+        this(store, m, efConstruction, new Random(42));
+    }
+
+    HnswGraph(MappedVectorStore store, int m, int efConstruction, Random random) {
+        this.store = store;
+        this.m = Math.max(2, m);
+        this.maxM0 = this.m * 2;
+        this.efConstruction = Math.max(this.m, efConstruction);
+        this.levelMultiplier = 1 / Math.log(this.m);
+        this.random = random;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 插入节点，须按槽位顺序依次插入
+     */
+    public void add(int node) {
+        lock.writeLock().lock();
+        try {
+            if (node != size) {
+                throw new IllegalArgumentException("Expected node " + size + ", got " + node);
+            }
+            float[] vector = store.read(node);
+            int level = randomLevel();
+
+            if (node >= neighbors.length) {
+                neighbors = Arrays.copyOf(neighbors, Math.max(node + 1, neighbors.length * 2));
+            }
+            int[][] lists = new int[level + 1][];
+            Arrays.fill(lists, EMPTY);
+            neighbors[node] = lists;
+            size = node + 1;
+
+            if (entryNode < 0) {
+                entryNode = node;
+                entryLevel = level;
+                return;
+            }
+
+            Neighbor current = new Neighbor(entryNode, store.dot(vector, entryNode));
+            for (int l = entryLevel; l > level; l--) {
+                current = greedy(vector, current, l);
+            }
+
+            BitSet visited = new BitSet(size);
+            for (int l = Math.min(level, entryLevel); l >= 0; l--) {
+                visited.clear();
+                List<Neighbor> found = searchLayer(vector, current, efConstruction, l, visited);
+                int[] selected = selectNeighbors(found, m);
+                lists[l] = selected;
+                for (int neighbor : selected) {
+                    connect(neighbor, node, l);
+                }
+                current = found.get(0);
+            }
+
+            if (level > entryLevel) {
+                entryNode = node;
+                entryLevel = level;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 查询最相似的 k 个存活节点
+     *
+     * @param query 单位向量
+     * @param ef    查询候选列表大小，不小于 k
+     */
+    public List<Neighbor> search(float[] query, int k, int ef) {
+        lock.readLock().lock();
+        try {
+            if (entryNode < 0) {
+                return Collections.emptyList();
+            }
+            Neighbor current = new Neighbor(entryNode, store.dot(query, entryNode));
+            for (int l = entryLevel; l > 0; l--) {
+                current = greedy(query, current, l);
+            }
+            List<Neighbor> found = searchLayer(query, current, Math.max(ef, k), 0, new BitSet(size));
+
+            List<Neighbor> result = new ArrayList<>(Math.min(k, found.size()));
+            for (Neighbor neighbor : found) {
+                if (store.isLive(neighbor.node())) {
+                    result.add(neighbor);
+                    if (result.size() == k) {
+                        break;
+                    }
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ========== Private Methods ==========
+
+    private int randomLevel() {
+        return (int) (-Math.log(1 - random.nextDouble()) * levelMultiplier);
+    }
+
+    /**
+     * 在单层上贪心移动到更相似的邻居，直到无法改进
+     */
+    private Neighbor greedy(float[] query, Neighbor start, int level) {
+        Neighbor current = start;
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (int neighbor : neighbors[current.node()][level]) {
+                float score = store.dot(query, neighbor);
+                if (score > current.score()) {
+                    current = new Neighbor(neighbor, score);
+                    changed = true;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * 单层束搜索，返回按相似度降序的至多 ef 个节点
+     */
+    private List<Neighbor> searchLayer(float[] query, Neighbor entry, int ef, int level, BitSet visited) {
+        PriorityQueue<Neighbor> candidates = new PriorityQueue<>(
+                Comparator.comparingDouble(Neighbor::score).reversed());
+        PriorityQueue<Neighbor> results = new PriorityQueue<>(Comparator.comparingDouble(Neighbor::score));
+        visited.set(entry.node());
+        candidates.add(entry);
+        results.add(entry);
+
+        while (!candidates.isEmpty()) {
+            Neighbor candidate = candidates.poll();
+            if (results.size() >= ef && candidate.score() < results.peek().score()) {
+                break;
+            }
+            for (int neighbor : neighbors[candidate.node()][level]) {
+                if (visited.get(neighbor)) {
+                    continue;
+                }
+                visited.set(neighbor);
+                float score = store.dot(query, neighbor);
+                if (results.size() < ef || score > results.peek().score()) {
+                    Neighbor next = new Neighbor(neighbor, score);
+                    candidates.add(next);
+                    results.add(next);
+                    if (results.size() > ef) {
+                        results.poll();
+                    }
+                }
+            }
+        }
+
+        List<Neighbor> sorted = new ArrayList<>(results);
+        sorted.sort(Comparator.comparingDouble(Neighbor::score).reversed());
+        return sorted;
+    }
+
+    /**
+     * 启发式选邻居：候选比已选邻居更接近基准点时才选入，使连接分布在不同方向；
+     * 不足 max 个时按相似度补齐
+     *
+     * @param candidates 相对基准点按相似度降序的候选
+     */
+    private int[] selectNeighbors(List<Neighbor> candidates, int max) {
+        List<Neighbor> selected = new ArrayList<>(max);
+        List<Neighbor> pruned = new ArrayList<>();
+        for (Neighbor candidate : candidates) {
+            if (selected.size() >= max) {
+                break;
+            }
+            float[] vector = store.read(candidate.node());
+            boolean diverse = true;
+            for (Neighbor chosen : selected) {
+                if (store.dot(vector, chosen.node()) > candidate.score()) {
+                    diverse = false;
+                    break;
+                }
+            }
+            if (diverse) {
+                selected.add(candidate);
+            } else {
+                pruned.add(candidate);
+            }
+        }
+        for (int i = 0; i < pruned.size() && selected.size() < max; i++) {
+            selected.add(pruned.get(i));
+        }
+
+        int[] result = new int[selected.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = selected.get(i).node();
+        }
+        return result;
+    }
+
+    /**
+     * 为已有节点增加反向连接，超出上限时重新选邻居
+     */
+    private void connect(int node, int neighbor, int level) {
+        int max = level == 0 ? maxM0 : m;
+        int[] current = neighbors[node][level];
+        if (current.length < max) {
+            int[] extended = Arrays.copyOf(current, current.length + 1);
+            extended[current.length] = neighbor;
+            neighbors[node][level] = extended;
+            return;
+        }
+
+        float[] vector = store.read(node);
+        List<Neighbor> candidates = new ArrayList<>(current.length + 1);
+        for (int existing : current) {
+            candidates.add(new Neighbor(existing, store.dot(vector, existing)));
+        }
+        candidates.add(new Neighbor(neighbor, store.dot(vector, neighbor)));
+        candidates.sort(Comparator.comparingDouble(Neighbor::score).reversed());
+        neighbors[node][level] = selectNeighbors(candidates, max);
+    }
+}
@@ -0,0 +1,303 @@
+package com.makebang.service.embedding;
+
+import com.makebang.config.EmbeddingConfig;
+import com.makebang.repository.ProjectEmbeddingRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 进程内项目向量索引
+ * 向量存于内存映射文件（堆外，重启不需重新下载），启动时由文件重建 HNSW 图，
+ * 之后按 updated_at 从 project_embedding 增量同步；本实例生成的向量写库后立即加入。
+ * 首次同步完成前 {@link #isReady()} 为 false，调用方应回退到 pgvector
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "makebang.embedding.local-index", havingValue = "true")
+public class LocalVectorIndex {
+
+    private static final String STORE_FILE = "project-vectors.bin";
+    private static final int SYNC_BATCH_SIZE = 1000;
+    private static final long MICROS_PER_SECOND = 1_000_000L;
+
+    /**
+     * 与数据库核对时回看的时间（微秒）：updated_at 取事务开始时间，晚提交的行可能落在游标之前，
+     * 常规同步只按游标增量读取，由定期核对补上这些行
+     */
+    private static final long RESCAN_OVERLAP_MICROS = 5 * 60 * MICROS_PER_SECOND;
+
+    /**
+     * 与数据库核对已删除向量的间隔（毫秒）
+     */
+    private static final long RECONCILE_INTERVAL_MILLIS = 3600_000;
+
+    private final ProjectEmbeddingRepository embeddingRepository;
+    private final EmbeddingConfig config;
+    private final Timer searchTimer;
+
+    /**
+     * 项目ID -> 存活槽位
+     */
+    private final Map<Long, Integer> slots = new ConcurrentHashMap<>();
+
+    /**
+     * 串行化存储与图的写入
+     */
+    private final Object writeLock = new Object();
+
+    private ScheduledExecutorService scheduler;
+    private MappedVectorStore store;
+    private HnswGraph graph;
+    private volatile boolean ready;
+    private long lastReconcileAt;
+
+    public LocalVectorIndex(ProjectEmbeddingRepository embeddingRepository,
+                            EmbeddingConfig config,
+                            MeterRegistry meterRegistry) {
+        this.embeddingRepository = embeddingRepository;
+        this.config = config;
+        this.searchTimer = meterRegistry.timer("makebang.embedding.local.search");
+
+        Gauge.builder("makebang.embedding.local.vectors", slots, Map::size).register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void init() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "vector-index");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.execute(this::load);
+        scheduler.scheduleWithFixedDelay(this::syncQuietly, config.getLocalIndexSyncInterval(),
+                config.getLocalIndexSyncInterval(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void destroy() throws IOException {
+        scheduler.shutdownNow();
+        synchronized (writeLock) {
+            ready = false;
+            if (store != null) {
+                store.close();
+            }
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * 查询与向量最相似的项目，按相似度降序
+     *
+     * @param queryVector 查询向量（无需归一化）
+     * @param threshold   最小相似度
+     * @param limit       最多返回数量
+     */
+    public List<ProjectEmbeddingRepository.SimilarityResult> search(float[] queryVector, double threshold, int limit) {
+        long start = System.nanoTime();
+        try {
+            float[] query = VectorKernels.normalize(queryVector);
+            int ef = Math.max(config.getLocalIndexEfSearch(), limit);
+
+            List<ProjectEmbeddingRepository.SimilarityResult> results = new ArrayList<>(limit);
+            for (HnswGraph.Neighbor neighbor : graph.search(query, limit, ef)) {
+                if (neighbor.score() < threshold) {
+                    break;
+                }
+                long projectId = store.projectId(neighbor.node());
+                if (projectId == MappedVectorStore.TOMBSTONE) {
+                    continue;
+                }
+                ProjectEmbeddingRepository.SimilarityResult result = new ProjectEmbeddingRepository.SimilarityResult();
+                result.setProjectId(projectId);
+                result.setSimilarity((double) neighbor.score());
+                results.add(result);
+            }
+            return results;
+        } finally {
+            searchTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * 本实例写库后的向量立即加入索引；版本戳未知，下次同步时只更新版本戳
+     */
+    public void onUpserted(List<ProjectEmbeddingRepository.VectorRow> rows) {
+        if (!ready) {
+            return;
+        }
+        synchronized (writeLock) {
+            for (ProjectEmbeddingRepository.VectorRow row : rows) {
+                try {
+                    upsert(row.getProjectId(), row.getEmbedding(), 0L);
+                } catch (Exception e) {
+                    log.warn("Failed to add project {} to local vector index: {}", row.getProjectId(), e.getMessage());
+                }
+            }
+        }
+    }
+
+    // ========== Private Methods ==========
+
+    /**
+     * 从数据库增量同步，并定期回看晚提交的行、移除数据库中已删除的向量
+     *
+     * @return 新写入的向量数
+     */
+    private int sync() throws IOException {
+        if (store == null) {
+            return 0;
+        }
+        boolean reconcileDue = System.currentTimeMillis() - lastReconcileAt >= RECONCILE_INTERVAL_MILLIS;
+        int written = reconcileDue
+                ? pull(Math.max(0, store.watermark() - RESCAN_OVERLAP_MICROS), 0)
+                : pull(store.watermark(), store.watermarkId());
+
+        if (reconcileDue) {
+            reconcile();
+            lastReconcileAt = System.currentTimeMillis();
+        }
+        return written;
+    }
+
+    /**
+     * 按 (updated_at, project_id) 游标分批读取并写入，游标前进时持久化到存储文件
+     */
+    private int pull(long since, long afterId) throws IOException {
+        int written = 0;
+        while (true) {
+            List<ProjectEmbeddingRepository.EmbeddingRow> rows =
+                    embeddingRepository.findUpdatedSince(fromMicros(since), afterId, SYNC_BATCH_SIZE);
+            synchronized (writeLock) {
+                for (ProjectEmbeddingRepository.EmbeddingRow row : rows) {
+                    long stamp = toMicros(row.getUpdatedAt());
+                    if (upsert(row.getProjectId(), row.getEmbedding(), stamp)) {
+                        written++;
+                    }
+                    since = stamp;
+                    afterId = row.getProjectId();
+                    if (since > store.watermark() || (since == store.watermark() && afterId > store.watermarkId())) {
+                        store.setWatermark(since, afterId);
+                    }
+                }
+            }
+            if (rows.size() < SYNC_BATCH_SIZE) {
+                return written;
+            }
+        }
+    }
+
+    private void load() {
+        try {
+            long start = System.currentTimeMillis();
+            MappedVectorStore opened = new MappedVectorStore(
+                    Path.of(config.getLocalIndexPath(), STORE_FILE), config.getDimensions());
+            int reclaimed = opened.compact();
+
+            HnswGraph built = new HnswGraph(opened, config.getLocalIndexM(), config.getLocalIndexEfConstruction());
+            for (int slot = 0; slot < opened.size(); slot++) {
+                Integer previous = slots.put(opened.projectId(slot), slot);
+                if (previous != null) {
+                    // 上次退出时更新未完成，保留较新的槽位
+                    opened.tombstone(previous);
+                }
+                built.add(slot);
+            }
+
+            synchronized (writeLock) {
+                store = opened;
+                graph = built;
+            }
+            log.info("Loaded {} vectors into local index ({} reclaimed, kernel {}) in {}ms",
+                    slots.size(), reclaimed, VectorKernels.kernel(), System.currentTimeMillis() - start);
+
+            int synced = sync();
+            ready = true;
+            log.info("Local vector index ready, {} vectors synced from database", synced);
+        } catch (Exception e) {
+            log.error("Failed to load local vector index: {}", e.getMessage(), e);
+        }
+    }
+
+    private void syncQuietly() {
+        try {
+            int written = sync();
+            if (written > 0) {
+                log.debug("Synced {} vectors into local index", written);
+            }
+        } catch (Exception e) {
+            log.error("Local vector index sync failed: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 写入或更新一个向量，内容未变化时只更新版本戳；须持有 writeLock
+     *
+     * @return 是否写入了新槽位
+     */
+    private boolean upsert(Long projectId, float[] embedding, long stamp) throws IOException {
+        if (embedding == null || embedding.length != store.dimensions()) {
+            return false;
+        }
+        float[] vector = VectorKernels.normalize(embedding);
+        Integer existing = slots.get(projectId);
+        if (existing != null) {
+            if (store.stamp(existing) == stamp) {
+                return false;
+            }
+            if (Arrays.equals(store.read(existing), vector)) {
+                store.setStamp(existing, stamp);
+                return false;
+            }
+        }
+
+        int slot = store.append(projectId, stamp, vector);
+        graph.add(slot);
+        slots.put(projectId, slot);
+        if (existing != null) {
+            store.tombstone(existing);
+        }
+        return true;
+    }
+
+    private void reconcile() {
+        Set<Long> live = new HashSet<>(embeddingRepository.findEmbeddedProjectIds());
+        synchronized (writeLock) {
+            Iterator<Map.Entry<Long, Integer>> iterator = slots.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<Long, Integer> entry = iterator.next();
+                if (!live.contains(entry.getKey())) {
+                    store.tombstone(entry.getValue());
+                    iterator.remove();
+                }
+            }
+        }
+    }
+
+    private static long toMicros(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC) * MICROS_PER_SECOND + time.getNano() / 1000;
+    }
+
+    private static LocalDateTime fromMicros(long micros) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, MICROS_PER_SECOND),
+                (int) Math.floorMod(micros, MICROS_PER_SECOND) * 1000, ZoneOffset.UTC);
+    }
+}
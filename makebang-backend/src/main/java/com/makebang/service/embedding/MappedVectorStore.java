@@ -0,0 +1,246 @@
+package com.makebang.service.embedding;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 内存映射的定长向量存储
+ * 文件由64字节文件头和连续的槽位组成，每个槽位为 (项目ID, 版本戳, dim 个小端 float)，
+ * 向量在堆外，重启后直接映射即可使用。按固定槽数分段映射，每段不超过 64MB，随写入逐段扩展。
+ * 槽位只追加；删除或更新时旧槽位标记为墓碑，重新打开时通过 {@link #compact()} 回收。
+ * 写操作需由调用方串行化，读操作可与写并发
+ */
+public class MappedVectorStore implements AutoCloseable {
+
+    /**
+     * 墓碑槽位的项目ID
+     */
+    public static final long TOMBSTONE = -1L;
+
+    private static final int MAGIC = 0x4D4B5653;  // "MKVS"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 64;
+    private static final int SLOT_HEADER_BYTES = 16;
+    private static final long MAX_SEGMENT_BYTES = 64L << 20;
+
+    private static final int OFFSET_MAGIC = 0;
+    private static final int OFFSET_VERSION = 4;
+    private static final int OFFSET_DIM = 8;
+    private static final int OFFSET_COUNT = 12;
+    private static final int OFFSET_WATERMARK = 16;
+    private static final int OFFSET_WATERMARK_ID = 24;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer header;
+    private final int dim;
+    private final int slotBytes;
+    private final int slotsPerSegment;
+
+    /**
+     * 已映射的段，只追加，读者按下标访问
+     */
+    private volatile ByteBuffer[] segments = new ByteBuffer[0];
+    private volatile int count;
+
+    /**
+     * 打开或创建存储文件；已有文件的维度与 dim 不一致时（如更换模型）清空重建
+     */
+    public MappedVectorStore(Path file, int dim) throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        this.channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.dim = dim;
+        this.slotBytes = SLOT_HEADER_BYTES + dim * Float.BYTES;
+        this.slotsPerSegment = (int) Math.max(1, MAX_SEGMENT_BYTES / slotBytes);
+        this.header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES);
+        this.header.order(ByteOrder.LITTLE_ENDIAN);
+
+        if (header.getInt(OFFSET_MAGIC) != MAGIC || header.getInt(OFFSET_VERSION) != VERSION
+                || header.getInt(OFFSET_DIM) != dim) {
+            channel.truncate(HEADER_BYTES);
+            header.putInt(OFFSET_MAGIC, MAGIC);
+            header.putInt(OFFSET_VERSION, VERSION);
+            header.putInt(OFFSET_DIM, dim);
+            header.putInt(OFFSET_COUNT, 0);
+            header.putLong(OFFSET_WATERMARK, 0);
+        }
+
+        int stored = header.getInt(OFFSET_COUNT);
+        ensureCapacity(stored);
+        this.count = stored;
+    }
+
+    public int dimensions() {
+        return dim;
+    }
+
+    /**
+     * 已使用的槽位数（含墓碑）
+     */
+    public int size() {
+        return count;
+    }
+
+    /**
+     * 追加一个向量
+     *
+     * @return 槽位号
+     */
+    public int append(long projectId, long stamp, float[] vector) throws IOException {
+        if (vector.length != dim) {
+            throw new IllegalArgumentException("Expected " + dim + " dimensions, got " + vector.length);
+        }
+        int slot = count;
+        ensureCapacity(slot + 1);
+
+        ByteBuffer segment = segment(slot);
+        int offset = offset(slot);
+        segment.putLong(offset, projectId);
+        segment.putLong(offset + 8, stamp);
+        for (int i = 0; i < dim; i++) {
+            segment.putFloat(offset + SLOT_HEADER_BYTES + (i << 2), vector[i]);
+        }
+
+        count = slot + 1;
+        header.putInt(OFFSET_COUNT, count);
+        return slot;
+    }
+
+    public long projectId(int slot) {
+        return segment(slot).getLong(offset(slot));
+    }
+
+    public long stamp(int slot) {
+        return segment(slot).getLong(offset(slot) + 8);
+    }
+
+    public void setStamp(int slot, long stamp) {
+        segment(slot).putLong(offset(slot) + 8, stamp);
+    }
+
+    public void tombstone(int slot) {
+        segment(slot).putLong(offset(slot), TOMBSTONE);
+    }
+
+    public boolean isLive(int slot) {
+        return projectId(slot) != TOMBSTONE;
+    }
+
+    /**
+     * 查询向量与槽位向量的点积
+     */
+    public float dot(float[] query, int slot) {
+        return VectorKernels.dot(query, segment(slot), offset(slot) + SLOT_HEADER_BYTES);
+    }
+
+    /**
+     * 读出槽位向量
+     */
+    public float[] read(int slot) {
+        ByteBuffer segment = segment(slot);
+        int offset = offset(slot) + SLOT_HEADER_BYTES;
+        float[] vector = new float[dim];
+        for (int i = 0; i < dim; i++) {
+            vector[i] = segment.getFloat(offset + (i << 2));
+        }
+        return vector;
+    }
+
+    /**
+     * 同步水位：已同步到的最大更新时间（由调用方定义单位）
+     */
+    public long watermark() {
+        return header.getLong(OFFSET_WATERMARK);
+    }
+
+    public void setWatermark(long watermark) {
+        setWatermark(watermark, 0L);
+    }
+
+    /**
+     * 水位处最后一个已同步的项目ID，与水位组成增量同步的游标
+     */
+    public long watermarkId() {
+        return header.getLong(OFFSET_WATERMARK_ID);
+    }
+
+    public void setWatermark(long watermark, long projectId) {
+        header.putLong(OFFSET_WATERMARK, watermark);
+        header.putLong(OFFSET_WATERMARK_ID, projectId);
+    }
+
+    /**
+     * 去除墓碑，存活槽位前移保持原有顺序；只能在没有读者时调用
+     *
+     * @return 回收的槽位数
+     */
+    public int compact() {
+        int live = 0;
+        int total = count;
+        byte[] buffer = new byte[slotBytes];
+        for (int slot = 0; slot < total; slot++) {
+            if (!isLive(slot)) {
+                continue;
+            }
+            if (slot != live) {
+                segment(slot).get(offset(slot), buffer);
+                segment(live).put(offset(live), buffer);
+            }
+            live++;
+        }
+        count = live;
+        header.putInt(OFFSET_COUNT, live);
+        return total - live;
+    }
+
+    /**
+     * 将修改刷到磁盘
+     */
+    public void force() {
+        for (ByteBuffer segment : segments) {
+            ((MappedByteBuffer) segment).force();
+        }
+        header.force();
+    }
+
+    @Override
+    public void close() throws IOException {
+        force();
+        channel.close();
+    }
+
+    private ByteBuffer segment(int slot) {
+        return segments[slot / slotsPerSegment];
+    }
+
+    private int offset(int slot) {
+        return (slot % slotsPerSegment) * slotBytes;
+    }
+
+    private void ensureCapacity(int slots) throws IOException {
+        ByteBuffer[] current = segments;
+        int needed = slots == 0 ? 0 : (slots - 1) / slotsPerSegment + 1;
+        if (needed <= current.length) {
+            return;
+        }
+        List<ByteBuffer> mapped = new ArrayList<>(List.of(current));
+        for (int index = current.length; index < needed; index++) {
+            long position = HEADER_BYTES + (long) index * slotsPerSegment * slotBytes;
+            MappedByteBuffer segment = channel.map(FileChannel.MapMode.READ_WRITE, position,
+                    (long) slotsPerSegment * slotBytes);
+            segment.order(ByteOrder.LITTLE_ENDIAN);
+            mapped.add(segment);
+        }
+        segments = mapped.toArray(new ByteBuffer[0]);
+    }
+}
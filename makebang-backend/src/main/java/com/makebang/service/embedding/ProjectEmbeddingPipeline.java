@@ -0,0 +1,193 @@
+package com.makebang.service.embedding;
+
+import com.makebang.config.EmbeddingConfig;
+import com.makebang.repository.ProjectEmbeddingRepository;
+import com.makebang.service.EmbeddingService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 项目向量批量生成管道
+ * 按ID顺序分页取出需要更新的项目，每 batchSize 个文本一次批量请求，
+ * 最多 concurrency 个请求并发；每批结果用一条多行 upsert 写入。
+ * 不在数据库事务中执行，网络请求期间不占用连接
+ */
+@Slf4j
+@Component
+public class ProjectEmbeddingPipeline {
+
+    private final EmbeddingService embeddingService;
+    private final ProjectEmbeddingRepository embeddingRepository;
+    private final EmbeddingConfig config;
+    private final ObjectProvider<LocalVectorIndex> localVectorIndex;
+
+    private final Counter embeddedCounter;
+    private final Counter skippedCounter;
+    private final Counter failedCounter;
+
+    private ExecutorService executor;
+
+    public ProjectEmbeddingPipeline(EmbeddingService embeddingService,
+                                    ProjectEmbeddingRepository embeddingRepository,
+                                    EmbeddingConfig config,
+                                    ObjectProvider<LocalVectorIndex> localVectorIndex,
+                                    MeterRegistry meterRegistry) {
+        this.embeddingService = embeddingService;
+        this.embeddingRepository = embeddingRepository;
+        this.config = config;
+        this.localVectorIndex = localVectorIndex;
+
+        this.embeddedCounter = meterRegistry.counter("makebang.embedding.projects", "result", "embedded");
+        this.skippedCounter = meterRegistry.counter("makebang.embedding.projects", "result", "unchanged");
+        this.failedCounter = meterRegistry.counter("makebang.embedding.projects", "result", "failed");
+    }
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger index = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(Math.max(1, config.getConcurrency()), runnable -> {
+            Thread thread = new Thread(runnable, "embedding-pipeline-" + index.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * 为需要更新的项目生成向量
+     *
+     * @param limit 最多处理的项目数
+     * @return 写入的向量数
+     */
+    public int run(int limit) {
+        int batchSize = Math.max(1, config.getBatchSize());
+        int pageSize = batchSize * Math.max(1, config.getConcurrency());
+
+        int written = 0;
+        int scanned = 0;
+        long afterId = 0;
+        while (scanned < limit) {
+            List<ProjectEmbeddingRepository.StaleProject> page =
+                    embeddingRepository.findStaleProjects(afterId, Math.min(pageSize, limit - scanned));
+            if (page.isEmpty()) {
+                break;
+            }
+            scanned += page.size();
+            afterId = page.get(page.size() - 1).getProjectId();
+            written += process(page);
+        }
+        return written;
+    }
+
+    /**
+     * 生成并写入一组项目的向量，内容未变化的只推进更新时间
+     *
+     * @return 写入的向量数
+     */
+    public int process(List<ProjectEmbeddingRepository.StaleProject> projects) {
+        List<Document> documents = new ArrayList<>(projects.size());
+        List<Long> unchanged = new ArrayList<>();
+        for (ProjectEmbeddingRepository.StaleProject project : projects) {
+            String content = buildContent(project.getTitle(), project.getDescription(), project.getSkillRequirements());
+            String contentHash = DigestUtils.md5DigestAsHex(content.getBytes(StandardCharsets.UTF_8));
+            if (contentHash.equals(project.getContentHash())) {
+                unchanged.add(project.getProjectId());
+                continue;
+            }
+            documents.add(new Document(project.getProjectId(), content, contentHash));
+        }
+        if (!unchanged.isEmpty()) {
+            // 推进更新时间，否则这些项目每次扫描都会重新被取出
+            embeddingRepository.touchUnchanged(unchanged);
+            skippedCounter.increment(unchanged.size());
+        }
+        if (documents.isEmpty()) {
+            return 0;
+        }
+
+        int batchSize = Math.max(1, config.getBatchSize());
+        List<CompletableFuture<Integer>> futures = new ArrayList<>();
+        for (int from = 0; from < documents.size(); from += batchSize) {
+            List<Document> batch = documents.subList(from, Math.min(from + batchSize, documents.size()));
+            futures.add(CompletableFuture.supplyAsync(() -> embedBatch(batch), executor));
+        }
+
+        int written = 0;
+        for (CompletableFuture<Integer> future : futures) {
+            written += future.join();
+        }
+        return written;
+    }
+
+    /**
+     * 构建项目内容文本（用于生成向量）
+     */
+    public static String buildContent(String title, String description, List<String> skillRequirements) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(title).append("\n");
+        sb.append(description).append("\n");
+
+        if (skillRequirements != null) {
+            sb.append("技能要求: ").append(String.join(", ", skillRequirements));
+        }
+
+        return sb.toString();
+    }
+
+    private int embedBatch(List<Document> batch) {
+        try {
+            List<String> texts = new ArrayList<>(batch.size());
+            for (Document document : batch) {
+                texts.add(document.content());
+            }
+
+            List<float[]> embeddings = embeddingService.generateEmbeddings(texts);
+            if (embeddings.size() != batch.size()) {
+                log.warn("Embedding batch of {} projects returned {} vectors, skipping", batch.size(), embeddings.size());
+                failedCounter.increment(batch.size());
+                return 0;
+            }
+
+            List<ProjectEmbeddingRepository.VectorRow> rows = new ArrayList<>(batch.size());
+            for (int i = 0; i < batch.size(); i++) {
+                Document document = batch.get(i);
+                rows.add(new ProjectEmbeddingRepository.VectorRow(
+                        document.projectId(), embeddings.get(i), document.contentHash()));
+            }
+            embeddingRepository.batchUpsertEmbeddings(rows);
+            embeddedCounter.increment(rows.size());
+
+            LocalVectorIndex index = localVectorIndex.getIfAvailable();
+            if (index != null) {
+                index.onUpserted(rows);
+            }
+            return rows.size();
+        } catch (Exception e) {
+            // 失败的项目保持过期状态，下次运行时重试
+            log.error("Failed to embed batch of {} projects: {}", batch.size(), e.getMessage(), e);
+            failedCounter.increment(batch.size());
+            return 0;
+        }
+    }
+
+    private record Document(Long projectId, String content, String contentHash) {
+    }
+}
@@ -0,0 +1,199 @@
+package com.makebang.service.embedding;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.makebang.config.EmbeddingConfig;
+import com.makebang.service.EmbeddingService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 查询向量缓存
+ * 一级为进程内 Caffeine，二级为Redis（float32 小端字节），键为规范化后的查询文本；
+ * 同一查询的并发未命中合并为一次上游请求
+ */
+@Slf4j
+@Component
+public class QueryEmbeddingCache {
+
+    private static final String KEY_PREFIX = "embedding:query:";
+
+    private final EmbeddingService embeddingService;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final EmbeddingConfig config;
+
+    private final Cache<String, float[]> local;
+    private final Map<String, CompletableFuture<float[]>> inflight = new ConcurrentHashMap<>();
+
+    private final Counter localHitCounter;
+    private final Counter redisHitCounter;
+    private final Counter missCounter;
+    private final Counter coalescedCounter;
+    private final Counter savedTimeCounter;
+    private final Timer upstreamTimer;
+
+    public QueryEmbeddingCache(EmbeddingService embeddingService,
+                               StringRedisTemplate stringRedisTemplate,
+                               EmbeddingConfig config,
+                               MeterRegistry meterRegistry) {
+        this.embeddingService = embeddingService;
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.config = config;
+
+        this.local = Caffeine.newBuilder()
+                .maximumSize(Math.max(1, config.getQueryCacheSize()))
+                .recordStats()
+                .build();
+
+        // cache.gets / cache.evictions / cache.size 等，tag cache=embedding.query
+        CaffeineCacheMetrics.monitor(meterRegistry, local, "embedding.query");
+
+        this.localHitCounter = meterRegistry.counter("makebang.embedding.query.cache", "result", "local_hit");
+        this.redisHitCounter = meterRegistry.counter("makebang.embedding.query.cache", "result", "redis_hit");
+        this.missCounter = meterRegistry.counter("makebang.embedding.query.cache", "result", "miss");
+        this.coalescedCounter = meterRegistry.counter("makebang.embedding.query.cache", "result", "coalesced");
+        this.savedTimeCounter = Counter.builder("makebang.embedding.query.cache.saved")
+                .description("缓存命中节省的上游请求耗时（按上游平均耗时估算）")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+        this.upstreamTimer = meterRegistry.timer("makebang.embedding.query.upstream");
+    }
+
+    /**
+     * 获取查询文本的向量
+     *
+     * @return 向量，上游生成失败时返回null
+     */
+    public float[] get(String query) {
+        String normalized = normalize(query);
+        if (normalized.isEmpty()) {
+            return null;
+        }
+
+        float[] vector = local.getIfPresent(normalized);
+        if (vector != null) {
+            localHitCounter.increment();
+            recordSaved();
+            return vector;
+        }
+
+        // 同一查询只允许一个线程加载，其余等待其结果
+        CompletableFuture<float[]> future = new CompletableFuture<>();
+        CompletableFuture<float[]> existing = inflight.putIfAbsent(normalized, future);
+        if (existing != null) {
+            coalescedCounter.increment();
+            try {
+                return existing.join();
+            } catch (CompletionException e) {
+                return null;
+            }
+        }
+
+        try {
+            vector = load(normalized);
+            future.complete(vector);
+            return vector;
+        } catch (RuntimeException e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            inflight.remove(normalized, future);
+        }
+    }
+
+    /**
+     * 规范化查询文本：去首尾空白、小写、合并连续空白
+     */
+    static String normalize(String query) {
+        if (query == null) {
+            return "";
+        }
+        return query.trim().toLowerCase(Locale.ROOT).replaceAll("\\s+", " ");
+    }
+
+    private float[] load(String normalized) {
+        String key = redisKey(normalized);
+        float[] vector = readRedis(key);
+        if (vector != null) {
+            redisHitCounter.increment();
+            recordSaved();
+            local.put(normalized, vector);
+            return vector;
+        }
+
+        missCounter.increment();
+        vector = upstreamTimer.record(() -> embeddingService.generateEmbedding(normalized));
+        if (vector != null) {
+            local.put(normalized, vector);
+            writeRedis(key, vector);
+        }
+        return vector;
+    }
+
+    private void recordSaved() {
+        double mean = upstreamTimer.mean(TimeUnit.MILLISECONDS);
+        if (mean > 0) {
+            savedTimeCounter.increment(mean);
+        }
+    }
+
+    private float[] readRedis(String key) {
+        try {
+            byte[] bytes = stringRedisTemplate.execute((RedisCallback<byte[]>) connection ->
+                    connection.stringCommands().get(key.getBytes(StandardCharsets.UTF_8)));
+            return bytes != null ? decode(bytes) : null;
+        } catch (Exception e) {
+            log.warn("Failed to read query embedding from redis: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private void writeRedis(String key, float[] vector) {
+        try {
+            byte[] bytes = encode(vector);
+            stringRedisTemplate.execute((RedisCallback<Boolean>) connection ->
+                    connection.stringCommands().set(key.getBytes(StandardCharsets.UTF_8), bytes,
+                            Expiration.seconds(config.getQueryCacheTtl()), RedisStringCommands.SetOption.UPSERT));
+        } catch (Exception e) {
+            log.warn("Failed to write query embedding to redis: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 键包含模型和维度，切换模型后旧向量自然失效
+     */
+    private String redisKey(String normalized) {
+        return KEY_PREFIX + config.getModel() + ":" + config.getDimensions() + ":"
+                + DigestUtils.md5DigestAsHex(normalized.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static byte[] encode(float[] vector) {
+        ByteBuffer buffer = ByteBuffer.allocate(vector.length * Float.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.asFloatBuffer().put(vector);
+        return buffer.array();
+    }
+
+    static float[] decode(byte[] bytes) {
+        float[] vector = new float[bytes.length / Float.BYTES];
+        ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN).asFloatBuffer().get(vector);
+        return vector;
+    }
+}
@@ -0,0 +1,148 @@
+package com.makebang.service.embedding;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.nio.ByteBuffer;
+
+/**
+ * 向量距离计算内核
+ * JVM 以 --add-modules jdk.incubator.vector 启动时使用 Vector API（SIMD），否则使用标量实现；
+ * 可用 -Dmakebang.vector.simd=false 强制标量。堆外向量按小端 float 连续存放
+ */
+@Slf4j
+public final class VectorKernels {
+
+    private static final String SIMD_MODULE = "jdk.incubator.vector";
+    private static final String SIMD_KERNEL_CLASS = "com.makebang.service.embedding.SimdVectorKernel";
+
+    private static final Kernel SCALAR = new ScalarKernel();
+    private static final Kernel SIMD = loadSimd();
+    private static final Kernel KERNEL =
+            SIMD != null && Boolean.parseBoolean(System.getProperty("makebang.vector.simd", "true")) ? SIMD : SCALAR;
+
+    private VectorKernels() {
+    }
+
+    /**
+     * 距离计算内核
+     */
+    public interface Kernel {
+
+        /**
+         * 两个堆上向量的点积
+         */
+        float dot(float[] a, float[] b);
+
+        /**
+         * 堆上向量与缓冲区中 offset 字节处向量的点积，长度取 a.length
+         */
+        float dot(float[] a, ByteBuffer b, int offset);
+    }
+
+    /**
+     * 当前使用的内核
+     */
+    public static Kernel kernel() {
+        return KERNEL;
+    }
+
+    /**
+     * 标量内核
+     */
+    public static Kernel scalarKernel() {
+        return SCALAR;
+    }
+
+    /**
+     * SIMD 内核，当前 JVM 不支持时返回null
+     */
+    public static Kernel simdKernel() {
+        return SIMD;
+    }
+
+    public static boolean isSimd() {
+        return KERNEL == SIMD;
+    }
+
+    public static float dot(float[] a, float[] b) {
+        return KERNEL.dot(a, b);
+    }
+
+    public static float dot(float[] a, ByteBuffer b, int offset) {
+        return KERNEL.dot(a, b, offset);
+    }
+
+    /**
+     * 归一化为单位向量（返回新数组），归一化后点积即余弦相似度；零向量原样返回副本
+     */
+    public static float[] normalize(float[] vector) {
+        float[] result = vector.clone();
+        float norm = (float) Math.sqrt(KERNEL.dot(vector, vector));
+        if (norm > 0) {
+            for (int i = 0; i < result.length; i++) {
+                result[i] /= norm;
+            }
+        }
+        return result;
+    }
+
+    private static Kernel loadSimd() {
+        if (ModuleLayer.boot().findModule(SIMD_MODULE).isEmpty()) {
+            return null;
+        }
+        try {
+            Kernel kernel = (Kernel) Class.forName(SIMD_KERNEL_CLASS).getDeclaredConstructor().newInstance();
+            log.info("Vector kernels use {}", kernel);
+            return kernel;
+        } catch (ReflectiveOperationException | LinkageError e) {
+            log.warn("Vector API unavailable, falling back to scalar kernels: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * 标量实现，四路累加便于 JIT 展开
+     */
+    private static final class ScalarKernel implements Kernel {
+
+        @Override
+        public float dot(float[] a, float[] b) {
+            float s0 = 0, s1 = 0, s2 = 0, s3 = 0;
+            int i = 0;
+            int bound = a.length & ~3;
+            for (; i < bound; i += 4) {
+                s0 += a[i] * b[i];
+                s1 += a[i + 1] * b[i + 1];
+                s2 += a[i + 2] * b[i + 2];
+                s3 += a[i + 3] * b[i + 3];
+            }
+            for (; i < a.length; i++) {
+                s0 += a[i] * b[i];
+            }
+            return s0 + s1 + s2 + s3;
+        }
+
+        @Override
+        public float dot(float[] a, ByteBuffer b, int offset) {
+            float s0 = 0, s1 = 0, s2 = 0, s3 = 0;
+            int i = 0;
+            int bound = a.length & ~3;
+            for (; i < bound; i += 4) {
+                int position = offset + (i << 2);
+                s0 += a[i] * b.getFloat(position);
+                s1 += a[i + 1] * b.getFloat(position + 4);
+                s2 += a[i + 2] * b.getFloat(position + 8);
+                s3 += a[i + 3] * b.getFloat(position + 12);
+            }
+            for (; i < a.length; i++) {
+                s0 += a[i] * b.getFloat(offset + (i << 2));
+            }
+            return s0 + s1 + s2 + s3;
+        }
+
+        @Override
+        public String toString() {
+            return "scalar";
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.makebang.service.embedding;
+
+import com.makebang.config.EmbeddingConfig;
+import com.makebang.repository.ProjectEmbeddingRepository;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * 项目向量检索
+ * 启用且已就绪的进程内索引优先；否则在只读事务中先设置 hnsw.ef_search / ivfflat.probes，
+ * 再执行 pgvector 近邻查询，参数只对本次查询生效。
+ * 配置了粗排维度时分两阶段：前缀半精度索引取候选，完整向量重排
+ */
+@Component
+public class VectorSearcher {
+
+    private static final int MAX_EF_SEARCH = 1000;
+
+    private final ProjectEmbeddingRepository embeddingRepository;
+    private final EmbeddingConfig config;
+    private final ObjectProvider<LocalVectorIndex> localVectorIndex;
+    private final TransactionTemplate readOnlyTransaction;
+
+    public VectorSearcher(ProjectEmbeddingRepository embeddingRepository,
+                          EmbeddingConfig config,
+                          ObjectProvider<LocalVectorIndex> localVectorIndex,
+                          PlatformTransactionManager transactionManager) {
+        this.embeddingRepository = embeddingRepository;
+        this.config = config;
+        this.localVectorIndex = localVectorIndex;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * 查询与向量最相似的项目，先取 top-k 再按阈值过滤
+     *
+     * @param queryVector 查询向量
+     * @param threshold   最小相似度
+     * @param limit       最多返回数量
+     */
+    public List<ProjectEmbeddingRepository.SimilarityResult> search(float[] queryVector, double threshold, int limit) {
+        LocalVectorIndex index = localVectorIndex.getIfAvailable();
+        if (index != null && index.isReady()) {
+            return index.search(queryVector, threshold, limit);
+        }
+        int coarseDimensions = coarseDimensions(queryVector);
+        return readOnlyTransaction.execute(status -> {
+            if (coarseDimensions == 0) {
+                applySettings(limit);
+                return embeddingRepository.searchByVectorWithThreshold(queryVector, threshold, limit);
+            }
+            int candidates = Math.max(config.getRerankCandidates(), limit);
+            applySettings(candidates);
+            return embeddingRepository.searchByVectorReranked(queryVector, coarseDimensions, threshold, candidates, limit);
+        });
+    }
+
+    /**
+     * 混合搜索，关键词与语义排名在数据库内融合并分页
+     *
+     * @param tsquery 关键词全文检索条件，为null时只有语义部分
+     * @return 当前页结果（按融合分数降序）；首行的 total 为总数，页为空时只有一行且 projectId 为null
+     */
+    @Transactional(readOnly = true)
+    public List<ProjectEmbeddingRepository.HybridHit> hybridSearch(String tsquery, float[] queryVector,
+                                                                 Long categoryId, Integer minBudget, Integer maxBudget,
+                                                                 int current, int size) {
+        int candidates = Math.max(config.getHybridCandidates(), size);
+        int coarseDimensions = coarseDimensions(queryVector);
+        int coarseLimit = coarseDimensions == 0 ? candidates : Math.max(config.getRerankCandidates(), candidates);
+        applySettings(coarseLimit);
+        return embeddingRepository.hybridSearch(tsquery, queryVector, categoryId, minBudget, maxBudget,
+                config.getSimilarityThreshold(), candidates, coarseDimensions, coarseLimit, config.getRrfK(),
+                (long) (current - 1) * size, size);
+    }
+
+    /**
+     * 实际使用的粗排维度，未启用或不小于向量维度时为0（直接查完整向量）
+     */
+    private int coarseDimensions(float[] queryVector) {
+        int dimensions = config.getCoarseDimensions();
+        return dimensions > 0 && dimensions < queryVector.length ? dimensions : 0;
+    }
+
+    private void applySettings(int limit) {
+        // ef_search 小于 limit 时 HNSW 最多只能返回 ef_search 条；pgvector 上限为 1000
+        int efSearch = Math.min(Math.max(config.getHnswEfSearch(), limit), MAX_EF_SEARCH);
+        embeddingRepository.applySearchSettings(String.valueOf(efSearch), String.valueOf(config.getIvfflatProbes()));
+    }
+}
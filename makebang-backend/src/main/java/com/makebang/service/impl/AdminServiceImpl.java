@@ -10,6 +10,10 @@ import com.makebang.repository.*;
 import com.makebang.service.AdminService;
 import com.makebang.service.MessageService;
 import com.makebang.service.UserService;
+import com.makebang.service.assembler.ProjectAssembler;
+import com.makebang.service.cache.ProjectDetailCache;
+import com.makebang.service.category.CategoryCatalog;
+import com.makebang.service.search.ProjectSearchIndexer;
 import com.makebang.vo.*;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -21,6 +25,7 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -38,6 +43,21 @@ public class AdminServiceImpl implements AdminService {
     private final WalletRepository walletRepository;
     private final UserService userService;
     private final MessageService messageService;
+    private final ProjectAssembler projectAssembler;
+    private final StatsDailyRepository statsDailyRepository;
+    private final ProjectSearchIndexer projectSearchIndexer;
+    private final ProjectDetailCache projectDetailCache;
+    private final CategoryCatalog categoryCatalog;
+
+    /**
+     * 趋势天数
+     */
+    private static final int TREND_DAYS = 7;
+
+    /**
+     * 尚无汇总数据时实时统计的起始日期
+     */
+    private static final LocalDate EPOCH = LocalDate.of(1970, 1, 1);
 
     @Override
     public DashboardStatsVO getDashboardStats() {
@@ -70,10 +90,19 @@ public class AdminServiceImpl implements AdminService {
                                 Order.Status.DELIVERED.code))
                         .isNull(Order::getDeletedAt));
 
-        // 交易额统计
-        BigDecimal totalAmount = calculateTotalAmount();
-        BigDecimal todayAmount = calculateTodayAmount(todayStart);
-        BigDecimal platformIncome = calculatePlatformIncome();
+        // 交易额统计：已汇总日期的累计值 + 之后的实时统计
+        LocalDate today = todayStart.toLocalDate();
+        StatsDailyRepository.Totals totals = statsDailyRepository.sumAll();
+        LocalDate liveFrom = totals.getLastDate() != null ? totals.getLastDate().plusDays(1) : EPOCH;
+        LocalDateTime liveSince = liveFrom.atStartOfDay();
+
+        BigDecimal liveAmount = nullToZero(orderRepository.sumCompletedAmountSince(liveSince));
+        BigDecimal totalAmount = nullToZero(totals.getCompletedOrderAmount()).add(liveAmount);
+        BigDecimal todayAmount = liveFrom.equals(today)
+                ? liveAmount
+                : nullToZero(orderRepository.sumCompletedAmountSince(todayStart));
+        BigDecimal platformIncome = nullToZero(totals.getPlatformIncome())
+                .add(nullToZero(transactionRepository.sumServiceFeeSince(liveSince)));
 
         // 待处理事项
         Long pendingWithdrawals = transactionRepository.selectCount(
@@ -83,8 +112,11 @@ public class AdminServiceImpl implements AdminService {
                         .isNull(Transaction::getDeletedAt));
 
         // 近7天趋势
-        List<Map<String, Object>> orderTrend = getOrderTrend();
-        List<Map<String, Object>> userTrend = getUserTrend();
+        List<StatsDaily> rolled = statsDailyRepository.findRange(today.minusDays(TREND_DAYS - 1), today);
+        List<Map<String, Object>> orderTrend = buildTrend(today, liveFrom, rolled,
+                StatsDaily::getNewOrders, orderRepository::countCreatedByDaySince);
+        List<Map<String, Object>> userTrend = buildTrend(today, liveFrom, rolled,
+                StatsDaily::getNewUsers, userRepository::countCreatedByDaySince);
 
         return DashboardStatsVO.builder()
                 .totalUsers(totalUsers)
@@ -193,7 +225,9 @@ public class AdminServiceImpl implements AdminService {
         Page<Project> page = new Page<>(current, size);
         IPage<Project> result = projectRepository.selectPage(page, wrapper);
 
-        return result.convert(this::toProjectVO);
+        IPage<ProjectVO> voPage = new Page<>(result.getCurrent(), result.getSize(), result.getTotal());
+        voPage.setRecords(projectAssembler.toVOList(result.getRecords()));
+        return voPage;
     }
 
     @Override
@@ -207,6 +241,8 @@ public class AdminServiceImpl implements AdminService {
         project.setStatus(Project.Status.OPEN.code);
         project.setUpdatedAt(LocalDateTime.now());
         projectRepository.updateById(project);
+        projectSearchIndexer.sync(project);
+        projectDetailCache.invalidate(project.getId());
 
         // 发送通知
         messageService.sendNotification(
@@ -232,6 +268,8 @@ public class AdminServiceImpl implements AdminService {
         project.setStatus(Project.Status.CLOSED.code);
         project.setUpdatedAt(LocalDateTime.now());
         projectRepository.updateById(project);
+        projectSearchIndexer.sync(project);
+        projectDetailCache.invalidate(project.getId());
 
         // 发送通知
         messageService.sendNotification(
@@ -257,6 +295,8 @@ public class AdminServiceImpl implements AdminService {
         project.setStatus(Project.Status.CLOSED.code);
         project.setUpdatedAt(LocalDateTime.now());
         projectRepository.updateById(project);
+        projectSearchIndexer.sync(project);
+        projectDetailCache.invalidate(project.getId());
 
         // 发送通知
         messageService.sendNotification(
@@ -271,6 +311,11 @@ public class AdminServiceImpl implements AdminService {
         log.info("项目已下架: {}, 原因: {}", projectId, reason);
     }
 
+    @Override
+    public List<CategoryVO> refreshCategories() {
+        return categoryCatalog.refreshAll().getRoots();
+    }
+
     @Override
     public IPage<OrderVO> getOrderList(Integer status, int current, int size) {
         LambdaQueryWrapper<Order> wrapper = new LambdaQueryWrapper<>();
@@ -370,106 +415,35 @@ public class AdminServiceImpl implements AdminService {
 
     // ========== 私有方法 ==========
 
-    private BigDecimal calculateTotalAmount() {
-        List<Order> completedOrders = orderRepository.selectList(
-                new LambdaQueryWrapper<Order>()
-                        .eq(Order::getStatus, Order.Status.COMPLETED.code)
-                        .isNull(Order::getDeletedAt));
-        return completedOrders.stream()
-                .map(Order::getAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-    }
-
-    private BigDecimal calculateTodayAmount(LocalDateTime todayStart) {
-        List<Order> todayOrders = orderRepository.selectList(
-                new LambdaQueryWrapper<Order>()
-                        .eq(Order::getStatus, Order.Status.COMPLETED.code)
-                        .ge(Order::getCompletedAt, todayStart)
-                        .isNull(Order::getDeletedAt));
-        return todayOrders.stream()
-                .map(Order::getAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-    }
-
-    private BigDecimal calculatePlatformIncome() {
-        List<Transaction> feeTransactions = transactionRepository.selectList(
-                new LambdaQueryWrapper<Transaction>()
-                        .eq(Transaction::getType, Transaction.Type.SERVICE_FEE.getCode())
-                        .eq(Transaction::getStatus, Transaction.Status.SUCCESS.getCode())
-                        .isNull(Transaction::getDeletedAt));
-        return feeTransactions.stream()
-                .map(Transaction::getAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-    }
-
-    private List<Map<String, Object>> getOrderTrend() {
-        List<Map<String, Object>> trend = new ArrayList<>();
-        LocalDate today = LocalDate.now();
-
-        for (int i = 6; i >= 0; i--) {
-            LocalDate date = today.minusDays(i);
-            LocalDateTime dayStart = LocalDateTime.of(date, LocalTime.MIN);
-            LocalDateTime dayEnd = LocalDateTime.of(date, LocalTime.MAX);
-
-            Long count = orderRepository.selectCount(
-                    new LambdaQueryWrapper<Order>()
-                            .ge(Order::getCreatedAt, dayStart)
-                            .le(Order::getCreatedAt, dayEnd)
-                            .isNull(Order::getDeletedAt));
-
-            Map<String, Object> point = new HashMap<>();
-            point.put("date", date.toString());
-            point.put("count", count);
-            trend.add(point);
+    /**
+     * 近7天趋势：已汇总的日期读汇总表，之后的日期实时按天分组统计
+     */
+    private List<Map<String, Object>> buildTrend(LocalDate today, LocalDate liveFrom,
+                                                 List<StatsDaily> rolled,
+                                                 Function<StatsDaily, Long> rolledCount,
+                                                 Function<LocalDateTime, List<StatsDailyRepository.DailyCount>> liveCounts) {
+        LocalDate trendStart = today.minusDays(TREND_DAYS - 1);
+        Map<LocalDate, Long> counts = new HashMap<>();
+        for (StatsDaily day : rolled) {
+            counts.put(day.getStatDate(), rolledCount.apply(day));
+        }
+        LocalDate liveStart = liveFrom.isAfter(trendStart) ? liveFrom : trendStart;
+        for (StatsDailyRepository.DailyCount day : liveCounts.apply(liveStart.atStartOfDay())) {
+            counts.put(day.getDay(), day.getCount());
         }
 
-        return trend;
-    }
-
-    private List<Map<String, Object>> getUserTrend() {
         List<Map<String, Object>> trend = new ArrayList<>();
-        LocalDate today = LocalDate.now();
-
-        for (int i = 6; i >= 0; i--) {
-            LocalDate date = today.minusDays(i);
-            LocalDateTime dayStart = LocalDateTime.of(date, LocalTime.MIN);
-            LocalDateTime dayEnd = LocalDateTime.of(date, LocalTime.MAX);
-
-            Long count = userRepository.selectCount(
-                    new LambdaQueryWrapper<User>()
-                            .ge(User::getCreatedAt, dayStart)
-                            .le(User::getCreatedAt, dayEnd)
-                            .isNull(User::getDeletedAt));
-
+        for (LocalDate date = trendStart; !date.isAfter(today); date = date.plusDays(1)) {
             Map<String, Object> point = new HashMap<>();
             point.put("date", date.toString());
-            point.put("count", count);
+            point.put("count", counts.getOrDefault(date, 0L));
             trend.add(point);
         }
-
         return trend;
     }
 
-    private ProjectVO toProjectVO(Project project) {
-        User user = userRepository.selectById(project.getUserId());
-
-        return ProjectVO.builder()
-                .id(project.getId())
-                .title(project.getTitle())
-                .description(project.getDescription())
-                .categoryId(project.getCategoryId())
-                .budgetMin(project.getBudgetMin())
-                .budgetMax(project.getBudgetMax())
-                .deadline(project.getDeadline())
-                .status(project.getStatus())
-                .statusText(Project.Status.getDesc(project.getStatus()))
-                .userId(project.getUserId())
-                .user(user != null ? userService.toVO(user) : null)
-                .bidCount(project.getBidCount())
-                .viewCount(project.getViewCount())
-                .createdAt(project.getCreatedAt())
-                .updatedAt(project.getUpdatedAt())
-                .build();
+    private static BigDecimal nullToZero(BigDecimal value) {
+        return value != null ? value : BigDecimal.ZERO;
     }
 
     private OrderVO toOrderVO(Order order) {
@@ -16,6 +16,9 @@ import com.makebang.repository.ProjectRepository;
 import com.makebang.repository.UserRepository;
 import com.makebang.service.BidService;
 import com.makebang.service.UserService;
+import com.makebang.service.cache.EntityCacheManager;
+import com.makebang.service.cache.ProjectDetailCache;
+import com.makebang.util.SecurityUtils;
 import com.makebang.vo.BidVO;
 import com.makebang.vo.UserVO;
 import lombok.RequiredArgsConstructor;
@@ -39,6 +42,8 @@ public class BidServiceImpl implements BidService {
     private final ProjectRepository projectRepository;
     private final UserRepository userRepository;
     private final UserService userService;
+    private final ProjectDetailCache projectDetailCache;
+    private final EntityCacheManager entityCacheManager;
 
     @Override
     @Transactional
@@ -89,10 +94,10 @@ public class BidServiceImpl implements BidService {
     @Transactional
     public BidVO updateBid(Long id, UpdateBidRequest request) {
         Bid bid = getBidEntity(id);
-        UserVO currentUser = userService.getCurrentUser();
+        Long currentUserId = SecurityUtils.getCurrentUserId();
 
         // 验证所有权
-        if (!bid.getDeveloperId().equals(currentUser.getId())) {
+        if (!bid.getDeveloperId().equals(currentUserId)) {
             throw new BusinessException(ResultCode.FORBIDDEN, "无权修改此投标");
         }
 
@@ -121,10 +126,10 @@ public class BidServiceImpl implements BidService {
     @Transactional
     public void withdrawBid(Long id) {
         Bid bid = getBidEntity(id);
-        UserVO currentUser = userService.getCurrentUser();
+        Long currentUserId = SecurityUtils.getCurrentUserId();
 
         // 验证所有权
-        if (!bid.getDeveloperId().equals(currentUser.getId())) {
+        if (!bid.getDeveloperId().equals(currentUserId)) {
             throw new BusinessException(ResultCode.FORBIDDEN, "无权撤回此投标");
         }
 
@@ -139,18 +144,18 @@ public class BidServiceImpl implements BidService {
         // 更新项目投标数
         projectRepository.decrementBidCount(bid.getProjectId());
 
-        log.info("用户{}撤回投标{}", currentUser.getUsername(), id);
+        log.info("用户{}撤回投标{}", SecurityUtils.getCurrentUsername(), id);
     }
 
     @Override
     @Transactional
     public BidVO acceptBid(Long id) {
         Bid bid = getBidEntity(id);
-        UserVO currentUser = userService.getCurrentUser();
+        Long currentUserId = SecurityUtils.getCurrentUserId();
 
         // 验证项目所有权
         Project project = getProjectEntity(bid.getProjectId());
-        if (!project.getUserId().equals(currentUser.getId())) {
+        if (!project.getUserId().equals(currentUserId)) {
             throw new BusinessException(ResultCode.FORBIDDEN, "无权操作此投标");
         }
 
@@ -174,8 +179,9 @@ public class BidServiceImpl implements BidService {
         // 更新项目状态为进行中
         project.setStatus(Project.Status.IN_PROGRESS.code);
         projectRepository.updateById(project);
+        projectDetailCache.invalidate(project.getId());
 
-        log.info("雇主{}接受了投标{}", currentUser.getUsername(), id);
+        log.info("雇主{}接受了投标{}", SecurityUtils.getCurrentUsername(), id);
 
         // TODO: 创建订单
 
@@ -186,11 +192,11 @@ public class BidServiceImpl implements BidService {
     @Transactional
     public void rejectBid(Long id) {
         Bid bid = getBidEntity(id);
-        UserVO currentUser = userService.getCurrentUser();
+        Long currentUserId = SecurityUtils.getCurrentUserId();
 
         // 验证项目所有权
         Project project = getProjectEntity(bid.getProjectId());
-        if (!project.getUserId().equals(currentUser.getId())) {
+        if (!project.getUserId().equals(currentUserId)) {
             throw new BusinessException(ResultCode.FORBIDDEN, "无权操作此投标");
         }
 
@@ -202,7 +208,7 @@ public class BidServiceImpl implements BidService {
         bid.setStatus(Bid.Status.REJECTED.code);
         bidRepository.updateById(bid);
 
-        log.info("雇主{}拒绝了投标{}", currentUser.getUsername(), id);
+        log.info("雇主{}拒绝了投标{}", SecurityUtils.getCurrentUsername(), id);
     }
 
     @Override
@@ -218,10 +224,10 @@ public class BidServiceImpl implements BidService {
 
     @Override
     public PageResult<BidVO> getMyBids(Integer status, Integer current, Integer size) {
-        UserVO currentUser = userService.getCurrentUser();
+        Long currentUserId = SecurityUtils.getCurrentUserId();
 
         LambdaQueryWrapper<Bid> wrapper = new LambdaQueryWrapper<>();
-        wrapper.eq(Bid::getDeveloperId, currentUser.getId())
+        wrapper.eq(Bid::getDeveloperId, currentUserId)
                 .isNull(Bid::getDeletedAt)
                 .orderByDesc(Bid::getCreatedAt);
 
@@ -241,8 +247,8 @@ public class BidServiceImpl implements BidService {
 
     @Override
     public boolean hasBid(Long projectId) {
-        UserVO currentUser = userService.getCurrentUser();
-        return bidRepository.countByProjectAndDeveloper(projectId, currentUser.getId()) > 0;
+        Long currentUserId = SecurityUtils.getCurrentUserId();
+        return bidRepository.countByProjectAndDeveloper(projectId, currentUserId) > 0;
     }
 
     /**
@@ -302,13 +308,13 @@ public class BidServiceImpl implements BidService {
                 .build();
 
         // 加载项目标题
-        Project project = projectRepository.selectById(bid.getProjectId());
+        Project project = entityCacheManager.projects().get(bid.getProjectId());
         if (project != null) {
             vo.setProjectTitle(project.getTitle());
         }
 
         // 加载投标者信息
-        User developer = userRepository.selectById(bid.getDeveloperId());
+        User developer = entityCacheManager.users().get(bid.getDeveloperId());
         if (developer != null) {
             vo.setDeveloper(userService.toVO(developer));
         }
@@ -0,0 +1,95 @@
+package com.makebang.service.impl;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.makebang.common.exception.BusinessException;
+import com.makebang.common.result.ResultCode;
+import com.makebang.config.DeveloperMatchConfig;
+import com.makebang.entity.DeveloperProfile;
+import com.makebang.entity.Project;
+import com.makebang.entity.ProjectDeveloperMatch;
+import com.makebang.repository.DeveloperProfileRepository;
+import com.makebang.repository.ProjectDeveloperMatchRepository;
+import com.makebang.repository.ProjectRepository;
+import com.makebang.service.DeveloperMatchService;
+import com.makebang.service.assembler.UserSummaryLoader;
+import com.makebang.service.match.DeveloperMatchRefresher;
+import com.makebang.util.SecurityUtils;
+import com.makebang.vo.RecommendedDeveloperVO;
+import com.makebang.vo.UserVO;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 项目推荐程序员服务实现
+ * 读取预计算的排名；项目从未计算过时（刚发布或刚生成向量）当场计算一次
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DeveloperMatchServiceImpl implements DeveloperMatchService {
+
+    private final ProjectRepository projectRepository;
+    private final ProjectDeveloperMatchRepository matchRepository;
+    private final DeveloperProfileRepository profileRepository;
+    private final DeveloperMatchRefresher matchRefresher;
+    private final DeveloperMatchConfig config;
+    private final UserSummaryLoader userSummaryLoader;
+
+    @Override
+    public List<RecommendedDeveloperVO> getRecommendedDevelopers(Long projectId, int limit) {
+        Project project = projectRepository.selectById(projectId);
+        if (project == null || project.getDeletedAt() != null) {
+            throw new BusinessException(ResultCode.PROJECT_NOT_FOUND);
+        }
+        if (!project.getUserId().equals(SecurityUtils.getCurrentUserId())) {
+            throw new BusinessException(ResultCode.FORBIDDEN, "只有项目发布者可以查看推荐程序员");
+        }
+        if (project.getStatus() != Project.Status.OPEN.code) {
+            return Collections.emptyList();
+        }
+
+        if (matchRepository.findRefreshedAt(projectId) == null) {
+            matchRefresher.refresh(projectId);
+        }
+        List<ProjectDeveloperMatch> matches = matchRepository.findRanking(projectId,
+                Math.max(1, Math.min(limit, config.getSize())));
+        if (matches.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        List<Long> developerIds = matches.stream().map(ProjectDeveloperMatch::getDeveloperId).toList();
+        Map<Long, UserVO> users = userSummaryLoader.getAll(developerIds);
+        Map<Long, DeveloperProfile> profiles = profileRepository.selectList(new LambdaQueryWrapper<DeveloperProfile>()
+                        .in(DeveloperProfile::getUserId, developerIds))
+                .stream()
+                .collect(Collectors.toMap(DeveloperProfile::getUserId, Function.identity()));
+
+        List<RecommendedDeveloperVO> result = new ArrayList<>(matches.size());
+        for (ProjectDeveloperMatch match : matches) {
+            UserVO user = users.get(match.getDeveloperId());
+            DeveloperProfile profile = profiles.get(match.getDeveloperId());
+            if (user == null || profile == null) {
+                // 计算后账号或资料已删除
+                continue;
+            }
+            result.add(RecommendedDeveloperVO.builder()
+                    .rank(match.getRank())
+                    .score(match.getScore())
+                    .similarity(match.getSimilarity())
+                    .skillOverlap(match.getSkillOverlap())
+                    .avgRating(match.getAvgRating())
+                    .completedOrders(match.getCompletedOrders())
+                    .developer(user)
+                    .skills(profile.getSkills())
+                    .experienceYears(profile.getExperienceYears())
+                    .hourlyRate(profile.getHourlyRate())
+                    .build());
+        }
+        return result;
+    }
+}
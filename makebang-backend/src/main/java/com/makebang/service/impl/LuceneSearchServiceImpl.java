@@ -0,0 +1,154 @@
+package com.makebang.service.impl;
+
+import com.makebang.common.exception.BusinessException;
+import com.makebang.common.result.ResultCode;
+import com.makebang.config.EmbeddingConfig;
+import com.makebang.repository.HotKeywordRepository;
+import com.makebang.repository.ProjectEmbeddingRepository;
+import com.makebang.repository.ProjectRepository;
+import com.makebang.repository.SearchHistoryRepository;
+import com.makebang.service.EmbeddingService;
+import com.makebang.service.analytics.SearchAnalyticsCollector;
+import com.makebang.service.analytics.SearchSuggestionIndex;
+import com.makebang.service.assembler.ProjectAssembler;
+import com.makebang.service.embedding.ProjectEmbeddingPipeline;
+import com.makebang.service.embedding.QueryEmbeddingCache;
+import com.makebang.service.embedding.VectorSearcher;
+import com.makebang.service.search.LuceneProjectIndex;
+import com.makebang.util.SecurityUtils;
+import com.makebang.vo.ProjectVO;
+import com.makebang.vo.SearchResultVO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * 搜索服务实现（嵌入式 Lucene 索引）
+ * 关键词检索、过滤、分页和分面统计在本地索引完成，不访问数据库；
+ * 混合搜索的语义候选仍来自 pgvector，在本地过滤后与关键词结果做倒数排名融合。
+ * 搜索建议、历史和向量维护沿用数据库实现
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "makebang.search.provider", havingValue = "lucene")
+public class LuceneSearchServiceImpl extends SearchServiceImpl {
+
+    private final LuceneProjectIndex projectIndex;
+    private final EmbeddingService embeddingService;
+    private final EmbeddingConfig embeddingConfig;
+    private final SearchAnalyticsCollector searchAnalyticsCollector;
+    private final QueryEmbeddingCache queryEmbeddingCache;
+    private final VectorSearcher vectorSearcher;
+
+    public LuceneSearchServiceImpl(ProjectRepository projectRepository,
+                                   ProjectEmbeddingRepository embeddingRepository,
+                                   SearchHistoryRepository searchHistoryRepository,
+                                   HotKeywordRepository hotKeywordRepository,
+                                   EmbeddingService embeddingService,
+                                   EmbeddingConfig embeddingConfig,
+                                   ProjectAssembler projectAssembler,
+                                   SearchAnalyticsCollector searchAnalyticsCollector,
+                                   SearchSuggestionIndex searchSuggestionIndex,
+                                   ProjectEmbeddingPipeline embeddingPipeline,
+                                   QueryEmbeddingCache queryEmbeddingCache,
+                                   VectorSearcher vectorSearcher,
+                                   LuceneProjectIndex projectIndex) {
+        super(projectRepository, embeddingRepository, searchHistoryRepository, hotKeywordRepository,
+                embeddingService, embeddingConfig, projectAssembler, searchAnalyticsCollector,
+                searchSuggestionIndex, embeddingPipeline, queryEmbeddingCache, vectorSearcher);
+        this.projectIndex = projectIndex;
+        this.embeddingService = embeddingService;
+        this.embeddingConfig = embeddingConfig;
+        this.searchAnalyticsCollector = searchAnalyticsCollector;
+        this.queryEmbeddingCache = queryEmbeddingCache;
+        this.vectorSearcher = vectorSearcher;
+    }
+
+    @Override
+    public SearchResultVO search(String keyword, Long categoryId, Integer minBudget, Integer maxBudget,
+                                 int current, int size) {
+        long startTime = System.currentTimeMillis();
+        int offset = (Math.max(current, 1) - 1) * size;
+        String searchType = "keyword";
+        List<Long> projectIds;
+        Map<String, Map<String, Long>> facets;
+        long total;
+
+        boolean useSemanticSearch = embeddingService.isAvailable()
+                && StringUtils.hasText(keyword)
+                && keyword.length() > 5;
+
+        float[] queryVector = useSemanticSearch ? queryEmbeddingCache.get(keyword) : null;
+
+        try {
+            if (queryVector != null) {
+                searchType = "hybrid";
+                int candidates = Math.max(embeddingConfig.getHybridCandidates(), offset + size);
+
+                LuceneProjectIndex.Hits keywordHits =
+                        projectIndex.search(keyword, categoryId, minBudget, maxBudget, 0, candidates);
+                List<Long> semanticIds = vectorSearcher.search(queryVector,
+                                embeddingConfig.getSimilarityThreshold(), candidates).stream()
+                        .map(ProjectEmbeddingRepository.SimilarityResult::getProjectId)
+                        .collect(Collectors.toList());
+                Set<Long> allowed = projectIndex.filter(semanticIds, categoryId, minBudget, maxBudget);
+                semanticIds.removeIf(id -> !allowed.contains(id));
+
+                // 融合结果最多为两路候选之和，超出部分不再分页
+                List<Long> fused = fuse(keywordHits.projectIds(), semanticIds, embeddingConfig.getRrfK());
+                total = fused.size();
+                projectIds = offset < fused.size()
+                        ? fused.subList(offset, Math.min(offset + size, fused.size()))
+                        : Collections.emptyList();
+                facets = keywordHits.facets();
+            } else {
+                LuceneProjectIndex.Hits hits =
+                        projectIndex.search(keyword, categoryId, minBudget, maxBudget, offset, size);
+                total = hits.total();
+                projectIds = hits.projectIds();
+                facets = hits.facets();
+            }
+        } catch (IOException e) {
+            log.error("Lucene search failed: {}", e.getMessage(), e);
+            throw new BusinessException(ResultCode.SERVICE_UNAVAILABLE, "搜索服务暂时不可用");
+        }
+
+        List<ProjectVO> projects = toOrderedVOList(projectIds);
+
+        searchAnalyticsCollector.record(SecurityUtils.getCurrentUserIdOrNull(), keyword, searchType, total);
+
+        return SearchResultVO.builder()
+                .projects(projects)
+                .total(total)
+                .current(current)
+                .size(size)
+                .pages((int) Math.ceil((double) total / size))
+                .searchType(searchType)
+                .costTime(System.currentTimeMillis() - startTime)
+                .suggestions(projects.isEmpty() ? getHotKeywords(5) : null)
+                .facets(facets)
+                .build();
+    }
+
+    /**
+     * 倒数排名融合：得分为各路结果中 1 / (k + 名次) 之和，按得分倒序
+     */
+    static List<Long> fuse(List<Long> keywordIds, List<Long> semanticIds, int k) {
+        Map<Long, Double> scores = new LinkedHashMap<>();
+        for (int i = 0; i < keywordIds.size(); i++) {
+            scores.merge(keywordIds.get(i), 1.0 / (k + i + 1), Double::sum);
+        }
+        for (int i = 0; i < semanticIds.size(); i++) {
+            scores.merge(semanticIds.get(i), 1.0 / (k + i + 1), Double::sum);
+        }
+        return scores.entrySet().stream()
+                .sorted(Map.Entry.<Long, Double>comparingByValue().reversed())
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toList());
+    }
+}
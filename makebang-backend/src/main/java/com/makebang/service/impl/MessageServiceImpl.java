@@ -3,22 +3,33 @@ package com.makebang.service.impl;
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.makebang.common.exception.BusinessException;
+import com.makebang.common.result.CursorPageResult;
 import com.makebang.common.result.ResultCode;
 import com.makebang.dto.message.SendMessageRequest;
 import com.makebang.entity.*;
 import com.makebang.repository.*;
+import com.makebang.security.StreamTicketService;
 import com.makebang.service.MessageService;
-import com.makebang.service.UserService;
+import com.makebang.service.PushService;
+import com.makebang.service.assembler.UserSummaryLoader;
+import com.makebang.service.counter.UnreadCounter;
+import com.makebang.util.CursorUtils;
+import com.makebang.util.SecurityUtils;
 import com.makebang.vo.ConversationVO;
 import com.makebang.vo.MessageVO;
+import com.makebang.service.push.PushMessage;
 import com.makebang.vo.NotificationVO;
 import com.makebang.vo.UserVO;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * 消息服务实现
@@ -31,18 +42,20 @@ public class MessageServiceImpl implements MessageService {
     private final MessageRepository messageRepository;
     private final ConversationRepository conversationRepository;
     private final NotificationRepository notificationRepository;
-    private final UserRepository userRepository;
     private final OrderRepository orderRepository;
     private final ProjectRepository projectRepository;
-    private final UserService userService;
+    private final UserSummaryLoader userSummaryLoader;
+    private final PushService pushService;
+    private final UnreadCounter unreadCounter;
+    private final StreamTicketService streamTicketService;
 
     // ========== 消息相关 ==========
 
     @Override
     @Transactional
     public MessageVO sendMessage(SendMessageRequest request) {
-        UserVO currentUser = userService.getCurrentUser();
-        Long senderId = currentUser.getId();
+        Long currentUserId = SecurityUtils.getCurrentUserId();
+        Long senderId = currentUserId;
         Long receiverId = request.getReceiverId();
 
         if (senderId.equals(receiverId)) {
@@ -70,21 +83,16 @@ public class MessageServiceImpl implements MessageService {
         message.setCreatedAt(LocalDateTime.now());
         message.setUpdatedAt(LocalDateTime.now());
 
-        messageRepository.insert(message);
-
-        // 更新会话最后消息
+        // 插入消息，同时更新会话最后消息和接收者未读数
         String lastContent = request.getContent();
         if (lastContent != null && lastContent.length() > 100) {
             lastContent = lastContent.substring(0, 100) + "...";
         }
-        conversationRepository.updateLastMessage(conversation.getId(), message.getId(), lastContent);
+        message.setId(messageRepository.insertAndUpdateConversation(message, lastContent));
 
-        // 更新接收者未读数
-        if (conversation.getParticipant1Id().equals(receiverId)) {
-            conversationRepository.incrementParticipant1Unread(conversation.getId());
-        } else {
-            conversationRepository.incrementParticipant2Unread(conversation.getId());
-        }
+        // 提交后累加接收者未读计数并推送
+        unreadCounter.addMessages(receiverId, 1);
+        pushService.push(receiverId, PushMessage.Type.MESSAGE.code, toMessageVO(message, receiverId));
 
         log.info("消息发送成功: {} -> {}", senderId, receiverId);
 
@@ -93,94 +101,120 @@ public class MessageServiceImpl implements MessageService {
 
     @Override
     public IPage<MessageVO> getConversationMessages(Long conversationId, int current, int size) {
-        UserVO currentUser = userService.getCurrentUser();
-
-        // 验证用户是会话参与者
-        Conversation conversation = conversationRepository.selectById(conversationId);
-        if (conversation == null) {
-            throw new BusinessException(ResultCode.NOT_FOUND, "会话不存在");
-        }
-
-        if (!conversation.getParticipant1Id().equals(currentUser.getId()) &&
-            !conversation.getParticipant2Id().equals(currentUser.getId())) {
-            throw new BusinessException(ResultCode.FORBIDDEN, "无权访问此会话");
-        }
+        Long currentUserId = SecurityUtils.getCurrentUserId();
+        checkParticipant(conversationId, currentUserId);
 
         Page<Message> page = new Page<>(current, size);
         IPage<Message> result = messageRepository.findByConversationId(page, conversationId);
 
-        return result.convert(m -> toMessageVO(m, currentUser.getId()));
+        Page<MessageVO> voPage = new Page<>(result.getCurrent(), result.getSize(), result.getTotal());
+        voPage.setRecords(toMessageVOList(result.getRecords(), currentUserId));
+        return voPage;
+    }
+
+    @Override
+    public CursorPageResult<MessageVO> getConversationMessagesByCursor(Long conversationId, String cursor, int size) {
+        Long currentUserId = SecurityUtils.getCurrentUserId();
+        checkParticipant(conversationId, currentUserId);
+
+        CursorUtils.Position position = CursorUtils.decode(cursor);
+        int pageSize = CursorUtils.normalizeSize(size);
+
+        List<Message> rows = messageRepository.findByConversationIdAfterCursor(conversationId,
+                position != null ? position.createdAt() : null,
+                position != null ? position.id() : null,
+                pageSize + 1);
+
+        return CursorUtils.build(rows, pageSize, Message::getCreatedAt, Message::getId,
+                page -> toMessageVOList(page, currentUserId));
+    }
+
+    @Override
+    public SseEmitter subscribe() {
+        Long currentUserId = SecurityUtils.getCurrentUserId();
+        SseEmitter emitter = pushService.subscribe(currentUserId);
+
+        // 连接建立后先同步一次未读数，之后由推送事件增量更新
+        pushUnreadCounts(currentUserId);
+        return emitter;
+    }
+
+    @Override
+    public String createStreamTicket() {
+        return streamTicketService.issue(SecurityUtils.getCurrentUsername());
     }
 
     @Override
     public int getUnreadCount() {
-        UserVO currentUser = userService.getCurrentUser();
-        return messageRepository.countUnreadByUserId(currentUser.getId());
+        Long currentUserId = SecurityUtils.getCurrentUserId();
+        return unreadCounter.get(currentUserId).messageCount();
     }
 
     // ========== 会话相关 ==========
 
     @Override
     public IPage<ConversationVO> getConversations(int current, int size) {
-        UserVO currentUser = userService.getCurrentUser();
+        Long currentUserId = SecurityUtils.getCurrentUserId();
 
         Page<Conversation> page = new Page<>(current, size);
-        IPage<Conversation> result = conversationRepository.findByUserId(page, currentUser.getId());
+        IPage<Conversation> result = conversationRepository.findByUserId(page, currentUserId);
 
-        return result.convert(c -> toConversationVO(c, currentUser.getId()));
+        Page<ConversationVO> voPage = new Page<>(result.getCurrent(), result.getSize(), result.getTotal());
+        voPage.setRecords(toConversationVOList(result.getRecords(), currentUserId));
+        return voPage;
     }
 
     @Override
     public ConversationVO getConversation(Long id) {
-        UserVO currentUser = userService.getCurrentUser();
+        Long currentUserId = SecurityUtils.getCurrentUserId();
 
         Conversation conversation = conversationRepository.selectById(id);
         if (conversation == null) {
             throw new BusinessException(ResultCode.NOT_FOUND, "会话不存在");
         }
 
-        if (!conversation.getParticipant1Id().equals(currentUser.getId()) &&
-            !conversation.getParticipant2Id().equals(currentUser.getId())) {
+        if (!conversation.getParticipant1Id().equals(currentUserId) &&
+            !conversation.getParticipant2Id().equals(currentUserId)) {
             throw new BusinessException(ResultCode.FORBIDDEN, "无权访问此会话");
         }
 
-        return toConversationVO(conversation, currentUser.getId());
+        return toConversationVO(conversation, currentUserId);
     }
 
     @Override
     @Transactional
     public ConversationVO getOrCreatePrivateConversation(Long userId) {
-        UserVO currentUser = userService.getCurrentUser();
+        Long currentUserId = SecurityUtils.getCurrentUserId();
 
-        if (currentUser.getId().equals(userId)) {
+        if (currentUserId.equals(userId)) {
             throw new BusinessException(ResultCode.BAD_REQUEST, "不能与自己创建会话");
         }
 
-        Conversation conversation = getOrCreatePrivateConversationEntity(currentUser.getId(), userId);
-        return toConversationVO(conversation, currentUser.getId());
+        Conversation conversation = getOrCreatePrivateConversationEntity(currentUserId, userId);
+        return toConversationVO(conversation, currentUserId);
     }
 
     @Override
     public ConversationVO getOrderConversation(Long orderId) {
-        UserVO currentUser = userService.getCurrentUser();
+        Long currentUserId = SecurityUtils.getCurrentUserId();
 
         Conversation conversation = conversationRepository.findByOrderId(orderId);
         if (conversation == null) {
             throw new BusinessException(ResultCode.NOT_FOUND, "订单会话不存在");
         }
 
-        if (!conversation.getParticipant1Id().equals(currentUser.getId()) &&
-            !conversation.getParticipant2Id().equals(currentUser.getId())) {
+        if (!conversation.getParticipant1Id().equals(currentUserId) &&
+            !conversation.getParticipant2Id().equals(currentUserId)) {
             throw new BusinessException(ResultCode.FORBIDDEN, "无权访问此会话");
         }
 
-        return toConversationVO(conversation, currentUser.getId());
+        return toConversationVO(conversation, currentUserId);
     }
 
     @Override
     @Transactional
     public void markConversationAsRead(Long conversationId) {
-        UserVO currentUser = userService.getCurrentUser();
+        Long currentUserId = SecurityUtils.getCurrentUserId();
 
         Conversation conversation = conversationRepository.selectById(conversationId);
         if (conversation == null) {
@@ -188,45 +222,68 @@ public class MessageServiceImpl implements MessageService {
         }
 
         // 标记消息为已读
-        messageRepository.markAsReadByConversation(conversationId, currentUser.getId());
+        int updated = messageRepository.markAsReadByConversation(conversationId, currentUserId);
+        unreadCounter.addMessages(currentUserId, -updated);
 
         // 清空未读数
-        if (conversation.getParticipant1Id().equals(currentUser.getId())) {
+        if (conversation.getParticipant1Id().equals(currentUserId)) {
             conversationRepository.clearParticipant1Unread(conversationId);
-        } else if (conversation.getParticipant2Id().equals(currentUser.getId())) {
+        } else if (conversation.getParticipant2Id().equals(currentUserId)) {
             conversationRepository.clearParticipant2Unread(conversationId);
         }
+
+        pushUnreadCounts(currentUserId);
     }
 
     // ========== 通知相关 ==========
 
     @Override
     public IPage<NotificationVO> getNotifications(Integer type, int current, int size) {
-        UserVO currentUser = userService.getCurrentUser();
+        Long currentUserId = SecurityUtils.getCurrentUserId();
 
         Page<Notification> page = new Page<>(current, size);
-        IPage<Notification> result = notificationRepository.findByUserId(page, currentUser.getId(), type);
+        IPage<Notification> result = notificationRepository.findByUserId(page, currentUserId, type);
 
         return result.convert(this::toNotificationVO);
     }
 
+    @Override
+    public CursorPageResult<NotificationVO> getNotificationsByCursor(Integer type, String cursor, int size) {
+        Long currentUserId = SecurityUtils.getCurrentUserId();
+        CursorUtils.Position position = CursorUtils.decode(cursor);
+        int pageSize = CursorUtils.normalizeSize(size);
+
+        List<Notification> rows = notificationRepository.findByUserIdAfterCursor(currentUserId, type,
+                position != null ? position.createdAt() : null,
+                position != null ? position.id() : null,
+                pageSize + 1);
+
+        return CursorUtils.build(rows, pageSize, Notification::getCreatedAt, Notification::getId,
+                page -> page.stream().map(this::toNotificationVO).collect(Collectors.toList()));
+    }
+
     @Override
     public int getUnreadNotificationCount() {
-        UserVO currentUser = userService.getCurrentUser();
-        return notificationRepository.countUnreadByUserId(currentUser.getId());
+        Long currentUserId = SecurityUtils.getCurrentUserId();
+        return unreadCounter.get(currentUserId).notificationCount();
     }
 
     @Override
     @Transactional
     public void markNotificationAsRead(Long id) {
-        notificationRepository.markAsRead(id);
+        Long currentUserId = SecurityUtils.getCurrentUserId();
+        int updated = notificationRepository.markAsReadByUser(id, currentUserId);
+        unreadCounter.addNotifications(currentUserId, -updated);
+        pushUnreadCounts(currentUserId);
     }
 
     @Override
     @Transactional
     public void markAllNotificationsAsRead() {
-        UserVO currentUser = userService.getCurrentUser();
-        notificationRepository.markAllAsRead(currentUser.getId());
+        Long currentUserId = SecurityUtils.getCurrentUserId();
+        int updated = notificationRepository.markAllAsRead(currentUserId);
+        unreadCounter.addNotifications(currentUserId, -updated);
+        pushUnreadCounts(currentUserId);
     }
 
     @Override
@@ -247,27 +304,56 @@ public class MessageServiceImpl implements MessageService {
 
         notificationRepository.insert(notification);
 
+        // 提交后累加未读计数并推送
+        unreadCounter.addNotifications(userId, 1);
+        pushService.push(userId, PushMessage.Type.NOTIFICATION.code, toNotificationVO(notification));
+
         log.info("发送通知给用户 {}: {}", userId, title);
     }
 
     // ========== 私有方法 ==========
 
-    private Conversation getOrCreatePrivateConversationEntity(Long userId1, Long userId2) {
-        Conversation conversation = conversationRepository.findPrivateConversation(userId1, userId2);
+    /**
+     * 提交后推送最新未读数（多端同步已读状态）
+     */
+    private void pushUnreadCounts(Long userId) {
+        pushService.pushLazily(userId, PushMessage.Type.UNREAD.code, () -> {
+            UnreadCounter.Counts unread = unreadCounter.get(userId);
+            Map<String, Integer> counts = new HashMap<>();
+            counts.put("messageCount", unread.messageCount());
+            counts.put("notificationCount", unread.notificationCount());
+            counts.put("total", unread.total());
+            return counts;
+        });
+    }
 
+    /**
+     * 验证用户是会话参与者
+     */
+    private Conversation checkParticipant(Long conversationId, Long userId) {
+        Conversation conversation = conversationRepository.selectById(conversationId);
         if (conversation == null) {
-            conversation = new Conversation();
-            conversation.setType(Conversation.Type.PRIVATE.code);
-            conversation.setParticipant1Id(userId1);
-            conversation.setParticipant2Id(userId2);
-            conversation.setParticipant1Unread(0);
-            conversation.setParticipant2Unread(0);
-            conversation.setCreatedAt(LocalDateTime.now());
-            conversation.setUpdatedAt(LocalDateTime.now());
+            throw new BusinessException(ResultCode.NOT_FOUND, "会话不存在");
+        }
 
-            conversationRepository.insert(conversation);
+        if (!conversation.getParticipant1Id().equals(userId) &&
+            !conversation.getParticipant2Id().equals(userId)) {
+            throw new BusinessException(ResultCode.FORBIDDEN, "无权访问此会话");
+        }
+        return conversation;
+    }
+
+    private Conversation getOrCreatePrivateConversationEntity(Long userId1, Long userId2) {
+        Conversation conversation = conversationRepository.findPrivateConversation(userId1, userId2);
+        if (conversation != null) {
+            return conversation;
         }
 
+        // 不存在时插入，并发创建时冲突方读取对方插入的会话
+        conversation = conversationRepository.insertPrivateIfAbsent(userId1, userId2);
+        if (conversation == null) {
+            conversation = conversationRepository.findPrivateConversation(userId1, userId2);
+        }
         return conversation;
     }
 
@@ -298,72 +384,118 @@ public class MessageServiceImpl implements MessageService {
     }
 
     private MessageVO toMessageVO(Message message, Long currentUserId) {
-        User sender = userRepository.selectById(message.getSenderId());
-        User receiver = userRepository.selectById(message.getReceiverId());
-
-        return MessageVO.builder()
-                .id(message.getId())
-                .conversationId(message.getConversationId())
-                .senderId(message.getSenderId())
-                .sender(sender != null ? userService.toVO(sender) : null)
-                .receiverId(message.getReceiverId())
-                .receiver(receiver != null ? userService.toVO(receiver) : null)
-                .type(message.getType())
-                .typeDesc(Message.Type.getDesc(message.getType()))
-                .content(message.getContent())
-                .attachmentUrl(message.getAttachmentUrl())
-                .attachmentName(message.getAttachmentName())
-                .isRead(message.getIsRead())
-                .readAt(message.getReadAt())
-                .isSelf(message.getSenderId().equals(currentUserId))
-                .createdAt(message.getCreatedAt())
-                .build();
+        return toMessageVOList(Collections.singletonList(message), currentUserId).get(0);
+    }
+
+    /**
+     * 批量转换消息VO，收发双方用户按页批量获取
+     */
+    private List<MessageVO> toMessageVOList(List<Message> messages, Long currentUserId) {
+        Set<Long> userIds = new HashSet<>();
+        for (Message message : messages) {
+            userIds.add(message.getSenderId());
+            userIds.add(message.getReceiverId());
+        }
+        Map<Long, UserVO> users = userSummaryLoader.getAll(userIds);
+
+        List<MessageVO> voList = new ArrayList<>(messages.size());
+        for (Message message : messages) {
+            voList.add(MessageVO.builder()
+                    .id(message.getId())
+                    .conversationId(message.getConversationId())
+                    .senderId(message.getSenderId())
+                    .sender(users.get(message.getSenderId()))
+                    .receiverId(message.getReceiverId())
+                    .receiver(users.get(message.getReceiverId()))
+                    .type(message.getType())
+                    .typeDesc(Message.Type.getDesc(message.getType()))
+                    .content(message.getContent())
+                    .attachmentUrl(message.getAttachmentUrl())
+                    .attachmentName(message.getAttachmentName())
+                    .isRead(message.getIsRead())
+                    .readAt(message.getReadAt())
+                    .isSelf(message.getSenderId().equals(currentUserId))
+                    .createdAt(message.getCreatedAt())
+                    .build());
+        }
+        return voList;
     }
 
     private ConversationVO toConversationVO(Conversation conversation, Long currentUserId) {
-        // 确定对方用户
-        Long otherUserId = conversation.getParticipant1Id().equals(currentUserId)
-                ? conversation.getParticipant2Id()
-                : conversation.getParticipant1Id();
+        return toConversationVOList(Collections.singletonList(conversation), currentUserId).get(0);
+    }
 
-        User otherUser = userRepository.selectById(otherUserId);
-
-        // 获取未读数
-        int unreadCount = conversation.getParticipant1Id().equals(currentUserId)
-                ? (conversation.getParticipant1Unread() != null ? conversation.getParticipant1Unread() : 0)
-                : (conversation.getParticipant2Unread() != null ? conversation.getParticipant2Unread() : 0);
-
-        ConversationVO vo = ConversationVO.builder()
-                .id(conversation.getId())
-                .type(conversation.getType())
-                .typeDesc(Conversation.Type.getDesc(conversation.getType()))
-                .otherUserId(otherUserId)
-                .otherUser(otherUser != null ? userService.toVO(otherUser) : null)
-                .orderId(conversation.getOrderId())
-                .projectId(conversation.getProjectId())
-                .lastMessageContent(conversation.getLastMessageContent())
-                .lastMessageAt(conversation.getLastMessageAt())
-                .unreadCount(unreadCount)
-                .createdAt(conversation.getCreatedAt())
-                .updatedAt(conversation.getUpdatedAt())
-                .build();
+    /**
+     * 批量转换会话VO，对方用户、订单、项目按页批量获取
+     */
+    private List<ConversationVO> toConversationVOList(List<Conversation> conversations, Long currentUserId) {
+        Set<Long> userIds = new HashSet<>();
+        Set<Long> orderIds = new HashSet<>();
+        Set<Long> projectIds = new HashSet<>();
+        for (Conversation conversation : conversations) {
+            userIds.add(otherUserId(conversation, currentUserId));
+            if (conversation.getOrderId() != null) {
+                orderIds.add(conversation.getOrderId());
+            }
+            if (conversation.getProjectId() != null) {
+                projectIds.add(conversation.getProjectId());
+            }
+        }
 
-        // 加载关联信息
-        if (conversation.getOrderId() != null) {
-            Order order = orderRepository.selectById(conversation.getOrderId());
+        Map<Long, UserVO> users = userSummaryLoader.getAll(userIds);
+        Map<Long, Order> orders = orderIds.isEmpty() ? Collections.emptyMap()
+                : orderRepository.selectBatchIds(orderIds).stream()
+                        .collect(Collectors.toMap(Order::getId, Function.identity(), (a, b) -> a));
+        Map<Long, Project> projects = projectIds.isEmpty() ? Collections.emptyMap()
+                : projectRepository.selectBatchIds(projectIds).stream()
+                        .collect(Collectors.toMap(Project::getId, Function.identity(), (a, b) -> a));
+
+        List<ConversationVO> voList = new ArrayList<>(conversations.size());
+        for (Conversation conversation : conversations) {
+            Long otherUserId = otherUserId(conversation, currentUserId);
+
+            // 获取未读数
+            int unreadCount = conversation.getParticipant1Id().equals(currentUserId)
+                    ? (conversation.getParticipant1Unread() != null ? conversation.getParticipant1Unread() : 0)
+                    : (conversation.getParticipant2Unread() != null ? conversation.getParticipant2Unread() : 0);
+
+            ConversationVO vo = ConversationVO.builder()
+                    .id(conversation.getId())
+                    .type(conversation.getType())
+                    .typeDesc(Conversation.Type.getDesc(conversation.getType()))
+                    .otherUserId(otherUserId)
+                    .otherUser(users.get(otherUserId))
+                    .orderId(conversation.getOrderId())
+                    .projectId(conversation.getProjectId())
+                    .lastMessageContent(conversation.getLastMessageContent())
+                    .lastMessageAt(conversation.getLastMessageAt())
+                    .unreadCount(unreadCount)
+                    .createdAt(conversation.getCreatedAt())
+                    .updatedAt(conversation.getUpdatedAt())
+                    .build();
+
+            // 关联信息
+            Order order = orders.get(conversation.getOrderId());
             if (order != null) {
                 vo.setOrderNo(order.getOrderNo());
             }
-        }
-
-        if (conversation.getProjectId() != null) {
-            Project project = projectRepository.selectById(conversation.getProjectId());
+            Project project = projects.get(conversation.getProjectId());
             if (project != null) {
                 vo.setProjectTitle(project.getTitle());
             }
+
+            voList.add(vo);
         }
+        return voList;
+    }
 
-        return vo;
+    /**
+     * 确定对方用户
+     */
+    private static Long otherUserId(Conversation conversation, Long currentUserId) {
+        return conversation.getParticipant1Id().equals(currentUserId)
+                ? conversation.getParticipant2Id()
+                : conversation.getParticipant1Id();
     }
 
     private NotificationVO toNotificationVO(Notification notification) {
@@ -14,9 +14,12 @@ import com.makebang.repository.*;
 import com.makebang.service.OrderService;
 import com.makebang.service.UserService;
 import com.makebang.service.WalletService;
+import com.makebang.service.cache.EntityCacheManager;
+import com.makebang.service.cache.ProjectDetailCache;
+import com.makebang.service.search.ProjectSearchIndexer;
+import com.makebang.util.SecurityUtils;
 import com.makebang.vo.MilestoneVO;
 import com.makebang.vo.OrderVO;
-import com.makebang.vo.UserVO;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -42,6 +45,9 @@ public class OrderServiceImpl implements OrderService {
     private final UserRepository userRepository;
     private final UserService userService;
     private final WalletService walletService;
+    private final ProjectSearchIndexer projectSearchIndexer;
+    private final ProjectDetailCache projectDetailCache;
+    private final EntityCacheManager entityCacheManager;
 
     @Override
     @Transactional
@@ -114,20 +120,20 @@ public class OrderServiceImpl implements OrderService {
 
     @Override
     public PageResult<OrderVO> getMyOrders(String role, Integer status, Integer current, Integer size) {
-        UserVO currentUser = userService.getCurrentUser();
+        Long currentUserId = SecurityUtils.getCurrentUserId();
 
         LambdaQueryWrapper<Order> wrapper = new LambdaQueryWrapper<>();
 
         if ("employer".equals(role)) {
-            wrapper.eq(Order::getEmployerId, currentUser.getId());
+            wrapper.eq(Order::getEmployerId, currentUserId);
         } else if ("developer".equals(role)) {
-            wrapper.eq(Order::getDeveloperId, currentUser.getId());
+            wrapper.eq(Order::getDeveloperId, currentUserId);
         } else {
             // 默认查询所有相关订单
             wrapper.and(w -> w
-                    .eq(Order::getEmployerId, currentUser.getId())
+                    .eq(Order::getEmployerId, currentUserId)
                     .or()
-                    .eq(Order::getDeveloperId, currentUser.getId()));
+                    .eq(Order::getDeveloperId, currentUserId));
         }
 
         wrapper.isNull(Order::getDeletedAt)
@@ -151,10 +157,10 @@ public class OrderServiceImpl implements OrderService {
     @Transactional
     public void cancelOrder(Long id) {
         Order order = getOrderEntity(id);
-        UserVO currentUser = userService.getCurrentUser();
+        Long currentUserId = SecurityUtils.getCurrentUserId();
 
         // 验证权限
-        if (!order.getEmployerId().equals(currentUser.getId())) {
+        if (!order.getEmployerId().equals(currentUserId)) {
             throw new BusinessException(ResultCode.FORBIDDEN, "无权取消此订单");
         }
 
@@ -177,6 +183,8 @@ public class OrderServiceImpl implements OrderService {
         if (project != null) {
             project.setStatus(Project.Status.OPEN.code);
             projectRepository.updateById(project);
+            projectSearchIndexer.sync(project);
+            projectDetailCache.invalidate(project.getId());
         }
 
         log.info("订单已取消: {}", order.getOrderNo());
@@ -186,10 +194,10 @@ public class OrderServiceImpl implements OrderService {
     @Transactional
     public OrderVO confirmPayment(Long id) {
         Order order = getOrderEntity(id);
-        UserVO currentUser = userService.getCurrentUser();
+        Long currentUserId = SecurityUtils.getCurrentUserId();
 
         // 验证权限
-        if (!order.getEmployerId().equals(currentUser.getId())) {
+        if (!order.getEmployerId().equals(currentUserId)) {
             throw new BusinessException(ResultCode.FORBIDDEN, "无权操作此订单");
         }
 
@@ -221,10 +229,10 @@ public class OrderServiceImpl implements OrderService {
     @Transactional
     public MilestoneVO addMilestone(Long orderId, CreateMilestoneRequest request) {
         Order order = getOrderEntity(orderId);
-        UserVO currentUser = userService.getCurrentUser();
+        Long currentUserId = SecurityUtils.getCurrentUserId();
 
         // 验证权限
-        if (!order.getEmployerId().equals(currentUser.getId())) {
+        if (!order.getEmployerId().equals(currentUserId)) {
             throw new BusinessException(ResultCode.FORBIDDEN, "无权操作此订单");
         }
 
@@ -271,10 +279,10 @@ public class OrderServiceImpl implements OrderService {
     public MilestoneVO startMilestone(Long milestoneId) {
         Milestone milestone = getMilestoneEntity(milestoneId);
         Order order = getOrderEntity(milestone.getOrderId());
-        UserVO currentUser = userService.getCurrentUser();
+        Long currentUserId = SecurityUtils.getCurrentUserId();
 
         // 验证权限
-        if (!order.getDeveloperId().equals(currentUser.getId())) {
+        if (!order.getDeveloperId().equals(currentUserId)) {
             throw new BusinessException(ResultCode.FORBIDDEN, "无权操作此里程碑");
         }
 
@@ -293,10 +301,10 @@ public class OrderServiceImpl implements OrderService {
     public MilestoneVO submitMilestone(Long milestoneId, SubmitMilestoneRequest request) {
         Milestone milestone = getMilestoneEntity(milestoneId);
         Order order = getOrderEntity(milestone.getOrderId());
-        UserVO currentUser = userService.getCurrentUser();
+        Long currentUserId = SecurityUtils.getCurrentUserId();
 
         // 验证权限
-        if (!order.getDeveloperId().equals(currentUser.getId())) {
+        if (!order.getDeveloperId().equals(currentUserId)) {
             throw new BusinessException(ResultCode.FORBIDDEN, "无权操作此里程碑");
         }
 
@@ -323,10 +331,10 @@ public class OrderServiceImpl implements OrderService {
     public MilestoneVO reviewMilestone(Long milestoneId, ReviewMilestoneRequest request) {
         Milestone milestone = getMilestoneEntity(milestoneId);
         Order order = getOrderEntity(milestone.getOrderId());
-        UserVO currentUser = userService.getCurrentUser();
+        Long currentUserId = SecurityUtils.getCurrentUserId();
 
         // 验证权限
-        if (!order.getEmployerId().equals(currentUser.getId())) {
+        if (!order.getEmployerId().equals(currentUserId)) {
             throw new BusinessException(ResultCode.FORBIDDEN, "无权操作此里程碑");
         }
 
@@ -386,6 +394,8 @@ public class OrderServiceImpl implements OrderService {
         if (project != null) {
             project.setStatus(Project.Status.COMPLETED.code);
             projectRepository.updateById(project);
+            projectSearchIndexer.sync(project);
+            projectDetailCache.invalidate(project.getId());
         }
 
         log.info("订单完成: {}", order.getOrderNo());
@@ -448,18 +458,18 @@ public class OrderServiceImpl implements OrderService {
                 .build();
 
         // 加载项目标题
-        Project project = projectRepository.selectById(order.getProjectId());
+        Project project = entityCacheManager.projects().get(order.getProjectId());
         if (project != null) {
             vo.setProjectTitle(project.getTitle());
         }
 
         // 加载用户信息
-        User employer = userRepository.selectById(order.getEmployerId());
+        User employer = entityCacheManager.users().get(order.getEmployerId());
         if (employer != null) {
             vo.setEmployer(userService.toVO(employer));
         }
 
-        User developer = userRepository.selectById(order.getDeveloperId());
+        User developer = entityCacheManager.users().get(order.getDeveloperId());
         if (developer != null) {
             vo.setDeveloper(userService.toVO(developer));
         }
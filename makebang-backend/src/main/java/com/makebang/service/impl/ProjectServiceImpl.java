@@ -9,17 +9,20 @@ import com.makebang.common.result.ResultCode;
 import com.makebang.dto.project.CreateProjectRequest;
 import com.makebang.dto.project.ProjectQueryRequest;
 import com.makebang.dto.project.UpdateProjectRequest;
-import com.makebang.entity.Category;
 import com.makebang.entity.Project;
-import com.makebang.entity.User;
-import com.makebang.repository.CategoryRepository;
 import com.makebang.repository.ProjectRepository;
-import com.makebang.repository.UserRepository;
 import com.makebang.service.ProjectService;
-import com.makebang.service.UserService;
+import com.makebang.service.assembler.ProjectAssembler;
+import com.makebang.service.cache.ProjectDetailCache;
+import com.makebang.service.category.CategoryCatalog;
+import com.makebang.service.category.CategoryTree;
+import com.makebang.service.counter.ProjectViewCounter;
+import com.makebang.service.match.DeveloperMatchRefresher;
+import com.makebang.service.search.ProjectSearchIndexer;
+import com.makebang.util.SearchTokenizer;
+import com.makebang.util.SecurityUtils;
 import com.makebang.vo.CategoryVO;
 import com.makebang.vo.ProjectVO;
-import com.makebang.vo.UserVO;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -27,7 +30,6 @@ import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 
 import java.util.*;
-import java.util.stream.Collectors;
 
 /**
  * 项目服务实现
@@ -38,14 +40,17 @@ import java.util.stream.Collectors;
 public class ProjectServiceImpl implements ProjectService {
 
     private final ProjectRepository projectRepository;
-    private final CategoryRepository categoryRepository;
-    private final UserRepository userRepository;
-    private final UserService userService;
+    private final ProjectAssembler projectAssembler;
+    private final ProjectSearchIndexer projectSearchIndexer;
+    private final DeveloperMatchRefresher developerMatchRefresher;
+    private final ProjectViewCounter projectViewCounter;
+    private final ProjectDetailCache projectDetailCache;
+    private final CategoryCatalog categoryCatalog;
 
     @Override
     @Transactional
     public ProjectVO createProject(CreateProjectRequest request) {
-        UserVO currentUser = userService.getCurrentUser();
+        Long currentUserId = SecurityUtils.getCurrentUserId();
 
         // 验证预算
         if (request.getBudgetMax().compareTo(request.getBudgetMin()) < 0) {
@@ -54,7 +59,7 @@ public class ProjectServiceImpl implements ProjectService {
 
         // 创建项目
         Project project = new Project();
-        project.setUserId(currentUser.getId());
+        project.setUserId(currentUserId);
         project.setTitle(request.getTitle());
         project.setDescription(request.getDescription());
         project.setCategoryId(request.getCategoryId());
@@ -68,20 +73,21 @@ public class ProjectServiceImpl implements ProjectService {
         project.setBidCount(0);
 
         projectRepository.insert(project);
+        projectSearchIndexer.index(project);
 
-        log.info("用户{}创建项目: {}", currentUser.getUsername(), project.getTitle());
+        log.info("用户{}创建项目: {}", SecurityUtils.getCurrentUsername(), project.getTitle());
 
-        return toVO(project);
+        return projectAssembler.toVO(project);
     }
 
     @Override
     @Transactional
     public ProjectVO updateProject(Long id, UpdateProjectRequest request) {
         Project project = getProjectEntity(id);
-        UserVO currentUser = userService.getCurrentUser();
+        Long currentUserId = SecurityUtils.getCurrentUserId();
 
         // 验证所有权
-        if (!project.getUserId().equals(currentUser.getId())) {
+        if (!project.getUserId().equals(currentUserId)) {
             throw new BusinessException(ResultCode.FORBIDDEN, "无权修改此项目");
         }
 
@@ -117,17 +123,21 @@ public class ProjectServiceImpl implements ProjectService {
         }
 
         projectRepository.updateById(project);
+        projectSearchIndexer.index(project);
+        // 技能要求变化立即影响技能重合比例，内容变化在项目向量重新生成后再次触发
+        developerMatchRefresher.markStale(id);
+        projectDetailCache.invalidate(id);
 
-        return toVO(project);
+        return projectAssembler.toVO(project);
     }
 
     @Override
     @Transactional
     public void deleteProject(Long id) {
         Project project = getProjectEntity(id);
-        UserVO currentUser = userService.getCurrentUser();
+        Long currentUserId = SecurityUtils.getCurrentUserId();
 
-        if (!project.getUserId().equals(currentUser.getId())) {
+        if (!project.getUserId().equals(currentUserId)) {
             throw new BusinessException(ResultCode.FORBIDDEN, "无权删除此项目");
         }
 
@@ -137,15 +147,16 @@ public class ProjectServiceImpl implements ProjectService {
         }
 
         projectRepository.deleteById(id);
+        projectDetailCache.invalidate(id);
     }
 
     @Override
     @Transactional
     public ProjectVO publishProject(Long id) {
         Project project = getProjectEntity(id);
-        UserVO currentUser = userService.getCurrentUser();
+        Long currentUserId = SecurityUtils.getCurrentUserId();
 
-        if (!project.getUserId().equals(currentUser.getId())) {
+        if (!project.getUserId().equals(currentUserId)) {
             throw new BusinessException(ResultCode.FORBIDDEN, "无权操作此项目");
         }
 
@@ -155,17 +166,19 @@ public class ProjectServiceImpl implements ProjectService {
 
         project.setStatus(Project.Status.OPEN.code);
         projectRepository.updateById(project);
+        projectSearchIndexer.sync(project);
+        projectDetailCache.invalidate(id);
 
-        return toVO(project);
+        return projectAssembler.toVO(project);
     }
 
     @Override
     @Transactional
     public void closeProject(Long id) {
         Project project = getProjectEntity(id);
-        UserVO currentUser = userService.getCurrentUser();
+        Long currentUserId = SecurityUtils.getCurrentUserId();
 
-        if (!project.getUserId().equals(currentUser.getId())) {
+        if (!project.getUserId().equals(currentUserId)) {
             throw new BusinessException(ResultCode.FORBIDDEN, "无权操作此项目");
         }
 
@@ -175,23 +188,26 @@ public class ProjectServiceImpl implements ProjectService {
 
         project.setStatus(Project.Status.CLOSED.code);
         projectRepository.updateById(project);
+        projectSearchIndexer.sync(project);
+        projectDetailCache.invalidate(id);
     }
 
     @Override
     public ProjectVO getProjectById(Long id) {
-        return toVO(getProjectEntity(id));
+        return projectAssembler.toVO(getProjectEntity(id));
     }
 
     @Override
-    @Transactional
     public ProjectVO getProjectDetail(Long id) {
-        Project project = getProjectEntity(id);
-
-        // 增加浏览量
-        projectRepository.incrementViewCount(id);
-        project.setViewCount(project.getViewCount() + 1);
-
-        return toVO(project);
+        // 详情短时缓存，并发请求合并为一次加载；缓存对象共享，不能修改
+        ProjectVO cached = projectDetailCache.get(id);
+
+        // 浏览量在内存中合并后定时批量写库，这里只读
+        projectViewCounter.record(id);
+        return cached.toBuilder()
+                .viewCount((int) (cached.getViewCount() + projectViewCounter.pending(id)))
+                .uniqueViewerCount(projectViewCounter.uniqueViewers(id))
+                .build();
     }
 
     @Override
@@ -201,12 +217,10 @@ public class ProjectServiceImpl implements ProjectService {
         // 基础条件
         wrapper.isNull(Project::getDeletedAt);
 
-        // 关键词搜索
-        if (StringUtils.hasText(request.getKeyword())) {
-            wrapper.and(w -> w
-                    .like(Project::getTitle, request.getKeyword())
-                    .or()
-                    .like(Project::getDescription, request.getKeyword()));
+        // 关键词搜索（全文检索）
+        String tsquery = SearchTokenizer.toTsquery(request.getKeyword());
+        if (tsquery != null) {
+            wrapper.apply("search_vector @@ {0}::tsquery", tsquery);
         }
 
         // 分类筛选
@@ -238,7 +252,14 @@ public class ProjectServiceImpl implements ProjectService {
         // 排序
         String sortBy = request.getSortBy();
         boolean isAsc = "asc".equalsIgnoreCase(request.getSortOrder());
+        boolean byRank = "relevance".equals(sortBy) && tsquery != null;
         switch (sortBy) {
+            // 按相关度排序，排序由 selectPageByRank 完成；无关键词时按时间倒序
+            case "relevance" -> {
+                if (!byRank) {
+                    wrapper.orderByDesc(Project::getCreatedAt);
+                }
+            }
             case "budget_max" -> wrapper.orderBy(true, isAsc, Project::getBudgetMax);
             case "view_count" -> wrapper.orderBy(true, isAsc, Project::getViewCount);
             case "bid_count" -> wrapper.orderBy(true, isAsc, Project::getBidCount);
@@ -247,22 +268,22 @@ public class ProjectServiceImpl implements ProjectService {
 
         // 分页查询
         Page<Project> page = new Page<>(request.getCurrent(), request.getSize());
-        IPage<Project> result = projectRepository.selectPage(page, wrapper);
+        IPage<Project> result = byRank
+                ? projectRepository.selectPageByRank(page, wrapper, tsquery)
+                : projectRepository.selectPage(page, wrapper);
 
         // 转换为VO
-        List<ProjectVO> voList = result.getRecords().stream()
-                .map(this::toVO)
-                .collect(Collectors.toList());
+        List<ProjectVO> voList = projectAssembler.toVOList(result.getRecords());
 
         return PageResult.of(result, voList);
     }
 
     @Override
     public PageResult<ProjectVO> getMyProjects(Integer status, Integer current, Integer size) {
-        UserVO currentUser = userService.getCurrentUser();
+        Long currentUserId = SecurityUtils.getCurrentUserId();
 
         LambdaQueryWrapper<Project> wrapper = new LambdaQueryWrapper<>();
-        wrapper.eq(Project::getUserId, currentUser.getId())
+        wrapper.eq(Project::getUserId, currentUserId)
                 .isNull(Project::getDeletedAt)
                 .orderByDesc(Project::getCreatedAt);
 
@@ -273,22 +294,19 @@ public class ProjectServiceImpl implements ProjectService {
         Page<Project> page = new Page<>(current, size);
         IPage<Project> result = projectRepository.selectPage(page, wrapper);
 
-        List<ProjectVO> voList = result.getRecords().stream()
-                .map(this::toVO)
-                .collect(Collectors.toList());
+        List<ProjectVO> voList = projectAssembler.toVOList(result.getRecords());
 
         return PageResult.of(result, voList);
     }
 
     @Override
     public List<CategoryVO> getAllCategories() {
-        List<Category> allCategories = categoryRepository.findAll();
-
-        // 构建树形结构
-        Map<Integer, List<Category>> groupByParent = allCategories.stream()
-                .collect(Collectors.groupingBy(Category::getParentId));
+        return categoryCatalog.current().getRoots();
+    }
 
-        return buildCategoryTree(groupByParent, 0);
+    @Override
+    public CategoryTree getCategoryTree() {
+        return categoryCatalog.current();
     }
 
     @Override
@@ -314,67 +332,4 @@ public class ProjectServiceImpl implements ProjectService {
         }
         return project;
     }
-
-    /**
-     * 构建分类树
-     */
-    private List<CategoryVO> buildCategoryTree(Map<Integer, List<Category>> groupByParent, Integer parentId) {
-        List<Category> children = groupByParent.get(parentId);
-        if (children == null) {
-            return Collections.emptyList();
-        }
-
-        return children.stream().map(category -> {
-            CategoryVO vo = CategoryVO.builder()
-                    .id(category.getId())
-                    .name(category.getName())
-                    .parentId(category.getParentId())
-                    .icon(category.getIcon())
-                    .sort(category.getSort())
-                    .children(buildCategoryTree(groupByParent, category.getId()))
-                    .build();
-            return vo;
-        }).collect(Collectors.toList());
-    }
-
-    /**
-     * 实体转VO
-     */
-    private ProjectVO toVO(Project project) {
-        if (project == null) return null;
-
-        ProjectVO vo = ProjectVO.builder()
-                .id(project.getId())
-                .userId(project.getUserId())
-                .title(project.getTitle())
-                .description(project.getDescription())
-                .categoryId(project.getCategoryId())
-                .budgetMin(project.getBudgetMin())
-                .budgetMax(project.getBudgetMax())
-                .deadline(project.getDeadline())
-                .skillRequirements(project.getSkillRequirements())
-                .attachmentUrls(project.getAttachmentUrls())
-                .status(project.getStatus())
-                .viewCount(project.getViewCount())
-                .bidCount(project.getBidCount())
-                .createdAt(project.getCreatedAt())
-                .updatedAt(project.getUpdatedAt())
-                .build();
-
-        // 加载分类名称
-        if (project.getCategoryId() != null) {
-            Category category = categoryRepository.selectById(project.getCategoryId());
-            if (category != null) {
-                vo.setCategoryName(category.getName());
-            }
-        }
-
-        // 加载用户信息
-        User user = userRepository.selectById(project.getUserId());
-        if (user != null) {
-            vo.setUser(userService.toVO(user));
-        }
-
-        return vo;
-    }
 }
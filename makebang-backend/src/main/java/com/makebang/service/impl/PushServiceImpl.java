@@ -0,0 +1,55 @@
+package com.makebang.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.makebang.service.PushService;
+import com.makebang.service.push.PushHub;
+import com.makebang.service.push.PushMessage;
+import com.makebang.service.push.RedisPushBridge;
+import com.makebang.util.TransactionUtils;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.function.Supplier;
+
+/**
+ * 实时推送服务实现
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PushServiceImpl implements PushService {
+
+    private final PushHub pushHub;
+    private final RedisPushBridge pushBridge;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public SseEmitter subscribe(Long userId) {
+        return pushHub.subscribe(userId);
+    }
+
+    @Override
+    public void push(Long userId, String type, Object data) {
+        pushLazily(userId, type, () -> data);
+    }
+
+    @Override
+    public void pushLazily(Long userId, String type, Supplier<?> data) {
+        if (userId == null) {
+            return;
+        }
+        Runnable task = () -> {
+            try {
+                String payload = objectMapper.writeValueAsString(data.get());
+                pushBridge.publish(new PushMessage(userId, type, payload));
+            } catch (Exception e) {
+                // 推送失败不影响业务，客户端重连后会重新拉取
+                log.warn("Failed to push {} event to user {}: {}", type, userId, e.getMessage());
+            }
+        };
+
+        TransactionUtils.afterCommit(task);
+    }
+}
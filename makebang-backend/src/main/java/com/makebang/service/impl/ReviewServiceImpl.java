@@ -15,12 +15,12 @@ import com.makebang.entity.Project;
 import com.makebang.entity.Review;
 import com.makebang.entity.User;
 import com.makebang.repository.OrderRepository;
-import com.makebang.repository.ProjectRepository;
 import com.makebang.repository.ReviewRepository;
-import com.makebang.repository.UserRepository;
 import com.makebang.service.MessageService;
 import com.makebang.service.ReviewService;
 import com.makebang.service.UserService;
+import com.makebang.service.cache.EntityCacheManager;
+import com.makebang.util.SecurityUtils;
 import com.makebang.vo.ReviewVO;
 import com.makebang.vo.UserStatsVO;
 import com.makebang.vo.UserVO;
@@ -46,16 +46,15 @@ public class ReviewServiceImpl implements ReviewService {
 
     private final ReviewRepository reviewRepository;
     private final OrderRepository orderRepository;
-    private final ProjectRepository projectRepository;
-    private final UserRepository userRepository;
     private final UserService userService;
     private final MessageService messageService;
     private final ObjectMapper objectMapper;
+    private final EntityCacheManager entityCacheManager;
 
     @Override
     @Transactional
     public ReviewVO createReview(CreateReviewRequest request) {
-        UserVO currentUser = userService.getCurrentUser();
+        Long currentUserId = SecurityUtils.getCurrentUserId();
         Long orderId = request.getOrderId();
 
         // 获取订单
@@ -70,15 +69,15 @@ public class ReviewServiceImpl implements ReviewService {
         }
 
         // 检查用户是否是订单参与者
-        boolean isEmployer = order.getEmployerId().equals(currentUser.getId());
-        boolean isDeveloper = order.getDeveloperId().equals(currentUser.getId());
+        boolean isEmployer = order.getEmployerId().equals(currentUserId);
+        boolean isDeveloper = order.getDeveloperId().equals(currentUserId);
 
         if (!isEmployer && !isDeveloper) {
             throw new BusinessException(ResultCode.FORBIDDEN, "您不是该订单的参与者");
         }
 
         // 检查是否已评价
-        Review existingReview = reviewRepository.findByOrderAndReviewer(orderId, currentUser.getId());
+        Review existingReview = reviewRepository.findByOrderAndReviewer(orderId, currentUserId);
         if (existingReview != null) {
             throw new BusinessException(ResultCode.CONFLICT, "您已评价过该订单");
         }
@@ -91,7 +90,7 @@ public class ReviewServiceImpl implements ReviewService {
         Review review = new Review();
         review.setOrderId(orderId);
         review.setProjectId(order.getProjectId());
-        review.setReviewerId(currentUser.getId());
+        review.setReviewerId(currentUserId);
         review.setRevieweeId(revieweeId);
         review.setType(reviewType);
         review.setRating(request.getRating());
@@ -128,7 +127,7 @@ public class ReviewServiceImpl implements ReviewService {
                 "/orders/" + orderId
         );
 
-        log.info("用户 {} 评价订单 {} 成功", currentUser.getId(), orderId);
+        log.info("用户 {} 评价订单 {} 成功", currentUserId, orderId);
 
         return toVO(review);
     }
@@ -150,7 +149,7 @@ public class ReviewServiceImpl implements ReviewService {
 
     @Override
     public boolean canReviewOrder(Long orderId) {
-        UserVO currentUser = userService.getCurrentUser();
+        Long currentUserId = SecurityUtils.getCurrentUserId();
 
         Order order = orderRepository.selectById(orderId);
         if (order == null || order.getStatus() != Order.Status.COMPLETED.code) {
@@ -158,20 +157,20 @@ public class ReviewServiceImpl implements ReviewService {
         }
 
         // 检查是否是订单参与者
-        if (!order.getEmployerId().equals(currentUser.getId()) &&
-            !order.getDeveloperId().equals(currentUser.getId())) {
+        if (!order.getEmployerId().equals(currentUserId) &&
+            !order.getDeveloperId().equals(currentUserId)) {
             return false;
         }
 
         // 检查是否已评价
-        Review existingReview = reviewRepository.findByOrderAndReviewer(orderId, currentUser.getId());
+        Review existingReview = reviewRepository.findByOrderAndReviewer(orderId, currentUserId);
         return existingReview == null;
     }
 
     @Override
     @Transactional
     public ReviewVO replyReview(Long id, ReplyReviewRequest request) {
-        UserVO currentUser = userService.getCurrentUser();
+        Long currentUserId = SecurityUtils.getCurrentUserId();
 
         Review review = reviewRepository.selectById(id);
         if (review == null || review.getDeletedAt() != null) {
@@ -179,7 +178,7 @@ public class ReviewServiceImpl implements ReviewService {
         }
 
         // 只有被评价者可以回复
-        if (!review.getRevieweeId().equals(currentUser.getId())) {
+        if (!review.getRevieweeId().equals(currentUserId)) {
             throw new BusinessException(ResultCode.FORBIDDEN, "无权回复此评价");
         }
 
@@ -192,7 +191,7 @@ public class ReviewServiceImpl implements ReviewService {
         review.setUpdatedAt(LocalDateTime.now());
         reviewRepository.updateById(review);
 
-        log.info("用户 {} 回复评价 {} 成功", currentUser.getId(), id);
+        log.info("用户 {} 回复评价 {} 成功", currentUserId, id);
 
         return toVO(review);
     }
@@ -206,10 +205,10 @@ public class ReviewServiceImpl implements ReviewService {
 
     @Override
     public IPage<ReviewVO> getGivenReviews(int current, int size) {
-        UserVO currentUser = userService.getCurrentUser();
+        Long currentUserId = SecurityUtils.getCurrentUserId();
 
         Page<Review> page = new Page<>(current, size);
-        IPage<Review> result = reviewRepository.findGivenReviews(page, currentUser.getId());
+        IPage<Review> result = reviewRepository.findGivenReviews(page, currentUserId);
         return result.convert(this::toVO);
     }
 
@@ -263,10 +262,10 @@ public class ReviewServiceImpl implements ReviewService {
     }
 
     private ReviewVO toVO(Review review) {
-        User reviewer = userRepository.selectById(review.getReviewerId());
-        User reviewee = userRepository.selectById(review.getRevieweeId());
+        User reviewer = entityCacheManager.users().get(review.getReviewerId());
+        User reviewee = entityCacheManager.users().get(review.getRevieweeId());
         Order order = orderRepository.selectById(review.getOrderId());
-        Project project = projectRepository.selectById(review.getProjectId());
+        Project project = entityCacheManager.projects().get(review.getProjectId());
 
         // 解析标签
         List<String> tags = Collections.emptyList();
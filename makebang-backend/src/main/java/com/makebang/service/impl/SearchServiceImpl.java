@@ -13,30 +13,36 @@ import com.makebang.repository.ProjectRepository;
 import com.makebang.repository.SearchHistoryRepository;
 import com.makebang.service.EmbeddingService;
 import com.makebang.service.SearchService;
+import com.makebang.service.analytics.SearchAnalyticsCollector;
+import com.makebang.service.analytics.SearchSuggestionIndex;
+import com.makebang.service.assembler.ProjectAssembler;
+import com.makebang.service.embedding.ProjectEmbeddingPipeline;
+import com.makebang.service.embedding.QueryEmbeddingCache;
+import com.makebang.service.embedding.VectorSearcher;
+import com.makebang.util.SearchTokenizer;
 import com.makebang.util.SecurityUtils;
 import com.makebang.vo.ProjectVO;
 import com.makebang.vo.SearchResultVO;
 import com.makebang.vo.SearchSuggestionVO;
 import lombok.RequiredArgsConstructor;
-
-import java.math.BigDecimal;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.util.DigestUtils;
 import org.springframework.util.StringUtils;
 
-import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
- * 搜索服务实现
+ * 搜索服务实现（PostgreSQL 全文检索 + pgvector）
  */
 @Slf4j
 @Service
 @RequiredArgsConstructor
+@ConditionalOnProperty(name = "makebang.search.provider", havingValue = "database", matchIfMissing = true)
 public class SearchServiceImpl implements SearchService {
 
     private final ProjectRepository projectRepository;
@@ -45,6 +51,12 @@ public class SearchServiceImpl implements SearchService {
     private final HotKeywordRepository hotKeywordRepository;
     private final EmbeddingService embeddingService;
     private final EmbeddingConfig embeddingConfig;
+    private final ProjectAssembler projectAssembler;
+    private final SearchAnalyticsCollector searchAnalyticsCollector;
+    private final SearchSuggestionIndex searchSuggestionIndex;
+    private final ProjectEmbeddingPipeline embeddingPipeline;
+    private final QueryEmbeddingCache queryEmbeddingCache;
+    private final VectorSearcher vectorSearcher;
 
     @Override
     public SearchResultVO search(String keyword, Long categoryId, Integer minBudget, Integer maxBudget,
@@ -54,29 +66,33 @@ public class SearchServiceImpl implements SearchService {
         List<ProjectVO> projects;
         long total;
 
-        // 记录搜索历史
-        recordSearchHistory(keyword, searchType);
-
         // 判断是否使用语义搜索
         boolean useSemanticSearch = embeddingService.isAvailable()
                 && StringUtils.hasText(keyword)
                 && keyword.length() > 5;  // 较长的查询更适合语义搜索
 
-        if (useSemanticSearch) {
-            // 混合搜索：语义 + 关键词
+        float[] queryVector = useSemanticSearch ? queryEmbeddingCache.get(keyword) : null;
+
+        if (queryVector != null) {
+            // 混合搜索：语义 + 关键词，数据库内融合排名并分页
             searchType = "hybrid";
-            projects = hybridSearch(keyword, categoryId, minBudget, maxBudget, current, size);
-            total = projects.size() < size ? (long) (current - 1) * size + projects.size()
-                    : countHybridResults(keyword, categoryId, minBudget, maxBudget);
+            List<ProjectEmbeddingRepository.HybridHit> hits = vectorSearcher.hybridSearch(
+                    SearchTokenizer.toTsquery(keyword), queryVector, categoryId, minBudget, maxBudget, current, size);
+            total = hits.isEmpty() || hits.get(0).getTotal() == null ? 0 : hits.get(0).getTotal();
+            projects = toOrderedVOList(hits.stream()
+                    .map(ProjectEmbeddingRepository.HybridHit::getProjectId)
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toList()));
         } else {
             // 纯关键词搜索
             IPage<Project> page = keywordSearch(keyword, categoryId, minBudget, maxBudget, current, size);
-            projects = page.getRecords().stream()
-                    .map(this::toProjectVO)
-                    .collect(Collectors.toList());
+            projects = projectAssembler.toVOList(page.getRecords());
             total = page.getTotal();
         }
 
+        // 记录搜索历史（仅入内存缓冲区，由后台批量落库）
+        searchAnalyticsCollector.record(SecurityUtils.getCurrentUserIdOrNull(), keyword, searchType, total);
+
         long costTime = System.currentTimeMillis() - startTime;
 
         return SearchResultVO.builder()
@@ -98,17 +114,16 @@ public class SearchServiceImpl implements SearchService {
         }
 
         try {
-            // 生成查询向量
-            float[] queryVector = embeddingService.generateEmbedding(query);
+            // 生成查询向量（优先读缓存）
+            float[] queryVector = queryEmbeddingCache.get(query);
             if (queryVector == null) {
                 return Collections.emptyList();
             }
 
             // 向量搜索
-            String vectorStr = vectorToString(queryVector);
             List<ProjectEmbeddingRepository.SimilarityResult> results =
-                    embeddingRepository.searchByVectorWithThreshold(
-                            vectorStr,
+                    vectorSearcher.search(
+                            queryVector,
                             embeddingConfig.getSimilarityThreshold(),
                             limit
                     );
@@ -131,14 +146,15 @@ public class SearchServiceImpl implements SearchService {
                             ProjectEmbeddingRepository.SimilarityResult::getSimilarity
                     ));
 
-            return projects.stream()
+            List<Project> sorted = projects.stream()
                     .sorted((p1, p2) -> Double.compare(
                             similarityMap.getOrDefault(p2.getId(), 0.0),
                             similarityMap.getOrDefault(p1.getId(), 0.0)
                     ))
-                    .map(this::toProjectVO)
                     .collect(Collectors.toList());
 
+            return projectAssembler.toVOList(sorted);
+
         } catch (Exception e) {
             log.error("Semantic search failed: {}", e.getMessage(), e);
             return Collections.emptyList();
@@ -150,9 +166,7 @@ public class SearchServiceImpl implements SearchService {
         Long userId = SecurityUtils.getCurrentUserIdOrNull();
 
         // 获取热门关键词
-        List<String> hotKeywords = hotKeywordRepository.getHotKeywords(10).stream()
-                .map(HotKeyword::getKeyword)
-                .collect(Collectors.toList());
+        List<String> hotKeywords = getHotKeywords(10);
 
         // 获取用户历史
         List<String> historyKeywords = Collections.emptyList();
@@ -165,7 +179,10 @@ public class SearchServiceImpl implements SearchService {
         // 获取联想词
         List<String> completions = Collections.emptyList();
         if (StringUtils.hasText(prefix)) {
-            completions = hotKeywordRepository.getHotSuggestions(prefix, limit);
+            completions = searchSuggestionIndex.complete(prefix, limit);
+            if (completions == null) {
+                completions = hotKeywordRepository.getHotSuggestions(prefix, limit);
+            }
             if (userId != null && completions.size() < limit) {
                 List<String> userSuggestions = searchHistoryRepository.getSuggestions(
                         userId, prefix, limit - completions.size()
@@ -177,7 +194,10 @@ public class SearchServiceImpl implements SearchService {
         }
 
         // 获取相关技能标签
-        List<String> relatedSkills = projectRepository.getHotSkills(10);
+        List<String> relatedSkills = searchSuggestionIndex.hotSkills(10);
+        if (relatedSkills == null) {
+            relatedSkills = projectRepository.getHotSkills(10);
+        }
 
         return SearchSuggestionVO.builder()
                 .hotKeywords(hotKeywords)
@@ -189,6 +209,10 @@ public class SearchServiceImpl implements SearchService {
 
     @Override
     public List<String> getHotKeywords(int limit) {
+        List<String> indexed = searchSuggestionIndex.hotKeywords(limit);
+        if (indexed != null) {
+            return indexed;
+        }
         return hotKeywordRepository.getHotKeywords(limit).stream()
                 .map(HotKeyword::getKeyword)
                 .collect(Collectors.toList());
@@ -215,73 +239,64 @@ public class SearchServiceImpl implements SearchService {
     @Override
     @Async
     public void generateProjectEmbedding(Long projectId) {
-        if (!embeddingService.isAvailable()) {
-            return;
-        }
-
-        try {
-            Project project = projectRepository.selectById(projectId);
-            if (project == null || project.getDeletedAt() != null) {
-                return;
-            }
-
-            // 生成内容文本
-            String content = buildProjectContent(project);
-            String contentHash = DigestUtils.md5DigestAsHex(content.getBytes(StandardCharsets.UTF_8));
-
-            // 检查是否需要更新
-            String existingHash = embeddingRepository.getContentHash(projectId);
-            if (contentHash.equals(existingHash)) {
-                log.debug("Project {} embedding is up to date", projectId);
-                return;
-            }
-
-            // 生成向量
-            float[] embedding = embeddingService.generateEmbedding(content);
-            if (embedding == null) {
-                log.warn("Failed to generate embedding for project {}", projectId);
-                return;
-            }
-
-            // 保存向量
-            String vectorStr = vectorToString(embedding);
-            embeddingRepository.upsertEmbedding(projectId, vectorStr, contentHash);
-
-            log.info("Generated embedding for project {}", projectId);
-
-        } catch (Exception e) {
-            log.error("Failed to generate embedding for project {}: {}", projectId, e.getMessage());
-        }
+        embedProject(projectId);
     }
 
     @Override
-    @Transactional
     public void batchGenerateEmbeddings(int batchSize) {
         if (!embeddingService.isAvailable()) {
             log.info("Embedding service is not available, skipping batch generation");
             return;
         }
 
-        List<Long> projectIds = embeddingRepository.findProjectsWithoutEmbedding(batchSize);
-        if (projectIds.isEmpty()) {
+        int written = embeddingPipeline.run(batchSize);
+        if (written > 0) {
+            log.info("Generated embeddings for {} projects", written);
+        } else {
             log.debug("No projects need embedding generation");
-            return;
-        }
-
-        log.info("Generating embeddings for {} projects", projectIds.size());
-        for (Long projectId : projectIds) {
-            generateProjectEmbedding(projectId);
         }
     }
 
     @Override
     @Async
     public void refreshProjectEmbedding(Long projectId) {
-        generateProjectEmbedding(projectId);
+        embedProject(projectId);
     }
 
     // ========== Private Methods ==========
 
+    /**
+     * 生成单个项目的向量，内容未变化时跳过
+     * 由 @Async 公共方法调用，本身不经过代理
+     */
+    private void embedProject(Long projectId) {
+        if (!embeddingService.isAvailable()) {
+            return;
+        }
+
+        try {
+            Project project = projectRepository.selectById(projectId);
+            if (project == null || project.getDeletedAt() != null) {
+                return;
+            }
+
+            ProjectEmbeddingRepository.StaleProject stale = new ProjectEmbeddingRepository.StaleProject();
+            stale.setProjectId(projectId);
+            stale.setTitle(project.getTitle());
+            stale.setDescription(project.getDescription());
+            stale.setSkillRequirements(project.getSkillRequirements());
+            stale.setContentHash(embeddingRepository.getContentHash(projectId));
+
+            if (embeddingPipeline.process(Collections.singletonList(stale)) > 0) {
+                log.info("Generated embedding for project {}", projectId);
+            } else {
+                log.debug("Project {} embedding is up to date or failed", projectId);
+            }
+        } catch (Exception e) {
+            log.error("Failed to generate embedding for project {}: {}", projectId, e.getMessage());
+        }
+    }
+
     /**
      * 关键词搜索
      */
@@ -292,12 +307,9 @@ public class SearchServiceImpl implements SearchService {
         wrapper.isNull(Project::getDeletedAt);
         wrapper.in(Project::getStatus, List.of(1, 2));  // 招标中或进行中
 
-        if (StringUtils.hasText(keyword)) {
-            wrapper.and(w -> w
-                    .like(Project::getTitle, keyword)
-                    .or()
-                    .like(Project::getDescription, keyword)
-            );
+        String tsquery = SearchTokenizer.toTsquery(keyword);
+        if (tsquery != null) {
+            wrapper.apply("search_vector @@ {0}::tsquery", tsquery);
         }
 
         if (categoryId != null) {
@@ -312,152 +324,29 @@ public class SearchServiceImpl implements SearchService {
             wrapper.le(Project::getBudgetMin, maxBudget);
         }
 
+        Page<Project> page = new Page<>(current, size);
+        if (tsquery != null) {
+            // 按相关度排序
+            return projectRepository.selectPageByRank(page, wrapper, tsquery);
+        }
         wrapper.orderByDesc(Project::getCreatedAt);
-
-        return projectRepository.selectPage(new Page<>(current, size), wrapper);
+        return projectRepository.selectPage(page, wrapper);
     }
 
     /**
-     * 混合搜索（语义 + 关键词）
+     * 按给定ID顺序批量加载项目并转换VO
      */
-    private List<ProjectVO> hybridSearch(String keyword, Long categoryId,
-                                          Integer minBudget, Integer maxBudget,
-                                          int current, int size) {
-        // 语义搜索获取候选项目
-        List<ProjectVO> semanticResults = semanticSearch(keyword, size * 3);
-        Set<Long> semanticIds = semanticResults.stream()
-                .map(ProjectVO::getId)
-                .collect(Collectors.toSet());
-
-        // 关键词搜索
-        IPage<Project> keywordPage = keywordSearch(keyword, categoryId, minBudget, maxBudget, 1, size * 2);
-        List<ProjectVO> keywordResults = keywordPage.getRecords().stream()
-                .map(this::toProjectVO)
-                .collect(Collectors.toList());
-
-        // 合并结果，去重
-        Map<Long, ProjectVO> mergedMap = new LinkedHashMap<>();
-
-        // 语义搜索结果优先
-        for (ProjectVO vo : semanticResults) {
-            if (matchesFilters(vo, categoryId, minBudget, maxBudget)) {
-                mergedMap.put(vo.getId(), vo);
-            }
-        }
-
-        // 补充关键词搜索结果
-        for (ProjectVO vo : keywordResults) {
-            mergedMap.putIfAbsent(vo.getId(), vo);
-        }
-
-        // 分页
-        List<ProjectVO> allResults = new ArrayList<>(mergedMap.values());
-        int start = (current - 1) * size;
-        int end = Math.min(start + size, allResults.size());
-
-        if (start >= allResults.size()) {
+    protected List<ProjectVO> toOrderedVOList(List<Long> projectIds) {
+        if (projectIds.isEmpty()) {
             return Collections.emptyList();
         }
-
-        return allResults.subList(start, end);
-    }
-
-    /**
-     * 统计混合搜索结果总数
-     */
-    private long countHybridResults(String keyword, Long categoryId,
-                                     Integer minBudget, Integer maxBudget) {
-        // 简化处理：返回关键词搜索的总数
-        LambdaQueryWrapper<Project> wrapper = new LambdaQueryWrapper<>();
-        wrapper.isNull(Project::getDeletedAt);
-        wrapper.in(Project::getStatus, List.of(1, 2));
-
-        if (StringUtils.hasText(keyword)) {
-            wrapper.and(w -> w
-                    .like(Project::getTitle, keyword)
-                    .or()
-                    .like(Project::getDescription, keyword)
-            );
-        }
-
-        if (categoryId != null) {
-            wrapper.eq(Project::getCategoryId, categoryId);
-        }
-
-        return projectRepository.selectCount(wrapper);
-    }
-
-    /**
-     * 检查项目是否匹配筛选条件
-     */
-    private boolean matchesFilters(ProjectVO vo, Long categoryId,
-                                    Integer minBudget, Integer maxBudget) {
-        if (categoryId != null && !categoryId.equals(vo.getCategoryId())) {
-            return false;
-        }
-        if (minBudget != null && vo.getBudgetMax() != null && vo.getBudgetMax().compareTo(BigDecimal.valueOf(minBudget)) < 0) {
-            return false;
-        }
-        if (maxBudget != null && vo.getBudgetMin() != null && vo.getBudgetMin().compareTo(BigDecimal.valueOf(maxBudget)) > 0) {
-            return false;
-        }
-        return true;
-    }
-
-    /**
-     * 记录搜索历史
-     */
-    private void recordSearchHistory(String keyword, String searchType) {
-        if (!StringUtils.hasText(keyword)) {
-            return;
-        }
-
-        try {
-            Long userId = SecurityUtils.getCurrentUserIdOrNull();
-
-            // 保存搜索历史
-            SearchHistory history = new SearchHistory();
-            history.setUserId(userId);
-            history.setKeyword(keyword.trim());
-            history.setSearchType(searchType);
-            searchHistoryRepository.insert(history);
-
-            // 更新热门关键词
-            hotKeywordRepository.updateHotKeyword(keyword.trim());
-
-        } catch (Exception e) {
-            log.warn("Failed to record search history: {}", e.getMessage());
-        }
-    }
-
-    /**
-     * 构建项目内容文本（用于生成向量）
-     */
-    private String buildProjectContent(Project project) {
-        StringBuilder sb = new StringBuilder();
-        sb.append(project.getTitle()).append("\n");
-        sb.append(project.getDescription()).append("\n");
-
-        if (project.getSkillRequirements() != null) {
-            sb.append("技能要求: ").append(String.join(", ", project.getSkillRequirements()));
-        }
-
-        return sb.toString();
-    }
-
-    /**
-     * 向量数组转字符串（PostgreSQL vector格式）
-     */
-    private String vectorToString(float[] vector) {
-        StringBuilder sb = new StringBuilder("[");
-        for (int i = 0; i < vector.length; i++) {
-            if (i > 0) {
-                sb.append(",");
-            }
-            sb.append(vector[i]);
-        }
-        sb.append("]");
-        return sb.toString();
+        Map<Long, Project> projectMap = projectRepository.selectBatchIds(projectIds).stream()
+                .collect(Collectors.toMap(Project::getId, Function.identity()));
+        List<Project> ordered = projectIds.stream()
+                .map(projectMap::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+        return projectAssembler.toVOList(ordered);
     }
 
     /**
@@ -471,24 +360,4 @@ public class SearchServiceImpl implements SearchService {
         // 返回热门关键词作为建议
         return getHotKeywords(5);
     }
-
-    /**
-     * 转换为VO
-     */
-    private ProjectVO toProjectVO(Project project) {
-        ProjectVO vo = new ProjectVO();
-        vo.setId(project.getId());
-        vo.setTitle(project.getTitle());
-        vo.setDescription(project.getDescription());
-        vo.setCategoryId(project.getCategoryId());
-        vo.setBudgetMin(project.getBudgetMin());
-        vo.setBudgetMax(project.getBudgetMax());
-        vo.setDeadline(project.getDeadline());
-        vo.setSkillRequirements(project.getSkillRequirements());
-        vo.setStatus(project.getStatus());
-        vo.setViewCount(project.getViewCount());
-        vo.setBidCount(project.getBidCount());
-        vo.setCreatedAt(project.getCreatedAt());
-        return vo;
-    }
 }
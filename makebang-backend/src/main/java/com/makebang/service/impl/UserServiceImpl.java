@@ -12,7 +12,9 @@ import com.makebang.entity.Wallet;
 import com.makebang.repository.UserRepository;
 import com.makebang.repository.WalletRepository;
 import com.makebang.security.JwtUtils;
+import com.makebang.security.LoginUser;
 import com.makebang.service.UserService;
+import com.makebang.util.SecurityUtils;
 import com.makebang.vo.UserVO;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -108,12 +110,8 @@ public class UserServiceImpl implements UserService {
             throw new BusinessException(ResultCode.ACCOUNT_DISABLED);
         }
 
-        // 生成Token
-        UserDetails userDetails = org.springframework.security.core.userdetails.User
-                .withUsername(user.getUsername())
-                .password(user.getPassword())
-                .authorities("ROLE_USER")
-                .build();
+        // 生成Token（携带用户ID、角色、状态声明）
+        UserDetails userDetails = LoginUser.of(user);
 
         String accessToken = jwtUtils.generateToken(userDetails);
         String refreshToken = jwtUtils.generateRefreshToken(userDetails);
@@ -139,11 +137,12 @@ public class UserServiceImpl implements UserService {
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new BusinessException(ResultCode.USER_NOT_FOUND));
 
-        UserDetails userDetails = org.springframework.security.core.userdetails.User
-                .withUsername(user.getUsername())
-                .password(user.getPassword())
-                .authorities("ROLE_USER")
-                .build();
+        // 令牌声明中携带状态，禁用或删除的账户不再续签
+        if (user.getDeletedAt() != null || user.getStatus() != 1) {
+            throw new BusinessException(ResultCode.ACCOUNT_DISABLED);
+        }
+
+        UserDetails userDetails = LoginUser.of(user);
 
         String newAccessToken = jwtUtils.generateToken(userDetails);
         String newRefreshToken = jwtUtils.generateRefreshToken(userDetails);
@@ -159,16 +158,7 @@ public class UserServiceImpl implements UserService {
 
     @Override
     public UserVO getCurrentUser() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        if (authentication == null || !authentication.isAuthenticated()) {
-            throw new BusinessException(ResultCode.UNAUTHORIZED);
-        }
-
-        String username = authentication.getName();
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new BusinessException(ResultCode.USER_NOT_FOUND));
-
-        return toVO(user);
+        return toVO(getCurrentUserEntity());
     }
 
     @Override
@@ -271,7 +261,7 @@ public class UserServiceImpl implements UserService {
     }
 
     /**
-     * 获取当前用户实体
+     * 获取当前用户实体（同一请求内只查询一次）
      */
     private User getCurrentUserEntity() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
@@ -279,8 +269,15 @@ public class UserServiceImpl implements UserService {
             throw new BusinessException(ResultCode.UNAUTHORIZED);
         }
 
-        String username = authentication.getName();
-        return userRepository.findByUsername(username)
-                .orElseThrow(() -> new BusinessException(ResultCode.USER_NOT_FOUND));
+        User user = SecurityUtils.memoizeCurrentUser(() -> {
+            if (authentication.getPrincipal() instanceof LoginUser loginUser && loginUser.getUserId() != null) {
+                return userRepository.selectById(loginUser.getUserId());
+            }
+            return userRepository.findByUsername(authentication.getName()).orElse(null);
+        });
+        if (user == null) {
+            throw new BusinessException(ResultCode.USER_NOT_FOUND);
+        }
+        return user;
     }
 }
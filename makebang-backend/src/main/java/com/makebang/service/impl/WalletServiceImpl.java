@@ -2,12 +2,12 @@ package com.makebang.service.impl;
 
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.makebang.common.result.CursorPageResult;
 import com.makebang.dto.RechargeRequest;
 import com.makebang.dto.WithdrawRequest;
 import com.makebang.entity.Milestone;
 import com.makebang.entity.Order;
 import com.makebang.entity.Transaction;
-import com.makebang.entity.User;
 import com.makebang.entity.Wallet;
 import com.makebang.common.exception.BusinessException;
 import com.makebang.repository.MilestoneRepository;
@@ -16,6 +16,7 @@ import com.makebang.repository.TransactionRepository;
 import com.makebang.repository.WalletRepository;
 import com.makebang.service.UserService;
 import com.makebang.service.WalletService;
+import com.makebang.util.CursorUtils;
 import com.makebang.util.SecurityUtils;
 import com.makebang.vo.TransactionVO;
 import com.makebang.vo.WalletVO;
@@ -25,7 +26,6 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
-import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 import java.util.stream.Collectors;
@@ -54,21 +54,18 @@ public class WalletServiceImpl implements WalletService {
     }
 
     @Override
-    @Transactional
     public WalletVO getOrCreateWallet(Long userId) {
         Wallet wallet = walletRepository.findByUserId(userId);
 
         if (wallet == null) {
-            wallet = new Wallet();
-            wallet.setUserId(userId);
-            wallet.setBalance(BigDecimal.ZERO);
-            wallet.setFrozenAmount(BigDecimal.ZERO);
-            wallet.setTotalIncome(BigDecimal.ZERO);
-            wallet.setTotalExpense(BigDecimal.ZERO);
-            wallet.setStatus(Wallet.Status.NORMAL.getCode());
-            wallet.setCreatedAt(LocalDateTime.now());
-            wallet.setUpdatedAt(LocalDateTime.now());
-            walletRepository.insert(wallet);
+            // 并发创建时由唯一键去重，未插入则读取已存在的钱包
+            wallet = walletRepository.insertIfAbsent(userId);
+            if (wallet == null) {
+                wallet = walletRepository.findByUserId(userId);
+            }
+            if (wallet == null) {
+                throw new BusinessException("钱包不可用");
+            }
         }
 
         return toWalletVO(wallet);
@@ -77,31 +74,17 @@ public class WalletServiceImpl implements WalletService {
     @Override
     @Transactional
     public TransactionVO recharge(RechargeRequest request) {
-        User currentUser = SecurityUtils.getCurrentUser();
-        Wallet wallet = getOrCreateWalletEntity(currentUser.getId());
-
+        Long currentUserId = SecurityUtils.getCurrentUserId();
         BigDecimal amount = request.getAmount();
-        BigDecimal balanceBefore = wallet.getBalance();
-
-        // 增加余额
-        walletRepository.addBalance(wallet.getId(), amount);
 
-        // 创建交易记录
-        Transaction transaction = new Transaction();
-        transaction.setTransactionNo(generateTransactionNo());
-        transaction.setWalletId(wallet.getId());
-        transaction.setUserId(currentUser.getId());
-        transaction.setType(Transaction.Type.RECHARGE.getCode());
-        transaction.setAmount(amount);
-        transaction.setBalanceBefore(balanceBefore);
-        transaction.setBalanceAfter(balanceBefore.add(amount));
-        transaction.setStatus(Transaction.Status.SUCCESS.getCode());
-        transaction.setRemark("账户充值");
-        transaction.setCreatedAt(LocalDateTime.now());
-        transaction.setUpdatedAt(LocalDateTime.now());
-        transactionRepository.insert(transaction);
+        // 增加余额并记录流水
+        Transaction transaction = walletRepository.creditBalance(newTransaction(
+                currentUserId, Transaction.Type.RECHARGE, amount, Transaction.Status.SUCCESS, "账户充值"));
+        if (transaction == null) {
+            throw new BusinessException("钱包不可用");
+        }
 
-        log.info("用户 {} 充值 {} 元成功", currentUser.getId(), amount);
+        log.info("用户 {} 充值 {} 元成功", currentUserId, amount);
 
         return toTransactionVO(transaction);
     }
@@ -109,40 +92,18 @@ public class WalletServiceImpl implements WalletService {
     @Override
     @Transactional
     public TransactionVO withdraw(WithdrawRequest request) {
-        User currentUser = SecurityUtils.getCurrentUser();
-        Wallet wallet = getOrCreateWalletEntity(currentUser.getId());
-
+        Long currentUserId = SecurityUtils.getCurrentUserId();
         BigDecimal amount = request.getAmount();
 
-        // 检查余额
-        if (wallet.getBalance().compareTo(amount) < 0) {
+        // 扣减余额并记录流水（状态为处理中，实际需要审核）
+        Transaction transaction = walletRepository.debitBalance(newTransaction(
+                currentUserId, Transaction.Type.WITHDRAW, amount, Transaction.Status.PROCESSING,
+                "提现到" + (request.getWithdrawMethod() == 1 ? "支付宝" : "银行卡") + " " + maskAccount(request.getAccount())));
+        if (transaction == null) {
             throw new BusinessException("余额不足");
         }
 
-        BigDecimal balanceBefore = wallet.getBalance();
-
-        // 扣减余额
-        int updated = walletRepository.deductBalance(wallet.getId(), amount);
-        if (updated == 0) {
-            throw new BusinessException("余额不足或操作失败");
-        }
-
-        // 创建交易记录（状态为处理中，实际需要审核）
-        Transaction transaction = new Transaction();
-        transaction.setTransactionNo(generateTransactionNo());
-        transaction.setWalletId(wallet.getId());
-        transaction.setUserId(currentUser.getId());
-        transaction.setType(Transaction.Type.WITHDRAW.getCode());
-        transaction.setAmount(amount);
-        transaction.setBalanceBefore(balanceBefore);
-        transaction.setBalanceAfter(balanceBefore.subtract(amount));
-        transaction.setStatus(Transaction.Status.PROCESSING.getCode());
-        transaction.setRemark("提现到" + (request.getWithdrawMethod() == 1 ? "支付宝" : "银行卡") + " " + maskAccount(request.getAccount()));
-        transaction.setCreatedAt(LocalDateTime.now());
-        transaction.setUpdatedAt(LocalDateTime.now());
-        transactionRepository.insert(transaction);
-
-        log.info("用户 {} 申请提现 {} 元", currentUser.getId(), amount);
+        log.info("用户 {} 申请提现 {} 元", currentUserId, amount);
 
         return toTransactionVO(transaction);
     }
@@ -155,37 +116,15 @@ public class WalletServiceImpl implements WalletService {
             throw new BusinessException("订单不存在");
         }
 
-        Wallet employerWallet = getOrCreateWalletEntity(order.getEmployerId());
-
-        // 检查余额
-        if (employerWallet.getBalance().compareTo(amount) < 0) {
+        // 冻结金额并记录流水
+        Transaction request = newTransaction(
+                order.getEmployerId(), Transaction.Type.PAYMENT, amount, Transaction.Status.SUCCESS, "订单托管支付");
+        request.setOrderId(orderId);
+        Transaction transaction = walletRepository.freezeBalance(request);
+        if (transaction == null) {
             throw new BusinessException("余额不足，请先充值");
         }
 
-        BigDecimal balanceBefore = employerWallet.getBalance();
-
-        // 冻结金额
-        int updated = walletRepository.freezeAmount(employerWallet.getId(), amount);
-        if (updated == 0) {
-            throw new BusinessException("余额不足或操作失败");
-        }
-
-        // 创建交易记录
-        Transaction transaction = new Transaction();
-        transaction.setTransactionNo(generateTransactionNo());
-        transaction.setWalletId(employerWallet.getId());
-        transaction.setUserId(order.getEmployerId());
-        transaction.setType(Transaction.Type.PAYMENT.getCode());
-        transaction.setAmount(amount);
-        transaction.setBalanceBefore(balanceBefore);
-        transaction.setBalanceAfter(balanceBefore.subtract(amount));
-        transaction.setOrderId(orderId);
-        transaction.setStatus(Transaction.Status.SUCCESS.getCode());
-        transaction.setRemark("订单托管支付");
-        transaction.setCreatedAt(LocalDateTime.now());
-        transaction.setUpdatedAt(LocalDateTime.now());
-        transactionRepository.insert(transaction);
-
         log.info("订单 {} 托管支付 {} 元成功", orderId, amount);
 
         return toTransactionVO(transaction);
@@ -204,9 +143,6 @@ public class WalletServiceImpl implements WalletService {
             throw new BusinessException("订单不存在");
         }
 
-        Wallet employerWallet = getOrCreateWalletEntity(order.getEmployerId());
-        Wallet developerWallet = getOrCreateWalletEntity(order.getDeveloperId());
-
         BigDecimal milestoneAmount = milestone.getAmount();
 
         // 计算平台服务费
@@ -214,49 +150,28 @@ public class WalletServiceImpl implements WalletService {
         BigDecimal developerIncome = milestoneAmount.subtract(serviceFee);
 
         // 从雇主冻结金额中释放
-        int updated = walletRepository.releaseFrozenAmount(employerWallet.getId(), milestoneAmount);
-        if (updated == 0) {
+        if (walletRepository.releaseFrozen(order.getEmployerId(), milestoneAmount) == null) {
             throw new BusinessException("托管金额不足或操作失败");
         }
 
-        // 增加开发者收入
-        walletRepository.addIncome(developerWallet.getId(), developerIncome);
-
-        // 创建开发者收入交易记录
-        BigDecimal devBalanceBefore = developerWallet.getBalance();
-        Transaction devTransaction = new Transaction();
-        devTransaction.setTransactionNo(generateTransactionNo());
-        devTransaction.setWalletId(developerWallet.getId());
-        devTransaction.setUserId(order.getDeveloperId());
-        devTransaction.setType(Transaction.Type.INCOME.getCode());
-        devTransaction.setAmount(developerIncome);
-        devTransaction.setBalanceBefore(devBalanceBefore);
-        devTransaction.setBalanceAfter(devBalanceBefore.add(developerIncome));
-        devTransaction.setOrderId(order.getId());
-        devTransaction.setMilestoneId(milestoneId);
-        devTransaction.setStatus(Transaction.Status.SUCCESS.getCode());
-        devTransaction.setRemark("里程碑验收收入（扣除" + SERVICE_FEE_RATE.multiply(new BigDecimal("100")).intValue() + "%服务费）");
-        devTransaction.setCreatedAt(LocalDateTime.now());
-        devTransaction.setUpdatedAt(LocalDateTime.now());
-        transactionRepository.insert(devTransaction);
-
-        // 创建平台服务费记录（可选，用于平台统计）
+        // 增加开发者收入，同时记录收入流水和平台服务费流水（用于平台统计）
+        Transaction income = newTransaction(order.getDeveloperId(), Transaction.Type.INCOME, developerIncome,
+                Transaction.Status.SUCCESS,
+                "里程碑验收收入（扣除" + SERVICE_FEE_RATE.multiply(new BigDecimal("100")).intValue() + "%服务费）");
+        income.setOrderId(order.getId());
+        income.setMilestoneId(milestoneId);
+
+        Transaction fee = null;
         if (serviceFee.compareTo(BigDecimal.ZERO) > 0) {
-            Transaction feeTransaction = new Transaction();
-            feeTransaction.setTransactionNo(generateTransactionNo());
-            feeTransaction.setWalletId(developerWallet.getId());
-            feeTransaction.setUserId(order.getDeveloperId());
-            feeTransaction.setType(Transaction.Type.SERVICE_FEE.getCode());
-            feeTransaction.setAmount(serviceFee);
-            feeTransaction.setBalanceBefore(devBalanceBefore.add(developerIncome));
-            feeTransaction.setBalanceAfter(devBalanceBefore.add(developerIncome));
-            feeTransaction.setOrderId(order.getId());
-            feeTransaction.setMilestoneId(milestoneId);
-            feeTransaction.setStatus(Transaction.Status.SUCCESS.getCode());
-            feeTransaction.setRemark("平台服务费");
-            feeTransaction.setCreatedAt(LocalDateTime.now());
-            feeTransaction.setUpdatedAt(LocalDateTime.now());
-            transactionRepository.insert(feeTransaction);
+            fee = newTransaction(order.getDeveloperId(), Transaction.Type.SERVICE_FEE, serviceFee,
+                    Transaction.Status.SUCCESS, "平台服务费");
+            fee.setOrderId(order.getId());
+            fee.setMilestoneId(milestoneId);
+        }
+
+        Transaction devTransaction = walletRepository.creditIncome(income, fee);
+        if (devTransaction == null) {
+            throw new BusinessException("钱包不可用");
         }
 
         log.info("里程碑 {} 支付释放成功，开发者获得 {} 元", milestoneId, developerIncome);
@@ -272,8 +187,6 @@ public class WalletServiceImpl implements WalletService {
             throw new BusinessException("订单不存在");
         }
 
-        Wallet employerWallet = getOrCreateWalletEntity(order.getEmployerId());
-
         // 计算需要退还的托管金额（未完成的里程碑金额）
         BigDecimal refundAmount = calculateRefundAmount(order);
 
@@ -282,29 +195,15 @@ public class WalletServiceImpl implements WalletService {
             return null;
         }
 
-        // 解冻金额回到余额
-        int updated = walletRepository.unfreezeAmount(employerWallet.getId(), refundAmount);
-        if (updated == 0) {
+        // 解冻金额回到余额并记录流水
+        Transaction request = newTransaction(
+                order.getEmployerId(), Transaction.Type.REFUND, refundAmount, Transaction.Status.SUCCESS, "订单取消退款");
+        request.setOrderId(orderId);
+        Transaction transaction = walletRepository.unfreezeBalance(request);
+        if (transaction == null) {
             throw new BusinessException("退款失败，托管金额不足");
         }
 
-        // 创建退款交易记录
-        BigDecimal balanceBefore = employerWallet.getBalance();
-        Transaction transaction = new Transaction();
-        transaction.setTransactionNo(generateTransactionNo());
-        transaction.setWalletId(employerWallet.getId());
-        transaction.setUserId(order.getEmployerId());
-        transaction.setType(Transaction.Type.REFUND.getCode());
-        transaction.setAmount(refundAmount);
-        transaction.setBalanceBefore(balanceBefore);
-        transaction.setBalanceAfter(balanceBefore.add(refundAmount));
-        transaction.setOrderId(orderId);
-        transaction.setStatus(Transaction.Status.SUCCESS.getCode());
-        transaction.setRemark("订单取消退款");
-        transaction.setCreatedAt(LocalDateTime.now());
-        transaction.setUpdatedAt(LocalDateTime.now());
-        transactionRepository.insert(transaction);
-
         log.info("订单 {} 退款 {} 元成功", orderId, refundAmount);
 
         return toTransactionVO(transaction);
@@ -312,14 +211,29 @@ public class WalletServiceImpl implements WalletService {
 
     @Override
     public IPage<TransactionVO> getTransactions(Integer type, int current, int size) {
-        User currentUser = SecurityUtils.getCurrentUser();
+        Long currentUserId = SecurityUtils.getCurrentUserId();
 
         Page<Transaction> page = new Page<>(current, size);
-        IPage<Transaction> result = transactionRepository.findByUserId(page, currentUser.getId(), type);
+        IPage<Transaction> result = transactionRepository.findByUserId(page, currentUserId, type);
 
         return result.convert(this::toTransactionVO);
     }
 
+    @Override
+    public CursorPageResult<TransactionVO> getTransactionsByCursor(Integer type, String cursor, int size) {
+        Long currentUserId = SecurityUtils.getCurrentUserId();
+        CursorUtils.Position position = CursorUtils.decode(cursor);
+        int pageSize = CursorUtils.normalizeSize(size);
+
+        List<Transaction> rows = transactionRepository.findByUserIdAfterCursor(currentUserId, type,
+                position != null ? position.createdAt() : null,
+                position != null ? position.id() : null,
+                pageSize + 1);
+
+        return CursorUtils.build(rows, pageSize, Transaction::getCreatedAt, Transaction::getId,
+                page -> page.stream().map(this::toTransactionVO).collect(Collectors.toList()));
+    }
+
     @Override
     public List<TransactionVO> getOrderTransactions(Long orderId) {
         List<Transaction> transactions = transactionRepository.findByOrderId(orderId);
@@ -330,23 +244,19 @@ public class WalletServiceImpl implements WalletService {
 
     // ========== 私有方法 ==========
 
-    private Wallet getOrCreateWalletEntity(Long userId) {
-        Wallet wallet = walletRepository.findByUserId(userId);
-
-        if (wallet == null) {
-            wallet = new Wallet();
-            wallet.setUserId(userId);
-            wallet.setBalance(BigDecimal.ZERO);
-            wallet.setFrozenAmount(BigDecimal.ZERO);
-            wallet.setTotalIncome(BigDecimal.ZERO);
-            wallet.setTotalExpense(BigDecimal.ZERO);
-            wallet.setStatus(Wallet.Status.NORMAL.getCode());
-            wallet.setCreatedAt(LocalDateTime.now());
-            wallet.setUpdatedAt(LocalDateTime.now());
-            walletRepository.insert(wallet);
-        }
-
-        return wallet;
+    /**
+     * 构建待写入的流水，钱包ID和变动前后余额由资金变动语句填入
+     */
+    private Transaction newTransaction(Long userId, Transaction.Type type, BigDecimal amount,
+                                       Transaction.Status status, String remark) {
+        Transaction transaction = new Transaction();
+        transaction.setTransactionNo(generateTransactionNo());
+        transaction.setUserId(userId);
+        transaction.setType(type.getCode());
+        transaction.setAmount(amount);
+        transaction.setStatus(status.getCode());
+        transaction.setRemark(remark);
+        return transaction;
     }
 
     private BigDecimal calculateRefundAmount(Order order) {
@@ -0,0 +1,112 @@
+package com.makebang.service.match;
+
+import com.makebang.config.DeveloperMatchConfig;
+import com.makebang.repository.ProjectDeveloperMatchRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 项目推荐程序员排名预计算
+ * 每个开放项目的排名保存在 project_developer_match 中，查询时直接读取；
+ * 项目向量更新、项目修改、相关程序员技能向量变化或超过有效期时重新计算。
+ * 单个项目的删除、计算和状态记录在同一事务中完成
+ */
+@Slf4j
+@Component
+public class DeveloperMatchRefresher {
+
+    private static final int DEFAULT_EF_SEARCH = 40;
+    private static final int MAX_EF_SEARCH = 1000;
+
+    private final ProjectDeveloperMatchRepository matchRepository;
+    private final DeveloperMatchConfig config;
+    private final TransactionTemplate transactionTemplate;
+    private final Timer refreshTimer;
+    private final Counter failedCounter;
+
+    public DeveloperMatchRefresher(ProjectDeveloperMatchRepository matchRepository,
+                                   DeveloperMatchConfig config,
+                                   PlatformTransactionManager transactionManager,
+                                   MeterRegistry meterRegistry) {
+        this.matchRepository = matchRepository;
+        this.config = config;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.refreshTimer = meterRegistry.timer("makebang.developer-match.refresh");
+        this.failedCounter = meterRegistry.counter("makebang.developer-match.failed");
+    }
+
+    /**
+     * 重新计算单个项目的排名
+     *
+     * @return 写入的排名数，项目不是开放状态或没有向量时为0
+     */
+    public int refresh(Long projectId) {
+        return refreshTimer.record(() -> transactionTemplate.execute(status -> {
+            applySettings(config.getCandidates());
+            matchRepository.deleteByProjectId(projectId);
+            int written = matchRepository.insertRanking(projectId, config);
+            matchRepository.markRefreshed(projectId);
+            return written;
+        }));
+    }
+
+    /**
+     * 重新计算一批过期项目的排名，并清理不再开放的项目
+     *
+     * @return 重新计算的项目数
+     */
+    public int refreshStale() {
+        int removed = matchRepository.deleteInactive();
+        if (removed > 0) {
+            log.debug("Removed {} developer matches of inactive projects", removed);
+        }
+
+        LocalDateTime expiredBefore = LocalDateTime.now().minusSeconds(config.getMaxAge());
+        List<Long> projectIds = matchRepository.findStaleProjectIds(expiredBefore, config.getRefreshBatchSize());
+        int refreshed = 0;
+        for (Long projectId : projectIds) {
+            try {
+                refresh(projectId);
+                refreshed++;
+            } catch (Exception e) {
+                failedCounter.increment();
+                log.error("Failed to refresh developer matches for project {}: {}", projectId, e.getMessage(), e);
+            }
+        }
+        return refreshed;
+    }
+
+    /**
+     * 项目内容修改后标记排名过期，由下次刷新重新计算
+     */
+    public void markStale(Long projectId) {
+        matchRepository.markStale(projectId);
+    }
+
+    /**
+     * 程序员技能向量写入后，标记其已在排名中的项目和最相近的项目过期
+     */
+    public void onProfilesEmbedded(List<Long> userIds) {
+        if (userIds.isEmpty()) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            applySettings(config.getAffectedProjects());
+            matchRepository.markStaleForDevelopers(userIds, config.getAffectedProjects());
+        });
+    }
+
+    private void applySettings(int limit) {
+        // ef_search 小于 limit 时 HNSW 最多只能返回 ef_search 条；pgvector 上限为 1000
+        int efSearch = Math.min(Math.max(limit, DEFAULT_EF_SEARCH), MAX_EF_SEARCH);
+        matchRepository.applySearchSettings(String.valueOf(efSearch));
+    }
+}
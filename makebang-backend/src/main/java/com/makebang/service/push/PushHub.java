@@ -0,0 +1,215 @@
+package com.makebang.service.push;
+
+import com.makebang.config.PushConfig;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 本节点推送中心
+ * 维护本节点上每个用户的SSE连接；每个连接有独立的有界发送队列，由共享的有界线程池串行发送，
+ * 慢连接只会积压自己的队列，不阻塞发布方和其他连接；线程池饱和时丢弃事件
+ */
+@Slf4j
+@Component
+public class PushHub {
+
+    private final PushConfig config;
+    private final Map<Long, List<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicInteger connectionCount = new AtomicInteger();
+
+    private final Counter deliveredCounter;
+    private final Counter droppedCounter;
+
+    private ThreadPoolExecutor sender;
+    private ScheduledExecutorService heartbeat;
+
+    public PushHub(PushConfig config, MeterRegistry meterRegistry) {
+        this.config = config;
+        this.deliveredCounter = meterRegistry.counter("makebang.push.events", "result", "delivered");
+        this.droppedCounter = meterRegistry.counter("makebang.push.events", "result", "dropped");
+        Gauge.builder("makebang.push.connections", connectionCount, AtomicInteger::get)
+                .description("本节点SSE连接数")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void init() {
+        sender = new ThreadPoolExecutor(config.getSenderThreads(), config.getSenderThreads(),
+                0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(config.getSenderQueueSize()),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "push-sender");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        heartbeat = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "push-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+        heartbeat.scheduleWithFixedDelay(this::sendHeartbeats,
+                config.getHeartbeatInterval(), config.getHeartbeatInterval(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void destroy() {
+        heartbeat.shutdownNow();
+        subscribers.values().forEach(list -> list.forEach(s -> s.emitter.complete()));
+        sender.shutdown();
+    }
+
+    /**
+     * 建立连接
+     */
+    public SseEmitter subscribe(Long userId) {
+        SseEmitter emitter = new SseEmitter(config.getEmitterTimeout());
+        Subscriber subscriber = new Subscriber(userId, emitter);
+
+        List<Subscriber> list = subscribers.computeIfAbsent(userId, id -> new CopyOnWriteArrayList<>());
+        list.add(subscriber);
+        connectionCount.incrementAndGet();
+        while (list.size() > config.getMaxConnectionsPerUser()) {
+            Subscriber oldest = list.get(0);
+            remove(oldest);
+            oldest.emitter.complete();
+        }
+
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(() -> remove(subscriber));
+        emitter.onError(e -> remove(subscriber));
+        return emitter;
+    }
+
+    /**
+     * 投递给本节点上该用户的所有连接
+     */
+    public void deliver(PushMessage message) {
+        List<Subscriber> list = subscribers.get(message.getUserId());
+        if (list == null) {
+            return;
+        }
+        for (Subscriber subscriber : list) {
+            subscriber.offer(message);
+        }
+    }
+
+    private void remove(Subscriber subscriber) {
+        List<Subscriber> list = subscribers.get(subscriber.userId);
+        if (list != null && list.remove(subscriber)) {
+            connectionCount.decrementAndGet();
+            if (list.isEmpty()) {
+                subscribers.remove(subscriber.userId, list);
+            }
+        }
+    }
+
+    private void sendHeartbeats() {
+        for (List<Subscriber> list : subscribers.values()) {
+            for (Subscriber subscriber : list) {
+                subscriber.offer(null);
+            }
+        }
+    }
+
+    /**
+     * 单个SSE连接及其发送队列
+     */
+    private final class Subscriber {
+
+        private final Long userId;
+        private final SseEmitter emitter;
+        private final Queue<PushMessage> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger queued = new AtomicInteger();
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile boolean heartbeatPending;
+
+        private Subscriber(Long userId, SseEmitter emitter) {
+            this.userId = userId;
+            this.emitter = emitter;
+        }
+
+        /**
+         * 入队并触发发送，message为null表示心跳
+         */
+        private void offer(PushMessage message) {
+            if (message == null) {
+                heartbeatPending = true;
+            } else if (queued.incrementAndGet() > config.getSubscriberQueueSize()) {
+                queued.decrementAndGet();
+                droppedCounter.increment();
+                return;
+            } else {
+                queue.add(message);
+            }
+            if (draining.compareAndSet(false, true)) {
+                schedule();
+            }
+        }
+
+        /**
+         * 提交发送任务；线程池饱和时丢弃本连接积压的事件
+         */
+        private void schedule() {
+            try {
+                sender.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                heartbeatPending = false;
+                while (queue.poll() != null) {
+                    queued.decrementAndGet();
+                    droppedCounter.increment();
+                }
+                draining.set(false);
+            }
+        }
+
+        private void drain() {
+            try {
+                if (heartbeatPending) {
+                    heartbeatPending = false;
+                    emitter.send(SseEmitter.event().comment("ping"));
+                }
+                PushMessage message;
+                while ((message = queue.poll()) != null) {
+                    queued.decrementAndGet();
+                    emitter.send(SseEmitter.event()
+                            .name(message.getType())
+                            .data(message.getPayload(), MediaType.APPLICATION_JSON));
+                    deliveredCounter.increment();
+                }
+            } catch (IOException | IllegalStateException e) {
+                log.debug("Push connection of user {} closed: {}", userId, e.getMessage());
+                remove(this);
+                emitter.completeWithError(e);
+                return;
+            } finally {
+                draining.set(false);
+            }
+            // 释放标记后可能有新事件入队
+            if ((!queue.isEmpty() || heartbeatPending) && draining.compareAndSet(false, true)) {
+                schedule();
+            }
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.makebang.service.push;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 推送消息（经Redis频道在节点间传递）
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PushMessage {
+
+    /**
+     * 接收用户ID
+     */
+    private Long userId;
+
+    /**
+     * 事件类型，对应SSE事件名
+     */
+    private String type;
+
+    /**
+     * 已序列化的JSON数据
+     */
+    private String payload;
+
+    /**
+     * 事件类型枚举
+     */
+    public enum Type {
+        MESSAGE("message", "新消息"),
+        NOTIFICATION("notification", "新通知"),
+        UNREAD("unread", "未读数");
+
+        public final String code;
+        public final String desc;
+
+        Type(String code, String desc) {
+            this.code = code;
+            this.desc = desc;
+        }
+    }
+}
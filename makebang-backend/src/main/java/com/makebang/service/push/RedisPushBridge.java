@@ -0,0 +1,59 @@
+package com.makebang.service.push;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.makebang.config.PushConfig;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 推送跨节点桥接
+ * 发布方把事件写入Redis频道，所有节点（含自身）订阅后投递给本节点上的连接；
+ * Redis不可用时退化为仅投递本节点
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RedisPushBridge implements MessageListener {
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final ObjectMapper objectMapper;
+    private final PushHub pushHub;
+    private final PushConfig config;
+
+    @PostConstruct
+    public void init() {
+        listenerContainer.addMessageListener(this, new ChannelTopic(config.getChannel()));
+    }
+
+    /**
+     * 发布事件到所有节点
+     */
+    public void publish(PushMessage message) {
+        try {
+            stringRedisTemplate.convertAndSend(config.getChannel(), objectMapper.writeValueAsString(message));
+        } catch (Exception e) {
+            log.warn("Failed to publish push event to Redis, delivering locally: {}", e.getMessage());
+            pushHub.deliver(message);
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        try {
+            String body = new String(message.getBody(), StandardCharsets.UTF_8);
+            pushHub.deliver(objectMapper.readValue(body, PushMessage.class));
+        } catch (Exception e) {
+            log.warn("Discarding malformed push event: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,494 @@
+package com.makebang.service.search;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.makebang.config.SearchConfig;
+import com.makebang.entity.Project;
+import com.makebang.repository.ProjectRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.cjk.CJKAnalyzer;
+import org.apache.lucene.document.*;
+import org.apache.lucene.facet.FacetResult;
+import org.apache.lucene.facet.FacetsCollector;
+import org.apache.lucene.facet.FacetsConfig;
+import org.apache.lucene.facet.LabelAndValue;
+import org.apache.lucene.facet.sortedset.DefaultSortedSetDocValuesReaderState;
+import org.apache.lucene.facet.sortedset.SortedSetDocValuesFacetCounts;
+import org.apache.lucene.facet.sortedset.SortedSetDocValuesFacetField;
+import org.apache.lucene.facet.sortedset.SortedSetDocValuesReaderState;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.queryparser.simple.SimpleQueryParser;
+import org.apache.lucene.search.*;
+import org.apache.lucene.search.similarities.BM25Similarity;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.MMapDirectory;
+import org.apache.lucene.util.BytesRef;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 项目 Lucene 索引
+ * 收录开放中和进行中的项目，索引文件位于本地磁盘并以内存映射方式读取；
+ * 中日韩文本按二元组切分，BM25 打分，分类和技能提供分面统计。
+ * 项目变更后立即重新打开读取器（近实时），定期提交落盘；可由 project 表并行全量重建
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "makebang.search.provider", havingValue = "lucene")
+public class LuceneProjectIndex {
+
+    static final String FIELD_ID = "id";
+    static final String FIELD_TITLE = "title";
+    static final String FIELD_SKILLS = "skills";
+    static final String FIELD_DESCRIPTION = "description";
+    static final String FIELD_CATEGORY_ID = "categoryId";
+    static final String FIELD_BUDGET_MIN = "budgetMin";
+    static final String FIELD_BUDGET_MAX = "budgetMax";
+    static final String FIELD_CREATED_AT = "createdAt";
+    static final String FIELD_INDEXED_AT = "indexedAt";
+
+    /**
+     * 分面维度
+     */
+    public static final String FACET_CATEGORY = "category";
+    public static final String FACET_SKILL = "skill";
+
+    private static final int FACET_TOP_N = 20;
+    private static final List<Integer> INDEXED_STATUSES =
+            List.of(Project.Status.OPEN.code, Project.Status.IN_PROGRESS.code);
+
+    /**
+     * 各字段打分权重，与数据库全文检索的 A/B/D 权重对应
+     */
+    private static final Map<String, Float> FIELD_WEIGHTS = Map.of(
+            FIELD_TITLE, 3.0f,
+            FIELD_SKILLS, 2.0f,
+            FIELD_DESCRIPTION, 1.0f);
+
+    private static final Sort RELEVANCE_SORT = new Sort(SortField.FIELD_SCORE,
+            new SortField(FIELD_CREATED_AT, SortField.Type.LONG, true));
+    private static final Sort RECENT_SORT = new Sort(new SortField(FIELD_CREATED_AT, SortField.Type.LONG, true));
+
+    private final ProjectRepository projectRepository;
+    private final SearchConfig config;
+    private final Timer queryTimer;
+
+    private final Analyzer analyzer = new CJKAnalyzer();
+    private final FacetsConfig facetsConfig = new FacetsConfig();
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+
+    /**
+     * 重建期间单独更新过的项目，重建批次中读到的旧数据不再覆盖
+     */
+    private final Set<Long> updatedDuringRebuild = ConcurrentHashMap.newKeySet();
+
+    private Directory directory;
+    private IndexWriter writer;
+    private SearcherManager searcherManager;
+    private ScheduledExecutorService scheduler;
+    private ExecutorService rebuildExecutor;
+
+    /**
+     * 分面读取状态与读取器绑定，读取器重新打开后重建
+     */
+    private volatile FacetState facetState;
+
+    private record FacetState(IndexReader reader, SortedSetDocValuesReaderState state) {
+    }
+
+    /**
+     * 搜索结果
+     *
+     * @param total      命中总数
+     * @param projectIds 当页项目ID，按得分排序
+     * @param facets     分面统计：维度 -> (取值 -> 数量)
+     */
+    public record Hits(long total, List<Long> projectIds, Map<String, Map<String, Long>> facets) {
+    }
+
+    public LuceneProjectIndex(ProjectRepository projectRepository, SearchConfig config, MeterRegistry meterRegistry) {
+        this.projectRepository = projectRepository;
+        this.config = config;
+        this.queryTimer = meterRegistry.timer("makebang.search.lucene.query");
+        this.facetsConfig.setMultiValued(FACET_SKILL, true);
+
+        Gauge.builder("makebang.search.lucene.documents", this, LuceneProjectIndex::documentCount)
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void init() throws IOException {
+        directory = new MMapDirectory(Path.of(config.getIndexPath()));
+        boolean exists = DirectoryReader.indexExists(directory);
+
+        IndexWriterConfig writerConfig = new IndexWriterConfig(analyzer)
+                .setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND)
+                .setSimilarity(new BM25Similarity());
+        writer = new IndexWriter(directory, writerConfig);
+        searcherManager = new SearcherManager(writer, new SearcherFactory() {
+            @Override
+            public IndexSearcher newSearcher(IndexReader reader, IndexReader previousReader) {
+                IndexSearcher searcher = new IndexSearcher(reader);
+                searcher.setSimilarity(new BM25Similarity());
+                return searcher;
+            }
+        });
+
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "lucene-index");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::refresh,
+                config.getRefreshInterval(), config.getRefreshInterval(), TimeUnit.MILLISECONDS);
+        scheduler.scheduleWithFixedDelay(this::commit,
+                config.getCommitInterval(), config.getCommitInterval(), TimeUnit.MILLISECONDS);
+
+        AtomicInteger index = new AtomicInteger();
+        rebuildExecutor = Executors.newFixedThreadPool(Math.max(1, config.getRebuildConcurrency()), runnable -> {
+            Thread thread = new Thread(runnable, "lucene-rebuild-" + index.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        // 首次启动时索引为空，后台从数据库全量构建
+        if (!exists) {
+            scheduler.execute(() -> {
+                try {
+                    log.info("Lucene index built with {} projects", rebuild());
+                } catch (Exception e) {
+                    log.error("Initial Lucene index build failed: {}", e.getMessage(), e);
+                }
+            });
+        }
+    }
+
+    @PreDestroy
+    public void destroy() throws IOException {
+        scheduler.shutdownNow();
+        rebuildExecutor.shutdownNow();
+        searcherManager.close();
+        // 关闭时提交未落盘的变更
+        writer.close();
+        directory.close();
+    }
+
+    /**
+     * 写入或删除单个项目，并立即重新打开读取器
+     * 不处于开放中、进行中的项目从索引中移除
+     */
+    public void update(Project project) {
+        try {
+            Term idTerm = new Term(FIELD_ID, String.valueOf(project.getId()));
+            if (rebuilding.get()) {
+                updatedDuringRebuild.add(project.getId());
+            }
+            if (isSearchable(project)) {
+                writer.updateDocument(idTerm, toDocument(project, System.currentTimeMillis()));
+            } else {
+                writer.deleteDocuments(idTerm);
+            }
+            searcherManager.maybeRefresh();
+        } catch (IOException e) {
+            // 索引与数据库的偏差由定时全量重建纠正
+            log.error("Failed to update Lucene index for project {}: {}", project.getId(), e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 由 project 表全量重建
+     * 按ID分页顺序读取，各批在线程池中并行分析、写入；期间旧文档仍可搜索，
+     * 全部写入后删除本轮未覆盖的文档（已关闭或删除的项目）
+     *
+     * @return 写入的项目数，已有重建在进行时返回 0
+     */
+    public int rebuild() throws IOException {
+        if (!rebuilding.compareAndSet(false, true)) {
+            log.info("Lucene index rebuild already in progress, skipping");
+            return 0;
+        }
+        try {
+            updatedDuringRebuild.clear();
+            long startedAt = System.currentTimeMillis();
+            int batchSize = Math.max(1, config.getRebuildBatchSize());
+            int maxInFlight = Math.max(1, config.getRebuildConcurrency()) * 2;
+
+            Deque<CompletableFuture<Void>> inFlight = new ArrayDeque<>();
+            int total = 0;
+            long afterId = 0;
+            while (true) {
+                List<Project> page = projectRepository.selectList(new LambdaQueryWrapper<Project>()
+                        .in(Project::getStatus, INDEXED_STATUSES)
+                        .gt(Project::getId, afterId)
+                        .orderByAsc(Project::getId)
+                        .last("LIMIT " + batchSize));
+                if (page.isEmpty()) {
+                    break;
+                }
+                total += page.size();
+                afterId = page.get(page.size() - 1).getId();
+
+                // 限制在途批次，避免读库快于写索引时堆积
+                if (inFlight.size() >= maxInFlight) {
+                    inFlight.removeFirst().join();
+                }
+                inFlight.addLast(CompletableFuture.runAsync(() -> addAll(page, startedAt), rebuildExecutor));
+            }
+            for (CompletableFuture<Void> future : inFlight) {
+                future.join();
+            }
+
+            writer.deleteDocuments(LongPoint.newRangeQuery(FIELD_INDEXED_AT, Long.MIN_VALUE, startedAt - 1));
+            writer.commit();
+            searcherManager.maybeRefreshBlocking();
+            return total;
+        } catch (CompletionException e) {
+            // 任一批失败时不删除旧文档，保留上一版可用的索引
+            if (e.getCause() instanceof UncheckedIOException io) {
+                throw io.getCause();
+            }
+            throw e;
+        } finally {
+            rebuilding.set(false);
+            updatedDuringRebuild.clear();
+        }
+    }
+
+    /**
+     * 关键词搜索，结果按 BM25 得分排序，同分按创建时间倒序；无关键词时按创建时间倒序
+     *
+     * @param offset 跳过的结果数
+     * @param size   返回数量
+     */
+    public Hits search(String keyword, Long categoryId, Integer minBudget, Integer maxBudget,
+                       int offset, int size) throws IOException {
+        Query text = parse(keyword);
+        Query query = withFilters(text != null ? text : new MatchAllDocsQuery(), categoryId, minBudget, maxBudget);
+        int window = Math.max(1, Math.min(offset + size, config.getMaxWindow()));
+
+        long start = System.nanoTime();
+        IndexSearcher searcher = searcherManager.acquire();
+        try {
+            if (searcher.getIndexReader().numDocs() == 0) {
+                return new Hits(0, Collections.emptyList(), Collections.emptyMap());
+            }
+
+            FacetsCollector facetsCollector = new FacetsCollector();
+            TopDocs topDocs = FacetsCollector.search(searcher, query, window,
+                    text != null ? RELEVANCE_SORT : RECENT_SORT, text != null, facetsCollector);
+
+            long total = 0;
+            for (FacetsCollector.MatchingDocs matchingDocs : facetsCollector.getMatchingDocs()) {
+                total += matchingDocs.totalHits;
+            }
+
+            List<Long> projectIds = new ArrayList<>();
+            StoredFields storedFields = searcher.storedFields();
+            for (int i = offset; i < topDocs.scoreDocs.length; i++) {
+                projectIds.add(Long.valueOf(storedFields.document(topDocs.scoreDocs[i].doc).get(FIELD_ID)));
+            }
+
+            return new Hits(total, projectIds, facetCounts(searcher, facetsCollector));
+        } finally {
+            searcherManager.release(searcher);
+            queryTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * 从给定项目中筛出在索引中且满足过滤条件的
+     */
+    public Set<Long> filter(Collection<Long> projectIds, Long categoryId, Integer minBudget, Integer maxBudget)
+            throws IOException {
+        if (projectIds.isEmpty()) {
+            return Collections.emptySet();
+        }
+        List<BytesRef> terms = new ArrayList<>(projectIds.size());
+        for (Long projectId : projectIds) {
+            terms.add(new BytesRef(String.valueOf(projectId)));
+        }
+        Query query = withFilters(new TermInSetQuery(FIELD_ID, terms), categoryId, minBudget, maxBudget);
+
+        IndexSearcher searcher = searcherManager.acquire();
+        try {
+            Set<Long> matched = new HashSet<>();
+            StoredFields storedFields = searcher.storedFields();
+            for (ScoreDoc scoreDoc : searcher.search(query, projectIds.size()).scoreDocs) {
+                matched.add(Long.valueOf(storedFields.document(scoreDoc.doc).get(FIELD_ID)));
+            }
+            return matched;
+        } finally {
+            searcherManager.release(searcher);
+        }
+    }
+
+    // ========== Private Methods ==========
+
+    private static boolean isSearchable(Project project) {
+        return project.getDeletedAt() == null && project.getStatus() != null
+                && INDEXED_STATUSES.contains(project.getStatus());
+    }
+
+    private Document toDocument(Project project, long indexedAt) throws IOException {
+        Document doc = new Document();
+        doc.add(new StringField(FIELD_ID, String.valueOf(project.getId()), Field.Store.YES));
+        doc.add(new LongPoint(FIELD_INDEXED_AT, indexedAt));
+
+        if (project.getTitle() != null) {
+            doc.add(new TextField(FIELD_TITLE, project.getTitle(), Field.Store.NO));
+        }
+        if (project.getDescription() != null) {
+            doc.add(new TextField(FIELD_DESCRIPTION, project.getDescription(), Field.Store.NO));
+        }
+        if (project.getSkillRequirements() != null) {
+            for (String skill : project.getSkillRequirements()) {
+                if (StringUtils.hasText(skill)) {
+                    doc.add(new TextField(FIELD_SKILLS, skill, Field.Store.NO));
+                    doc.add(new SortedSetDocValuesFacetField(FACET_SKILL, skill.trim()));
+                }
+            }
+        }
+        if (project.getCategoryId() != null) {
+            doc.add(new LongPoint(FIELD_CATEGORY_ID, project.getCategoryId()));
+            doc.add(new SortedSetDocValuesFacetField(FACET_CATEGORY, String.valueOf(project.getCategoryId())));
+        }
+        if (project.getBudgetMin() != null) {
+            doc.add(new DoublePoint(FIELD_BUDGET_MIN, project.getBudgetMin().doubleValue()));
+        }
+        if (project.getBudgetMax() != null) {
+            doc.add(new DoublePoint(FIELD_BUDGET_MAX, project.getBudgetMax().doubleValue()));
+        }
+
+        LocalDateTime createdAt = project.getCreatedAt() != null ? project.getCreatedAt() : LocalDateTime.now();
+        doc.add(new NumericDocValuesField(FIELD_CREATED_AT,
+                createdAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli()));
+
+        return facetsConfig.build(doc);
+    }
+
+    private void addAll(List<Project> projects, long indexedAt) {
+        try {
+            for (Project project : projects) {
+                if (updatedDuringRebuild.contains(project.getId())) {
+                    continue;
+                }
+                writer.updateDocument(new Term(FIELD_ID, String.valueOf(project.getId())), toDocument(project, indexedAt));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * 解析关键词，所有词都需命中；为空或分词后无有效词时返回 null
+     */
+    private Query parse(String keyword) {
+        if (!StringUtils.hasText(keyword)) {
+            return null;
+        }
+        SimpleQueryParser parser = new SimpleQueryParser(analyzer, FIELD_WEIGHTS);
+        parser.setDefaultOperator(BooleanClause.Occur.MUST);
+        Query query = parser.parse(keyword.trim());
+        return query instanceof MatchNoDocsQuery ? null : query;
+    }
+
+    private static Query withFilters(Query query, Long categoryId, Integer minBudget, Integer maxBudget) {
+        BooleanQuery.Builder builder = new BooleanQuery.Builder().add(query, BooleanClause.Occur.MUST);
+        if (categoryId != null) {
+            builder.add(LongPoint.newExactQuery(FIELD_CATEGORY_ID, categoryId), BooleanClause.Occur.FILTER);
+        }
+        if (minBudget != null) {
+            builder.add(DoublePoint.newRangeQuery(FIELD_BUDGET_MAX, minBudget, Double.POSITIVE_INFINITY),
+                    BooleanClause.Occur.FILTER);
+        }
+        if (maxBudget != null) {
+            builder.add(DoublePoint.newRangeQuery(FIELD_BUDGET_MIN, Double.NEGATIVE_INFINITY, maxBudget),
+                    BooleanClause.Occur.FILTER);
+        }
+        return builder.build();
+    }
+
+    private Map<String, Map<String, Long>> facetCounts(IndexSearcher searcher, FacetsCollector facetsCollector)
+            throws IOException {
+        SortedSetDocValuesReaderState state = facetState(searcher.getIndexReader());
+        if (state == null) {
+            return Collections.emptyMap();
+        }
+        SortedSetDocValuesFacetCounts counts = new SortedSetDocValuesFacetCounts(state, facetsCollector);
+
+        Map<String, Map<String, Long>> facets = new LinkedHashMap<>();
+        for (String dim : List.of(FACET_CATEGORY, FACET_SKILL)) {
+            Map<String, Long> values = new LinkedHashMap<>();
+            // 维度在当前索引中尚无任何取值时不统计
+            if (state.getOrdRange(dim) != null) {
+                FacetResult result = counts.getTopChildren(FACET_TOP_N, dim);
+                if (result != null) {
+                    for (LabelAndValue labelAndValue : result.labelValues) {
+                        values.put(labelAndValue.label, labelAndValue.value.longValue());
+                    }
+                }
+            }
+            facets.put(dim, values);
+        }
+        return facets;
+    }
+
+    private SortedSetDocValuesReaderState facetState(IndexReader reader) throws IOException {
+        FacetState current = facetState;
+        if (current == null || current.reader() != reader) {
+            SortedSetDocValuesReaderState state;
+            try {
+                state = new DefaultSortedSetDocValuesReaderState(reader, facetsConfig);
+            } catch (IllegalArgumentException e) {
+                // 索引中还没有任何分面字段
+                return null;
+            }
+            current = new FacetState(reader, state);
+            facetState = current;
+        }
+        return current.state();
+    }
+
+    private void refresh() {
+        try {
+            searcherManager.maybeRefresh();
+        } catch (Exception e) {
+            log.warn("Failed to refresh Lucene searcher: {}", e.getMessage());
+        }
+    }
+
+    private void commit() {
+        try {
+            if (writer.hasUncommittedChanges()) {
+                writer.commit();
+            }
+        } catch (Exception e) {
+            log.error("Failed to commit Lucene index: {}", e.getMessage(), e);
+        }
+    }
+
+    private double documentCount() {
+        return writer == null ? 0 : writer.getDocStats().numDocs;
+    }
+}
@@ -0,0 +1,73 @@
+package com.makebang.service.search;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.makebang.entity.Project;
+import com.makebang.repository.ProjectRepository;
+import com.makebang.util.SearchTokenizer;
+import com.makebang.util.TransactionUtils;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 项目全文检索向量维护
+ * 项目创建和修改标题、描述、技能时同步写入；历史数据由定时任务分批补齐。
+ * 启用 Lucene 搜索引擎时，同时在事务提交后更新本地索引
+ */
+@Component
+@RequiredArgsConstructor
+public class ProjectSearchIndexer {
+
+    private final ProjectRepository projectRepository;
+    private final ObjectProvider<LuceneProjectIndex> luceneProjectIndex;
+
+    /**
+     * 写入项目的检索向量
+     */
+    public void index(Project project) {
+        projectRepository.updateSearchVector(project.getId(), buildSearchVector(project));
+        sync(project);
+    }
+
+    /**
+     * 项目状态变化（发布、关闭、审核等）后同步 Lucene 索引，未启用时不做任何事
+     */
+    public void sync(Project project) {
+        LuceneProjectIndex index = luceneProjectIndex.getIfAvailable();
+        if (index != null) {
+            TransactionUtils.afterCommit(() -> index.update(project));
+        }
+    }
+
+    /**
+     * 为一批尚无检索向量的项目补齐
+     *
+     * @return 处理的项目数
+     */
+    public int backfill(int batchSize) {
+        List<Project> projects = projectRepository.selectList(new LambdaQueryWrapper<Project>()
+                .apply("search_vector IS NULL")
+                .orderByAsc(Project::getId)
+                .last("LIMIT " + batchSize));
+        for (Project project : projects) {
+            index(project);
+        }
+        return projects.size();
+    }
+
+    /**
+     * 构建检索向量：标题权重A，技能要求权重B，描述权重D
+     */
+    public static String buildSearchVector(Project project) {
+        List<SearchTokenizer.Field> fields = new ArrayList<>();
+        fields.add(new SearchTokenizer.Field(project.getTitle(), SearchTokenizer.Weight.A));
+        if (project.getSkillRequirements() != null) {
+            fields.add(new SearchTokenizer.Field(String.join(" ", project.getSkillRequirements()), SearchTokenizer.Weight.B));
+        }
+        fields.add(new SearchTokenizer.Field(project.getDescription(), SearchTokenizer.Weight.D));
+        return SearchTokenizer.toTsvector(fields);
+    }
+}
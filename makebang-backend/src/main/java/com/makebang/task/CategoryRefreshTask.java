@@ -0,0 +1,31 @@
+package com.makebang.task;
+
+import com.makebang.service.category.CategoryCatalog;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 分类快照刷新定时任务
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CategoryRefreshTask {
+
+    private final CategoryCatalog categoryCatalog;
+
+    /**
+     * 重新加载分类表，内容未变化时保留原快照
+     * 每10分钟执行一次，兜底直接改库的情况
+     */
+    @Scheduled(fixedDelay = 600000, initialDelay = 600000)  // 10分钟
+    public void refresh() {
+        try {
+            categoryCatalog.refresh();
+        } catch (Exception e) {
+            log.error("Category tree refresh failed: {}", e.getMessage(), e);
+        }
+    }
+}
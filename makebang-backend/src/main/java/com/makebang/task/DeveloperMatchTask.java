@@ -0,0 +1,48 @@
+package com.makebang.task;
+
+import com.makebang.config.DeveloperMatchConfig;
+import com.makebang.config.EmbeddingConfig;
+import com.makebang.service.EmbeddingService;
+import com.makebang.service.embedding.DeveloperEmbeddingPipeline;
+import com.makebang.service.match.DeveloperMatchRefresher;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 项目推荐程序员刷新定时任务
+ * 先为资料有变化的程序员生成技能向量（同时标记受影响项目过期），再重新计算一批过期项目的排名
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DeveloperMatchTask {
+
+    private final DeveloperEmbeddingPipeline developerEmbeddingPipeline;
+    private final DeveloperMatchRefresher matchRefresher;
+    private final EmbeddingService embeddingService;
+    private final EmbeddingConfig embeddingConfig;
+    private final DeveloperMatchConfig matchConfig;
+
+    @Scheduled(fixedDelay = 60000, initialDelay = 45000)  // 1分钟
+    public void refresh() {
+        if (!matchConfig.isEnabled()) {
+            return;
+        }
+        try {
+            if (embeddingService.isAvailable()) {
+                int embedded = developerEmbeddingPipeline.run(embeddingConfig.getBackfillLimit());
+                if (embedded > 0) {
+                    log.info("Generated skill embeddings for {} developers", embedded);
+                }
+            }
+            int refreshed = matchRefresher.refreshStale();
+            if (refreshed > 0) {
+                log.info("Refreshed developer matches for {} projects", refreshed);
+            }
+        } catch (Exception e) {
+            log.error("Developer match refresh failed: {}", e.getMessage(), e);
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.makebang.task;
 
+import com.makebang.config.EmbeddingConfig;
 import com.makebang.service.SearchService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -15,16 +16,17 @@ import org.springframework.stereotype.Component;
 public class EmbeddingTask {
 
     private final SearchService searchService;
+    private final EmbeddingConfig embeddingConfig;
 
     /**
      * 定时生成项目向量
-     * 每小时执行一次，为没有向量的项目生成向量
+     * 每小时执行一次，为没有向量或内容已更新的项目生成向量
      */
     @Scheduled(fixedRate = 3600000)  // 1小时
     public void generateEmbeddings() {
         log.info("Starting batch embedding generation task");
         try {
-            searchService.batchGenerateEmbeddings(100);
+            searchService.batchGenerateEmbeddings(embeddingConfig.getBackfillLimit());
             log.info("Batch embedding generation task completed");
         } catch (Exception e) {
             log.error("Batch embedding generation task failed: {}", e.getMessage(), e);
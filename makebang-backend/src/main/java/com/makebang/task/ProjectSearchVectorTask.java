@@ -0,0 +1,41 @@
+package com.makebang.task;
+
+import com.makebang.service.search.ProjectSearchIndexer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 项目全文检索向量补齐定时任务
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ProjectSearchVectorTask {
+
+    private static final int BATCH_SIZE = 500;
+
+    private final ProjectSearchIndexer projectSearchIndexer;
+
+    /**
+     * 为尚无检索向量的项目补齐
+     * 每10分钟执行一次，每次处理到没有遗漏为止
+     */
+    @Scheduled(fixedDelay = 600000, initialDelay = 20000)  // 10分钟
+    public void backfill() {
+        try {
+            int total = 0;
+            int count;
+            do {
+                count = projectSearchIndexer.backfill(BATCH_SIZE);
+                total += count;
+            } while (count == BATCH_SIZE);
+            if (total > 0) {
+                log.info("Backfilled search vectors for {} projects", total);
+            }
+        } catch (Exception e) {
+            log.error("Project search vector backfill failed: {}", e.getMessage(), e);
+        }
+    }
+}
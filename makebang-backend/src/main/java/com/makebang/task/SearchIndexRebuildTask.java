@@ -0,0 +1,35 @@
+package com.makebang.task;
+
+import com.makebang.service.search.LuceneProjectIndex;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Lucene 项目索引全量重建定时任务
+ * 纠正未经过业务入口的状态变化（如直接改库）和单条更新失败造成的偏差
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "makebang.search.provider", havingValue = "lucene")
+public class SearchIndexRebuildTask {
+
+    private final LuceneProjectIndex luceneProjectIndex;
+
+    /**
+     * 每天凌晨4点执行
+     */
+    @Scheduled(cron = "0 0 4 * * ?")
+    public void rebuild() {
+        try {
+            long start = System.currentTimeMillis();
+            int count = luceneProjectIndex.rebuild();
+            log.info("Rebuilt Lucene project index with {} projects in {}ms", count, System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            log.error("Lucene project index rebuild failed: {}", e.getMessage(), e);
+        }
+    }
+}
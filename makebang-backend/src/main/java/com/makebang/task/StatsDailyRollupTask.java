@@ -0,0 +1,57 @@
+package com.makebang.task;
+
+import com.makebang.repository.StatsDailyRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+
+/**
+ * 每日统计汇总定时任务
+ * 只汇总已结束的日期；每次重算最近几天，修正订单完成、退款、删除等延迟变化
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class StatsDailyRollupTask {
+
+    /**
+     * 每次重算的最近天数
+     */
+    private static final int RECOMPUTE_DAYS = 3;
+
+    /**
+     * 首次回填时每条语句汇总的天数
+     */
+    private static final int BACKFILL_CHUNK_DAYS = 90;
+
+    private final StatsDailyRepository statsDailyRepository;
+
+    /**
+     * 每小时执行一次，启动后尽快补齐缺失的日期
+     */
+    @Scheduled(fixedDelay = 3600000, initialDelay = 30000)  // 1小时
+    public void rollup() {
+        try {
+            LocalDate to = LocalDate.now().minusDays(1);
+            LocalDate lastDate = statsDailyRepository.sumAll().getLastDate();
+            LocalDate from = lastDate != null
+                    ? lastDate.minusDays(RECOMPUTE_DAYS - 1)
+                    : statsDailyRepository.findFirstDate();
+            if (from == null || from.isAfter(to)) {
+                return;
+            }
+
+            int days = 0;
+            for (LocalDate start = from; !start.isAfter(to); start = start.plusDays(BACKFILL_CHUNK_DAYS)) {
+                LocalDate end = start.plusDays(BACKFILL_CHUNK_DAYS - 1);
+                days += statsDailyRepository.rollup(start, end.isAfter(to) ? to : end);
+            }
+            log.info("Rolled up daily stats from {} to {} ({} days)", from, to, days);
+        } catch (Exception e) {
+            log.error("Daily stats rollup failed: {}", e.getMessage(), e);
+        }
+    }
+}
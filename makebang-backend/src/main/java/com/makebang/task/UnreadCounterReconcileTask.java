@@ -0,0 +1,32 @@
+package com.makebang.task;
+
+import com.makebang.service.counter.UnreadCounter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 未读计数校准定时任务
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UnreadCounterReconcileTask {
+
+    private final UnreadCounter unreadCounter;
+
+    /**
+     * 按数据库结果校准Redis中的未读计数
+     * 每10分钟执行一次
+     */
+    @Scheduled(fixedDelay = 600000, initialDelay = 60000)  // 10分钟
+    public void reconcile() {
+        try {
+            int count = unreadCounter.reconcileAll();
+            log.info("Reconciled unread counters for {} users", count);
+        } catch (Exception e) {
+            log.error("Unread counter reconciliation failed: {}", e.getMessage(), e);
+        }
+    }
+}
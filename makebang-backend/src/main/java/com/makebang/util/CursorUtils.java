@@ -0,0 +1,98 @@
+package com.makebang.util;
+
+import com.makebang.common.exception.BusinessException;
+import com.makebang.common.result.CursorPageResult;
+import com.makebang.common.result.ResultCode;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * 游标分页工具类
+ * 游标对客户端不透明，内容为最后一条记录的 (created_at, id)
+ */
+public final class CursorUtils {
+
+    /**
+     * 单页最大数量
+     */
+    public static final int MAX_SIZE = 100;
+
+    private static final String SEPARATOR = "|";
+
+    private CursorUtils() {
+    }
+
+    /**
+     * 解码后的游标位置
+     */
+    public record Position(LocalDateTime createdAt, Long id) {
+    }
+
+    /**
+     * 编码游标
+     */
+    public static String encode(LocalDateTime createdAt, Long id) {
+        String raw = createdAt + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 解码游标
+     *
+     * @param cursor 游标，为空表示从第一页开始
+     * @return 游标位置，首页返回null
+     * @throws BusinessException 游标格式错误
+     */
+    public static Position decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int index = raw.lastIndexOf(SEPARATOR);
+            if (index < 0) {
+                throw new BusinessException(ResultCode.BAD_REQUEST, "无效的分页游标");
+            }
+            return new Position(LocalDateTime.parse(raw.substring(0, index)), Long.valueOf(raw.substring(index + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new BusinessException(ResultCode.BAD_REQUEST, "无效的分页游标");
+        }
+    }
+
+    /**
+     * 规范化每页数量
+     */
+    public static int normalizeSize(int size) {
+        return Math.max(1, Math.min(size, MAX_SIZE));
+    }
+
+    /**
+     * 由多查一条的结果构建分页响应
+     *
+     * @param rows        按 (created_at, id) 倒序查出的 size + 1 条记录
+     * @param size        每页数量
+     * @param createdAtOf 取创建时间
+     * @param idOf        取ID
+     * @param converter   当页实体批量转VO
+     */
+    public static <T, R> CursorPageResult<R> build(List<T> rows, int size,
+                                                   Function<T, LocalDateTime> createdAtOf,
+                                                   Function<T, Long> idOf,
+                                                   Function<List<T>, List<R>> converter) {
+        boolean hasMore = rows.size() > size;
+        List<T> page = hasMore ? rows.subList(0, size) : rows;
+
+        String nextCursor = null;
+        if (hasMore) {
+            T last = page.get(page.size() - 1);
+            nextCursor = encode(createdAtOf.apply(last), idOf.apply(last));
+        }
+
+        return new CursorPageResult<>(size, hasMore, nextCursor, converter.apply(page));
+    }
+}
@@ -0,0 +1,173 @@
+package com.makebang.util;
+
+import java.util.*;
+
+/**
+ * 全文检索分词工具类
+ * PostgreSQL 内置解析器不切分中文，这里在Java侧分词后直接生成 tsvector / tsquery 文本：
+ * 中日韩字符连续片段切成重叠二元组（并保留片段末字，支持单字查询），字母数字片段按整词小写。
+ * 生成的词元只包含字母、数字和中日韩字符，可安全拼接为 tsvector / tsquery 字面量
+ */
+public final class SearchTokenizer {
+
+    /**
+     * 单个词元最大长度
+     */
+    private static final int MAX_TOKEN_LENGTH = 64;
+
+    /**
+     * tsvector 位置上限
+     */
+    private static final int MAX_POSITION = 16383;
+
+    private SearchTokenizer() {
+    }
+
+    /**
+     * 权重
+     */
+    public enum Weight {
+        A("A"), B("B"), C("C"), D("");
+
+        public final String code;
+
+        Weight(String code) {
+            this.code = code;
+        }
+    }
+
+    /**
+     * 带权重的字段
+     */
+    public record Field(String text, Weight weight) {
+    }
+
+    /**
+     * 文档分词
+     */
+    public static List<String> tokenize(String text) {
+        return tokenize(text, false);
+    }
+
+    /**
+     * 分词
+     *
+     * @param forQuery 查询分词：多字片段不保留末字，避免要求文档片段恰好在此结束
+     */
+    private static List<String> tokenize(String text, boolean forQuery) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return tokens;
+        }
+
+        String lower = text.toLowerCase(Locale.ROOT);
+        StringBuilder word = new StringBuilder();
+        List<Integer> cjkRun = new ArrayList<>();
+
+        int i = 0;
+        while (i < lower.length()) {
+            int cp = lower.codePointAt(i);
+            i += Character.charCount(cp);
+
+            if (isCjk(cp)) {
+                flushWord(word, tokens);
+                cjkRun.add(cp);
+            } else if (Character.isLetterOrDigit(cp)) {
+                flushCjk(cjkRun, tokens, forQuery);
+                word.appendCodePoint(cp);
+            } else {
+                flushWord(word, tokens);
+                flushCjk(cjkRun, tokens, forQuery);
+            }
+        }
+        flushWord(word, tokens);
+        flushCjk(cjkRun, tokens, forQuery);
+        return tokens;
+    }
+
+    /**
+     * 构建带权重和位置的 tsvector 文本，各字段依次编排位置
+     *
+     * @param fields 字段文本与权重，按顺序
+     */
+    public static String toTsvector(List<Field> fields) {
+        Map<String, StringBuilder> lexemes = new TreeMap<>();
+        int position = 0;
+        for (Field field : fields) {
+            for (String token : tokenize(field.text())) {
+                position = Math.min(position + 1, MAX_POSITION);
+                StringBuilder positions = lexemes.computeIfAbsent(token, t -> new StringBuilder());
+                if (positions.length() > 0) {
+                    positions.append(',');
+                }
+                positions.append(position).append(field.weight().code);
+            }
+        }
+
+        StringBuilder sb = new StringBuilder();
+        for (Map.Entry<String, StringBuilder> lexeme : lexemes.entrySet()) {
+            if (sb.length() > 0) {
+                sb.append(' ');
+            }
+            sb.append(quote(lexeme.getKey())).append(':').append(lexeme.getValue());
+        }
+        return sb.toString();
+    }
+
+    /**
+     * 构建 tsquery 文本，所有词元需同时命中；单个中日韩字符按前缀匹配
+     *
+     * @return tsquery 文本，没有可用词元时返回null
+     */
+    public static String toTsquery(String keyword) {
+        Set<String> tokens = new LinkedHashSet<>(tokenize(keyword, true));
+        if (tokens.isEmpty()) {
+            return null;
+        }
+
+        StringBuilder sb = new StringBuilder();
+        for (String token : tokens) {
+            if (sb.length() > 0) {
+                sb.append(" & ");
+            }
+            sb.append(quote(token));
+            if (token.codePointCount(0, token.length()) == 1 && isCjk(token.codePointAt(0))) {
+                sb.append(":*");
+            }
+        }
+        return sb.toString();
+    }
+
+    private static void flushWord(StringBuilder word, List<String> tokens) {
+        if (word.length() > 0) {
+            tokens.add(word.length() > MAX_TOKEN_LENGTH ? word.substring(0, MAX_TOKEN_LENGTH) : word.toString());
+            word.setLength(0);
+        }
+    }
+
+    private static void flushCjk(List<Integer> run, List<String> tokens, boolean forQuery) {
+        if (run.isEmpty()) {
+            return;
+        }
+        for (int j = 0; j + 1 < run.size(); j++) {
+            tokens.add(new StringBuilder().appendCodePoint(run.get(j)).appendCodePoint(run.get(j + 1)).toString());
+        }
+        // 片段末字（或单字片段）单独作为词元
+        if (!forQuery || run.size() == 1) {
+            tokens.add(new StringBuilder().appendCodePoint(run.get(run.size() - 1)).toString());
+        }
+        run.clear();
+    }
+
+    private static boolean isCjk(int cp) {
+        Character.UnicodeScript script = Character.UnicodeScript.of(cp);
+        return script == Character.UnicodeScript.HAN
+                || script == Character.UnicodeScript.HIRAGANA
+                || script == Character.UnicodeScript.KATAKANA
+                || script == Character.UnicodeScript.HANGUL;
+    }
+
+    private static String quote(String token) {
+        return "'" + token.replace("\\", "\\\\").replace("'", "''") + "'";
+    }
+}
@@ -1,19 +1,29 @@
 package com.makebang.util;
 
+import com.makebang.common.exception.BusinessException;
+import com.makebang.common.result.ResultCode;
 import com.makebang.entity.User;
 import com.makebang.repository.UserRepository;
+import com.makebang.security.LoginUser;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.function.Supplier;
 
 /**
  * 安全工具类
+ * 身份信息直接取自认证主体（JWT声明），仅在需要完整用户实体时查库，且每个请求最多一次
  */
 @Component
 public class SecurityUtils {
 
+    private static final String CURRENT_USER_ATTRIBUTE = SecurityUtils.class.getName() + ".CURRENT_USER";
+
     private static UserRepository userRepository;
 
     @Autowired
@@ -21,16 +31,31 @@ public class SecurityUtils {
         SecurityUtils.userRepository = userRepository;
     }
 
+    /**
+     * 获取当前登录主体
+     *
+     * @return 登录主体，未登录或非JWT主体返回null
+     */
+    public static LoginUser getLoginUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()) {
+            return null;
+        }
+
+        Object principal = authentication.getPrincipal();
+        return principal instanceof LoginUser ? (LoginUser) principal : null;
+    }
+
     /**
      * 获取当前登录用户ID
      *
      * @return 用户ID
-     * @throws RuntimeException 如果用户未登录
+     * @throws BusinessException 如果用户未登录
      */
     public static Long getCurrentUserId() {
         Long userId = getCurrentUserIdOrNull();
         if (userId == null) {
-            throw new RuntimeException("用户未登录");
+            throw new BusinessException(ResultCode.UNAUTHORIZED);
         }
         return userId;
     }
@@ -41,41 +66,35 @@ public class SecurityUtils {
      * @return 用户ID，未登录返回null
      */
     public static Long getCurrentUserIdOrNull() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        if (authentication == null || !authentication.isAuthenticated()) {
-            return null;
+        LoginUser loginUser = getLoginUser();
+        if (loginUser != null && loginUser.getUserId() != null) {
+            return loginUser.getUserId();
         }
 
-        Object principal = authentication.getPrincipal();
-        if (principal instanceof UserDetails) {
-            String username = ((UserDetails) principal).getUsername();
-            User user = userRepository.findByUsername(username).orElse(null);
-            return user != null ? user.getId() : null;
+        // 非JWT主体（如测试或其他认证方式）回退到完整用户
+        if (getCurrentUsername() == null) {
+            return null;
         }
-
-        return null;
+        User user = findCurrentUser();
+        return user != null ? user.getId() : null;
     }
 
     /**
      * 获取当前登录用户
      *
      * @return 用户实体
-     * @throws RuntimeException 如果用户未登录
+     * @throws BusinessException 如果用户未登录或不存在
      */
     public static User getCurrentUser() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        if (authentication == null || !authentication.isAuthenticated()) {
-            throw new RuntimeException("用户未登录");
+        if (getCurrentUsername() == null) {
+            throw new BusinessException(ResultCode.UNAUTHORIZED);
         }
 
-        Object principal = authentication.getPrincipal();
-        if (principal instanceof UserDetails) {
-            String username = ((UserDetails) principal).getUsername();
-            return userRepository.findByUsername(username)
-                    .orElseThrow(() -> new RuntimeException("用户不存在"));
+        User user = findCurrentUser();
+        if (user == null) {
+            throw new BusinessException(ResultCode.USER_NOT_FOUND);
         }
-
-        throw new RuntimeException("用户未登录");
+        return user;
     }
 
     /**
@@ -105,4 +124,38 @@ public class SecurityUtils {
                 .anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN") ||
                               a.getAuthority().equals("ROLE_SUPER_ADMIN"));
     }
+
+    /**
+     * 请求内缓存当前用户实体，同一请求只加载一次
+     *
+     * @param loader 缓存未命中时的加载逻辑
+     * @return 用户实体，可能为null
+     */
+    public static User memoizeCurrentUser(Supplier<User> loader) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return loader.get();
+        }
+
+        Object cached = attributes.getAttribute(CURRENT_USER_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (cached instanceof User) {
+            return (User) cached;
+        }
+
+        User user = loader.get();
+        if (user != null) {
+            attributes.setAttribute(CURRENT_USER_ATTRIBUTE, user, RequestAttributes.SCOPE_REQUEST);
+        }
+        return user;
+    }
+
+    private static User findCurrentUser() {
+        return memoizeCurrentUser(() -> {
+            LoginUser loginUser = getLoginUser();
+            if (loginUser != null && loginUser.getUserId() != null) {
+                return userRepository.selectById(loginUser.getUserId());
+            }
+            return userRepository.findByUsername(getCurrentUsername()).orElse(null);
+        });
+    }
 }
@@ -16,7 +16,7 @@ import java.util.List;
  * 项目视图对象
  */
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 public class ProjectVO {
@@ -55,6 +55,11 @@ public class ProjectVO {
 
     private Integer viewCount;
 
+    /**
+     * 独立访客数（估算，仅详情返回）
+     */
+    private Long uniqueViewerCount;
+
     private Integer bidCount;
 
     @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
@@ -0,0 +1,69 @@
+package com.makebang.vo;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * 项目推荐程序员VO
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RecommendedDeveloperVO {
+
+    /**
+     * 排名（从1开始）
+     */
+    private Integer rank;
+
+    /**
+     * 综合分
+     */
+    private Double score;
+
+    /**
+     * 技能与项目的语义相似度
+     */
+    private Double similarity;
+
+    /**
+     * 项目技能要求中具备的比例
+     */
+    private Double skillOverlap;
+
+    /**
+     * 平均评分
+     */
+    private Double avgRating;
+
+    /**
+     * 完成订单数
+     */
+    private Integer completedOrders;
+
+    /**
+     * 程序员信息
+     */
+    private UserVO developer;
+
+    /**
+     * 技能列表
+     */
+    private List<String> skills;
+
+    /**
+     * 工作经验年限
+     */
+    private Integer experienceYears;
+
+    /**
+     * 时薪
+     */
+    private BigDecimal hourlyRate;
+}
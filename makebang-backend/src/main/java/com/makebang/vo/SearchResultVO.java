@@ -4,6 +4,7 @@ import lombok.Builder;
 import lombok.Data;
 
 import java.util.List;
+import java.util.Map;
 
 /**
  * 搜索结果VO
@@ -51,4 +52,9 @@ public class SearchResultVO {
      * 相关建议（如果没有结果）
      */
     private List<String> suggestions;
+
+    /**
+     * 分面统计：维度(category/skill) -> (取值 -> 数量)，仅 Lucene 搜索引擎返回
+     */
+    private Map<String, Map<String, Long>> facets;
 }
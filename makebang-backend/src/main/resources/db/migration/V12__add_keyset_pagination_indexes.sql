@@ -0,0 +1,17 @@
+-- 游标分页复合索引：按 (created_at, id) 倒序翻页，只覆盖未删除的记录
+-- 原单列索引保留，供不带 deleted_at 条件的查询、更新和删除使用
+
+-- 会话消息
+CREATE INDEX IF NOT EXISTS idx_message_conversation_created_id
+    ON message(conversation_id, created_at DESC, id DESC)
+    WHERE deleted_at IS NULL;
+
+-- 用户通知
+CREATE INDEX IF NOT EXISTS idx_notification_user_created_id
+    ON notification(user_id, created_at DESC, id DESC)
+    WHERE deleted_at IS NULL;
+
+-- 用户交易记录
+CREATE INDEX IF NOT EXISTS idx_transaction_user_created_id
+    ON transaction(user_id, created_at DESC, id DESC)
+    WHERE deleted_at IS NULL;
@@ -0,0 +1,13 @@
+-- 未读计数初始化与校准使用的部分索引，只包含未读且未删除的记录
+
+CREATE INDEX IF NOT EXISTS idx_message_receiver_unread
+    ON message(receiver_id)
+    WHERE is_read = false AND deleted_at IS NULL;
+
+CREATE INDEX IF NOT EXISTS idx_notification_user_unread
+    ON notification(user_id)
+    WHERE is_read = false AND deleted_at IS NULL;
+
+-- is_read 单列索引选择性低，已由上面的部分索引取代
+DROP INDEX IF EXISTS idx_message_is_read;
+DROP INDEX IF EXISTS idx_notification_is_read;
@@ -0,0 +1,45 @@
+-- 私聊会话按 (较小用户ID, 较大用户ID) 唯一，供 INSERT ... ON CONFLICT 使用
+
+-- 合并已有的重复私聊会话：保留ID最小的一条，消息迁移到保留的会话
+CREATE TEMP TABLE conversation_merge ON COMMIT DROP AS
+SELECT id, keep_id
+FROM (
+    SELECT id,
+           MIN(id) OVER (PARTITION BY LEAST(participant1_id, participant2_id),
+                                      GREATEST(participant1_id, participant2_id)) AS keep_id
+    FROM conversation
+    WHERE type = 1 AND deleted_at IS NULL
+) t
+WHERE id <> keep_id;
+
+UPDATE message m SET conversation_id = cm.keep_id
+FROM conversation_merge cm
+WHERE m.conversation_id = cm.id;
+
+UPDATE conversation c SET deleted_at = CURRENT_TIMESTAMP
+FROM conversation_merge cm
+WHERE c.id = cm.id;
+
+-- 重新计算保留会话的最后消息和未读数
+UPDATE conversation c SET
+    last_message_id = last_msg.id,
+    last_message_content = LEFT(last_msg.content, 100),
+    last_message_at = last_msg.created_at,
+    participant1_unread = (SELECT COUNT(*) FROM message m
+                           WHERE m.conversation_id = c.id AND m.receiver_id = c.participant1_id
+                             AND m.is_read = false AND m.deleted_at IS NULL),
+    participant2_unread = (SELECT COUNT(*) FROM message m
+                           WHERE m.conversation_id = c.id AND m.receiver_id = c.participant2_id
+                             AND m.is_read = false AND m.deleted_at IS NULL),
+    updated_at = CURRENT_TIMESTAMP
+FROM (
+    SELECT DISTINCT ON (m.conversation_id) m.conversation_id, m.id, m.content, m.created_at
+    FROM message m
+    WHERE m.conversation_id IN (SELECT keep_id FROM conversation_merge) AND m.deleted_at IS NULL
+    ORDER BY m.conversation_id, m.created_at DESC, m.id DESC
+) last_msg
+WHERE c.id = last_msg.conversation_id;
+
+CREATE UNIQUE INDEX IF NOT EXISTS uk_conversation_private_participants
+    ON conversation ((LEAST(participant1_id, participant2_id)), (GREATEST(participant1_id, participant2_id)))
+    WHERE type = 1 AND deleted_at IS NULL;
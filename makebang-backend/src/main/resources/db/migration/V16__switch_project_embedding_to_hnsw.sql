@@ -0,0 +1,10 @@
+-- 项目向量索引由 IVFFlat 改为 HNSW（需要 pgvector 0.5.0+）
+-- IVFFlat 在空表上建立时聚类中心无意义，且随数据增长召回率下降；HNSW 无需训练，可增量维护
+
+DROP INDEX IF EXISTS idx_project_embedding_vector;
+
+CREATE INDEX IF NOT EXISTS idx_project_embedding_hnsw ON project_embedding
+USING hnsw (embedding vector_cosine_ops) WITH (m = 16, ef_construction = 64);
+
+-- project_id 已有唯一约束索引
+DROP INDEX IF EXISTS idx_project_embedding_project_id;
@@ -0,0 +1,9 @@
+-- 项目全文检索向量，由应用侧分词（中文二元组）后写入，覆盖标题、技能要求和描述
+
+ALTER TABLE project ADD COLUMN IF NOT EXISTS search_vector tsvector;
+
+CREATE INDEX IF NOT EXISTS idx_project_search_vector
+    ON project USING GIN(search_vector)
+    WHERE deleted_at IS NULL;
+
+COMMENT ON COLUMN project.search_vector IS '全文检索向量（标题A、技能B、描述D），由应用维护';
@@ -0,0 +1,2 @@
+-- 进程内向量索引按 (updated_at, project_id) 增量同步
+CREATE INDEX IF NOT EXISTS idx_project_embedding_updated ON project_embedding (updated_at, project_id);
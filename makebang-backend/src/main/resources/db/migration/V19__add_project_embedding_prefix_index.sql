@@ -0,0 +1,7 @@
+-- 项目向量两阶段检索的粗排索引（需要 pgvector 0.7.0+）
+-- text-embedding-3 系列为 Matryoshka 表示，前 256 维即可区分大致语义；以半精度存入索引，
+-- 每条向量约 512 字节，完整 vector(1536) 为 6KB。粗排取候选后按完整向量重排，完整向量仍保留在表中。
+-- 启用 makebang.embedding.coarse-dimensions=256 后，可删除 idx_project_embedding_hnsw 以回收内存
+
+CREATE INDEX IF NOT EXISTS idx_project_embedding_hnsw_prefix ON project_embedding
+USING hnsw ((subvector(embedding, 1, 256)::halfvec(256)) halfvec_cosine_ops) WITH (m = 16, ef_construction = 64);
@@ -0,0 +1,44 @@
+-- 程序员与项目匹配：程序员技能向量生成状态、预计算的推荐排名表
+
+-- 技能向量对应的资料内容哈希和生成时间，资料更新后重新生成
+ALTER TABLE developer_profile ADD COLUMN IF NOT EXISTS skill_content_hash VARCHAR(32);
+ALTER TABLE developer_profile ADD COLUMN IF NOT EXISTS skill_embedded_at TIMESTAMP;
+
+COMMENT ON COLUMN developer_profile.skill_content_hash IS '技能向量对应的资料内容MD5哈希';
+COMMENT ON COLUMN developer_profile.skill_embedded_at IS '技能向量生成时间';
+
+CREATE INDEX IF NOT EXISTS idx_developer_skill_embedding_hnsw ON developer_profile
+USING hnsw (skill_embedding vector_cosine_ops) WITH (m = 16, ef_construction = 64)
+WHERE deleted_at IS NULL;
+
+-- 项目推荐程序员排名（只为开放中的项目计算）
+CREATE TABLE IF NOT EXISTS project_developer_match (
+    project_id BIGINT NOT NULL REFERENCES project(id) ON DELETE CASCADE,
+    developer_id BIGINT NOT NULL REFERENCES "user"(id) ON DELETE CASCADE,
+    rank INTEGER NOT NULL,
+    score DOUBLE PRECISION NOT NULL,
+    similarity DOUBLE PRECISION NOT NULL,
+    skill_overlap DOUBLE PRECISION NOT NULL,
+    avg_rating DOUBLE PRECISION NOT NULL,
+    completed_orders INTEGER NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (project_id, developer_id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_project_developer_match_rank ON project_developer_match(project_id, rank);
+CREATE INDEX IF NOT EXISTS idx_project_developer_match_developer ON project_developer_match(developer_id);
+
+COMMENT ON TABLE project_developer_match IS '项目推荐程序员排名（预计算）';
+COMMENT ON COLUMN project_developer_match.score IS '综合分：向量相似度、技能重合、评分、完成订单数加权';
+COMMENT ON COLUMN project_developer_match.skill_overlap IS '项目技能要求中程序员具备的比例';
+
+-- 项目排名刷新状态：无记录、被标记过期、项目向量更新或超过有效期时重新计算
+CREATE TABLE IF NOT EXISTS project_match_state (
+    project_id BIGINT PRIMARY KEY REFERENCES project(id) ON DELETE CASCADE,
+    refreshed_at TIMESTAMP,
+    stale BOOLEAN NOT NULL DEFAULT false
+);
+
+CREATE INDEX IF NOT EXISTS idx_project_match_state_stale ON project_match_state(project_id) WHERE stale;
+
+COMMENT ON TABLE project_match_state IS '项目推荐排名刷新状态';
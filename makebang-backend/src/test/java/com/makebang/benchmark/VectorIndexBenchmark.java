@@ -0,0 +1,269 @@
+package com.makebang.benchmark;
+
+import com.pgvector.PGvector;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.sql.*;
+import java.util.*;
+
+/**
+ * 向量索引召回率/延迟基准
+ * 在独立表 bench_embedding 中生成合成语料（高斯聚类，接近真实文本向量的分布），
+ * 以精确检索（关闭索引扫描）为基准，测量不同 ef_search 下的 recall@k 和 p50/p99 延迟，
+ * 以及两阶段检索（前缀半精度索引粗排 + 完整向量重排）在不同粗排候选数下的 recall@k、延迟和索引大小。
+ * 合成向量的信息均匀分布在各维，前缀召回率低于真实 Matryoshka 向量，可用 -Dbench.keep=true 保留表后导入真实向量测量。
+ * <p>
+ * 默认跳过，需指定数据库后手动运行：
+ * <pre>
+ * mvn test -Dtest=VectorIndexBenchmark -Dbench.jdbcUrl=jdbc:postgresql://localhost:5432/makebang \
+ *     -Dbench.user=postgres -Dbench.password=postgres -Dbench.size=100000 -Dbench.efSearch=40,100,200
+ * </pre>
+ * 可选参数：bench.dim（默认1536）、bench.clusters（默认200）、bench.queries（默认200）、
+ * bench.k（默认10）、bench.m（默认16）、bench.efConstruction（默认64）、bench.keep（保留表以便重复测量）、
+ * bench.coarseDims（粗排维度，默认256，0为跳过两阶段测量）、bench.rerank（粗排候选数，默认100,200,400）
+ */
+@DisplayName("向量索引基准")
+@EnabledIfSystemProperty(named = "bench.jdbcUrl", matches = ".+")
+class VectorIndexBenchmark {
+
+    private static final String TABLE = "bench_embedding";
+    private static final int INSERT_BATCH = 500;
+
+    private final int size = Integer.getInteger("bench.size", 100_000);
+    private final int dim = Integer.getInteger("bench.dim", 1536);
+    private final int clusters = Integer.getInteger("bench.clusters", 200);
+    private final int queries = Integer.getInteger("bench.queries", 200);
+    private final int k = Integer.getInteger("bench.k", 10);
+    private final int m = Integer.getInteger("bench.m", 16);
+    private final int efConstruction = Integer.getInteger("bench.efConstruction", 64);
+    private final int coarseDims = Integer.getInteger("bench.coarseDims", 256);
+    private final boolean keep = Boolean.getBoolean("bench.keep");
+    private final Random random = new Random(42);
+
+    @Test
+    @DisplayName("HNSW recall@k 与延迟")
+    void hnswRecallAndLatency() throws Exception {
+        try (Connection conn = DriverManager.getConnection(System.getProperty("bench.jdbcUrl"),
+                System.getProperty("bench.user"), System.getProperty("bench.password"))) {
+            PGvector.addVectorType(conn);
+
+            float[][] centroids = new float[clusters][];
+            for (int i = 0; i < clusters; i++) {
+                centroids[i] = randomUnit();
+            }
+
+            if (!keep || !tableExists(conn)) {
+                createCorpus(conn, centroids);
+            }
+
+            List<float[]> queryVectors = new ArrayList<>(queries);
+            for (int i = 0; i < queries; i++) {
+                queryVectors.add(perturb(centroids[random.nextInt(clusters)], 0.3f));
+            }
+
+            // 精确检索作为基准
+            List<Set<Long>> truth = new ArrayList<>(queries);
+            long[] exactLatencies = new long[queries];
+            conn.setAutoCommit(false);
+            try (Statement st = conn.createStatement()) {
+                st.execute("SET LOCAL enable_indexscan = off");
+            }
+            for (int i = 0; i < queries; i++) {
+                long start = System.nanoTime();
+                truth.add(topK(conn, queryVectors.get(i)));
+                exactLatencies[i] = System.nanoTime() - start;
+            }
+            conn.commit();
+            report("exact", 1.0, exactLatencies);
+
+            for (String ef : System.getProperty("bench.efSearch", "40,100,200").split(",")) {
+                long[] latencies = new long[queries];
+                double recallSum = 0;
+                try (Statement st = conn.createStatement()) {
+                    st.execute("SET hnsw.ef_search = " + Integer.parseInt(ef.trim()));
+                }
+                for (int i = 0; i < queries; i++) {
+                    long start = System.nanoTime();
+                    Set<Long> found = topK(conn, queryVectors.get(i));
+                    latencies[i] = System.nanoTime() - start;
+                    found.retainAll(truth.get(i));
+                    recallSum += (double) found.size() / k;
+                }
+                conn.commit();
+                report("hnsw ef_search=" + ef.trim(), recallSum / queries, latencies);
+            }
+
+            if (coarseDims > 0 && coarseDims < dim) {
+                createPrefixIndex(conn);
+                for (String pool : System.getProperty("bench.rerank", "100,200,400").split(",")) {
+                    int candidates = Math.max(Integer.parseInt(pool.trim()), k);
+                    long[] latencies = new long[queries];
+                    double recallSum = 0;
+                    try (Statement st = conn.createStatement()) {
+                        st.execute("SET hnsw.ef_search = " + Math.min(candidates, 1000));
+                    }
+                    for (int i = 0; i < queries; i++) {
+                        long start = System.nanoTime();
+                        Set<Long> found = rerankedTopK(conn, queryVectors.get(i), candidates);
+                        latencies[i] = System.nanoTime() - start;
+                        found.retainAll(truth.get(i));
+                        recallSum += (double) found.size() / k;
+                    }
+                    conn.commit();
+                    report("halfvec(" + coarseDims + ") rerank=" + candidates, recallSum / queries, latencies);
+                }
+                reportIndexSizes(conn);
+            }
+
+            if (!keep) {
+                try (Statement st = conn.createStatement()) {
+                    st.execute("DROP TABLE IF EXISTS " + TABLE);
+                }
+                conn.commit();
+            }
+        }
+    }
+
+    private void createCorpus(Connection conn, float[][] centroids) throws SQLException {
+        try (Statement st = conn.createStatement()) {
+            st.execute("CREATE EXTENSION IF NOT EXISTS vector");
+            st.execute("DROP TABLE IF EXISTS " + TABLE);
+            st.execute("CREATE TABLE " + TABLE + " (id BIGSERIAL PRIMARY KEY, embedding vector(" + dim + "))");
+        }
+
+        long start = System.nanoTime();
+        conn.setAutoCommit(false);
+        try (PreparedStatement ps = conn.prepareStatement("INSERT INTO " + TABLE + " (embedding) VALUES (?)")) {
+            for (int i = 0; i < size; i++) {
+                ps.setObject(1, new PGvector(perturb(centroids[random.nextInt(clusters)], 0.5f)));
+                ps.addBatch();
+                if ((i + 1) % INSERT_BATCH == 0) {
+                    ps.executeBatch();
+                }
+            }
+            ps.executeBatch();
+        }
+        conn.commit();
+        System.out.printf("inserted %d vectors (dim %d) in %.1fs%n", size, dim, (System.nanoTime() - start) / 1e9);
+
+        start = System.nanoTime();
+        try (Statement st = conn.createStatement()) {
+            st.execute("CREATE INDEX ON " + TABLE + " USING hnsw (embedding vector_cosine_ops) "
+                    + "WITH (m = " + m + ", ef_construction = " + efConstruction + ")");
+            st.execute("ANALYZE " + TABLE);
+        }
+        conn.commit();
+        conn.setAutoCommit(true);
+        System.out.printf("built hnsw index (m=%d, ef_construction=%d) in %.1fs%n",
+                m, efConstruction, (System.nanoTime() - start) / 1e9);
+    }
+
+    private void createPrefixIndex(Connection conn) throws SQLException {
+        long start = System.nanoTime();
+        try (Statement st = conn.createStatement()) {
+            st.execute("CREATE INDEX IF NOT EXISTS " + TABLE + "_prefix_idx ON " + TABLE + " USING hnsw "
+                    + "((subvector(embedding, 1, " + coarseDims + ")::halfvec(" + coarseDims + ")) halfvec_cosine_ops) "
+                    + "WITH (m = " + m + ", ef_construction = " + efConstruction + ")");
+        }
+        conn.commit();
+        System.out.printf("built halfvec(%d) prefix index in %.1fs%n", coarseDims, (System.nanoTime() - start) / 1e9);
+    }
+
+    /**
+     * 与 ProjectEmbeddingRepository#searchByVectorReranked 相同的两阶段查询
+     */
+    private Set<Long> rerankedTopK(Connection conn, float[] query, int candidates) throws SQLException {
+        String prefix = "::halfvec(" + coarseDims + ")";
+        Set<Long> ids = new HashSet<>();
+        try (PreparedStatement ps = conn.prepareStatement(
+                "SELECT id FROM ("
+                        + " SELECT id, embedding FROM " + TABLE
+                        + " ORDER BY subvector(embedding, 1, " + coarseDims + ")" + prefix
+                        + " <=> subvector(?::vector, 1, " + coarseDims + ")" + prefix
+                        + " LIMIT ?) coarse"
+                        + " ORDER BY embedding <=> ? LIMIT ?")) {
+            PGvector vector = new PGvector(query);
+            ps.setObject(1, vector);
+            ps.setInt(2, candidates);
+            ps.setObject(3, vector);
+            ps.setInt(4, k);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    ids.add(rs.getLong(1));
+                }
+            }
+        }
+        return ids;
+    }
+
+    private void reportIndexSizes(Connection conn) throws SQLException {
+        try (Statement st = conn.createStatement();
+             ResultSet rs = st.executeQuery("SELECT indexrelid::regclass, pg_relation_size(indexrelid) FROM pg_index "
+                     + "WHERE indrelid = '" + TABLE + "'::regclass ORDER BY 2 DESC")) {
+            while (rs.next()) {
+                System.out.printf("%-32s %.1f MB%n", rs.getString(1), rs.getLong(2) / 1048576.0);
+            }
+        }
+        conn.commit();
+    }
+
+    private Set<Long> topK(Connection conn, float[] query) throws SQLException {
+        Set<Long> ids = new HashSet<>();
+        try (PreparedStatement ps = conn.prepareStatement(
+                "SELECT id FROM " + TABLE + " ORDER BY embedding <=> ? LIMIT ?")) {
+            ps.setObject(1, new PGvector(query));
+            ps.setInt(2, k);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    ids.add(rs.getLong(1));
+                }
+            }
+        }
+        return ids;
+    }
+
+    private boolean tableExists(Connection conn) throws SQLException {
+        try (ResultSet rs = conn.getMetaData().getTables(null, null, TABLE, null)) {
+            return rs.next();
+        }
+    }
+
+    private float[] randomUnit() {
+        float[] v = new float[dim];
+        for (int i = 0; i < dim; i++) {
+            v[i] = (float) random.nextGaussian();
+        }
+        return normalize(v);
+    }
+
+    private float[] perturb(float[] center, float noise) {
+        float[] v = new float[dim];
+        float scale = noise / (float) Math.sqrt(dim);
+        for (int i = 0; i < dim; i++) {
+            v[i] = center[i] + (float) random.nextGaussian() * scale;
+        }
+        return normalize(v);
+    }
+
+    private static float[] normalize(float[] v) {
+        double norm = 0;
+        for (float x : v) {
+            norm += x * x;
+        }
+        float inv = (float) (1 / Math.sqrt(norm));
+        for (int i = 0; i < v.length; i++) {
+            v[i] *= inv;
+        }
+        return v;
+    }
+
+    private void report(String name, double recall, long[] latencies) {
+        long[] sorted = latencies.clone();
+        Arrays.sort(sorted);
+        System.out.printf("%-24s recall@%d=%.4f  p50=%.2fms  p99=%.2fms%n", name, k, recall,
+                sorted[(int) (sorted.length * 0.50)] / 1e6,
+                sorted[Math.min(sorted.length - 1, (int) (sorted.length * 0.99))] / 1e6);
+    }
+}
@@ -0,0 +1,205 @@
+package com.makebang.benchmark;
+
+import com.makebang.service.embedding.HnswGraph;
+import com.makebang.service.embedding.MappedVectorStore;
+import com.makebang.service.embedding.VectorKernels;
+import com.pgvector.PGvector;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 进程内 HNSW 与 pgvector 语义检索 JMH 基准
+ * 对比：进程内 HNSW 查询、pgvector HNSW 查询，以及 SIMD / 标量点积内核。
+ * 指定数据库时从 {@link VectorIndexBenchmark} 保留的 bench_embedding 表读取语料（两条路径数据一致），
+ * 否则生成合成语料并跳过 pgvector 基准。
+ * <p>
+ * 默认跳过，手动运行：
+ * <pre>
+ * mvn test -Dtest=VectorSearchBenchmark -Dbench.jmh=true \
+ *     [-Dbench.jdbcUrl=jdbc:postgresql://localhost:5432/makebang -Dbench.user=postgres -Dbench.password=postgres]
+ * </pre>
+ * 先用 VectorIndexBenchmark 加 -Dbench.keep=true 建好 bench_embedding 表
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+public class VectorSearchBenchmark {
+
+    private static final String TABLE = "bench_embedding";
+    private static final int QUERIES = 256;
+    private static final int CLUSTERS = 200;
+
+    @Param({"20000"})
+    public int size;
+
+    @Param({"1536"})
+    public int dim;
+
+    @Param({"10"})
+    public int k;
+
+    @Param({"100"})
+    public int efSearch;
+
+    private Path dir;
+    private MappedVectorStore store;
+    private HnswGraph graph;
+    private Connection connection;
+    private float[][] queries;
+    private float[] left;
+    private float[] right;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        dir = Files.createTempDirectory("vector-bench");
+        Random random = new Random(42);
+
+        String jdbcUrl = System.getProperty("bench.jdbcUrl");
+        List<float[]> corpus = jdbcUrl == null || jdbcUrl.isBlank()
+                ? syntheticCorpus(random)
+                : loadCorpus(jdbcUrl);
+        dim = corpus.get(0).length;
+
+        store = new MappedVectorStore(dir.resolve("vectors.bin"), dim);
+        graph = new HnswGraph(store, 16, 64);
+        long start = System.nanoTime();
+        for (int i = 0; i < corpus.size(); i++) {
+            graph.add(store.append(i + 1, 0, VectorKernels.normalize(corpus.get(i))));
+        }
+        System.out.printf("built local hnsw over %d vectors (dim %d, kernel %s) in %.1fs%n",
+                corpus.size(), dim, VectorKernels.kernel(), (System.nanoTime() - start) / 1e9);
+
+        queries = new float[QUERIES][];
+        for (int i = 0; i < QUERIES; i++) {
+            queries[i] = perturb(corpus.get(random.nextInt(corpus.size())), 0.3f, random);
+        }
+        left = queries[0];
+        right = queries[1];
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        store.close();
+        if (connection != null) {
+            connection.close();
+        }
+        try (var files = Files.walk(dir)) {
+            files.sorted((a, b) -> b.compareTo(a)).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public List<HnswGraph.Neighbor> localHnsw() {
+        return graph.search(nextQuery(), k, efSearch);
+    }
+
+    @Benchmark
+    public void pgvectorHnsw(Blackhole blackhole) throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement(
+                "SELECT id FROM " + TABLE + " ORDER BY embedding <=> ? LIMIT ?")) {
+            ps.setObject(1, new PGvector(nextQuery()));
+            ps.setInt(2, k);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    blackhole.consume(rs.getLong(1));
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public float dotScalar() {
+        return VectorKernels.scalarKernel().dot(left, right);
+    }
+
+    @Benchmark
+    public float dotSimd() {
+        VectorKernels.Kernel simd = VectorKernels.simdKernel();
+        return simd != null ? simd.dot(left, right) : Float.NaN;
+    }
+
+    /**
+     * 以 JUnit 入口启动 JMH，未指定数据库时排除 pgvector 基准
+     */
+    @Test
+    @DisplayName("进程内 HNSW 与 pgvector JMH 基准")
+    @EnabledIfSystemProperty(named = "bench.jmh", matches = "true")
+    void run() throws Exception {
+        ChainedOptionsBuilder options = new OptionsBuilder()
+                .include(VectorSearchBenchmark.class.getName() + "\\.");
+        String jdbcUrl = System.getProperty("bench.jdbcUrl");
+        if (jdbcUrl == null || jdbcUrl.isBlank()) {
+            options.exclude("pgvectorHnsw");
+        } else {
+            options.jvmArgsAppend("-Dbench.jdbcUrl=" + jdbcUrl,
+                    "-Dbench.user=" + System.getProperty("bench.user", ""),
+                    "-Dbench.password=" + System.getProperty("bench.password", ""));
+        }
+        new Runner(options.build()).run();
+    }
+
+    private float[] nextQuery() {
+        next = (next + 1) % QUERIES;
+        return queries[next];
+    }
+
+    private List<float[]> loadCorpus(String jdbcUrl) throws SQLException {
+        connection = DriverManager.getConnection(jdbcUrl,
+                System.getProperty("bench.user"), System.getProperty("bench.password"));
+        PGvector.addVectorType(connection);
+        List<float[]> corpus = new ArrayList<>();
+        try (Statement st = connection.createStatement();
+             ResultSet rs = st.executeQuery("SELECT embedding FROM " + TABLE + " ORDER BY id")) {
+            while (rs.next()) {
+                corpus.add(((PGvector) rs.getObject(1)).toArray());
+            }
+        }
+        if (corpus.isEmpty()) {
+            throw new IllegalStateException(TABLE + " is empty, run VectorIndexBenchmark with -Dbench.keep=true first");
+        }
+        return corpus;
+    }
+
+    private List<float[]> syntheticCorpus(Random random) {
+        float[][] centroids = new float[CLUSTERS][];
+        for (int i = 0; i < CLUSTERS; i++) {
+            float[] centroid = new float[dim];
+            for (int j = 0; j < dim; j++) {
+                centroid[j] = (float) random.nextGaussian();
+            }
+            centroids[i] = VectorKernels.normalize(centroid);
+        }
+        List<float[]> corpus = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            corpus.add(perturb(centroids[random.nextInt(CLUSTERS)], 0.5f, random));
+        }
+        return corpus;
+    }
+
+    private float[] perturb(float[] center, float noise, Random random) {
+        float[] vector = new float[center.length];
+        float scale = noise / (float) Math.sqrt(center.length);
+        for (int i = 0; i < center.length; i++) {
+            vector[i] = center[i] + (float) random.nextGaussian() * scale;
+        }
+        return VectorKernels.normalize(vector);
+    }
+}
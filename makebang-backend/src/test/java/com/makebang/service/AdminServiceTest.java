@@ -6,7 +6,11 @@ import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.makebang.common.exception.BusinessException;
 import com.makebang.entity.*;
 import com.makebang.repository.*;
+import com.makebang.service.assembler.ProjectAssembler;
+import com.makebang.service.cache.ProjectDetailCache;
+import com.makebang.service.category.CategoryCatalog;
 import com.makebang.service.impl.AdminServiceImpl;
+import com.makebang.service.search.ProjectSearchIndexer;
 import com.makebang.vo.*;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -17,6 +21,7 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.Collections;
@@ -53,6 +58,21 @@ class AdminServiceTest {
     @Mock
     private MessageService messageService;
 
+    @Mock
+    private ProjectAssembler projectAssembler;
+
+    @Mock
+    private StatsDailyRepository statsDailyRepository;
+
+    @Mock
+    private ProjectSearchIndexer projectSearchIndexer;
+
+    @Mock
+    private ProjectDetailCache projectDetailCache;
+
+    @Mock
+    private CategoryCatalog categoryCatalog;
+
     @InjectMocks
     private AdminServiceImpl adminService;
 
@@ -125,13 +145,34 @@ class AdminServiceTest {
                 .thenReturn(30L)   // totalOrders
                 .thenReturn(10L);  // activeOrders
 
-        when(orderRepository.selectList(any(LambdaQueryWrapper.class)))
-                .thenReturn(Collections.emptyList());
-
         when(transactionRepository.selectCount(any(LambdaQueryWrapper.class)))
                 .thenReturn(3L);   // pendingWithdrawals
 
-        when(transactionRepository.selectList(any(LambdaQueryWrapper.class)))
+        // 已汇总到昨天，今天实时统计
+        StatsDailyRepository.Totals totals = new StatsDailyRepository.Totals();
+        totals.setLastDate(LocalDate.now().minusDays(1));
+        totals.setCompletedOrderAmount(new BigDecimal("1000.00"));
+        totals.setPlatformIncome(new BigDecimal("50.00"));
+        when(statsDailyRepository.sumAll()).thenReturn(totals);
+
+        StatsDaily yesterday = new StatsDaily();
+        yesterday.setStatDate(LocalDate.now().minusDays(1));
+        yesterday.setNewUsers(4L);
+        yesterday.setNewOrders(2L);
+        when(statsDailyRepository.findRange(any(LocalDate.class), any(LocalDate.class)))
+                .thenReturn(Collections.singletonList(yesterday));
+
+        when(orderRepository.sumCompletedAmountSince(any(LocalDateTime.class)))
+                .thenReturn(new BigDecimal("200.00"));
+        when(transactionRepository.sumServiceFeeSince(any(LocalDateTime.class)))
+                .thenReturn(new BigDecimal("10.00"));
+
+        StatsDailyRepository.DailyCount todayOrders = new StatsDailyRepository.DailyCount();
+        todayOrders.setDay(LocalDate.now());
+        todayOrders.setCount(3L);
+        when(orderRepository.countCreatedByDaySince(any(LocalDateTime.class)))
+                .thenReturn(Collections.singletonList(todayOrders));
+        when(userRepository.countCreatedByDaySince(any(LocalDateTime.class)))
                 .thenReturn(Collections.emptyList());
 
         // 执行测试
@@ -146,8 +187,15 @@ class AdminServiceTest {
         assertEquals(30L, stats.getTotalOrders());
         assertEquals(10L, stats.getActiveOrders());
         assertEquals(3L, stats.getPendingWithdrawals());
-        assertNotNull(stats.getOrderTrend());
-        assertNotNull(stats.getUserTrend());
+        assertEquals(new BigDecimal("1200.00"), stats.getTotalAmount());
+        assertEquals(new BigDecimal("200.00"), stats.getTodayAmount());
+        assertEquals(new BigDecimal("60.00"), stats.getPlatformIncome());
+        assertEquals(7, stats.getOrderTrend().size());
+        assertEquals(2L, stats.getOrderTrend().get(5).get("count"));
+        assertEquals(3L, stats.getOrderTrend().get(6).get("count"));
+        assertEquals(4L, stats.getUserTrend().get(5).get("count"));
+        assertEquals(0L, stats.getUserTrend().get(6).get("count"));
+        verify(orderRepository, never()).selectList(any());
     }
 
     // ========== 用户管理测试 ==========
@@ -263,8 +311,8 @@ class AdminServiceTest {
 
         when(projectRepository.selectPage(any(Page.class), any(LambdaQueryWrapper.class)))
                 .thenReturn(page);
-        when(userRepository.selectById(anyLong())).thenReturn(testUser);
-        when(userService.toVO(any(User.class))).thenReturn(UserVO.builder().build());
+        when(projectAssembler.toVOList(anyList()))
+                .thenReturn(Arrays.asList(ProjectVO.builder().id(1L).build()));
 
         // 执行测试
         IPage<ProjectVO> result = adminService.getProjectList(null, null, 1, 10);
@@ -272,6 +320,8 @@ class AdminServiceTest {
         // 验证结果
         assertNotNull(result);
         assertEquals(1, result.getRecords().size());
+        assertEquals(1, result.getTotal());
+        verify(projectAssembler).toVOList(anyList());
     }
 
     @Test
@@ -332,6 +382,7 @@ class AdminServiceTest {
         // 验证结果
         verify(projectRepository).updateById(argThat(project ->
                 project.getStatus().equals(Project.Status.CLOSED.code)));
+        verify(projectSearchIndexer).sync(testProject);
     }
 
     // ========== 订单管理测试 ==========
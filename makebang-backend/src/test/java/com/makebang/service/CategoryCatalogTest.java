@@ -0,0 +1,101 @@
+package com.makebang.service;
+
+import com.makebang.entity.Category;
+import com.makebang.repository.CategoryRepository;
+import com.makebang.service.category.CategoryCatalog;
+import com.makebang.service.category.CategoryTree;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * CategoryCatalog 单元测试
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("分类快照测试")
+class CategoryCatalogTest {
+
+    @Mock
+    private CategoryRepository categoryRepository;
+
+    @Mock
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Mock
+    private RedisMessageListenerContainer listenerContainer;
+
+    private CategoryCatalog catalog;
+
+    @BeforeEach
+    void setUp() {
+        catalog = new CategoryCatalog(categoryRepository, stringRedisTemplate, listenerContainer);
+    }
+
+    @Test
+    @DisplayName("构建分类树和名称索引，只加载一次")
+    void current_BuildsTreeOnce() {
+        when(categoryRepository.findAll()).thenReturn(List.of(
+                category(1, 0, "开发"), category(2, 1, "Web"), category(3, 1, "App"), category(4, 0, "设计")));
+
+        CategoryTree tree = catalog.current();
+
+        assertEquals(2, tree.getRoots().size());
+        assertEquals(List.of("Web", "App"), tree.getRoots().get(0).getChildren().stream().map(c -> c.getName()).toList());
+        assertTrue(tree.getRoots().get(1).getChildren().isEmpty());
+        assertEquals("App", tree.name(3));
+        assertNull(tree.name(99));
+        assertNull(tree.name(null));
+        assertThrows(UnsupportedOperationException.class, () -> tree.getRoots().add(null));
+
+        assertSame(tree, catalog.current());
+        verify(categoryRepository, times(1)).findAll();
+    }
+
+    @Test
+    @DisplayName("内容未变化时保留原快照，变化后换新版本和ETag")
+    void refresh_SwapsOnlyWhenChanged() {
+        when(categoryRepository.findAll())
+                .thenReturn(List.of(category(1, 0, "开发")))
+                .thenReturn(List.of(category(1, 0, "开发")))
+                .thenReturn(List.of(category(1, 0, "软件开发")));
+
+        CategoryTree first = catalog.current();
+        assertSame(first, catalog.refresh());
+
+        CategoryTree changed = catalog.refresh();
+        assertEquals(first.getVersion() + 1, changed.getVersion());
+        assertNotEquals(first.getEtag(), changed.getEtag());
+        assertEquals("软件开发", catalog.current().name(1));
+    }
+
+    @Test
+    @DisplayName("管理员刷新广播到其他节点，Redis不可用时仍刷新本节点")
+    void refreshAll_BroadcastsRefresh() {
+        when(categoryRepository.findAll()).thenReturn(List.of(category(1, 0, "开发")));
+        doThrow(new RuntimeException("redis down")).when(stringRedisTemplate).convertAndSend(anyString(), anyString());
+
+        CategoryTree tree = catalog.refreshAll();
+
+        assertEquals("开发", tree.name(1));
+        verify(stringRedisTemplate).convertAndSend(anyString(), eq(tree.getEtag()));
+    }
+
+    private static Category category(Integer id, Integer parentId, String name) {
+        Category category = new Category();
+        category.setId(id);
+        category.setParentId(parentId);
+        category.setName(name);
+        return category;
+    }
+}
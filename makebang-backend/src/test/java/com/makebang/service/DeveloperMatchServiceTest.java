@@ -0,0 +1,168 @@
+package com.makebang.service;
+
+import com.makebang.common.exception.BusinessException;
+import com.makebang.common.result.ResultCode;
+import com.makebang.config.DeveloperMatchConfig;
+import com.makebang.entity.DeveloperProfile;
+import com.makebang.entity.Project;
+import com.makebang.entity.ProjectDeveloperMatch;
+import com.makebang.entity.User;
+import com.makebang.repository.DeveloperProfileRepository;
+import com.makebang.repository.ProjectDeveloperMatchRepository;
+import com.makebang.repository.ProjectRepository;
+import com.makebang.security.LoginUser;
+import com.makebang.service.assembler.UserSummaryLoader;
+import com.makebang.service.embedding.DeveloperEmbeddingPipeline;
+import com.makebang.service.impl.DeveloperMatchServiceImpl;
+import com.makebang.service.match.DeveloperMatchRefresher;
+import com.makebang.vo.RecommendedDeveloperVO;
+import com.makebang.vo.UserVO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * DeveloperMatchService 单元测试
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("项目推荐程序员服务测试")
+class DeveloperMatchServiceTest {
+
+    @Mock
+    private ProjectRepository projectRepository;
+
+    @Mock
+    private ProjectDeveloperMatchRepository matchRepository;
+
+    @Mock
+    private DeveloperProfileRepository profileRepository;
+
+    @Mock
+    private DeveloperMatchRefresher matchRefresher;
+
+    @Mock
+    private UserSummaryLoader userSummaryLoader;
+
+    @Spy
+    private DeveloperMatchConfig config = new DeveloperMatchConfig();
+
+    @InjectMocks
+    private DeveloperMatchServiceImpl developerMatchService;
+
+    private Project testProject;
+
+    @BeforeEach
+    void setUp() {
+        testProject = new Project();
+        testProject.setId(1L);
+        testProject.setUserId(1L);
+        testProject.setStatus(Project.Status.OPEN.code);
+
+        User owner = new User();
+        owner.setId(1L);
+        owner.setUsername("owner");
+        owner.setPassword("password");
+        owner.setRole(0);
+        owner.setStatus(1);
+
+        Authentication authentication = mock(Authentication.class);
+        SecurityContext securityContext = mock(SecurityContext.class);
+        lenient().when(securityContext.getAuthentication()).thenReturn(authentication);
+        lenient().when(authentication.isAuthenticated()).thenReturn(true);
+        lenient().when(authentication.getPrincipal()).thenReturn(LoginUser.of(owner));
+        SecurityContextHolder.setContext(securityContext);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("推荐程序员 - 首次查看时计算排名，跳过已删除的程序员")
+    void getRecommendedDevelopers_RefreshesWhenNeverComputed() {
+        when(projectRepository.selectById(1L)).thenReturn(testProject);
+        when(matchRepository.findRefreshedAt(1L)).thenReturn(null);
+        when(matchRepository.findRanking(1L, 20)).thenReturn(Arrays.asList(match(2L, 1), match(3L, 2)));
+        when(userSummaryLoader.getAll(List.of(2L, 3L)))
+                .thenReturn(Map.of(2L, UserVO.builder().id(2L).username("dev").build()));
+        when(profileRepository.selectList(any())).thenReturn(List.of(profile(2L)));
+
+        List<RecommendedDeveloperVO> result = developerMatchService.getRecommendedDevelopers(1L, 20);
+
+        verify(matchRefresher).refresh(1L);
+        assertEquals(1, result.size());
+        assertEquals(1, result.get(0).getRank());
+        assertEquals("dev", result.get(0).getDeveloper().getUsername());
+        assertEquals(List.of("Java"), result.get(0).getSkills());
+    }
+
+    @Test
+    @DisplayName("推荐程序员 - 已计算时直接读取，数量不超过保存的排名数")
+    void getRecommendedDevelopers_ReadsPrecomputed() {
+        when(projectRepository.selectById(1L)).thenReturn(testProject);
+        when(matchRepository.findRefreshedAt(1L)).thenReturn(LocalDateTime.now());
+        when(matchRepository.findRanking(1L, config.getSize())).thenReturn(List.of());
+
+        assertTrue(developerMatchService.getRecommendedDevelopers(1L, 1000).isEmpty());
+        verify(matchRefresher, never()).refresh(anyLong());
+    }
+
+    @Test
+    @DisplayName("推荐程序员 - 非项目发布者")
+    void getRecommendedDevelopers_Forbidden() {
+        testProject.setUserId(99L);
+        when(projectRepository.selectById(1L)).thenReturn(testProject);
+
+        BusinessException exception = assertThrows(BusinessException.class,
+                () -> developerMatchService.getRecommendedDevelopers(1L, 20));
+        assertEquals(ResultCode.FORBIDDEN.getCode(), exception.getCode());
+        verifyNoInteractions(matchRepository);
+    }
+
+    @Test
+    @DisplayName("程序员资料文本 - 技能、经验和简介")
+    void buildContent() {
+        assertEquals("技能: Java, Go\n工作经验: 5年\n后端开发",
+                DeveloperEmbeddingPipeline.buildContent(List.of("Java", "Go"), 5, "后端开发"));
+        assertEquals("", DeveloperEmbeddingPipeline.buildContent(null, 0, " "));
+    }
+
+    private static ProjectDeveloperMatch match(Long developerId, int rank) {
+        ProjectDeveloperMatch match = new ProjectDeveloperMatch();
+        match.setProjectId(1L);
+        match.setDeveloperId(developerId);
+        match.setRank(rank);
+        match.setScore(0.8);
+        match.setSimilarity(0.9);
+        match.setSkillOverlap(1.0);
+        match.setAvgRating(4.5);
+        match.setCompletedOrders(3);
+        return match;
+    }
+
+    private static DeveloperProfile profile(Long userId) {
+        DeveloperProfile profile = new DeveloperProfile();
+        profile.setUserId(userId);
+        profile.setSkills(List.of("Java"));
+        return profile;
+    }
+}
@@ -0,0 +1,94 @@
+package com.makebang.service;
+
+import com.makebang.config.EntityCacheConfig;
+import com.makebang.repository.ProjectRepository;
+import com.makebang.repository.UserRepository;
+import com.makebang.service.cache.EntityCacheManager;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.ibatis.binding.MapperMethod;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.util.List;
+
+import static org.mockito.Mockito.*;
+
+/**
+ * EntityCacheManager 单元测试
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("实体缓存失效测试")
+class EntityCacheManagerTest {
+
+    private static final String CHANNEL = "makebang:entity-cache:invalidate";
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private ProjectRepository projectRepository;
+
+    @Mock
+    private RedisTemplate<String, Object> redisTemplate;
+
+    @Mock
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Mock
+    private RedisMessageListenerContainer listenerContainer;
+
+    private EntityCacheManager manager;
+
+    @BeforeEach
+    void setUp() {
+        EntityCacheConfig config = new EntityCacheConfig();
+        config.setSecondEvictDelay(20);
+        manager = new EntityCacheManager(userRepository, projectRepository, redisTemplate, stringRedisTemplate,
+                listenerContainer, config, new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void tearDown() {
+        manager.destroy();
+    }
+
+    @Test
+    @DisplayName("自定义更新语句按 id 参数失效，并在延迟后再失效一次")
+    void evict_CustomStatementEvictsTwice() {
+        MapperMethod.ParamMap<Object> params = new MapperMethod.ParamMap<>();
+        params.put("id", 5L);
+
+        manager.evict(ProjectRepository.class.getName(), params);
+
+        verify(redisTemplate).delete("entity:project:5");
+        verify(stringRedisTemplate).convertAndSend(CHANNEL, "project:5");
+        verify(redisTemplate, timeout(2000).times(2)).delete("entity:project:5");
+        verify(stringRedisTemplate, timeout(2000).times(2)).convertAndSend(CHANNEL, "project:5");
+    }
+
+    @Test
+    @DisplayName("批量更新由调用方按ID失效")
+    void evictProjects_EvictsEachId() {
+        manager.evictProjects(List.of(1L, 2L));
+
+        verify(redisTemplate, timeout(2000).times(2)).delete("entity:project:1");
+        verify(redisTemplate, timeout(2000).times(2)).delete("entity:project:2");
+    }
+
+    @Test
+    @DisplayName("非缓存的仓库或无法识别主键时不失效")
+    void evict_IgnoresUnknownWrites() {
+        manager.evict("com.makebang.repository.BidRepository", 1L);
+        manager.evict(UserRepository.class.getName(), new MapperMethod.ParamMap<>());
+
+        verifyNoInteractions(redisTemplate, stringRedisTemplate);
+    }
+}
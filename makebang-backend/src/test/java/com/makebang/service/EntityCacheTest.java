@@ -0,0 +1,145 @@
+package com.makebang.service;
+
+import com.makebang.config.EntityCacheConfig;
+import com.makebang.entity.User;
+import com.makebang.service.cache.EntityCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.ibatis.binding.MapperMethod;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * EntityCache 单元测试
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("实体二级缓存测试")
+class EntityCacheTest {
+
+    @Mock
+    private RedisTemplate<String, Object> redisTemplate;
+
+    @Mock
+    private ValueOperations<String, Object> valueOperations;
+
+    private EntityCacheConfig config;
+    private AtomicInteger dbLoads;
+    private Map<Long, User> database;
+    private EntityCache<Long, User> cache;
+
+    @BeforeEach
+    void setUp() {
+        config = new EntityCacheConfig();
+        dbLoads = new AtomicInteger();
+        database = new HashMap<>();
+        database.put(1L, user(1L, "alice"));
+        database.put(2L, user(2L, "bob"));
+        cache = new EntityCache<>("user", User.class, User::getId, Long::valueOf,
+                ids -> {
+                    dbLoads.incrementAndGet();
+                    return ids.stream().map(database::get).filter(Objects::nonNull).toList();
+                },
+                redisTemplate, config, new SimpleMeterRegistry());
+    }
+
+    @Test
+    @DisplayName("Redis未命中时批量查库并写入两级缓存，再次读取命中本地")
+    void getAll_LoadsMissesOnceAndCachesLocally() {
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.multiGet(anyList())).thenAnswer(invocation ->
+                Collections.nCopies(((List<?>) invocation.getArgument(0)).size(), null));
+
+        Map<Long, User> users = cache.getAll(List.of(1L, 2L, 3L));
+
+        assertEquals(Set.of(1L, 2L), users.keySet());
+        assertEquals(1, dbLoads.get());
+        verify(valueOperations).set(eq("entity:user:1"), same(users.get(1L)), any(Duration.class));
+        verify(valueOperations).set(eq("entity:user:2"), same(users.get(2L)), any(Duration.class));
+
+        assertEquals("alice", cache.get(1L).getUsername());
+        assertEquals(1, dbLoads.get());
+    }
+
+    @Test
+    @DisplayName("Redis命中时不查库")
+    void get_UsesRedisHit() {
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.multiGet(List.of("entity:user:1"))).thenReturn(
+                Collections.singletonList(user(1L, "cached")));
+
+        assertEquals("cached", cache.get(1L).getUsername());
+        assertEquals(0, dbLoads.get());
+    }
+
+    @Test
+    @DisplayName("Redis不可用时退化为查库")
+    void get_FallsBackWhenRedisFails() {
+        when(redisTemplate.opsForValue()).thenThrow(new RuntimeException("redis down"));
+
+        assertEquals("alice", cache.get(1L).getUsername());
+        assertEquals(1, dbLoads.get());
+    }
+
+    @Test
+    @DisplayName("失效后重新加载")
+    void evict_ForcesReload() {
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.multiGet(anyList())).thenReturn(Collections.singletonList(null));
+        cache.get(1L);
+
+        database.put(1L, user(1L, "alice2"));
+        cache.evict(1L);
+
+        verify(redisTemplate).delete("entity:user:1");
+        assertEquals("alice2", cache.get(1L).getUsername());
+        assertEquals(2, dbLoads.get());
+    }
+
+    @Test
+    @DisplayName("从仓库写操作参数中识别主键")
+    void keyOf_ExtractsIdFromWriteParameter() {
+        MapperMethod.ParamMap<Object> params = new MapperMethod.ParamMap<>();
+        params.put("et", user(7L, "x"));
+
+        assertEquals(7L, cache.keyOf(params));
+        assertEquals(8L, cache.keyOf(user(8L, "y")));
+        assertEquals(9L, cache.keyOf(9L));
+        assertEquals(10L, cache.keyOf(10));
+        MapperMethod.ParamMap<Object> custom = new MapperMethod.ParamMap<>();
+        custom.put("id", 11L);
+        assertEquals(11L, cache.keyOf(custom));
+        assertNull(cache.keyOf(new MapperMethod.ParamMap<>()));
+    }
+
+    @Test
+    @DisplayName("关闭后直接查库")
+    void get_BypassesWhenDisabled() {
+        config.setEnabled(false);
+
+        cache.get(1L);
+        cache.get(1L);
+
+        assertEquals(2, dbLoads.get());
+        verifyNoInteractions(redisTemplate);
+    }
+
+    private static User user(Long id, String username) {
+        User user = new User();
+        user.setId(id);
+        user.setUsername(username);
+        return user;
+    }
+}
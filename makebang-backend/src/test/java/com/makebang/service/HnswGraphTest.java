@@ -0,0 +1,115 @@
+package com.makebang.service;
+
+import com.makebang.service.embedding.HnswGraph;
+import com.makebang.service.embedding.MappedVectorStore;
+import com.makebang.service.embedding.VectorKernels;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * HnswGraph / MappedVectorStore 单元测试
+ */
+@DisplayName("进程内向量索引测试")
+class HnswGraphTest {
+
+    private static final int DIM = 32;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    @DisplayName("近邻召回率与精确检索接近")
+    void search_RecallCloseToExact() throws Exception {
+        Random random = new Random(7);
+        try (MappedVectorStore store = new MappedVectorStore(dir.resolve("vectors.bin"), DIM)) {
+            HnswGraph graph = new HnswGraph(store, 16, 100);
+            for (int i = 0; i < 2000; i++) {
+                graph.add(store.append(i, 0, randomUnit(random)));
+            }
+
+            double recall = 0;
+            int queries = 50;
+            for (int q = 0; q < queries; q++) {
+                float[] query = randomUnit(random);
+                Set<Integer> exact = exactTopK(store, query, 10);
+                Set<Integer> found = graph.search(query, 10, 64).stream()
+                        .map(HnswGraph.Neighbor::node)
+                        .collect(Collectors.toSet());
+                found.retainAll(exact);
+                recall += found.size() / 10.0;
+            }
+            assertTrue(recall / queries >= 0.9, "recall@10 = " + recall / queries);
+        }
+    }
+
+    @Test
+    @DisplayName("墓碑节点不出现在结果中")
+    void search_SkipsTombstones() throws Exception {
+        try (MappedVectorStore store = new MappedVectorStore(dir.resolve("vectors.bin"), DIM)) {
+            HnswGraph graph = new HnswGraph(store, 8, 32);
+            float[] target = randomUnit(new Random(1));
+            graph.add(store.append(100, 0, target));
+            for (int i = 1; i < 50; i++) {
+                graph.add(store.append(100 + i, 0, randomUnit(new Random(i + 1))));
+            }
+
+            assertEquals(0, graph.search(target, 1, 16).get(0).node());
+            store.tombstone(0);
+            assertNotEquals(0, graph.search(target, 1, 16).get(0).node());
+        }
+    }
+
+    @Test
+    @DisplayName("重新打开后数据和水位保留，压缩回收墓碑")
+    void store_ReopenAndCompact() throws Exception {
+        Path file = dir.resolve("vectors.bin");
+        float[] first = VectorKernels.normalize(new float[DIM]);
+        float[] second = randomUnit(new Random(3));
+        try (MappedVectorStore store = new MappedVectorStore(file, DIM)) {
+            store.append(1, 10, first);
+            store.append(2, 20, second);
+            store.tombstone(0);
+            store.setWatermark(20);
+        }
+
+        try (MappedVectorStore store = new MappedVectorStore(file, DIM)) {
+            assertEquals(2, store.size());
+            assertEquals(20, store.watermark());
+            assertEquals(1, store.compact());
+            assertEquals(1, store.size());
+            assertEquals(2, store.projectId(0));
+            assertEquals(20, store.stamp(0));
+            assertArrayEquals(second, store.read(0));
+            assertEquals(1.0f, store.dot(second, 0), 1e-5);
+        }
+
+        // 维度变化时清空
+        try (MappedVectorStore store = new MappedVectorStore(file, DIM * 2)) {
+            assertEquals(0, store.size());
+        }
+    }
+
+    private static Set<Integer> exactTopK(MappedVectorStore store, float[] query, int k) {
+        List<Integer> slots = new ArrayList<>();
+        for (int i = 0; i < store.size(); i++) {
+            slots.add(i);
+        }
+        slots.sort(Comparator.comparingDouble((Integer slot) -> store.dot(query, slot)).reversed());
+        return new HashSet<>(slots.subList(0, k));
+    }
+
+    private static float[] randomUnit(Random random) {
+        float[] vector = new float[DIM];
+        for (int i = 0; i < DIM; i++) {
+            vector[i] = (float) random.nextGaussian();
+        }
+        return VectorKernels.normalize(vector);
+    }
+}
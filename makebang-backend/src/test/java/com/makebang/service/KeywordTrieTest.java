@@ -0,0 +1,58 @@
+package com.makebang.service;
+
+import com.makebang.service.analytics.KeywordTrie;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * KeywordTrie 单元测试
+ */
+@DisplayName("关键词前缀树测试")
+class KeywordTrieTest {
+
+    @Test
+    @DisplayName("前缀联想按次数降序")
+    void complete_OrderedByCount() {
+        KeywordTrie trie = new KeywordTrie(5);
+        trie.add("java", 10);
+        trie.add("javascript", 30);
+        trie.add("jav", 1);
+        trie.add("python", 50);
+
+        assertEquals(List.of("javascript", "java", "jav"), trie.complete("ja", 10));
+        assertEquals(List.of("javascript"), trie.complete("javas", 10));
+        assertEquals(List.of("python", "javascript"), trie.complete("", 2));
+        assertTrue(trie.complete("go", 10).isEmpty());
+    }
+
+    @Test
+    @DisplayName("增量累加后重新排序")
+    void add_IncrementReorders() {
+        KeywordTrie trie = new KeywordTrie(5);
+        trie.add("小程序", 5);
+        trie.add("小游戏", 3);
+        assertEquals(List.of("小程序", "小游戏"), trie.complete("小", 10));
+
+        trie.add("小游戏", 4);
+        assertEquals(List.of("小游戏", "小程序"), trie.complete("小", 10));
+        assertEquals(2, trie.size());
+    }
+
+    @Test
+    @DisplayName("节点只保留topK个候选")
+    void complete_TruncatedToTopK() {
+        KeywordTrie trie = new KeywordTrie(2);
+        trie.add("a1", 1);
+        trie.add("a2", 2);
+        trie.add("a3", 3);
+
+        assertEquals(List.of("a3", "a2"), trie.complete("a", 10));
+
+        trie.add("a1", 5);
+        assertEquals(List.of("a1", "a3"), trie.complete("a", 10));
+    }
+}
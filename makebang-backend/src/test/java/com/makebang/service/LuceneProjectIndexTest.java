@@ -0,0 +1,123 @@
+package com.makebang.service;
+
+import com.makebang.config.SearchConfig;
+import com.makebang.entity.Project;
+import com.makebang.repository.ProjectRepository;
+import com.makebang.service.search.LuceneProjectIndex;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.store.FSDirectory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * LuceneProjectIndex 单元测试
+ */
+@DisplayName("Lucene项目索引测试")
+class LuceneProjectIndexTest {
+
+    @TempDir
+    Path indexDir;
+
+    private ProjectRepository projectRepository;
+    private LuceneProjectIndex index;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        // 预先提交一个空索引，避免启动时触发后台全量构建
+        try (FSDirectory directory = FSDirectory.open(indexDir);
+             IndexWriter writer = new IndexWriter(directory, new IndexWriterConfig())) {
+            writer.commit();
+        }
+
+        SearchConfig config = new SearchConfig();
+        config.setIndexPath(indexDir.toString());
+        projectRepository = mock(ProjectRepository.class);
+        index = new LuceneProjectIndex(projectRepository, config, new SimpleMeterRegistry());
+        index.init();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        index.destroy();
+    }
+
+    @Test
+    @DisplayName("中文关键词按相关度检索，并返回分面统计")
+    void search_ChineseKeywordWithFacets() throws Exception {
+        index.update(project(1L, "微信小程序开发", "需要一个商城小程序", 1, List.of("Vue", "小程序"), 1000, 5000));
+        index.update(project(2L, "企业官网", "官网需要对接微信支付，做一个简单的小程序入口", 2, List.of("React"), 3000, 8000));
+        index.update(project(3L, "数据分析脚本", "Python 处理报表", 3, List.of("Python"), 500, 1000));
+
+        LuceneProjectIndex.Hits hits = index.search("小程序", null, null, null, 0, 10);
+
+        assertEquals(2, hits.total());
+        assertEquals(List.of(1L, 2L), hits.projectIds());
+        assertEquals(1L, hits.facets().get(LuceneProjectIndex.FACET_CATEGORY).get("1"));
+        assertEquals(1L, hits.facets().get(LuceneProjectIndex.FACET_CATEGORY).get("2"));
+        assertEquals(1L, hits.facets().get(LuceneProjectIndex.FACET_SKILL).get("Vue"));
+        assertNull(hits.facets().get(LuceneProjectIndex.FACET_SKILL).get("Python"));
+    }
+
+    @Test
+    @DisplayName("分类和预算过滤，关闭的项目移出索引")
+    void search_FiltersAndRemovesClosedProjects() throws Exception {
+        index.update(project(1L, "Java 后端开发", "Spring Boot 接口", 1, List.of("Java"), 1000, 5000));
+        index.update(project(2L, "Java 爬虫", "抓取公开数据", 2, List.of("Java"), 8000, 20000));
+
+        assertEquals(List.of(1L), index.search("java", null, null, 6000, 0, 10).projectIds());
+        assertEquals(List.of(2L), index.search("java", 2L, null, null, 0, 10).projectIds());
+        assertEquals(Set.of(2L), index.filter(List.of(1L, 2L, 9L), null, 6000, null));
+
+        Project closed = project(1L, "Java 后端开发", "Spring Boot 接口", 1, List.of("Java"), 1000, 5000);
+        closed.setStatus(Project.Status.CLOSED.code);
+        index.update(closed);
+
+        assertEquals(List.of(2L), index.search("java", null, null, null, 0, 10).projectIds());
+    }
+
+    @Test
+    @DisplayName("全量重建写入数据库中的项目并删除已不存在的文档")
+    void rebuild_ReplacesStaleDocuments() throws Exception {
+        index.update(project(1L, "旧项目", "已在数据库中关闭", 1, null, 100, 200));
+        when(projectRepository.selectList(any()))
+                .thenReturn(List.of(project(2L, "新项目", "数据库中开放", 1, null, 100, 200)))
+                .thenReturn(Collections.emptyList());
+
+        assertEquals(1, index.rebuild());
+
+        LuceneProjectIndex.Hits hits = index.search(null, null, null, null, 0, 10);
+        assertEquals(1, hits.total());
+        assertEquals(List.of(2L), hits.projectIds());
+    }
+
+    private static Project project(Long id, String title, String description, Integer categoryId,
+                                   List<String> skills, int budgetMin, int budgetMax) {
+        Project project = new Project();
+        project.setId(id);
+        project.setTitle(title);
+        project.setDescription(description);
+        project.setCategoryId(categoryId);
+        project.setSkillRequirements(skills);
+        project.setBudgetMin(BigDecimal.valueOf(budgetMin));
+        project.setBudgetMax(BigDecimal.valueOf(budgetMax));
+        project.setStatus(Project.Status.OPEN.code);
+        project.setCreatedAt(LocalDateTime.now().minusDays(id));
+        return project;
+    }
+}
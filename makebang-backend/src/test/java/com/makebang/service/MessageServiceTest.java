@@ -0,0 +1,321 @@
+package com.makebang.service;
+
+import com.makebang.common.exception.BusinessException;
+import com.makebang.common.result.CursorPageResult;
+import com.makebang.dto.message.SendMessageRequest;
+import com.makebang.entity.Conversation;
+import com.makebang.entity.Message;
+import com.makebang.entity.Notification;
+import com.makebang.entity.User;
+import com.makebang.repository.ConversationRepository;
+import com.makebang.repository.MessageRepository;
+import com.makebang.repository.NotificationRepository;
+import com.makebang.repository.OrderRepository;
+import com.makebang.repository.ProjectRepository;
+import com.makebang.security.LoginUser;
+import com.makebang.security.StreamTicketService;
+import com.makebang.service.assembler.UserSummaryLoader;
+import com.makebang.service.counter.UnreadCounter;
+import com.makebang.service.impl.MessageServiceImpl;
+import com.makebang.util.CursorUtils;
+import com.makebang.vo.MessageVO;
+import com.makebang.vo.NotificationVO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * MessageService 单元测试
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("消息服务测试")
+class MessageServiceTest {
+
+    private static final LocalDateTime TIME = LocalDateTime.of(2024, 5, 1, 12, 0);
+
+    @Mock
+    private MessageRepository messageRepository;
+
+    @Mock
+    private ConversationRepository conversationRepository;
+
+    @Mock
+    private NotificationRepository notificationRepository;
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private ProjectRepository projectRepository;
+
+    @Mock
+    private UserSummaryLoader userSummaryLoader;
+
+    @Mock
+    private PushService pushService;
+
+    @Mock
+    private UnreadCounter unreadCounter;
+
+    @Mock
+    private StreamTicketService streamTicketService;
+
+    @InjectMocks
+    private MessageServiceImpl messageService;
+
+    @BeforeEach
+    void setUp() {
+        User user = new User();
+        user.setId(1L);
+        user.setUsername("user");
+        user.setPassword("password");
+        user.setRole(0);
+        user.setStatus(1);
+
+        Authentication authentication = mock(Authentication.class);
+        SecurityContext securityContext = mock(SecurityContext.class);
+        lenient().when(securityContext.getAuthentication()).thenReturn(authentication);
+        lenient().when(authentication.isAuthenticated()).thenReturn(true);
+        lenient().when(authentication.getPrincipal()).thenReturn(LoginUser.of(user));
+        SecurityContextHolder.setContext(securityContext);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    // ========== 游标分页 ==========
+
+    @Test
+    @DisplayName("通知游标分页 - 首页多查一条判断是否有下一页")
+    void getNotificationsByCursor_FirstPage() {
+        when(notificationRepository.findByUserIdAfterCursor(1L, null, null, null, 3))
+                .thenReturn(List.of(notification(9L), notification(8L), notification(7L)));
+
+        CursorPageResult<NotificationVO> result = messageService.getNotificationsByCursor(null, null, 2);
+
+        assertTrue(result.isHasMore());
+        assertEquals(List.of(9L, 8L), result.getRecords().stream().map(NotificationVO::getId).toList());
+        assertEquals(new CursorUtils.Position(TIME, 8L), CursorUtils.decode(result.getNextCursor()));
+    }
+
+    @Test
+    @DisplayName("通知游标分页 - 按游标中的时间和ID继续查询")
+    void getNotificationsByCursor_NextPage() {
+        when(notificationRepository.findByUserIdAfterCursor(1L, 2, TIME, 8L, 3))
+                .thenReturn(List.of(notification(7L)));
+
+        CursorPageResult<NotificationVO> result =
+                messageService.getNotificationsByCursor(2, CursorUtils.encode(TIME, 8L), 2);
+
+        assertFalse(result.isHasMore());
+        assertNull(result.getNextCursor());
+        assertEquals(1, result.getRecords().size());
+    }
+
+    @Test
+    @DisplayName("通知游标分页 - 非法游标不查询")
+    void getNotificationsByCursor_InvalidCursor() {
+        assertThrows(BusinessException.class,
+                () -> messageService.getNotificationsByCursor(null, "not-a-cursor", 20));
+
+        verifyNoInteractions(notificationRepository);
+    }
+
+    @Test
+    @DisplayName("会话消息游标分页 - 校验参与者后按游标查询，每页数量有上限")
+    void getConversationMessagesByCursor_ChecksParticipantAndClampsSize() {
+        when(conversationRepository.selectById(5L)).thenReturn(conversation(5L, 1L, 2L));
+        List<Message> rows = new ArrayList<>();
+        for (long id = 200; id > 200 - CursorUtils.MAX_SIZE - 1; id--) {
+            rows.add(message(id, 5L, 2L, 1L));
+        }
+        when(messageRepository.findByConversationIdAfterCursor(5L, TIME, 300L, CursorUtils.MAX_SIZE + 1))
+                .thenReturn(rows);
+        when(userSummaryLoader.getAll(anyCollection())).thenReturn(Map.of());
+
+        CursorPageResult<MessageVO> result =
+                messageService.getConversationMessagesByCursor(5L, CursorUtils.encode(TIME, 300L), 1000);
+
+        assertEquals(CursorUtils.MAX_SIZE, result.getRecords().size());
+        assertTrue(result.isHasMore());
+        assertEquals(new CursorUtils.Position(TIME, 101L), CursorUtils.decode(result.getNextCursor()));
+    }
+
+    @Test
+    @DisplayName("会话消息游标分页 - 非参与者无权访问")
+    void getConversationMessagesByCursor_RejectsOutsider() {
+        when(conversationRepository.selectById(5L)).thenReturn(conversation(5L, 2L, 3L));
+
+        assertThrows(BusinessException.class,
+                () -> messageService.getConversationMessagesByCursor(5L, null, 20));
+
+        verifyNoInteractions(messageRepository);
+    }
+
+    // ========== 未读计数 ==========
+
+    @Test
+    @DisplayName("会话标为已读 - 按实际更新的条数扣减未读消息数，并清空会话未读")
+    void markConversationAsRead_DecrementsByUpdatedRows() {
+        when(conversationRepository.selectById(5L)).thenReturn(conversation(5L, 2L, 1L));
+        when(messageRepository.markAsReadByConversation(5L, 1L)).thenReturn(3);
+
+        messageService.markConversationAsRead(5L);
+
+        verify(unreadCounter).addMessages(1L, -3);
+        verify(conversationRepository).clearParticipant2Unread(5L);
+        verify(conversationRepository, never()).clearParticipant1Unread(anyLong());
+    }
+
+    @Test
+    @DisplayName("通知全部已读 - 扣减未读通知数")
+    void markAllNotificationsAsRead_ResetsNotificationCount() {
+        when(notificationRepository.markAllAsRead(1L)).thenReturn(4);
+
+        messageService.markAllNotificationsAsRead();
+
+        verify(unreadCounter).addNotifications(1L, -4);
+    }
+
+    @Test
+    @DisplayName("发送通知 - 累加接收者未读通知数并推送")
+    void sendNotification_IncrementsUnread() {
+        messageService.sendNotification(7L, 1, "标题", "内容", "order", 3L, "/orders/3");
+
+        verify(notificationRepository).insert(any(Notification.class));
+        verify(unreadCounter).addNotifications(7L, 1);
+        verify(pushService).push(eq(7L), eq("notification"), any(NotificationVO.class));
+    }
+
+    @Test
+    @DisplayName("未读数从计数器读取")
+    void getUnreadCount_ReadsCounter() {
+        when(unreadCounter.get(1L)).thenReturn(new UnreadCounter.Counts(3, 2));
+
+        assertEquals(3, messageService.getUnreadCount());
+        assertEquals(2, messageService.getUnreadNotificationCount());
+        verifyNoInteractions(messageRepository, notificationRepository);
+    }
+
+    // ========== 发送消息 ==========
+
+    @Test
+    @DisplayName("发送消息 - 已有私聊会话时直接写入，消息和会话在一条语句中更新")
+    void sendMessage_ExistingConversation() {
+        when(conversationRepository.findPrivateConversation(1L, 2L)).thenReturn(conversation(5L, 2L, 1L));
+        when(messageRepository.insertAndUpdateConversation(any(Message.class), anyString())).thenReturn(100L);
+        when(userSummaryLoader.getAll(anyCollection())).thenReturn(Map.of());
+
+        MessageVO vo = messageService.sendMessage(request(2L, "你好"));
+
+        assertEquals(100L, vo.getId());
+        assertEquals(5L, vo.getConversationId());
+        assertTrue(vo.getIsSelf());
+        verify(conversationRepository, never()).insertPrivateIfAbsent(anyLong(), anyLong());
+        verify(messageRepository).insertAndUpdateConversation(argThat(m -> m.getConversationId().equals(5L)
+                && m.getSenderId().equals(1L) && m.getReceiverId().equals(2L)), eq("你好"));
+        verify(unreadCounter).addMessages(2L, 1);
+        verify(pushService).push(eq(2L), eq("message"), any(MessageVO.class));
+    }
+
+    @Test
+    @DisplayName("发送消息 - 没有会话时插入新会话，会话摘要截断到100字")
+    void sendMessage_CreatesConversation() {
+        Conversation created = conversation(6L, 1L, 2L);
+        when(conversationRepository.findPrivateConversation(1L, 2L)).thenReturn(null);
+        when(conversationRepository.insertPrivateIfAbsent(1L, 2L)).thenReturn(created);
+        when(messageRepository.insertAndUpdateConversation(any(Message.class), anyString())).thenReturn(101L);
+        when(userSummaryLoader.getAll(anyCollection())).thenReturn(Map.of());
+
+        String content = "长".repeat(150);
+        messageService.sendMessage(request(2L, content));
+
+        ArgumentCaptor<Message> message = ArgumentCaptor.forClass(Message.class);
+        ArgumentCaptor<String> lastContent = ArgumentCaptor.forClass(String.class);
+        verify(messageRepository).insertAndUpdateConversation(message.capture(), lastContent.capture());
+        assertEquals(6L, message.getValue().getConversationId());
+        assertEquals(content, message.getValue().getContent());
+        assertEquals("长".repeat(100) + "...", lastContent.getValue());
+        verify(conversationRepository, times(1)).findPrivateConversation(1L, 2L);
+    }
+
+    @Test
+    @DisplayName("发送消息 - 并发创建会话冲突时读取对方插入的会话")
+    void sendMessage_ConcurrentConversationCreate() {
+        when(conversationRepository.findPrivateConversation(1L, 2L))
+                .thenReturn(null)
+                .thenReturn(conversation(7L, 2L, 1L));
+        when(conversationRepository.insertPrivateIfAbsent(1L, 2L)).thenReturn(null);
+        when(messageRepository.insertAndUpdateConversation(any(Message.class), anyString())).thenReturn(102L);
+        when(userSummaryLoader.getAll(anyCollection())).thenReturn(Map.of());
+
+        MessageVO vo = messageService.sendMessage(request(2L, "hi"));
+
+        assertEquals(7L, vo.getConversationId());
+        verify(conversationRepository, times(2)).findPrivateConversation(1L, 2L);
+        verify(conversationRepository, never()).insert(any(Conversation.class));
+    }
+
+    @Test
+    @DisplayName("发送消息 - 不能发给自己")
+    void sendMessage_RejectsSelf() {
+        assertThrows(BusinessException.class, () -> messageService.sendMessage(request(1L, "hi")));
+
+        verifyNoInteractions(conversationRepository, messageRepository, unreadCounter);
+    }
+
+    private static SendMessageRequest request(Long receiverId, String content) {
+        SendMessageRequest request = new SendMessageRequest();
+        request.setReceiverId(receiverId);
+        request.setContent(content);
+        return request;
+    }
+
+    private static Notification notification(Long id) {
+        Notification notification = new Notification();
+        notification.setId(id);
+        notification.setType(1);
+        notification.setCreatedAt(TIME);
+        return notification;
+    }
+
+    private static Message message(Long id, Long conversationId, Long senderId, Long receiverId) {
+        Message message = new Message();
+        message.setId(id);
+        message.setConversationId(conversationId);
+        message.setSenderId(senderId);
+        message.setReceiverId(receiverId);
+        message.setType(1);
+        message.setContent("hi");
+        message.setCreatedAt(TIME);
+        return message;
+    }
+
+    private static Conversation conversation(Long id, Long participant1Id, Long participant2Id) {
+        Conversation conversation = new Conversation();
+        conversation.setId(id);
+        conversation.setParticipant1Id(participant1Id);
+        conversation.setParticipant2Id(participant2Id);
+        return conversation;
+    }
+}
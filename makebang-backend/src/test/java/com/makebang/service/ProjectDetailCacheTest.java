@@ -0,0 +1,201 @@
+package com.makebang.service;
+
+import com.makebang.common.exception.BusinessException;
+import com.makebang.config.ProjectCacheConfig;
+import com.makebang.entity.Project;
+import com.makebang.repository.ProjectRepository;
+import com.makebang.service.assembler.ProjectAssembler;
+import com.makebang.service.cache.ProjectDetailCache;
+import com.makebang.vo.ProjectVO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * ProjectDetailCache 单元测试
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("项目详情缓存测试")
+class ProjectDetailCacheTest {
+
+    @Mock
+    private ProjectRepository projectRepository;
+
+    @Mock
+    private ProjectAssembler projectAssembler;
+
+    private ProjectCacheConfig config;
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        config = new ProjectCacheConfig();
+        config.setDetailTtl(60_000);
+        config.setDetailRefreshAfter(60_000);
+    }
+
+    @Test
+    @DisplayName("同一项目的并发请求只加载一次")
+    void get_CoalescesConcurrentLoads() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(projectRepository.selectById(1L)).thenAnswer(invocation -> {
+            loading.countDown();
+            await(release);
+            return project(1L);
+        });
+        stubAssembler();
+        ProjectDetailCache cache = newCache();
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<ProjectVO>> results = new ArrayList<>();
+            results.add(executor.submit(() -> cache.get(1L)));
+            assertTrue(loading.await(5, TimeUnit.SECONDS));
+            for (int i = 0; i < 7; i++) {
+                results.add(executor.submit(() -> cache.get(1L)));
+            }
+            Thread.sleep(50);
+            release.countDown();
+
+            for (Future<ProjectVO> result : results) {
+                assertEquals(1, result.get(5, TimeUnit.SECONDS).getViewCount());
+            }
+            verify(projectRepository, times(1)).selectById(1L);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("失效后重新加载")
+    void invalidate_ForcesReload() {
+        when(projectRepository.selectById(1L)).thenReturn(project(1L));
+        stubAssembler();
+        ProjectDetailCache cache = newCache();
+
+        assertEquals(1, cache.get(1L).getViewCount());
+        assertEquals(1, cache.get(1L).getViewCount());
+
+        cache.invalidate(1L);
+
+        assertEquals(2, cache.get(1L).getViewCount());
+    }
+
+    @Test
+    @DisplayName("加载期间被失效时结果不保留")
+    void invalidate_DuringLoadDiscardsResult() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(projectRepository.selectById(1L))
+                .thenAnswer(invocation -> {
+                    loading.countDown();
+                    await(release);
+                    return project(1L);
+                })
+                .thenReturn(project(1L));
+        stubAssembler();
+        ProjectDetailCache cache = newCache();
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<ProjectVO> stale = executor.submit(() -> cache.get(1L));
+            assertTrue(loading.await(5, TimeUnit.SECONDS));
+            Future<?> invalidated = executor.submit(() -> cache.invalidate(1L));
+            Thread.sleep(50);
+            release.countDown();
+
+            assertEquals(1, stale.get(5, TimeUnit.SECONDS).getViewCount());
+            invalidated.get(5, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(2, cache.get(1L).getViewCount());
+    }
+
+    @Test
+    @DisplayName("项目不存在时抛出异常且不缓存")
+    void get_DoesNotCacheMissingProject() {
+        when(projectRepository.selectById(1L)).thenReturn(null).thenReturn(project(1L));
+        stubAssembler();
+        ProjectDetailCache cache = newCache();
+
+        assertThrows(BusinessException.class, () -> cache.get(1L));
+
+        assertEquals(1, cache.get(1L).getViewCount());
+    }
+
+    @Test
+    @DisplayName("到达刷新时间后先返回旧值，后台刷新完成后返回新值")
+    void get_RefreshesInBackgroundAfterWrite() throws Exception {
+        config.setDetailRefreshAfter(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(projectRepository.selectById(1L))
+                .thenReturn(project(1L))
+                .thenAnswer(invocation -> {
+                    await(release);
+                    return project(1L);
+                });
+        stubAssembler();
+        ProjectDetailCache cache = newCache();
+
+        assertEquals(1, cache.get(1L).getViewCount());
+        Thread.sleep(5);
+        assertEquals(1, cache.get(1L).getViewCount());
+        assertEquals(1, cache.get(1L).getViewCount());
+        release.countDown();
+
+        long deadline = System.currentTimeMillis() + 2000;
+        while (cache.get(1L).getViewCount() == 1) {
+            assertTrue(System.currentTimeMillis() < deadline, "等待刷新超时");
+            Thread.sleep(10);
+        }
+        verify(projectRepository, atLeast(2)).selectById(1L);
+    }
+
+    private ProjectDetailCache newCache() {
+        return new ProjectDetailCache(projectRepository, projectAssembler, config, new SimpleMeterRegistry());
+    }
+
+    /**
+     * 每次组装返回递增的浏览量，用于区分加载次数
+     */
+    private void stubAssembler() {
+        when(projectAssembler.toVO(any(Project.class))).thenAnswer(invocation -> ProjectVO.builder()
+                .id(invocation.<Project>getArgument(0).getId())
+                .viewCount(loads.incrementAndGet())
+                .build());
+    }
+
+    private static Project project(Long id) {
+        Project project = new Project();
+        project.setId(id);
+        return project;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
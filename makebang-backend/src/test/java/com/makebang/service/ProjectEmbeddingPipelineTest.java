@@ -0,0 +1,135 @@
+package com.makebang.service;
+
+import com.makebang.config.EmbeddingConfig;
+import com.makebang.repository.ProjectEmbeddingRepository;
+import com.makebang.service.embedding.LocalVectorIndex;
+import com.makebang.service.embedding.ProjectEmbeddingPipeline;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * ProjectEmbeddingPipeline 单元测试
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("项目向量生成管道测试")
+class ProjectEmbeddingPipelineTest {
+
+    @Mock
+    private EmbeddingService embeddingService;
+
+    @Mock
+    private ProjectEmbeddingRepository embeddingRepository;
+
+    @Mock
+    private ObjectProvider<LocalVectorIndex> localVectorIndex;
+
+    private SimpleMeterRegistry registry;
+    private ProjectEmbeddingPipeline pipeline;
+
+    @BeforeEach
+    void setUp() {
+        EmbeddingConfig config = new EmbeddingConfig();
+        config.setBatchSize(2);
+        config.setConcurrency(1);
+        registry = new SimpleMeterRegistry();
+        pipeline = new ProjectEmbeddingPipeline(embeddingService, embeddingRepository, config,
+                localVectorIndex, registry);
+        pipeline.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        pipeline.destroy();
+    }
+
+    @Test
+    @DisplayName("内容未变化时不请求向量，只推进更新时间")
+    void process_UnchangedContentOnlyTouched() {
+        ProjectEmbeddingRepository.StaleProject project = project(1L, "标题", null);
+        project.setContentHash(hashOf(project));
+
+        assertEquals(0, pipeline.process(List.of(project)));
+
+        verify(embeddingRepository).touchUnchanged(List.of(1L));
+        verifyNoInteractions(embeddingService);
+        verify(embeddingRepository, never()).batchUpsertEmbeddings(any());
+        assertEquals(1, count("unchanged"));
+    }
+
+    @Test
+    @DisplayName("内容变化的项目按批生成向量并一次写入")
+    @SuppressWarnings("unchecked")
+    void process_ChangedContentEmbeddedInBatches() {
+        ProjectEmbeddingRepository.StaleProject unchanged = project(1L, "未变", null);
+        unchanged.setContentHash(hashOf(unchanged));
+        ProjectEmbeddingRepository.StaleProject first = project(2L, "新项目", "旧哈希");
+        ProjectEmbeddingRepository.StaleProject second = project(3L, "改过的项目", "旧哈希");
+        when(embeddingService.generateEmbeddings(anyList()))
+                .thenReturn(List.of(new float[]{1f}, new float[]{2f}));
+
+        assertEquals(2, pipeline.process(List.of(unchanged, first, second)));
+
+        verify(embeddingRepository).touchUnchanged(List.of(1L));
+        ArgumentCaptor<List<String>> texts = ArgumentCaptor.forClass(List.class);
+        verify(embeddingService).generateEmbeddings(texts.capture());
+        assertEquals(2, texts.getValue().size());
+        assertTrue(texts.getValue().get(0).startsWith("新项目"));
+
+        ArgumentCaptor<List<ProjectEmbeddingRepository.VectorRow>> rows = ArgumentCaptor.forClass(List.class);
+        verify(embeddingRepository).batchUpsertEmbeddings(rows.capture());
+        assertEquals(List.of(2L, 3L), rows.getValue().stream()
+                .map(ProjectEmbeddingRepository.VectorRow::getProjectId)
+                .toList());
+        assertEquals(hashOf(second), rows.getValue().get(1).getContentHash());
+        assertEquals(2, count("embedded"));
+    }
+
+    @Test
+    @DisplayName("返回向量数与请求不符时整批放弃，留待下次重试")
+    void process_BatchSizeMismatchSkipsWrite() {
+        when(embeddingService.generateEmbeddings(anyList())).thenReturn(List.of(new float[]{1f}));
+
+        assertEquals(0, pipeline.process(List.of(project(2L, "甲", null), project(3L, "乙", null))));
+
+        verify(embeddingRepository, never()).batchUpsertEmbeddings(any());
+        verify(embeddingRepository, never()).touchUnchanged(any());
+        assertEquals(2, count("failed"));
+        assertEquals(0, count("embedded"));
+    }
+
+    private static ProjectEmbeddingRepository.StaleProject project(Long id, String title, String contentHash) {
+        ProjectEmbeddingRepository.StaleProject project = new ProjectEmbeddingRepository.StaleProject();
+        project.setProjectId(id);
+        project.setTitle(title);
+        project.setDescription("描述");
+        project.setSkillRequirements(List.of("Java"));
+        project.setContentHash(contentHash);
+        return project;
+    }
+
+    private static String hashOf(ProjectEmbeddingRepository.StaleProject project) {
+        String content = ProjectEmbeddingPipeline.buildContent(
+                project.getTitle(), project.getDescription(), project.getSkillRequirements());
+        return DigestUtils.md5DigestAsHex(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private double count(String result) {
+        return registry.get("makebang.embedding.projects").tag("result", result).counter().count();
+    }
+}
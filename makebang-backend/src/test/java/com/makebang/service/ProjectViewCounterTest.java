@@ -0,0 +1,107 @@
+package com.makebang.service;
+
+import com.makebang.config.ProjectViewConfig;
+import com.makebang.repository.ProjectRepository;
+import com.makebang.service.cache.EntityCacheManager;
+import com.makebang.service.counter.ProjectViewCounter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.HyperLogLogOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * ProjectViewCounter 单元测试
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("项目浏览计数测试")
+class ProjectViewCounterTest {
+
+    @Mock
+    private ProjectRepository projectRepository;
+
+    @Mock
+    private EntityCacheManager entityCacheManager;
+
+    @Mock
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Mock
+    private HyperLogLogOperations<String, String> hyperLogLogOperations;
+
+    private ProjectViewConfig config;
+    private ProjectViewCounter counter;
+
+    @BeforeEach
+    void setUp() {
+        config = new ProjectViewConfig();
+        counter = new ProjectViewCounter(projectRepository, entityCacheManager, stringRedisTemplate, config,
+                new SimpleMeterRegistry());
+    }
+
+    @Test
+    @DisplayName("浏览量合并后按项目ID顺序一条语句写出")
+    @SuppressWarnings("unchecked")
+    void flush_BatchesViewsInIdOrder() {
+        when(stringRedisTemplate.opsForHyperLogLog()).thenReturn(hyperLogLogOperations);
+        counter.record(2L, "u:1");
+        counter.record(2L, "u:1");
+        counter.record(2L, "ip:10.0.0.1");
+        counter.record(1L, null);
+        assertEquals(3, counter.pending(2L));
+
+        assertEquals(4, counter.flush());
+
+        ArgumentCaptor<List<ProjectRepository.ViewDelta>> captor = ArgumentCaptor.forClass(List.class);
+        verify(projectRepository).batchIncrementViewCount(captor.capture());
+        assertEquals(List.of(new ProjectRepository.ViewDelta(1L, 1), new ProjectRepository.ViewDelta(2L, 3)),
+                captor.getValue());
+        verify(entityCacheManager).evictProjects(List.of(1L, 2L));
+        verify(hyperLogLogOperations).add(eq("project:viewers:2"), any(String[].class));
+        verify(hyperLogLogOperations, never()).add(eq("project:viewers:1"), any(String[].class));
+        assertEquals(0, counter.pending(2L));
+
+        // 没有新浏览时不写库
+        assertEquals(0, counter.flush());
+        verifyNoMoreInteractions(projectRepository);
+    }
+
+    @Test
+    @DisplayName("写库失败时增量放回，下次重试")
+    void flush_RetriesAfterFailure() {
+        counter.record(1L, null);
+        counter.record(1L, null);
+        doThrow(new RuntimeException("db down")).doReturn(1)
+                .when(projectRepository).batchIncrementViewCount(anyList());
+
+        assertEquals(0, counter.flush());
+        assertEquals(2, counter.pending(1L));
+        verifyNoInteractions(entityCacheManager);
+        assertEquals(2, counter.flush());
+        assertEquals(0, counter.pending(1L));
+    }
+
+    @Test
+    @DisplayName("待写出访客超出上限后只计浏览量")
+    void record_DropsViewersOverCapacity() {
+        config.setMaxPendingViewers(1);
+        counter.record(1L, "u:1");
+        counter.record(1L, "u:2");
+
+        assertEquals(2, counter.pending(1L));
+        when(stringRedisTemplate.opsForHyperLogLog()).thenReturn(hyperLogLogOperations);
+        counter.flush();
+        verify(hyperLogLogOperations).add("project:viewers:1", "u:1");
+    }
+}
@@ -0,0 +1,124 @@
+package com.makebang.service;
+
+import com.makebang.config.PushConfig;
+import com.makebang.service.push.PushHub;
+import com.makebang.service.push.PushMessage;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * PushHub 单元测试
+ * 未绑定响应的 SseEmitter 会暂存发送内容，完成后再发送则抛出异常，借此观察投递和清理
+ */
+@DisplayName("本节点推送中心测试")
+class PushHubTest {
+
+    private PushConfig config;
+    private SimpleMeterRegistry registry;
+    private PushHub hub;
+
+    @BeforeEach
+    void setUp() {
+        config = new PushConfig();
+        config.setHeartbeatInterval(20);
+        config.setMaxConnectionsPerUser(2);
+        config.setSenderThreads(2);
+        registry = new SimpleMeterRegistry();
+        hub = new PushHub(config, registry);
+        hub.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        hub.destroy();
+    }
+
+    @Test
+    @DisplayName("事件投递到该用户的所有连接")
+    void deliver_FansOutToAllConnectionsOfUser() throws Exception {
+        hub.subscribe(1L);
+        hub.subscribe(1L);
+        hub.subscribe(2L);
+
+        hub.deliver(message(1L));
+        hub.deliver(message(3L));
+
+        await(() -> events("delivered") == 2);
+        Thread.sleep(50);
+        assertEquals(2, events("delivered"));
+        assertEquals(3, connections());
+    }
+
+    @Test
+    @DisplayName("心跳发现已关闭的连接并移除")
+    void heartbeat_RemovesClosedConnection() {
+        SseEmitter closed = hub.subscribe(1L);
+        hub.subscribe(2L);
+        assertEquals(2, connections());
+
+        closed.complete();
+
+        await(() -> connections() == 1);
+        assertEquals(0, events("delivered"));
+    }
+
+    @Test
+    @DisplayName("超出单用户连接数时关闭最早的连接，发送失败的连接被清理")
+    void subscribe_EvictsOldestAndCleansUpFailedConnection() {
+        SseEmitter oldest = hub.subscribe(1L);
+        SseEmitter second = hub.subscribe(1L);
+        hub.subscribe(1L);
+        assertEquals(2, connections());
+        assertThrows(IllegalStateException.class, () -> oldest.send("x"));
+
+        second.complete();
+        hub.deliver(message(1L));
+
+        await(() -> connections() == 1 && events("delivered") == 1);
+    }
+
+    @Test
+    @DisplayName("发送线程池拒绝任务时丢弃事件并计数")
+    void deliver_DropsWhenSenderRejects() {
+        hub.destroy();
+        hub.subscribe(1L);
+
+        hub.deliver(message(1L));
+
+        assertEquals(1, events("dropped"));
+        assertEquals(0, events("delivered"));
+    }
+
+    private static PushMessage message(Long userId) {
+        return new PushMessage(userId, PushMessage.Type.MESSAGE.code, "{}");
+    }
+
+    private double events(String result) {
+        return registry.get("makebang.push.events").tag("result", result).counter().count();
+    }
+
+    private double connections() {
+        return registry.get("makebang.push.connections").gauge().value();
+    }
+
+    private static void await(BooleanSupplier condition) {
+        long deadline = System.currentTimeMillis() + 2000;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "等待超时");
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                fail(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.makebang.service;
+
+import com.makebang.config.EmbeddingConfig;
+import com.makebang.service.embedding.QueryEmbeddingCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * QueryEmbeddingCache 单元测试
+ */
+@DisplayName("查询向量缓存测试")
+class QueryEmbeddingCacheTest {
+
+    private EmbeddingService embeddingService;
+    private SimpleMeterRegistry meterRegistry;
+    private QueryEmbeddingCache cache;
+
+    @BeforeEach
+    void setUp() {
+        embeddingService = mock(EmbeddingService.class);
+        // Redis 未命中且写入无效果
+        StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new QueryEmbeddingCache(embeddingService, redisTemplate, new EmbeddingConfig(), meterRegistry);
+    }
+
+    @Test
+    @DisplayName("规范化后相同的查询只请求一次上游")
+    void get_NormalizedQueryHitsLocalCache() {
+        when(embeddingService.generateEmbedding("java 后端开发")).thenReturn(new float[]{1f, 2f});
+
+        float[] first = cache.get("  Java   后端开发 ");
+        float[] second = cache.get("java 后端开发");
+
+        assertArrayEquals(new float[]{1f, 2f}, first);
+        assertSame(first, second);
+        verify(embeddingService, times(1)).generateEmbedding(anyString());
+        assertEquals(1, meterRegistry.get("cache.gets").tag("cache", "embedding.query").tag("result", "hit")
+                .functionCounter().count());
+    }
+
+    @Test
+    @DisplayName("上游失败不缓存")
+    void get_UpstreamFailureNotCached() {
+        when(embeddingService.generateEmbedding("python")).thenReturn(null).thenReturn(new float[]{3f});
+
+        assertNull(cache.get("python"));
+        assertArrayEquals(new float[]{3f}, cache.get("python"));
+        verify(embeddingService, times(2)).generateEmbedding("python");
+    }
+
+    @Test
+    @DisplayName("并发未命中合并为一次上游请求")
+    void get_ConcurrentMissesCoalesced() throws Exception {
+        CountDownLatch upstreamStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(embeddingService.generateEmbedding("golang")).thenAnswer(invocation -> {
+            upstreamStarted.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return new float[]{4f};
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            Future<float[]> leader = executor.submit(() -> cache.get("golang"));
+            assertTrue(upstreamStarted.await(5, TimeUnit.SECONDS));
+            Future<float[]> follower1 = executor.submit(() -> cache.get("golang"));
+            Future<float[]> follower2 = executor.submit(() -> cache.get("GoLang"));
+            Thread.sleep(100);
+            release.countDown();
+
+            assertArrayEquals(new float[]{4f}, leader.get(5, TimeUnit.SECONDS));
+            assertArrayEquals(new float[]{4f}, follower1.get(5, TimeUnit.SECONDS));
+            assertArrayEquals(new float[]{4f}, follower2.get(5, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+        verify(embeddingService, times(1)).generateEmbedding("golang");
+    }
+}
@@ -0,0 +1,88 @@
+package com.makebang.service;
+
+import com.makebang.config.SearchAnalyticsConfig;
+import com.makebang.entity.HotKeyword;
+import com.makebang.repository.HotKeywordRepository;
+import com.makebang.repository.SearchHistoryRepository;
+import com.makebang.service.analytics.SearchAnalyticsCollector;
+import com.makebang.service.analytics.SearchAnalyticsFlusher;
+import com.makebang.service.analytics.SearchSuggestionIndex;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * SearchAnalyticsFlusher 单元测试
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("搜索事件刷写测试")
+class SearchAnalyticsFlusherTest {
+
+    @Mock
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Mock
+    private SearchHistoryRepository searchHistoryRepository;
+
+    @Mock
+    private HotKeywordRepository hotKeywordRepository;
+
+    @Mock
+    private SearchSuggestionIndex suggestionIndex;
+
+    private SearchAnalyticsCollector collector;
+    private SearchAnalyticsFlusher flusher;
+
+    @BeforeEach
+    void setUp() {
+        SearchAnalyticsConfig config = new SearchAnalyticsConfig();
+        config.setBatchSize(2);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        collector = new SearchAnalyticsCollector(config, stringRedisTemplate, meterRegistry);
+        flusher = new SearchAnalyticsFlusher(collector, searchHistoryRepository, hotKeywordRepository, config,
+                suggestionIndex, meterRegistry);
+    }
+
+    @Test
+    @DisplayName("热门关键词按批写入，失败的批次不影响其他批次更新联想索引")
+    @SuppressWarnings("unchecked")
+    void flush_WritesHotKeywordsInBatches() {
+        for (String keyword : List.of("e", "d", "c", "b", "a", "a")) {
+            collector.record(1L, keyword, "project", 3);
+        }
+        when(hotKeywordRepository.batchIncrement(anyList()))
+                .thenThrow(new RuntimeException("db down"))
+                .thenReturn(2)
+                .thenReturn(1);
+
+        assertEquals(6, flusher.flush());
+
+        verify(searchHistoryRepository, times(3)).batchInsert(anyList());
+        ArgumentCaptor<List<HotKeyword>> written = ArgumentCaptor.forClass(List.class);
+        verify(hotKeywordRepository, times(3)).batchIncrement(written.capture());
+        assertEquals(List.of("a", "b"), keywords(written.getAllValues().get(0)));
+        assertEquals(2, written.getAllValues().get(0).get(0).getSearchCount());
+
+        ArgumentCaptor<Collection<HotKeyword>> applied = ArgumentCaptor.forClass(Collection.class);
+        verify(suggestionIndex, times(2)).applyIncrements(applied.capture());
+        assertEquals(List.of("c", "d"), keywords(applied.getAllValues().get(0)));
+        assertEquals(List.of("e"), keywords(applied.getAllValues().get(1)));
+    }
+
+    private static List<String> keywords(Collection<HotKeyword> rows) {
+        return rows.stream().map(HotKeyword::getKeyword).toList();
+    }
+}
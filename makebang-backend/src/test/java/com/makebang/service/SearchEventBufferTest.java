@@ -0,0 +1,90 @@
+package com.makebang.service;
+
+import com.makebang.service.analytics.SearchEvent;
+import com.makebang.service.analytics.SearchEventBuffer;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * SearchEventBuffer 单元测试
+ */
+@DisplayName("搜索事件缓冲区测试")
+class SearchEventBufferTest {
+
+    private static SearchEvent event(String keyword) {
+        return new SearchEvent(1L, keyword, "keyword", 0, LocalDateTime.now());
+    }
+
+    @Test
+    @DisplayName("容量向上取整为2的幂")
+    void capacity_RoundedUp() {
+        assertEquals(8, new SearchEventBuffer(5).capacity());
+        assertEquals(8, new SearchEventBuffer(8).capacity());
+    }
+
+    @Test
+    @DisplayName("缓冲区满时拒绝写入，取出后可继续写入")
+    void offer_FullThenDrain() {
+        SearchEventBuffer buffer = new SearchEventBuffer(4);
+        for (int i = 0; i < 4; i++) {
+            assertTrue(buffer.offer(event("k" + i)));
+        }
+        assertFalse(buffer.offer(event("overflow")));
+        assertEquals(4, buffer.size());
+
+        List<SearchEvent> drained = new ArrayList<>();
+        assertEquals(2, buffer.drainTo(drained, 2));
+        assertEquals("k0", drained.get(0).getKeyword());
+        assertEquals("k1", drained.get(1).getKeyword());
+
+        assertTrue(buffer.offer(event("k4")));
+        drained.clear();
+        assertEquals(3, buffer.drainTo(drained, 10));
+        assertEquals("k4", drained.get(2).getKeyword());
+        assertEquals(0, buffer.size());
+    }
+
+    @Test
+    @DisplayName("多生产者并发写入不丢失不重复")
+    void offer_ConcurrentProducers() throws InterruptedException {
+        int producers = 4;
+        int perProducer = 1000;
+        SearchEventBuffer buffer = new SearchEventBuffer(producers * perProducer);
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger accepted = new AtomicInteger();
+
+        for (int p = 0; p < producers; p++) {
+            int producer = p;
+            executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < perProducer; i++) {
+                    if (buffer.offer(event(producer + "-" + i))) {
+                        accepted.incrementAndGet();
+                    }
+                }
+                return null;
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        List<SearchEvent> drained = new ArrayList<>();
+        buffer.drainTo(drained, Integer.MAX_VALUE);
+        assertEquals(producers * perProducer, accepted.get());
+        assertEquals(accepted.get(), drained.size());
+        assertEquals(drained.size(), drained.stream().map(SearchEvent::getKeyword).distinct().count());
+    }
+}
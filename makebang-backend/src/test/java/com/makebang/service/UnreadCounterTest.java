@@ -0,0 +1,123 @@
+package com.makebang.service;
+
+import com.makebang.repository.MessageRepository;
+import com.makebang.repository.NotificationRepository;
+import com.makebang.service.counter.UnreadCounter;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * UnreadCounter 单元测试
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("未读计数测试")
+class UnreadCounterTest {
+
+    @Mock
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Mock
+    private HashOperations<String, Object, Object> hashOperations;
+
+    @Mock
+    private MessageRepository messageRepository;
+
+    @Mock
+    private NotificationRepository notificationRepository;
+
+    @InjectMocks
+    private UnreadCounter unreadCounter;
+
+    @Test
+    @DisplayName("增减计数通过脚本原子执行并续期，键不存在时由脚本跳过")
+    @SuppressWarnings("unchecked")
+    void add_RunsIncrementScript() {
+        unreadCounter.addMessages(1L, 1);
+        unreadCounter.addNotifications(2L, -3);
+
+        verify(stringRedisTemplate).execute(any(RedisScript.class), eq(List.of("unread:1")), eq("message"), eq("1"), eq("86400"));
+        verify(stringRedisTemplate).execute(any(RedisScript.class), eq(List.of("unread:2")),
+                eq("notification"), eq("-3"), eq("86400"));
+    }
+
+    @Test
+    @DisplayName("增量为0或用户为空时不访问Redis")
+    void add_SkipsNoop() {
+        unreadCounter.addMessages(1L, 0);
+        unreadCounter.addNotifications(null, 1);
+
+        verifyNoInteractions(stringRedisTemplate);
+    }
+
+    @Test
+    @DisplayName("Redis中已有计数时不查数据库")
+    void get_ReadsFromRedis() {
+        when(stringRedisTemplate.opsForHash()).thenReturn(hashOperations);
+        when(hashOperations.multiGet("unread:1", List.of("message", "notification"))).thenReturn(List.of("4", "2"));
+
+        UnreadCounter.Counts counts = unreadCounter.get(1L);
+
+        assertEquals(4, counts.messageCount());
+        assertEquals(6, counts.total());
+        verifyNoInteractions(messageRepository, notificationRepository);
+    }
+
+    @Test
+    @DisplayName("首次读取从数据库初始化并写回Redis，设置有效期")
+    @SuppressWarnings("unchecked")
+    void get_InitializesFromDatabase() {
+        when(stringRedisTemplate.opsForHash()).thenReturn(hashOperations);
+        when(hashOperations.multiGet("unread:1", List.of("message", "notification")))
+                .thenReturn(Arrays.asList(null, null));
+        when(messageRepository.countUnreadByUserId(1L)).thenReturn(3);
+        when(notificationRepository.countUnreadByUserId(1L)).thenReturn(1);
+
+        UnreadCounter.Counts counts = unreadCounter.get(1L);
+
+        assertEquals(new UnreadCounter.Counts(3, 1), counts);
+        ArgumentCaptor<RedisScript<Long>> script = ArgumentCaptor.forClass(RedisScript.class);
+        verify(stringRedisTemplate).execute(script.capture(), eq(List.of("unread:1")),
+                eq("message"), eq("3"), eq("notification"), eq("1"), eq("86400"));
+        assertTrue(script.getValue().getScriptAsString().contains("EXPIRE"));
+    }
+
+    @Test
+    @DisplayName("校准按数据库结果重置已有的键，没有未读的用户归零，不续期")
+    @SuppressWarnings("unchecked")
+    void reconcile_ResetsToDatabaseCounts() {
+        when(messageRepository.countUnreadByUserIds(List.of(1L, 2L))).thenReturn(List.of(unread(1L, 5)));
+        when(notificationRepository.countUnreadByUserIds(List.of(1L, 2L))).thenReturn(List.of(unread(2L, 7)));
+
+        assertEquals(2, unreadCounter.reconcile(List.of(1L, 2L)));
+
+        ArgumentCaptor<RedisScript<Long>> script = ArgumentCaptor.forClass(RedisScript.class);
+        verify(stringRedisTemplate).execute(script.capture(), eq(List.of("unread:1")),
+                eq("message"), eq("5"), eq("notification"), eq("0"), anyString());
+        verify(stringRedisTemplate).execute(any(RedisScript.class), eq(List.of("unread:2")),
+                eq("message"), eq("0"), eq("notification"), eq("7"), anyString());
+        assertTrue(script.getValue().getScriptAsString().contains("EXISTS"));
+        assertFalse(script.getValue().getScriptAsString().contains("EXPIRE"));
+    }
+
+    private static MessageRepository.UnreadCount unread(Long userId, int count) {
+        MessageRepository.UnreadCount row = new MessageRepository.UnreadCount();
+        row.setUserId(userId);
+        row.setCount(count);
+        return row;
+    }
+}
@@ -1,6 +1,7 @@
 package com.makebang.service;
 
 import com.makebang.common.exception.BusinessException;
+import com.makebang.common.result.ResultCode;
 import com.makebang.dto.auth.LoginRequest;
 import com.makebang.dto.auth.LoginResponse;
 import com.makebang.dto.auth.RegisterRequest;
@@ -11,6 +12,7 @@ import com.makebang.entity.Wallet;
 import com.makebang.repository.UserRepository;
 import com.makebang.repository.WalletRepository;
 import com.makebang.security.JwtUtils;
+import com.makebang.security.LoginUser;
 import com.makebang.service.impl.UserServiceImpl;
 import com.makebang.vo.UserVO;
 import org.junit.jupiter.api.BeforeEach;
@@ -235,6 +237,38 @@ class UserServiceTest {
         assertEquals("new_refresh_token", result.getRefreshToken());
     }
 
+    @Test
+    @DisplayName("刷新令牌 - 账户已禁用")
+    void refreshToken_AccountDisabled() {
+        // Mock 数据
+        testUser.setStatus(0);
+        when(jwtUtils.validateToken("valid_refresh_token")).thenReturn(true);
+        when(jwtUtils.getUsernameFromToken("valid_refresh_token")).thenReturn("testuser");
+        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(testUser));
+
+        // 执行测试并验证异常
+        BusinessException exception = assertThrows(BusinessException.class,
+                () -> userService.refreshToken("valid_refresh_token"));
+        assertEquals(ResultCode.ACCOUNT_DISABLED.getCode(), exception.getCode());
+        verify(jwtUtils, never()).generateToken(any(UserDetails.class));
+        verify(jwtUtils, never()).generateRefreshToken(any(UserDetails.class));
+    }
+
+    @Test
+    @DisplayName("刷新令牌 - 账户已删除")
+    void refreshToken_AccountDeleted() {
+        // Mock 数据
+        testUser.setDeletedAt(LocalDateTime.now());
+        when(jwtUtils.validateToken("valid_refresh_token")).thenReturn(true);
+        when(jwtUtils.getUsernameFromToken("valid_refresh_token")).thenReturn("testuser");
+        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(testUser));
+
+        // 执行测试并验证异常
+        BusinessException exception = assertThrows(BusinessException.class,
+                () -> userService.refreshToken("valid_refresh_token"));
+        assertEquals(ResultCode.ACCOUNT_DISABLED.getCode(), exception.getCode());
+    }
+
     @Test
     @DisplayName("刷新令牌 - 令牌无效")
     void refreshToken_InvalidToken() {
@@ -271,6 +305,30 @@ class UserServiceTest {
         SecurityContextHolder.clearContext();
     }
 
+    @Test
+    @DisplayName("获取当前用户 - JWT主体按ID加载")
+    void getCurrentUser_LoginUserPrincipal() {
+        // Mock Security Context
+        Authentication authentication = mock(Authentication.class);
+        SecurityContext securityContext = mock(SecurityContext.class);
+        when(securityContext.getAuthentication()).thenReturn(authentication);
+        when(authentication.isAuthenticated()).thenReturn(true);
+        when(authentication.getPrincipal()).thenReturn(LoginUser.of(testUser));
+        SecurityContextHolder.setContext(securityContext);
+
+        when(userRepository.selectById(1L)).thenReturn(testUser);
+
+        // 执行测试
+        UserVO result = userService.getCurrentUser();
+
+        // 验证结果
+        assertEquals("testuser", result.getUsername());
+        verify(userRepository, never()).findByUsername(anyString());
+
+        // 清理
+        SecurityContextHolder.clearContext();
+    }
+
     @Test
     @DisplayName("获取当前用户 - 未授权")
     void getCurrentUser_Unauthorized() {
@@ -0,0 +1,97 @@
+package com.makebang.service;
+
+import com.makebang.entity.User;
+import com.makebang.service.assembler.UserSummaryLoader;
+import com.makebang.service.cache.EntityCache;
+import com.makebang.service.cache.EntityCacheManager;
+import com.makebang.vo.UserVO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * UserSummaryLoader 单元测试
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("用户摘要加载测试")
+class UserSummaryLoaderTest {
+
+    @Mock
+    private EntityCacheManager entityCacheManager;
+
+    @Mock
+    private EntityCache<Long, User> users;
+
+    @Mock
+    private UserService userService;
+
+    @InjectMocks
+    private UserSummaryLoader userSummaryLoader;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(entityCacheManager.users()).thenReturn(users);
+        lenient().when(userService.toVO(any(User.class))).thenAnswer(invocation -> {
+            User user = invocation.getArgument(0);
+            return UserVO.builder().id(user.getId()).username(user.getUsername()).build();
+        });
+    }
+
+    @Test
+    @DisplayName("去重后一次批量读取实体缓存，不另外保留VO")
+    @SuppressWarnings("unchecked")
+    void getAll_ReadsEntityCacheInOneBatch() {
+        when(users.getAll(anyCollection()))
+                .thenReturn(Map.of(1L, user(1L, "user1"), 2L, user(2L, "user2")))
+                .thenReturn(Map.of(1L, user(1L, "renamed")));
+
+        Map<Long, UserVO> first = userSummaryLoader.getAll(Arrays.asList(1L, 2L, 2L, null));
+        assertEquals(Set.of(1L, 2L), first.keySet());
+        assertEquals("user1", first.get(1L).getUsername());
+
+        // 资料修改后实体缓存已失效，下次读取即为新值
+        assertEquals("renamed", userSummaryLoader.get(1L).getUsername());
+
+        ArgumentCaptor<Collection<Long>> loaded = ArgumentCaptor.forClass(Collection.class);
+        verify(users, times(2)).getAll(loaded.capture());
+        assertEquals(Set.of(1L, 2L), new HashSet<>(loaded.getAllValues().get(0)));
+        assertEquals(Set.of(1L), new HashSet<>(loaded.getAllValues().get(1)));
+    }
+
+    @Test
+    @DisplayName("不存在的用户不在结果中")
+    void getAll_OmitsUnknownUsers() {
+        when(users.getAll(anyCollection())).thenReturn(Map.of(1L, user(1L, "user1")));
+
+        Map<Long, UserVO> result = userSummaryLoader.getAll(List.of(1L, 9L));
+
+        assertEquals(Set.of(1L), result.keySet());
+        assertNull(userSummaryLoader.get(null));
+    }
+
+    @Test
+    @DisplayName("空参数不查询")
+    void getAll_EmptyInputSkipsLoad() {
+        assertTrue(userSummaryLoader.getAll(Collections.singletonList(null)).isEmpty());
+
+        verifyNoInteractions(users);
+    }
+
+    private static User user(Long id, String username) {
+        User user = new User();
+        user.setId(id);
+        user.setUsername(username);
+        return user;
+    }
+}
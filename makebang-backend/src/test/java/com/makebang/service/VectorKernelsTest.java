@@ -0,0 +1,77 @@
+package com.makebang.service;
+
+import com.makebang.service.embedding.VectorKernels;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * VectorKernels 单元测试
+ */
+@DisplayName("向量内积实现测试")
+class VectorKernelsTest {
+
+    @Test
+    @DisplayName("测试环境加载了 SIMD 实现")
+    void simdKernel_Available() {
+        assertNotNull(VectorKernels.simdKernel(), "测试需以 --add-modules jdk.incubator.vector 运行");
+        assertTrue(VectorKernels.isSimd());
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 7, 16, 33, 1536})
+    @DisplayName("SIMD 与标量数组内积一致")
+    void dot_ArraysMatchScalar(int dim) {
+        VectorKernels.Kernel simd = VectorKernels.simdKernel();
+        assertNotNull(simd);
+        Random random = new Random(dim);
+        float[] a = random(random, dim);
+        float[] b = random(random, dim);
+
+        float expected = VectorKernels.scalarKernel().dot(a, b);
+        assertEquals(expected, simd.dot(a, b), tolerance(dim));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 7, 16, 33, 1536})
+    @DisplayName("SIMD 与标量缓冲区内积一致（含偏移）")
+    void dot_BufferMatchesScalar(int dim) {
+        VectorKernels.Kernel simd = VectorKernels.simdKernel();
+        assertNotNull(simd);
+        Random random = new Random(dim + 1);
+        float[] a = random(random, dim);
+        float[] b = random(random, dim);
+
+        int offset = 12;
+        ByteBuffer buffer = ByteBuffer.allocate(offset + dim * Float.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        for (int i = 0; i < dim; i++) {
+            buffer.putFloat(offset + i * Float.BYTES, b[i]);
+        }
+
+        float expected = VectorKernels.scalarKernel().dot(a, b);
+        assertEquals(expected, VectorKernels.scalarKernel().dot(a, buffer, offset), tolerance(dim));
+        assertEquals(expected, simd.dot(a, buffer, offset), tolerance(dim));
+    }
+
+    private static float[] random(Random random, int dim) {
+        float[] vector = new float[dim];
+        for (int i = 0; i < dim; i++) {
+            vector[i] = random.nextFloat() * 2 - 1;
+        }
+        return vector;
+    }
+
+    /**
+     * 累加顺序不同带来的浮点误差
+     */
+    private static float tolerance(int dim) {
+        return 1e-5f * dim;
+    }
+}
@@ -0,0 +1,214 @@
+package com.makebang.service;
+
+import com.makebang.common.exception.BusinessException;
+import com.makebang.common.result.CursorPageResult;
+import com.makebang.dto.RechargeRequest;
+import com.makebang.dto.WithdrawRequest;
+import com.makebang.entity.Milestone;
+import com.makebang.entity.Order;
+import com.makebang.entity.Transaction;
+import com.makebang.entity.User;
+import com.makebang.entity.Wallet;
+import com.makebang.repository.MilestoneRepository;
+import com.makebang.repository.OrderRepository;
+import com.makebang.repository.TransactionRepository;
+import com.makebang.repository.WalletRepository;
+import com.makebang.security.LoginUser;
+import com.makebang.service.impl.WalletServiceImpl;
+import com.makebang.vo.TransactionVO;
+import com.makebang.vo.WalletVO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * WalletService 单元测试
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("钱包服务测试")
+class WalletServiceTest {
+
+    @Mock
+    private WalletRepository walletRepository;
+
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private MilestoneRepository milestoneRepository;
+
+    @Mock
+    private UserService userService;
+
+    @InjectMocks
+    private WalletServiceImpl walletService;
+
+    @BeforeEach
+    void setUp() {
+        User user = new User();
+        user.setId(1L);
+        user.setUsername("user");
+        user.setPassword("password");
+        user.setRole(0);
+        user.setStatus(1);
+
+        Authentication authentication = mock(Authentication.class);
+        SecurityContext securityContext = mock(SecurityContext.class);
+        lenient().when(securityContext.getAuthentication()).thenReturn(authentication);
+        lenient().when(authentication.isAuthenticated()).thenReturn(true);
+        lenient().when(authentication.getPrincipal()).thenReturn(LoginUser.of(user));
+        SecurityContextHolder.setContext(securityContext);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("充值 - 一条语句完成，返回语句计算的变动前后余额")
+    void recharge_ReturnsBalancesFromStatement() {
+        when(walletRepository.creditBalance(any(Transaction.class))).thenAnswer(invocation -> {
+            Transaction transaction = invocation.getArgument(0);
+            transaction.setId(10L);
+            transaction.setWalletId(5L);
+            transaction.setBalanceBefore(new BigDecimal("20.00"));
+            transaction.setBalanceAfter(new BigDecimal("120.00"));
+            return transaction;
+        });
+        RechargeRequest request = new RechargeRequest();
+        request.setAmount(new BigDecimal("100.00"));
+
+        TransactionVO result = walletService.recharge(request);
+
+        ArgumentCaptor<Transaction> captor = ArgumentCaptor.forClass(Transaction.class);
+        verify(walletRepository).creditBalance(captor.capture());
+        assertEquals(1L, captor.getValue().getUserId());
+        assertEquals(Transaction.Type.RECHARGE.getCode(), captor.getValue().getType());
+        assertNotNull(captor.getValue().getTransactionNo());
+        assertEquals(new BigDecimal("20.00"), result.getBalanceBefore());
+        assertEquals(new BigDecimal("120.00"), result.getBalanceAfter());
+        verify(walletRepository, never()).findByUserId(any());
+        verifyNoInteractions(transactionRepository);
+    }
+
+    @Test
+    @DisplayName("提现 - 余额不足时语句不返回流水")
+    void withdraw_InsufficientBalance() {
+        when(walletRepository.debitBalance(any(Transaction.class))).thenReturn(null);
+        WithdrawRequest request = new WithdrawRequest();
+        request.setAmount(new BigDecimal("100.00"));
+        request.setWithdrawMethod(1);
+        request.setAccount("13800138000");
+
+        assertThrows(BusinessException.class, () -> walletService.withdraw(request));
+        verifyNoInteractions(transactionRepository);
+    }
+
+    @Test
+    @DisplayName("里程碑放款 - 收入和服务费流水随开发者入账一起写入")
+    void releaseMilestonePayment_WritesIncomeAndFee() {
+        Milestone milestone = new Milestone();
+        milestone.setId(3L);
+        milestone.setOrderId(2L);
+        milestone.setAmount(new BigDecimal("100.00"));
+        Order order = new Order();
+        order.setId(2L);
+        order.setEmployerId(1L);
+        order.setDeveloperId(7L);
+        when(milestoneRepository.selectById(3L)).thenReturn(milestone);
+        when(orderRepository.selectById(2L)).thenReturn(order);
+        when(walletRepository.releaseFrozen(1L, new BigDecimal("100.00"))).thenReturn(new Wallet());
+        when(walletRepository.creditIncome(any(Transaction.class), any(Transaction.class)))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        walletService.releaseMilestonePayment(3L);
+
+        ArgumentCaptor<Transaction> income = ArgumentCaptor.forClass(Transaction.class);
+        ArgumentCaptor<Transaction> fee = ArgumentCaptor.forClass(Transaction.class);
+        verify(walletRepository).creditIncome(income.capture(), fee.capture());
+        assertEquals(0, new BigDecimal("95").compareTo(income.getValue().getAmount()));
+        assertEquals(0, new BigDecimal("5").compareTo(fee.getValue().getAmount()));
+        assertEquals(Transaction.Type.SERVICE_FEE.getCode(), fee.getValue().getType());
+        assertEquals(7L, fee.getValue().getUserId());
+        assertEquals(3L, fee.getValue().getMilestoneId());
+    }
+
+    @Test
+    @DisplayName("获取钱包 - 并发创建时读取已存在的钱包")
+    void getOrCreateWallet_ConcurrentCreate() {
+        Wallet existing = new Wallet();
+        existing.setId(5L);
+        existing.setUserId(1L);
+        existing.setStatus(Wallet.Status.NORMAL.getCode());
+        when(walletRepository.findByUserId(1L)).thenReturn(null, existing);
+        when(walletRepository.insertIfAbsent(1L)).thenReturn(null);
+
+        WalletVO wallet = walletService.getOrCreateWallet(1L);
+
+        assertEquals(5L, wallet.getId());
+        verify(walletRepository, times(2)).findByUserId(1L);
+    }
+
+    @Test
+    @DisplayName("交易游标分页 - 创建时间相同时按ID继续翻页")
+    void getTransactionsByCursor_TieBreaksOnId() {
+        LocalDateTime time = LocalDateTime.of(2024, 5, 1, 12, 0);
+        when(transactionRepository.findByUserIdAfterCursor(1L, null, null, null, 3))
+                .thenReturn(List.of(transaction(9L, time), transaction(8L, time), transaction(7L, time)));
+
+        CursorPageResult<TransactionVO> first = walletService.getTransactionsByCursor(null, null, 2);
+
+        assertTrue(first.isHasMore());
+        assertEquals(List.of(9L, 8L), first.getRecords().stream().map(TransactionVO::getId).toList());
+
+        when(transactionRepository.findByUserIdAfterCursor(1L, null, time, 8L, 3))
+                .thenReturn(List.of(transaction(7L, time)));
+
+        CursorPageResult<TransactionVO> second =
+                walletService.getTransactionsByCursor(null, first.getNextCursor(), 2);
+
+        assertFalse(second.isHasMore());
+        assertNull(second.getNextCursor());
+        assertEquals(List.of(7L), second.getRecords().stream().map(TransactionVO::getId).toList());
+    }
+
+    @Test
+    @DisplayName("交易游标分页 - 非法游标不查询")
+    void getTransactionsByCursor_InvalidCursor() {
+        assertThrows(BusinessException.class, () -> walletService.getTransactionsByCursor(null, "%%%", 20));
+
+        verifyNoInteractions(transactionRepository);
+    }
+
+    private static Transaction transaction(Long id, LocalDateTime createdAt) {
+        Transaction transaction = new Transaction();
+        transaction.setId(id);
+        transaction.setUserId(1L);
+        transaction.setType(Transaction.Type.RECHARGE.getCode());
+        transaction.setStatus(Transaction.Status.SUCCESS.getCode());
+        transaction.setAmount(BigDecimal.ONE);
+        transaction.setCreatedAt(createdAt);
+        return transaction;
+    }
+}
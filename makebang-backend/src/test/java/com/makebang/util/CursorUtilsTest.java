@@ -0,0 +1,97 @@
+package com.makebang.util;
+
+import com.makebang.common.exception.BusinessException;
+import com.makebang.common.result.CursorPageResult;
+import com.makebang.common.result.ResultCode;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * CursorUtils 单元测试
+ */
+@DisplayName("游标分页工具测试")
+class CursorUtilsTest {
+
+    private static final LocalDateTime TIME = LocalDateTime.of(2024, 5, 1, 12, 30, 15, 123_456_000);
+
+    private record Row(LocalDateTime createdAt, Long id) {
+    }
+
+    @Test
+    @DisplayName("编码后解码得到原位置，游标可放入URL")
+    void encode_RoundTrips() {
+        String cursor = CursorUtils.encode(TIME, 42L);
+
+        assertTrue(cursor.matches("[A-Za-z0-9_-]+"), cursor);
+        assertEquals(new CursorUtils.Position(TIME, 42L), CursorUtils.decode(cursor));
+    }
+
+    @Test
+    @DisplayName("空游标表示第一页")
+    void decode_BlankIsFirstPage() {
+        assertNull(CursorUtils.decode(null));
+        assertNull(CursorUtils.decode(""));
+        assertNull(CursorUtils.decode("  "));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"not base64!", "MjAyNC0wNS0wMVQxMjozMDoxNQ", "@@@"})
+    @DisplayName("非法游标返回参数错误")
+    void decode_InvalidCursorRejected(String cursor) {
+        BusinessException e = assertThrows(BusinessException.class, () -> CursorUtils.decode(cursor));
+        assertEquals(ResultCode.BAD_REQUEST.getCode(), e.getCode());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"2024-13-01T00:00|1", "2024-05-01T12:30|abc", "2024-05-01T12:30|", "|1", "yesterday|1"})
+    @DisplayName("被篡改的游标内容返回参数错误")
+    void decode_TamperedCursorRejected(String raw) {
+        String cursor = Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+
+        BusinessException e = assertThrows(BusinessException.class, () -> CursorUtils.decode(cursor));
+        assertEquals(ResultCode.BAD_REQUEST.getCode(), e.getCode());
+    }
+
+    @Test
+    @DisplayName("每页数量限制在 1 到上限之间")
+    void normalizeSize_Clamps() {
+        assertEquals(1, CursorUtils.normalizeSize(0));
+        assertEquals(20, CursorUtils.normalizeSize(20));
+        assertEquals(CursorUtils.MAX_SIZE, CursorUtils.normalizeSize(10_000));
+    }
+
+    @Test
+    @DisplayName("多查出一条时有下一页，游标指向当页最后一条；创建时间相同时以ID区分")
+    void build_NextCursorTieBreaksOnId() {
+        List<Row> rows = List.of(new Row(TIME, 9L), new Row(TIME, 8L), new Row(TIME, 7L));
+
+        CursorPageResult<Long> result = CursorUtils.build(rows, 2, Row::createdAt, Row::id,
+                page -> page.stream().map(Row::id).toList());
+
+        assertTrue(result.isHasMore());
+        assertEquals(List.of(9L, 8L), result.getRecords());
+        assertEquals(new CursorUtils.Position(TIME, 8L), CursorUtils.decode(result.getNextCursor()));
+    }
+
+    @Test
+    @DisplayName("不足一页时没有下一页")
+    void build_LastPageHasNoCursor() {
+        List<Row> rows = List.of(new Row(TIME, 9L));
+
+        CursorPageResult<Long> result = CursorUtils.build(rows, 2, Row::createdAt, Row::id,
+                page -> page.stream().map(Row::id).toList());
+
+        assertFalse(result.isHasMore());
+        assertNull(result.getNextCursor());
+        assertEquals(List.of(9L), result.getRecords());
+    }
+}
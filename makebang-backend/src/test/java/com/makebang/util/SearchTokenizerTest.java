@@ -0,0 +1,43 @@
+package com.makebang.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * SearchTokenizer 单元测试
+ */
+@DisplayName("全文检索分词测试")
+class SearchTokenizerTest {
+
+    @Test
+    @DisplayName("中文切二元组并保留末字，英文按整词小写")
+    void tokenize_MixedText() {
+        assertEquals(List.of("java", "后端", "端开", "开发", "发", "spring", "boot"),
+                SearchTokenizer.tokenize("Java后端开发 (Spring-Boot)"));
+        assertEquals(List.of("前"), SearchTokenizer.tokenize("前"));
+        assertTrue(SearchTokenizer.tokenize("  !!  ").isEmpty());
+    }
+
+    @Test
+    @DisplayName("查询不要求片段末字，单字按前缀匹配")
+    void toTsquery() {
+        assertEquals("'java' & '后端' & '端开' & '开发'", SearchTokenizer.toTsquery("JAVA 后端开发"));
+        assertEquals("'后':*", SearchTokenizer.toTsquery("后"));
+        assertNull(SearchTokenizer.toTsquery("?!"));
+        assertNull(SearchTokenizer.toTsquery(null));
+    }
+
+    @Test
+    @DisplayName("tsvector 按字段顺序编排位置和权重，重复词元合并位置")
+    void toTsvector() {
+        String vector = SearchTokenizer.toTsvector(List.of(
+                new SearchTokenizer.Field("Vue 开发", SearchTokenizer.Weight.A),
+                new SearchTokenizer.Field("vue", SearchTokenizer.Weight.D)));
+
+        assertEquals("'vue':1A,4 '发':3A '开发':2A", vector);
+    }
+}